@@ -0,0 +1,77 @@
+package com.tim.amortization.calculator.benchmark;
+
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.tim.amortization.calculator.model.ScheduleSummary;
+import com.tim.amortization.calculator.utilities.BatchCalculationUtility;
+import com.tim.amortization.calculator.utilities.FixedPointCalculationUtility;
+import com.tim.amortization.calculator.utilities.ScheduleQueryUtility;
+
+/**
+ * Totals of a 30 year portfolio with different principals and rates: the
+ * Vector API kernel of BatchCalculationUtility against one scalar summary per
+ * loan. Run without the jdk.incubator.vector module the batch falls back to
+ * the scalar path, which shows the cost of the fallback.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int loans;
+
+	@Param({ "CEILING", "HALF_EVEN" })
+	public RoundingMode mode;
+
+	private long[] principals;
+
+	private long[] rates;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(16);
+		principals = new long[loans];
+		rates = new long[loans];
+		for (int i = 0; i < loans; i++) {
+			principals[i] = 5_000_000 + random.nextInt(95_000_000);
+			rates[i] = 20_000 + random.nextInt(80_000);
+		}
+	}
+
+	@Benchmark
+	public List<ScheduleSummary> vectorized() {
+		return BatchCalculationUtility.summarize(principals, rates, 360, 0, mode);
+	}
+
+	/**
+	 * Same work as the batch: the monthly payment and the summary of each loan.
+	 */
+	@Benchmark
+	public void scalar(Blackhole blackhole) {
+		for (int i = 0; i < loans; i++) {
+			long payment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(principals[i], rates[i], 360,
+					mode);
+			blackhole.consume(ScheduleQueryUtility.summarize(principals[i], rates[i], payment, 0, mode));
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package com.tim.amortization.calculator.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.DayCount;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PaymentFrequency;
+import com.tim.amortization.calculator.model.PaymentPlan;
+import com.tim.amortization.calculator.model.PayoffSolution;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+import com.tim.amortization.calculator.model.SimulationResult;
+import com.tim.amortization.calculator.model.SimulationSettings;
+import com.tim.amortization.calculator.utilities.CalculationUtility;
+import com.tim.amortization.calculator.utilities.FixedPointCalculationUtility;
+import com.tim.amortization.calculator.utilities.MonteCarloUtility;
+import com.tim.amortization.calculator.utilities.PayoffSolverUtility;
+import com.tim.amortization.calculator.utilities.PeriodCalculationUtility;
+import com.tim.amortization.calculator.utilities.ScheduleCache;
+import com.tim.amortization.calculator.utilities.ScheduleQueryUtility;
+
+/**
+ * Monthly payment and full schedule generation for 15, 30 and 40 year terms,
+ * with and without an additional principal payment.
+ *
+ * The terms never change, so monthlyPayment and scheduleRecords go through a
+ * cache that keeps nothing to measure the calculation. The *Cached variants
+ * measure the lookup in the application's cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculationBenchmark {
+
+	private static final PaymentPlan WEEKLY = new PaymentPlan(PaymentFrequency.WEEKLY, DayCount.ACTUAL_365,
+			LocalDate.of(2026, 11, 6));
+
+	@Param({ "15", "30", "40" })
+	public int mortgageLength;
+
+	@Param({ "0", "1000" })
+	public double additionalPrincipal;
+
+	/**
+	 * Keeps no schedules or payments, every call calculates.
+	 */
+	private static final ScheduleCache UNCACHED = new ScheduleCache(0, 0);
+
+	private LoanTerms terms;
+
+	@Setup
+	public void setup() {
+		terms = new LoanTerms(603500, 6.5, mortgageLength, additionalPrincipal);
+	}
+
+	@Benchmark
+	public BigDecimal monthlyPayment() {
+		return UNCACHED.getMonthlyPayment(terms.getPrincipal(), terms.getInterestRate(),
+				(double) terms.getMortgageLength());
+	}
+
+	@Benchmark
+	public BigDecimal monthlyPaymentCached() {
+		return CalculationUtility.calculateMonthlyPayment(terms.getPrincipal(), terms.getInterestRate(),
+				(double) terms.getMortgageLength());
+	}
+
+	@Benchmark
+	public long monthlyPaymentFixedPoint() {
+		return FixedPointCalculationUtility.calculateMonthlyPaymentCents(60_350_000, 65_000,
+				terms.getMortgageLength() * 12, RoundingMode.CEILING);
+	}
+
+	/**
+	 * Schedule read through the List&lt;AmortizationRecord&gt; view, the way the
+	 * GUI and ExcelUtility consume it.
+	 */
+	@Benchmark
+	public void scheduleRecords(Blackhole blackhole) {
+		List<AmortizationRecord> records = UNCACHED.getSchedule(terms).asRecords();
+		for (AmortizationRecord rec : records) {
+			blackhole.consume(rec);
+		}
+	}
+
+	/**
+	 * The record view of the cached schedule, every record is still a new copy.
+	 */
+	@Benchmark
+	public void scheduleRecordsCached(Blackhole blackhole) {
+		List<AmortizationRecord> records = CalculationUtility.calculateAmortizationSchedule(terms);
+		for (AmortizationRecord rec : records) {
+			blackhole.consume(rec);
+		}
+	}
+
+	@Benchmark
+	public AmortizationSchedule scheduleColumnar() {
+		return CalculationUtility.calculateSchedule(terms);
+	}
+
+	@Benchmark
+	public AmortizationSchedule scheduleFixedPoint() {
+		return FixedPointCalculationUtility.calculateSchedule(terms, RoundingMode.CEILING);
+	}
+
+	/**
+	 * Weekly payments with actual/365 interest, 52 rows a year, passed to a
+	 * consumer without storing them. Run with -prof gc to see the allocation per
+	 * schedule.
+	 */
+	@Benchmark
+	public int scheduleWeekly(Blackhole blackhole) {
+		return PeriodCalculationUtility.calculateSchedule(terms, WEEKLY,
+				(period, paymentDate, principalPaid, interestPaid, remainingPrincipal, additional) -> blackhole
+						.consume(remainingPrincipal));
+	}
+
+	@Benchmark
+	public ScheduleSummary summaryFixedPoint() {
+		return ScheduleQueryUtility.summarize(terms, RoundingMode.CEILING);
+	}
+
+	@Benchmark
+	public PayoffSolution solvePayoffMonth() {
+		return PayoffSolverUtility.solveForPayoffMonth(terms, mortgageLength * 6);
+	}
+
+	/**
+	 * 1,000 rate and prepayment paths on the common fork/join pool.
+	 */
+	@Benchmark
+	public SimulationResult simulatePaths() {
+		return MonteCarloUtility.simulate(terms, new SimulationSettings(1000, 42, 1.0, 12, 6), RoundingMode.CEILING);
+	}
+}
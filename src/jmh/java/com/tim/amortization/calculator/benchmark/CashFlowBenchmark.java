@@ -0,0 +1,64 @@
+package com.tim.amortization.calculator.benchmark;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.utilities.CashFlowLadder;
+import com.tim.amortization.calculator.utilities.CashFlowUtility;
+import com.tim.amortization.calculator.utilities.PortfolioUtility;
+
+/**
+ * Monthly totals of a 10,000 loan portfolio, summed into a CashFlowLadder from
+ * the calculation loop and summed from materialized AmortizationRecord lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CashFlowBenchmark {
+
+	private static final YearMonth FIRST_PAYMENT = YearMonth.of(2026, 11);
+
+	private List<LoanTerms> loans;
+
+	@Setup
+	public void setup() {
+		loans = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			loans.add(new LoanTerms(100_000 + i * 10, 4 + (i % 16) * 0.25, i % 3 == 0 ? 15 : 30, i % 5 * 100));
+		}
+	}
+
+	@Benchmark
+	public CashFlowLadder ladder() {
+		return CashFlowUtility.aggregate(loans, FIRST_PAYMENT);
+	}
+
+	@Benchmark
+	public long[] recordLists() {
+		long[] interest = new long[480];
+		for (List<AmortizationRecord> records : PortfolioUtility.calculateAmortizationSchedules(loans)) {
+			for (AmortizationRecord record : records) {
+				interest[record.getMonth() - 1] += record.getInterestPaid().movePointRight(2).longValue();
+			}
+		}
+		return interest;
+	}
+}
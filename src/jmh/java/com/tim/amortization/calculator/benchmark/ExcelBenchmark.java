@@ -0,0 +1,87 @@
+package com.tim.amortization.calculator.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.utilities.CalculationUtility;
+import com.tim.amortization.calculator.utilities.ExcelUtility;
+import com.tim.amortization.calculator.utilities.ExportFormat;
+import com.tim.amortization.calculator.utilities.ExportUtility;
+
+/**
+ * XLSX export of one schedule and of 1,000 schedules (one workbook each, the
+ * way the application exports today), and of a 1,000 loan portfolio to one
+ * workbook with a sheet per loan, streamed serially or rendered in parallel.
+ * Writes temp.xlsx into the working directory, which the benchmark profile sets
+ * to target/.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcelBenchmark {
+
+	private List<AmortizationRecord> schedule;
+
+	private List<List<AmortizationRecord>> portfolio;
+
+	private List<LoanTerms> portfolioTerms;
+
+	@Setup
+	public void setup() {
+		schedule = CalculationUtility.calculateAmortizationSchedule(new LoanTerms(603500, 6.5, 30, 0));
+
+		portfolio = new ArrayList<>();
+		portfolioTerms = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			LoanTerms terms = new LoanTerms(100_000 + i * 500, 3 + (i % 40) / 10.0, 30, 0);
+			portfolio.add(CalculationUtility.calculateAmortizationSchedule(terms));
+			portfolioTerms.add(terms);
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = 10)
+	@Measurement(iterations = 20)
+	public void writeOneSchedule() throws IOException {
+		ExcelUtility.createExcelDoc(schedule);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 2)
+	public void writeThousandSchedules() throws IOException {
+		for (List<AmortizationRecord> records : portfolio) {
+			ExcelUtility.createExcelDoc(records);
+		}
+	}
+
+	@Benchmark
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 3)
+	public void writePortfolioStreaming() throws IOException {
+		ExcelUtility.createStreamingExcelDoc(portfolioTerms, ExportUtility.defaultOutputFile(ExportFormat.XLSX), true);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 3)
+	public void writePortfolioParallel() throws IOException, InterruptedException {
+		ExcelUtility.createParallelExcelDoc(portfolioTerms, ExportUtility.defaultOutputFile(ExportFormat.XLSX));
+	}
+}
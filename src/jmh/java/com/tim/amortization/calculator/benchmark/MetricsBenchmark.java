@@ -0,0 +1,57 @@
+package com.tim.amortization.calculator.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.utilities.CalculationUtility;
+import com.tim.amortization.calculator.utilities.MetricsUtility;
+
+/**
+ * Cost of the metrics on the shortest instrumented calls, a cached monthly
+ * payment and text validation, with metrics disabled and enabled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean enabled;
+
+	@Setup
+	public void setup() {
+		MetricsUtility.setEnabled(enabled);
+	}
+
+	@TearDown
+	public void tearDown() {
+		MetricsUtility.setEnabled(false);
+	}
+
+	@Benchmark
+	public BigDecimal monthlyPayment() {
+		return CalculationUtility.calculateMonthlyPayment(603500.0, 6.5, 30.0);
+	}
+
+	@Benchmark
+	public LoanTerms validateInput() {
+		return CalculationUtility.createLoanTerms("603,500", "6.5", "30", "1000.00");
+	}
+}
@@ -0,0 +1,77 @@
+package com.tim.amortization.calculator.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.utilities.CalculationUtility;
+import com.tim.amortization.calculator.utilities.ScheduleStore;
+
+/**
+ * Remaining principal of one month of a loan in a 1000 loan store, read from
+ * the mapped file and recalculated without the cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleStoreBenchmark {
+
+	private static final int LOANS = 1000;
+
+	private Path file;
+
+	private ScheduleStore store;
+
+	private LoanTerms terms;
+
+	@Setup
+	public void setup() throws IOException {
+		file = Files.createTempFile("schedules", ".amrs");
+		Files.delete(file);
+		store = new ScheduleStore(file);
+		for (int i = 0; i < LOANS; i++) {
+			store.put("Loan " + i, CalculationUtility.calculateSchedule(new LoanTerms(100_000 + i * 1000, 6.5, 30, 0)));
+		}
+		terms = new LoanTerms(100_000 + 500 * 1000, 6.5, 30, 0);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		store.close();
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public long storedMonth() throws IOException {
+		return store.getRemainingPrincipalCents("Loan 500", 137);
+	}
+
+	@Benchmark
+	public long recalculatedMonth() {
+		long[] remaining = new long[1];
+		CalculationUtility.calculateSchedule(terms, (month, principalPaid, interestPaid, remainingPrincipal,
+				additional) -> {
+			if (month == 137) {
+				remaining[0] = remainingPrincipal;
+			}
+		});
+		return remaining[0];
+	}
+}
@@ -0,0 +1,150 @@
+package com.tim.amortization.calculator.benchmark;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.tim.amortization.calculator.CalculationServer;
+
+/**
+ * Closed loop load test of the CalculationServer: each client thread sends the
+ * next request as soon as the previous response body has been read. Reports
+ * requests per second and the p50, p99 and max latency of the measured period.
+ * Not a JMH benchmark, run it from target/ after
+ * {@code mvn -Pbenchmark test-compile}:
+ *
+ * <pre>
+ * java -cp test-classes:classes com.tim.amortization.calculator.benchmark.ServiceLoadTest [url] [clients] [seconds]
+ * </pre>
+ *
+ * Without a url (or with "local") a server is started in the same JVM on a free
+ * localhost port and /summary is tested. Defaults are 16 clients for 10
+ * seconds, after a warmup of a third of that.
+ */
+public class ServiceLoadTest {
+
+	private static final String DEFAULT_PATH = "/summary?principal=603%2C500&interest=6.5&mortgageLength=30"
+			+ "&additionalPrincipal=1000.00";
+
+	public static void main(String[] args) throws Exception {
+		String url = args.length > 0 ? args[0] : "local";
+		int clients = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+		CalculationServer server = null;
+		if (url.equals("local")) {
+			server = new CalculationServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+					CalculationServer.DEFAULT_THREADS);
+			server.start();
+			url = "http://localhost:" + server.getPort() + DEFAULT_PATH;
+		}
+
+		try {
+			HttpRequest request = HttpRequest.newBuilder(URI.create(url)).build();
+			System.out.println("Warming up " + url);
+			run(request, clients, TimeUnit.SECONDS.toNanos(Math.max(1, seconds / 3)));
+
+			System.out.println("Measuring " + clients + " clients for " + seconds + " s");
+			long elapsed = TimeUnit.SECONDS.toNanos(seconds);
+			Result result = run(request, clients, elapsed);
+			System.out.println(result.report(elapsed));
+		} finally {
+			if (server != null) {
+				server.close();
+			}
+		}
+	}
+
+	private static Result run(HttpRequest request, int clients, long durationNanos) throws Exception {
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		long end = System.nanoTime() + durationNanos;
+
+		try {
+			List<Future<Result>> futures = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				futures.add(pool.submit(() -> {
+					Result result = new Result();
+					while (System.nanoTime() < end) {
+						long start = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() == 200) {
+								result.add(System.nanoTime() - start);
+							} else {
+								result.errors++;
+							}
+						} catch (IOException ex) {
+							result.errors++;
+						}
+					}
+					return result;
+				}));
+			}
+
+			Result total = new Result();
+			for (Future<Result> future : futures) {
+				total.addAll(future.get());
+			}
+			return total;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Latencies of the successful requests in nanoseconds.
+	 */
+	private static final class Result {
+
+		private long[] latencies = new long[1024];
+
+		private int count;
+
+		private long errors;
+
+		void add(long latency) {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = latency;
+		}
+
+		void addAll(Result other) {
+			for (int i = 0; i < other.count; i++) {
+				add(other.latencies[i]);
+			}
+			errors += other.errors;
+		}
+
+		String report(long elapsedNanos) {
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			return String.format("%d requests, %d errors, %.0f requests/s, p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+					count, errors, count * 1e9 / elapsedNanos, percentile(sorted, 50), percentile(sorted, 99),
+					percentile(sorted, 100));
+		}
+
+		/**
+		 * Nearest rank percentile in milliseconds.
+		 */
+		private static double percentile(long[] sorted, int percentile) {
+			if (sorted.length == 0) {
+				return Double.NaN;
+			}
+			int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+			return sorted[Math.max(rank, 1) - 1] / 1e6;
+		}
+	}
+}
@@ -6,23 +6,35 @@ import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
 import java.io.IOException;
-import java.util.List;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JTextField;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 import com.tim.amortization.calculator.exception.InputValidationException;
-import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PayoffSolution;
 import com.tim.amortization.calculator.utilities.CalculationUtility;
-import com.tim.amortization.calculator.utilities.ExcelUtility;
+import com.tim.amortization.calculator.utilities.ExportFormat;
+import com.tim.amortization.calculator.utilities.ExportUtility;
+import com.tim.amortization.calculator.utilities.PayoffSolverUtility;
 
 /**
  * Main class of the application, creates GUI for user to provide information.
@@ -31,11 +43,19 @@ import com.tim.amortization.calculator.utilities.ExcelUtility;
 public class Application {
 
 	/**
-	 * Main method used to initiate the application.
+	 * Main method used to initiate the application. Starts the HTTP service
+	 * instead of the GUI when the first argument is --server, see
+	 * {@link CalculationServer}.
 	 * 
 	 * @param args
+	 * @throws IOException
 	 */
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
+
+		if (args.length > 0 && "--server".equals(args[0])) {
+			CalculationServer.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
 
 		JFrame frame = new JFrame();
 		frame.setTitle("Amortization Calculator");
@@ -67,7 +87,7 @@ public class Application {
 		JPanel formPanel = new JPanel();
 		JPanel buttonPanel = new JPanel();
 
-		formPanel.setLayout(new GridLayout(6, 1));
+		formPanel.setLayout(new GridLayout(0, 2));
 		buttonPanel.setLayout(new FlowLayout());
 //		formPanel.add(new JLabel(
 //				"Welcome to the Amortization Calculator.  Please enter in you mortgage information to calculate an amortization schedule."));
@@ -76,31 +96,147 @@ public class Application {
 		JTextField interest = addTextField(formPanel, "  Interest Percentage: ", "6.5");
 		JTextField mortgageLength = addTextField(formPanel, "  Mortgage Length (Years): ", "30");
 		JTextField additionalPrincipalPayment = addTextField(formPanel, "  Additional Principal Payment: ", "1000");
+		JTextField targetPayoffMonth = addTextField(formPanel, "  Target Payoff Month: ", "180");
+		JComboBox<ExportFormat> exportFormat = addComboBox(formPanel, "  Export Format: ", ExportFormat.values());
+		JTextField outputFile = addTextField(formPanel, "  Output File: ",
+				ExportUtility.DEFAULT_FILE_NAME + "." + ExportFormat.XLSX.getExtension());
+
+		JLabel monthlyPayment = addLabel(formPanel, "  Monthly Payment: ");
+		JLabel payoff = addLabel(formPanel, "  Payoff Date: ");
+		JLabel totalInterest = addLabel(formPanel, "  Total Interest: ");
+
+		// recalculate the summary labels as the loan fields are edited
+		new LiveSummaryUpdater(principal, interest, mortgageLength, additionalPrincipalPayment, monthlyPayment,
+				payoff, totalInterest).recalculate();
+
+		// keep the output file extension in sync with the selected format
+		exportFormat.addItemListener(new ItemListener() {
+
+			@Override
+			public void itemStateChanged(ItemEvent e) {
+				if (e.getStateChange() == ItemEvent.SELECTED) {
+					outputFile.setText(replaceExtension(outputFile.getText(), (ExportFormat) e.getItem()));
+				}
+			}
+		});
 
 		JButton calculateBtn = createButton("Calculate");
 		JButton resetBtn = createButton("Reset");
+		JButton solveBtn = createButton("Solve Additional Principal");
+		JButton cancelBtn = createButton("Cancel");
+		cancelBtn.setEnabled(false);
+
+		JProgressBar progressBar = new JProgressBar(0, 100);
+		progressBar.setStringPainted(true);
+		progressBar.setVisible(false);
+
+		// the export runs on a background thread, see ExportWorker
+		ExportWorker[] runningWorker = new ExportWorker[1];
 
 		// add action listeners (event handlers) for the each button click
 		calculateBtn.addActionListener(new ActionListener() {
 
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				LoanTerms terms;
+				ExportFormat format = (ExportFormat) exportFormat.getSelectedItem();
+				Path output;
+				try {
+					// validate the input before starting the export
+					terms = CalculationUtility.createLoanTerms(principal.getText(), interest.getText(),
+							mortgageLength.getText(), additionalPrincipalPayment.getText());
+					output = StringUtils.isNotBlank(outputFile.getText()) ? Paths.get(outputFile.getText())
+							: ExportUtility.defaultOutputFile(format);
+				} catch (InputValidationException ex) {
+					showValidationError(frame, ex);
+					return;
+				} catch (InvalidPathException ex) {
+					showExportError(frame, ex);
+					return;
+				}
+
+				ExportWorker worker = new ExportWorker(terms, format, output) {
+
+					@Override
+					protected void done() {
+						runningWorker[0] = null;
+						calculateBtn.setEnabled(true);
+						cancelBtn.setEnabled(false);
+						progressBar.setVisible(false);
+						frame.pack();
+
+						if (isCancelled()) {
+							JOptionPane.showMessageDialog(frame, "Export cancelled.");
+							return;
+						}
+						try {
+							int months = get();
+							JOptionPane.showMessageDialog(frame,
+									getFormat().getDisplayName() + " file created at "
+											+ getOutputFile().toAbsolutePath() + ".\nLoan paid off in "
+											+ Math.floorDiv(months, 12) + " years and " + Math.floorMod(months, 12)
+											+ " months.");
+						} catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+						} catch (ExecutionException ex) {
+							if (ex.getCause() instanceof InputValidationException) {
+								showValidationError(frame, (InputValidationException) ex.getCause());
+							} else {
+								showExportError(frame, ex.getCause());
+							}
+						}
+					}
+				};
+				worker.addPropertyChangeListener(event -> {
+					if ("progress".equals(event.getPropertyName())) {
+						progressBar.setValue((Integer) event.getNewValue());
+					} else if (ExportWorker.CLOSING_PROPERTY.equals(event.getPropertyName())) {
+						progressBar.setIndeterminate(true);
+					}
+				});
+
+				runningWorker[0] = worker;
+				calculateBtn.setEnabled(false);
+				cancelBtn.setEnabled(true);
+				progressBar.setValue(0);
+				progressBar.setIndeterminate(false);
+				progressBar.setVisible(true);
+				frame.pack();
+				worker.execute();
+			}
+		});
+
+		solveBtn.addActionListener(new ActionListener() {
+
 			@Override
 			public void actionPerformed(ActionEvent e) {
 				try {
-					// calculate amortization schedule with provided input
-					List<AmortizationRecord> records = CalculationUtility.calculateAmortizationSchedule(principal,
-							interest, mortgageLength, additionalPrincipalPayment);
-					// create Excel document with the List<AmortizationRecord>
-					ExcelUtility.createExcelDoc(records);
-					JOptionPane.showMessageDialog(frame,
-							"Excel Document created in this project directory.\nLoan paid off in "
-									+ Math.floorDiv(records.size(), 12) + " years and "
-									+ Math.floorMod(records.size(), 12) + " months.");
+					// the current additional principal is replaced, so any valid value will do
+					LoanTerms terms = CalculationUtility.createLoanTerms(principal.getText(), interest.getText(),
+							mortgageLength.getText(), "0.00");
+					// invalid numbers become 0, which the solver reports as an invalid target
+					int targetMonth = NumberUtils.toInt(targetPayoffMonth.getText(), 0);
+
+					// a solve is a few dozen summaries, fast enough for the event dispatch thread
+					PayoffSolution solution = PayoffSolverUtility.solveForPayoffMonth(terms, targetMonth);
+					additionalPrincipalPayment.setText(solution.getAdditionalPrincipalPayment().toPlainString());
+
+					int months = solution.getSummary().getPayoffMonth();
+					JOptionPane.showMessageDialog(frame, "Pay " + solution.getAdditionalPrincipalPayment().toPlainString()
+							+ " additional principal each month to pay the loan off in " + Math.floorDiv(months, 12)
+							+ " years and " + Math.floorMod(months, 12) + " months.");
 				} catch (InputValidationException ex) {
-					JOptionPane.showMessageDialog(frame, ex.getMessage(), "Input Validation Error",
-							JOptionPane.ERROR_MESSAGE);
-				} catch (IOException ex) {
-					JOptionPane.showMessageDialog(frame, ex.getMessage(), "Error creating Excel Spreadsheet",
-							JOptionPane.ERROR_MESSAGE);
+					showValidationError(frame, ex);
+				}
+			}
+		});
+
+		cancelBtn.addActionListener(new ActionListener() {
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				if (runningWorker[0] != null) {
+					runningWorker[0].cancel(true);
 				}
 			}
 		});
@@ -113,6 +249,7 @@ public class Application {
 				interest.setText(null);
 				mortgageLength.setText(null);
 				additionalPrincipalPayment.setText(null);
+				targetPayoffMonth.setText(null);
 
 				JOptionPane.showMessageDialog(frame, "Form cleared!");
 
@@ -121,17 +258,28 @@ public class Application {
 
 		// add buttons to buttonPanel
 		buttonPanel.add(calculateBtn);
+		buttonPanel.add(solveBtn);
 		buttonPanel.add(resetBtn);
+		buttonPanel.add(cancelBtn);
 
 		// add sub-panels to main panel
 		mainPanel.add(formPanel);
 		mainPanel.add(buttonPanel);
+		mainPanel.add(progressBar);
 
 		frame.getContentPane().add(mainPanel, BorderLayout.CENTER);
 
 		return frame;
 	}
 
+	private static void showValidationError(JFrame frame, InputValidationException ex) {
+		JOptionPane.showMessageDialog(frame, ex.getMessage(), "Input Validation Error", JOptionPane.ERROR_MESSAGE);
+	}
+
+	private static void showExportError(JFrame frame, Throwable ex) {
+		JOptionPane.showMessageDialog(frame, ex.getMessage(), "Error creating export file", JOptionPane.ERROR_MESSAGE);
+	}
+
 	/**
 	 * Creates a new button with text provided.
 	 * 
@@ -142,6 +290,59 @@ public class Application {
 		return new JButton(text);
 	}
 
+	/**
+	 * Creates a label and a combo box with the provided options and adds it to the
+	 * provided JPanel.
+	 * 
+	 * @param panel
+	 * @param labelText
+	 * @param options
+	 * @return
+	 */
+	private static <T> JComboBox<T> addComboBox(JPanel panel, String labelText, T[] options) {
+		JComboBox<T> comboBox = new JComboBox<>(options);
+		JLabel label = new JLabel(labelText);
+		comboBox.setPreferredSize(new Dimension(200, 30));
+
+		panel.add(label);
+		panel.add(comboBox);
+
+		return comboBox;
+	}
+
+	/**
+	 * Replace the extension of the file name with the extension of the format.
+	 * 
+	 * @param fileName
+	 * @param format
+	 * @return
+	 */
+	private static String replaceExtension(String fileName, ExportFormat format) {
+		if (StringUtils.isBlank(fileName)) {
+			return ExportUtility.DEFAULT_FILE_NAME + "." + format.getExtension();
+		}
+		int dot = fileName.lastIndexOf('.');
+		int separator = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+		String baseName = dot > separator ? fileName.substring(0, dot) : fileName;
+		return baseName + "." + format.getExtension();
+	}
+
+	/**
+	 * Creates a label and a value label and adds them to the provided JPanel.
+	 * 
+	 * @param panel
+	 * @param labelText
+	 * @return the value label
+	 */
+	private static JLabel addLabel(JPanel panel, String labelText) {
+		JLabel value = new JLabel();
+
+		panel.add(new JLabel(labelText));
+		panel.add(value);
+
+		return value;
+	}
+
 	/**
 	 * Creates a label and a text field and adds it to the provided JPanel.
 	 * 
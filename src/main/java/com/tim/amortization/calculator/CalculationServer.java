@@ -0,0 +1,329 @@
+package com.tim.amortization.calculator;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+import com.tim.amortization.calculator.utilities.CalculationUtility;
+import com.tim.amortization.calculator.utilities.CsvExportSink;
+import com.tim.amortization.calculator.utilities.ExportSink;
+import com.tim.amortization.calculator.utilities.MetricsUtility;
+import com.tim.amortization.calculator.utilities.NdjsonExportSink;
+import com.tim.amortization.calculator.utilities.PortfolioUtility;
+
+/**
+ * HTTP service mode of the calculator, started with
+ * {@code Application --server [port]}. Loans are given as query parameters in
+ * the format of the GUI text fields:
+ *
+ * <pre>
+ * GET  /schedule?principal=603,500&amp;interest=6.5&amp;mortgageLength=30&amp;additionalPrincipal=1000.00&amp;format=ndjson
+ * GET  /summary?principal=603,500&amp;interest=6.5&amp;mortgageLength=30&amp;additionalPrincipal=1000.00
+ * POST /batch   (body in the portfolio file format of PortfolioUtility)
+ * GET  /metrics  (Prometheus text format, see MetricsUtility)
+ * </pre>
+ *
+ * /schedule streams the rows as NDJSON (default) or CSV, in the format of the
+ * export sinks, with chunked transfer encoding: each buffer of rows is sent as
+ * it fills instead of building the whole schedule first. /summary returns the
+ * ScheduleSummary as one JSON object, and /batch returns one summary (or error)
+ * per loan of the body as NDJSON, also streamed. Amounts are in dollars.
+ *
+ * Invalid loans are answered with 400 and the validation messages, one per
+ * line. Requests run on a bounded pool of platform threads, more than the
+ * number of cores since a streamed schedule waits on the client.
+ */
+public class CalculationServer implements Closeable {
+
+	public static final int DEFAULT_PORT = 8080;
+
+	public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors() * 4;
+
+	public static final String FORMAT_ERROR = "Invalid value for format. Value must be ndjson or csv.";
+
+	private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+	private static final String CSV_CONTENT_TYPE = "text/csv; charset=utf-8";
+
+	private static final String JSON_CONTENT_TYPE = "application/json";
+
+	private static final String TEXT_CONTENT_TYPE = "text/plain; charset=utf-8";
+
+	/**
+	 * Without TCP_NODELAY a small response waits on the client's delayed ACK of
+	 * its headers, about 40 ms per request. Read once, when the first server is
+	 * created.
+	 */
+	private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+	static {
+		if (System.getProperty(NODELAY_PROPERTY) == null) {
+			System.setProperty(NODELAY_PROPERTY, "true");
+		}
+	}
+
+	private final HttpServer server;
+
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Main method used to run the service until the process is stopped. Metrics
+	 * are enabled unless {@value MetricsUtility#ENABLED_PROPERTY} is set.
+	 *
+	 * @param args optional port, defaults to {@link #DEFAULT_PORT}
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		if (System.getProperty(MetricsUtility.ENABLED_PROPERTY) == null) {
+			MetricsUtility.setEnabled(true);
+		}
+		CalculationServer server = new CalculationServer(
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), port), DEFAULT_THREADS);
+		server.start();
+		System.out.println("Calculation service listening on http://localhost:" + server.getPort());
+	}
+
+	/**
+	 * Bind the server. Requests are not accepted until {@link #start()}.
+	 *
+	 * @param address port 0 binds any free port, see {@link #getPort()}
+	 * @param threads number of requests served at the same time
+	 * @throws IOException
+	 */
+	public CalculationServer(InetSocketAddress address, int threads) throws IOException {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be at least 1: " + threads);
+		}
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				runnable -> new Thread(runnable, "calculation-server-" + threadNumber.incrementAndGet()));
+		this.executor.allowCoreThreadTimeOut(true);
+
+		this.server = HttpServer.create(address, 0);
+		this.server.setExecutor(executor);
+		this.server.createContext("/schedule", exchange -> handle(exchange, "GET", this::schedule));
+		this.server.createContext("/summary", exchange -> handle(exchange, "GET", this::summary));
+		this.server.createContext("/batch", exchange -> handle(exchange, "POST", this::batch));
+		this.server.createContext("/metrics", exchange -> handle(exchange, "GET", this::metrics));
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * @return port the server is bound to
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stop accepting requests and interrupt the ones in progress.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private interface Endpoint {
+
+		void serve(HttpExchange exchange) throws IOException;
+	}
+
+	/**
+	 * Check the method and answer validation errors with 400 and any other error
+	 * with 500. Errors after the response headers were sent can only cut the
+	 * response short.
+	 */
+	private static void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+		try {
+			if (!method.equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().set("Allow", method);
+				sendText(exchange, 405, "Method not allowed, use " + method);
+			} else {
+				endpoint.serve(exchange);
+			}
+		} catch (InputValidationException ex) {
+			sendError(exchange, 400, ex.getMessage());
+		} catch (RuntimeException ex) {
+			sendError(exchange, 500, ex.toString());
+			throw ex;
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void schedule(HttpExchange exchange) throws IOException {
+		Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+		String format = query.getOrDefault("format", "ndjson");
+		if (!format.equals("ndjson") && !format.equals("csv")) {
+			throw new InputValidationException(FORMAT_ERROR);
+		}
+		LoanTerms terms = createLoanTerms(query);
+
+		exchange.getResponseHeaders().set("Content-Type",
+				format.equals("csv") ? CSV_CONTENT_TYPE : NDJSON_CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, 0);
+
+		// the sink writes its buffer to the body as it fills and closes it
+		try (ExportSink sink = format.equals("csv") ? new CsvExportSink(Channels.newChannel(exchange.getResponseBody()))
+				: new NdjsonExportSink(Channels.newChannel(exchange.getResponseBody()))) {
+			sink.startLoan("AmortizationSchedule");
+			CalculationUtility.calculateSchedule(terms, sink);
+		}
+	}
+
+	private void summary(HttpExchange exchange) throws IOException {
+		LoanTerms terms = createLoanTerms(parseQuery(exchange.getRequestURI().getRawQuery()));
+		ScheduleSummary summary = CalculationUtility.summarizeSchedule(terms);
+
+		StringBuilder json = new StringBuilder("{");
+		appendSummary(json, summary);
+		byte[] body = json.append("}\n").toString().getBytes(StandardCharsets.UTF_8);
+
+		exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * One line per loan of the body, in order, numbered like the failures of a
+	 * portfolio run: {"loan":1,"monthlyPayment":...} or {"loan":2,"error":"..."}.
+	 */
+	private void batch(HttpExchange exchange) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", NDJSON_CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, 0);
+
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+				Writer writer = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+			StringBuilder json = new StringBuilder();
+			long loanNumber = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!PortfolioUtility.isLoanLine(line)) {
+					continue;
+				}
+				loanNumber++;
+
+				json.setLength(0);
+				json.append("{\"loan\":").append(loanNumber).append(',');
+				try {
+					appendSummary(json, CalculationUtility.summarizeSchedule(PortfolioUtility.parseLoanTerms(line)));
+				} catch (InputValidationException ex) {
+					json.append("\"error\":");
+					appendJsonString(json, ex.getMessage());
+				}
+				writer.append(json).append("}\n");
+			}
+		}
+	}
+
+	private void metrics(HttpExchange exchange) throws IOException {
+		byte[] body = MetricsUtility.scrape().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", MetricsUtility.CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static LoanTerms createLoanTerms(Map<String, String> query) {
+		return CalculationUtility.createLoanTerms(query.get("principal"), query.get("interest"),
+				query.get("mortgageLength"), query.get("additionalPrincipal"));
+	}
+
+	private static void appendSummary(StringBuilder json, ScheduleSummary summary) {
+		json.append("\"monthlyPayment\":").append(toDollars(summary.getMonthlyPayment()));
+		json.append(",\"payoffMonth\":").append(summary.getPayoffMonth());
+		json.append(",\"totalInterest\":").append(toDollars(summary.getTotalInterest()));
+		json.append(",\"totalAdditionalPrincipal\":").append(toDollars(summary.getTotalAdditionalPrincipal()));
+		json.append(",\"finalRemainingPrincipal\":").append(toDollars(summary.getFinalRemainingPrincipal()));
+	}
+
+	/**
+	 * Cents as dollars with two decimal places (Ex: 54558 --> 545.58).
+	 */
+	private static String toDollars(long cents) {
+		return BigDecimal.valueOf(cents, 2).toPlainString();
+	}
+
+	private static void appendJsonString(StringBuilder json, String text) {
+		json.append('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+
+	/**
+	 * Decode the query string into its parameters, the last value wins.
+	 *
+	 * @param rawQuery may be null
+	 * @return
+	 */
+	static Map<String, String> parseQuery(String rawQuery) {
+		Map<String, String> parameters = new HashMap<>();
+		if (rawQuery == null) {
+			return parameters;
+		}
+		for (String parameter : rawQuery.split("&")) {
+			int equals = parameter.indexOf('=');
+			String name = equals < 0 ? parameter : parameter.substring(0, equals);
+			String value = equals < 0 ? "" : parameter.substring(equals + 1);
+			parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+					URLDecoder.decode(value, StandardCharsets.UTF_8));
+		}
+		return parameters;
+	}
+
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		// -1 until the response headers are sent
+		if (exchange.getResponseCode() == -1) {
+			sendText(exchange, status, message);
+		}
+	}
+
+	private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+		byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", TEXT_CONTENT_TYPE);
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.tim.amortization.calculator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.swing.SwingWorker;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.utilities.CalculationUtility;
+import com.tim.amortization.calculator.utilities.ExportFormat;
+import com.tim.amortization.calculator.utilities.ExportSink;
+
+/**
+ * Calculates the amortization schedule and writes the export file on a
+ * background thread so the Swing event dispatch thread stays responsive.
+ *
+ * Progress (0 - 99) counts every row calculated and every row written, and is
+ * published through the "progress" property. Closing the sink has no progress
+ * of its own (for XLSX it is most of the work), so the {@link #CLOSING_PROPERTY}
+ * is fired before it and progress reaches 100 when the file is complete.
+ * Cancelling with cancel(true) interrupts the export, aborts the sink without
+ * writing the rest of the file and deletes the partial file. Override {@link #done()} to report the result on the event
+ * dispatch thread; {@link #get()} returns the number of months until the loan
+ * is paid off.
+ */
+public class ExportWorker extends SwingWorker<Integer, Void> {
+
+	/**
+	 * Bound property set to true once every row has been written and the sink is
+	 * writing the file, which has no progress of its own.
+	 */
+	public static final String CLOSING_PROPERTY = "closing";
+
+	/**
+	 * Rows between progress updates and cancellation checks.
+	 */
+	private static final int PROGRESS_INTERVAL = 16;
+
+	private final LoanTerms terms;
+
+	private final ExportFormat format;
+
+	private final Path outputFile;
+
+	/**
+	 * @param terms      validated loan terms
+	 * @param format
+	 * @param outputFile
+	 */
+	public ExportWorker(LoanTerms terms, ExportFormat format, Path outputFile) {
+		this.terms = terms;
+		this.format = format;
+		this.outputFile = outputFile;
+	}
+
+	@Override
+	protected Integer doInBackground() throws IOException, InterruptedException {
+		int expectedRows = terms.getMortgageLength() * 12;
+		AmortizationSchedule schedule = new AmortizationSchedule(expectedRows);
+
+		CalculationUtility.calculateSchedule(terms, (month, principalPaid, interestPaid, remainingPrincipal,
+				additionalPrincipalPayment) -> {
+			schedule.add(month, principalPaid, interestPaid, remainingPrincipal, additionalPrincipalPayment);
+			if (month % PROGRESS_INTERVAL == 0) {
+				updateProgress(Math.min(month, expectedRows), 2L * expectedRows);
+			}
+		});
+
+		long rows = schedule.size();
+		long totalWork = 2 * rows;
+		boolean completed = false;
+
+		try {
+			ExportSink sink = format.open(outputFile);
+			try {
+				sink.startLoan("AmortizationSchedule");
+				for (int row = 0; row < rows; row++) {
+					if (row % PROGRESS_INTERVAL == 0) {
+						checkCancelled();
+						updateProgress(rows + row, totalWork);
+					}
+					sink.accept(schedule.getMonth(row), schedule.getPrincipalPaidCents(row),
+							schedule.getInterestPaidCents(row), schedule.getRemainingPrincipalCents(row),
+							schedule.getAdditionalPrincipalPaymentCents(row));
+				}
+				checkCancelled();
+			} catch (Throwable ex) {
+				try {
+					sink.abort();
+				} catch (IOException abortEx) {
+					ex.addSuppressed(abortEx);
+				}
+				throw ex;
+			}
+			updateProgress(totalWork, totalWork);
+			firePropertyChange(CLOSING_PROPERTY, false, true);
+			try {
+				sink.close();
+			} catch (IOException ex) {
+				// interrupting the write surfaces as an IOException
+				checkCancelled(ex);
+				throw ex;
+			}
+			checkCancelled(null);
+			completed = true;
+		} finally {
+			if (!completed) {
+				Files.deleteIfExists(outputFile);
+			}
+		}
+
+		setProgress(100);
+		return schedule.size();
+	}
+
+	private void checkCancelled() throws InterruptedException {
+		checkCancelled(null);
+	}
+
+	/**
+	 * @param cause failure caused by the cancellation, if any
+	 * @throws InterruptedException if the export was cancelled
+	 */
+	private void checkCancelled(Throwable cause) throws InterruptedException {
+		if (isCancelled() || Thread.currentThread().isInterrupted()) {
+			InterruptedException ex = new InterruptedException("Export cancelled");
+			ex.initCause(cause);
+			throw ex;
+		}
+	}
+
+	private void updateProgress(long done, long total) {
+		setProgress((int) Math.min(99, 100 * done / total));
+	}
+
+	public Path getOutputFile() {
+		return outputFile;
+	}
+
+	public ExportFormat getFormat() {
+		return format;
+	}
+
+}
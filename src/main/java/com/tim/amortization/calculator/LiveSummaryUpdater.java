@@ -0,0 +1,225 @@
+package com.tim.amortization.calculator;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import javax.swing.JLabel;
+import javax.swing.JTextField;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+import com.tim.amortization.calculator.utilities.CalculationUtility;
+
+/**
+ * Keeps the monthly payment, payoff date and total interest labels up to date
+ * while the loan fields are edited.
+ *
+ * Every edit restarts a short timer, so typing a number recalculates once
+ * after the user pauses instead of once per key. The summary is calculated on
+ * a background SwingWorker with
+ * {@link CalculationUtility#summarizeSchedule(LoanTerms)}, which does not
+ * store the schedule rows or create an Excel document. A newer edit cancels
+ * the running calculation and its result is never shown.
+ *
+ * Invalid input clears the labels instead of showing the validation dialog,
+ * the dialog is still shown by the Calculate button.
+ */
+public class LiveSummaryUpdater implements DocumentListener {
+
+	public static final int DEBOUNCE_MILLIS = 250;
+
+	private static final String NO_VALUE = "-";
+
+	private static final DateTimeFormatter PAYOFF_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.US);
+
+	private final JTextField principalField;
+
+	private final JTextField interestField;
+
+	private final JTextField mortgageField;
+
+	private final JTextField additionalPrincipalField;
+
+	private final JLabel paymentLabel;
+
+	private final JLabel payoffLabel;
+
+	private final JLabel interestLabel;
+
+	private final Timer timer;
+
+	private final Executor executor;
+
+	private final Function<LoanTerms, ScheduleSummary> summarizer;
+
+	private SwingWorker<ScheduleSummary, Void> worker;
+
+	private LoanTerms lastTerms;
+
+	/**
+	 * Listens to the documents of the four fields.
+	 *
+	 * @param principalField
+	 * @param interestField
+	 * @param mortgageField
+	 * @param additionalPrincipalField
+	 * @param paymentLabel             shows the monthly payment
+	 * @param payoffLabel              shows the payoff month and year
+	 * @param interestLabel            shows the total interest
+	 */
+	public LiveSummaryUpdater(JTextField principalField, JTextField interestField, JTextField mortgageField,
+			JTextField additionalPrincipalField, JLabel paymentLabel, JLabel payoffLabel, JLabel interestLabel) {
+		this(principalField, interestField, mortgageField, additionalPrincipalField, paymentLabel, payoffLabel,
+				interestLabel, DEBOUNCE_MILLIS, null, CalculationUtility::summarizeSchedule);
+	}
+
+	/**
+	 * @param debounceMillis pause after the last edit before recalculating
+	 * @param executor       runs the SwingWorkers, null for the SwingWorker
+	 *                       thread pool
+	 * @param summarizer     calculates the summary of valid terms
+	 */
+	LiveSummaryUpdater(JTextField principalField, JTextField interestField, JTextField mortgageField,
+			JTextField additionalPrincipalField, JLabel paymentLabel, JLabel payoffLabel, JLabel interestLabel,
+			int debounceMillis, Executor executor, Function<LoanTerms, ScheduleSummary> summarizer) {
+		this.executor = executor;
+		this.summarizer = summarizer;
+		this.principalField = principalField;
+		this.interestField = interestField;
+		this.mortgageField = mortgageField;
+		this.additionalPrincipalField = additionalPrincipalField;
+		this.paymentLabel = paymentLabel;
+		this.payoffLabel = payoffLabel;
+		this.interestLabel = interestLabel;
+
+		this.timer = new Timer(debounceMillis, e -> recalculate());
+		this.timer.setRepeats(false);
+
+		principalField.getDocument().addDocumentListener(this);
+		interestField.getDocument().addDocumentListener(this);
+		mortgageField.getDocument().addDocumentListener(this);
+		additionalPrincipalField.getDocument().addDocumentListener(this);
+	}
+
+	@Override
+	public void insertUpdate(DocumentEvent e) {
+		timer.restart();
+	}
+
+	@Override
+	public void removeUpdate(DocumentEvent e) {
+		timer.restart();
+	}
+
+	@Override
+	public void changedUpdate(DocumentEvent e) {
+		timer.restart();
+	}
+
+	/**
+	 * Validate the fields and start calculating the summary. Must be called on the
+	 * event dispatch thread.
+	 */
+	public void recalculate() {
+		LoanTerms terms;
+		try {
+			terms = CalculationUtility.createLoanTerms(principalField.getText(), interestField.getText(),
+					mortgageField.getText(), additionalPrincipalField.getText());
+		} catch (InputValidationException ex) {
+			cancelRunning();
+			lastTerms = null;
+			showSummary(null);
+			return;
+		}
+
+		// edits that do not change the value (Ex: 600000 --> 600,000) keep the summary
+		if (terms.equals(lastTerms)) {
+			return;
+		}
+		lastTerms = terms;
+
+		cancelRunning();
+		worker = new SwingWorker<>() {
+
+			@Override
+			protected ScheduleSummary doInBackground() {
+				return summarizer.apply(terms);
+			}
+
+			@Override
+			protected void done() {
+				// a newer edit replaced this calculation
+				if (worker != this || isCancelled()) {
+					return;
+				}
+				try {
+					showSummary(get());
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException ex) {
+					showSummary(null);
+				}
+			}
+		};
+		if (executor == null) {
+			worker.execute();
+		} else {
+			executor.execute(worker);
+		}
+	}
+
+	private void cancelRunning() {
+		if (worker != null) {
+			worker.cancel(true);
+			worker = null;
+		}
+	}
+
+	private void showSummary(ScheduleSummary summary) {
+		if (summary == null) {
+			paymentLabel.setText(NO_VALUE);
+			payoffLabel.setText(NO_VALUE);
+			interestLabel.setText(NO_VALUE);
+			return;
+		}
+
+		paymentLabel.setText(formatCents(summary.getMonthlyPayment()));
+		payoffLabel.setText(formatPayoff(YearMonth.now(), summary.getPayoffMonth()));
+		interestLabel.setText(formatCents(summary.getTotalInterest()));
+	}
+
+	/**
+	 * Format cents as US dollars (Ex: 381454 --> $3,814.54).
+	 *
+	 * @param cents
+	 * @return
+	 */
+	static String formatCents(long cents) {
+		return NumberFormat.getCurrencyInstance(Locale.US).format(BigDecimal.valueOf(cents, 2));
+	}
+
+	/**
+	 * Payoff month when the first payment is due the month after start (Ex: August
+	 * 2042 (17 years and 7 months)).
+	 *
+	 * @param start
+	 * @param months
+	 * @return
+	 */
+	static String formatPayoff(YearMonth start, int months) {
+		return start.plusMonths(months).format(PAYOFF_FORMAT) + " (" + Math.floorDiv(months, 12) + " years and "
+				+ Math.floorMod(months, 12) + " months)";
+	}
+
+}
@@ -0,0 +1,230 @@
+package com.tim.amortization.calculator.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compact columnar representation of an amortization schedule. Each column is
+ * a primitive array with one entry per month and all amounts are stored in
+ * cents, so a schedule costs six arrays instead of one AmortizationRecord and
+ * four BigDecimals per month.
+ *
+ * Use {@link #asRecords()} where a List&lt;AmortizationRecord&gt; is expected.
+ *
+ * A schedule can be frozen with {@link #freeze()}, after which it can no
+ * longer be changed and may be shared between threads.
+ */
+public class AmortizationSchedule implements ScheduleRowConsumer {
+
+	private static final int DEFAULT_CAPACITY = 360;
+
+	private int size;
+
+	private int[] month;
+
+	private long[] principalPaid;
+
+	private long[] interestPaid;
+
+	private long[] remainingPrincipal;
+
+	private long[] additionalPrincipalPayment;
+
+	private volatile boolean frozen;
+
+	public AmortizationSchedule() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param initialCapacity expected number of months, columns grow as needed
+	 */
+	public AmortizationSchedule(int initialCapacity) {
+		int capacity = Math.max(initialCapacity, 1);
+		this.month = new int[capacity];
+		this.principalPaid = new long[capacity];
+		this.interestPaid = new long[capacity];
+		this.remainingPrincipal = new long[capacity];
+		this.additionalPrincipalPayment = new long[capacity];
+	}
+
+	/**
+	 * Create a columnar copy of an existing list of records.
+	 *
+	 * @param records
+	 * @return
+	 */
+	public static AmortizationSchedule fromRecords(List<AmortizationRecord> records) {
+		AmortizationSchedule schedule = new AmortizationSchedule(records.size());
+		for (AmortizationRecord rec : records) {
+			schedule.add(rec.getMonth(), toCents(rec.getPrincipalPaid()), toCents(rec.getInterestPaid()),
+					toCents(rec.getRemainingPrincipal()), toCents(rec.getAdditionalPrincipalPayment()));
+		}
+		return schedule;
+	}
+
+	/**
+	 * Append one month to the end of the schedule. All amounts are in cents.
+	 *
+	 * @param month
+	 * @param principalPaid
+	 * @param interestPaid
+	 * @param remainingPrincipal
+	 * @param additionalPrincipalPayment
+	 */
+	public void add(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+			long additionalPrincipalPayment) {
+		checkNotFrozen();
+		if (size == this.month.length) {
+			grow();
+		}
+		this.month[size] = month;
+		this.principalPaid[size] = principalPaid;
+		this.interestPaid[size] = interestPaid;
+		this.remainingPrincipal[size] = remainingPrincipal;
+		this.additionalPrincipalPayment[size] = additionalPrincipalPayment;
+		size++;
+	}
+
+	@Override
+	public void accept(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+			long additionalPrincipalPayment) {
+		add(month, principalPaid, interestPaid, remainingPrincipal, additionalPrincipalPayment);
+	}
+
+	private void grow() {
+		int capacity = month.length + (month.length >> 1) + 1;
+		month = Arrays.copyOf(month, capacity);
+		principalPaid = Arrays.copyOf(principalPaid, capacity);
+		interestPaid = Arrays.copyOf(interestPaid, capacity);
+		remainingPrincipal = Arrays.copyOf(remainingPrincipal, capacity);
+		additionalPrincipalPayment = Arrays.copyOf(additionalPrincipalPayment, capacity);
+	}
+
+	/**
+	 * Remove every row, keeping the allocated columns so the schedule can be
+	 * reused.
+	 */
+	public void clear() {
+		checkNotFrozen();
+		size = 0;
+	}
+
+	/**
+	 * Make the schedule read-only. Rows can no longer be added or cleared, so a
+	 * frozen schedule can be shared safely once it has been published to other
+	 * threads.
+	 *
+	 * @return this schedule
+	 */
+	public AmortizationSchedule freeze() {
+		frozen = true;
+		return this;
+	}
+
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getMonth(int row) {
+		checkRow(row);
+		return month[row];
+	}
+
+	public long getPrincipalPaidCents(int row) {
+		checkRow(row);
+		return principalPaid[row];
+	}
+
+	public long getInterestPaidCents(int row) {
+		checkRow(row);
+		return interestPaid[row];
+	}
+
+	public long getRemainingPrincipalCents(int row) {
+		checkRow(row);
+		return remainingPrincipal[row];
+	}
+
+	public long getAdditionalPrincipalPaymentCents(int row) {
+		checkRow(row);
+		return additionalPrincipalPayment[row];
+	}
+
+	/**
+	 * Pass every row to the consumer in month order.
+	 *
+	 * @param consumer
+	 */
+	public void forEachRow(ScheduleRowConsumer consumer) {
+		for (int row = 0; row < size; row++) {
+			consumer.accept(month[row], principalPaid[row], interestPaid[row], remainingPrincipal[row],
+					additionalPrincipalPayment[row]);
+		}
+	}
+
+	/**
+	 * Create an AmortizationRecord for one row. The record is a copy, changes to
+	 * it are not written back to the schedule.
+	 *
+	 * @param row
+	 * @return
+	 */
+	public AmortizationRecord getRecord(int row) {
+		checkRow(row);
+		return new AmortizationRecord(month[row], toBigDecimal(principalPaid[row]), toBigDecimal(interestPaid[row]),
+				toBigDecimal(remainingPrincipal[row]), toBigDecimal(additionalPrincipalPayment[row]));
+	}
+
+	/**
+	 * Read-only List view of the schedule for existing callers. Records are created
+	 * on access, so nothing is allocated for rows that are never read.
+	 *
+	 * @return
+	 */
+	public List<AmortizationRecord> asRecords() {
+		return new RecordView();
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new UnsupportedOperationException("Schedule is frozen and can not be changed");
+		}
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " out of bounds for schedule of size " + size);
+		}
+	}
+
+	private static BigDecimal toBigDecimal(long cents) {
+		return BigDecimal.valueOf(cents, 2);
+	}
+
+	private static long toCents(BigDecimal amount) {
+		return amount.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+	}
+
+	private class RecordView extends AbstractList<AmortizationRecord> implements RandomAccess {
+
+		@Override
+		public AmortizationRecord get(int index) {
+			return getRecord(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+}
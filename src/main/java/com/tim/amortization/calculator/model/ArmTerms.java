@@ -0,0 +1,120 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable terms of an adjustable rate mortgage. The loan's interest rate is
+ * fixed for the first fixedMonths, then resets every resetMonths to the index
+ * plus the margin, limited by the caps and the floor. All rates are annual
+ * percentages.
+ *
+ * Ex: a 5/1 ARM with 2/2/5 caps is fixedMonths 60, resetMonths 12, initialCap
+ * 2, periodicCap 2, lifetimeCap 5.
+ */
+public final class ArmTerms {
+
+	private final LoanTerms loan;
+
+	private final int fixedMonths;
+
+	private final int resetMonths;
+
+	private final double margin;
+
+	private final double initialCap;
+
+	private final double periodicCap;
+
+	private final double lifetimeCap;
+
+	private final double floor;
+
+	/**
+	 * @param loan        principal, initial (teaser) rate, term and additional
+	 *                    principal payment
+	 * @param fixedMonths months at the initial rate before the first reset
+	 * @param resetMonths months between resets
+	 * @param margin      added to the index at each reset
+	 * @param initialCap  largest change at the first reset
+	 * @param periodicCap largest change at later resets
+	 * @param lifetimeCap largest increase over the initial rate
+	 * @param floor       lowest rate
+	 */
+	public ArmTerms(LoanTerms loan, int fixedMonths, int resetMonths, double margin, double initialCap,
+			double periodicCap, double lifetimeCap, double floor) {
+		if (fixedMonths < 0 || resetMonths < 1) {
+			throw new IllegalArgumentException("fixedMonths must not be negative and resetMonths must be positive");
+		}
+		this.loan = loan;
+		this.fixedMonths = fixedMonths;
+		this.resetMonths = resetMonths;
+		this.margin = margin;
+		this.initialCap = initialCap;
+		this.periodicCap = periodicCap;
+		this.lifetimeCap = lifetimeCap;
+		this.floor = floor;
+	}
+
+	public LoanTerms getLoan() {
+		return loan;
+	}
+
+	public int getFixedMonths() {
+		return fixedMonths;
+	}
+
+	public int getResetMonths() {
+		return resetMonths;
+	}
+
+	public double getMargin() {
+		return margin;
+	}
+
+	public double getInitialCap() {
+		return initialCap;
+	}
+
+	public double getPeriodicCap() {
+		return periodicCap;
+	}
+
+	public double getLifetimeCap() {
+		return lifetimeCap;
+	}
+
+	public double getFloor() {
+		return floor;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(fixedMonths, floor, initialCap, lifetimeCap, loan, margin, periodicCap, resetMonths);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ArmTerms other = (ArmTerms) obj;
+		return fixedMonths == other.fixedMonths && resetMonths == other.resetMonths
+				&& Double.doubleToLongBits(floor) == Double.doubleToLongBits(other.floor)
+				&& Double.doubleToLongBits(initialCap) == Double.doubleToLongBits(other.initialCap)
+				&& Double.doubleToLongBits(lifetimeCap) == Double.doubleToLongBits(other.lifetimeCap)
+				&& Objects.equals(loan, other.loan)
+				&& Double.doubleToLongBits(margin) == Double.doubleToLongBits(other.margin)
+				&& Double.doubleToLongBits(periodicCap) == Double.doubleToLongBits(other.periodicCap);
+	}
+
+	@Override
+	public String toString() {
+		return "ArmTerms [loan=" + loan + ", fixedMonths=" + fixedMonths + ", resetMonths=" + resetMonths
+				+ ", margin=" + margin + ", initialCap=" + initialCap + ", periodicCap=" + periodicCap
+				+ ", lifetimeCap=" + lifetimeCap + ", floor=" + floor + "]";
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.tim.amortization.calculator.model;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable result of valuing an ARM under an index curve. Besides the
+ * schedule totals it keeps a checkpoint at every reset the loan reached: the
+ * remaining principal and the interest paid before the reset month. A new
+ * curve only has to be calculated from the first reset whose rate changes,
+ * starting from that checkpoint.
+ *
+ * All amounts are in cents.
+ */
+public final class ArmValuation {
+
+	private final ArmTerms arm;
+
+	private final RoundingMode mode;
+
+	private final List<RateChange> rateChanges;
+
+	private final long[] checkpointBalances;
+
+	private final long[] checkpointInterest;
+
+	private final int checkpointCount;
+
+	private final ScheduleSummary summary;
+
+	private final int recalculatedFromReset;
+
+	/**
+	 * @param arm                   terms of the loan
+	 * @param mode                  rounding for the payments and interest
+	 * @param rateChanges           rate set at each reset, capped and floored
+	 * @param checkpointBalances    remaining principal before each reset month
+	 * @param checkpointInterest    interest paid before each reset month
+	 * @param checkpointCount       number of resets reached before the loan was
+	 *                              paid off
+	 * @param summary               totals of the schedule, the monthly payment
+	 *                              is the payment of the last month
+	 * @param recalculatedFromReset index of the first reset that was calculated,
+	 *                              0 when the whole schedule was calculated
+	 */
+	public ArmValuation(ArmTerms arm, RoundingMode mode, List<RateChange> rateChanges, long[] checkpointBalances,
+			long[] checkpointInterest, int checkpointCount, ScheduleSummary summary, int recalculatedFromReset) {
+		this.arm = arm;
+		this.mode = mode;
+		this.rateChanges = List.copyOf(rateChanges);
+		this.checkpointBalances = checkpointBalances.clone();
+		this.checkpointInterest = checkpointInterest.clone();
+		this.checkpointCount = checkpointCount;
+		this.summary = summary;
+		this.recalculatedFromReset = recalculatedFromReset;
+	}
+
+	public ArmTerms getArm() {
+		return arm;
+	}
+
+	public RoundingMode getMode() {
+		return mode;
+	}
+
+	public List<RateChange> getRateChanges() {
+		return rateChanges;
+	}
+
+	/**
+	 * @return number of resets reached before the loan was paid off
+	 */
+	public int getCheckpointCount() {
+		return checkpointCount;
+	}
+
+	/**
+	 * @param reset index of the reset
+	 * @return remaining principal before the reset month
+	 */
+	public long getCheckpointBalance(int reset) {
+		checkReset(reset);
+		return checkpointBalances[reset];
+	}
+
+	/**
+	 * @param reset index of the reset
+	 * @return interest paid before the reset month
+	 */
+	public long getCheckpointInterest(int reset) {
+		checkReset(reset);
+		return checkpointInterest[reset];
+	}
+
+	public ScheduleSummary getSummary() {
+		return summary;
+	}
+
+	public int getRecalculatedFromReset() {
+		return recalculatedFromReset;
+	}
+
+	private void checkReset(int reset) {
+		if (reset < 0 || reset >= checkpointCount) {
+			throw new IndexOutOfBoundsException("Reset " + reset + " out of bounds for " + checkpointCount
+					+ " checkpoints");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ArmValuation [arm=" + arm + ", mode=" + mode + ", rateChanges=" + rateChanges + ", checkpointBalances="
+				+ Arrays.toString(Arrays.copyOf(checkpointBalances, checkpointCount)) + ", summary=" + summary
+				+ ", recalculatedFromReset=" + recalculatedFromReset + "]";
+	}
+
+}
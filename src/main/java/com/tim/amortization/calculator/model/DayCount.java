@@ -0,0 +1,19 @@
+package com.tim.amortization.calculator.model;
+
+/**
+ * How the interest of a period is accrued from the annual interest rate.
+ */
+public enum DayCount {
+
+	/** annual rate divided by the payments per year, every period is equal */
+	PERIODIC,
+
+	/** actual days since the previous payment divided by 365 */
+	ACTUAL_365,
+
+	/**
+	 * days since the previous payment counting 30 day months, divided by 360
+	 * (30/360 bond basis)
+	 */
+	THIRTY_360
+}
@@ -0,0 +1,108 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable distribution of a value over the simulated paths: mean, minimum,
+ * 5th, 50th and 95th percentiles and maximum. Percentiles use the nearest-rank
+ * method, so each one is a value of one of the paths.
+ */
+public final class DistributionStatistics {
+
+	private final double mean;
+
+	private final long min;
+
+	private final long percentile5;
+
+	private final long median;
+
+	private final long percentile95;
+
+	private final long max;
+
+	public DistributionStatistics(double mean, long min, long percentile5, long median, long percentile95, long max) {
+		this.mean = mean;
+		this.min = min;
+		this.percentile5 = percentile5;
+		this.median = median;
+		this.percentile95 = percentile95;
+		this.max = max;
+	}
+
+	/**
+	 * Statistics of the values, which are sorted in place.
+	 *
+	 * @param values at least one value
+	 * @return
+	 */
+	public static DistributionStatistics of(long[] values) {
+		if (values.length == 0) {
+			throw new IllegalArgumentException("No values");
+		}
+		Arrays.sort(values);
+
+		double sum = 0;
+		for (long value : values) {
+			sum += value;
+		}
+		return new DistributionStatistics(sum / values.length, values[0], percentile(values, 5),
+				percentile(values, 50), percentile(values, 95), values[values.length - 1]);
+	}
+
+	private static long percentile(long[] sorted, int percent) {
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+		return sorted[Math.max(rank, 1) - 1];
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getPercentile5() {
+		return percentile5;
+	}
+
+	public long getMedian() {
+		return median;
+	}
+
+	public long getPercentile95() {
+		return percentile95;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(max, mean, median, min, percentile5, percentile95);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DistributionStatistics other = (DistributionStatistics) obj;
+		return max == other.max && Double.doubleToLongBits(mean) == Double.doubleToLongBits(other.mean)
+				&& median == other.median && min == other.min && percentile5 == other.percentile5
+				&& percentile95 == other.percentile95;
+	}
+
+	@Override
+	public String toString() {
+		return "DistributionStatistics [mean=" + mean + ", min=" + min + ", percentile5=" + percentile5 + ", median="
+				+ median + ", percentile95=" + percentile95 + ", max=" + max + "]";
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable extra principal payment event, created with one of the static
+ * factories. Amounts are in dollars and months start at 1.
+ */
+public final class ExtraPaymentEvent {
+
+	/**
+	 * Last month of a recurring payment that never stops.
+	 */
+	public static final int NO_END = Integer.MAX_VALUE;
+
+	public enum Type {
+		/** paid once, in addition to any other extra payment that month */
+		LUMP_SUM,
+		/** paid every interval months from the start month to the end month */
+		RECURRING,
+		/** replaces every other extra payment of that month */
+		OVERRIDE
+	}
+
+	private final Type type;
+
+	private final int startMonth;
+
+	private final int endMonth;
+
+	private final int intervalMonths;
+
+	private final double amount;
+
+	private ExtraPaymentEvent(Type type, int startMonth, int endMonth, int intervalMonths, double amount) {
+		if (startMonth < 1 || endMonth < startMonth || intervalMonths < 1) {
+			throw new IllegalArgumentException("Invalid extra payment months: start " + startMonth + ", end "
+					+ endMonth + ", interval " + intervalMonths);
+		}
+		if (!Double.isFinite(amount) || amount < 0) {
+			throw new IllegalArgumentException("Extra payment amount must not be negative: " + amount);
+		}
+		this.type = type;
+		this.startMonth = startMonth;
+		this.endMonth = endMonth;
+		this.intervalMonths = intervalMonths;
+		this.amount = amount;
+	}
+
+	/**
+	 * One payment in the given month.
+	 *
+	 * @param month
+	 * @param amount
+	 * @return
+	 */
+	public static ExtraPaymentEvent lumpSum(int month, double amount) {
+		return new ExtraPaymentEvent(Type.LUMP_SUM, month, month, 1, amount);
+	}
+
+	/**
+	 * Payment every intervalMonths from startMonth through endMonth (Ex: every
+	 * month, or once a year with an interval of 12).
+	 *
+	 * @param startMonth
+	 * @param endMonth       last month, or {@link #NO_END}
+	 * @param intervalMonths
+	 * @param amount
+	 * @return
+	 */
+	public static ExtraPaymentEvent recurring(int startMonth, int endMonth, int intervalMonths, double amount) {
+		return new ExtraPaymentEvent(Type.RECURRING, startMonth, endMonth, intervalMonths, amount);
+	}
+
+	/**
+	 * Set the total extra payment of one month, replacing the recurring payments
+	 * and lump sums of that month (Ex: 0 to skip a month).
+	 *
+	 * @param month
+	 * @param amount
+	 * @return
+	 */
+	public static ExtraPaymentEvent override(int month, double amount) {
+		return new ExtraPaymentEvent(Type.OVERRIDE, month, month, 1, amount);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public int getStartMonth() {
+		return startMonth;
+	}
+
+	public int getEndMonth() {
+		return endMonth;
+	}
+
+	public int getIntervalMonths() {
+		return intervalMonths;
+	}
+
+	public double getAmount() {
+		return amount;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(amount, endMonth, intervalMonths, startMonth, type);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ExtraPaymentEvent other = (ExtraPaymentEvent) obj;
+		return Double.doubleToLongBits(amount) == Double.doubleToLongBits(other.amount) && endMonth == other.endMonth
+				&& intervalMonths == other.intervalMonths && startMonth == other.startMonth && type == other.type;
+	}
+
+	@Override
+	public String toString() {
+		return "ExtraPaymentEvent [type=" + type + ", startMonth=" + startMonth + ", endMonth=" + endMonth
+				+ ", intervalMonths=" + intervalMonths + ", amount=" + amount + "]";
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable comparison of a schedule with extra payments against the same loan
+ * without them. All amounts are in cents.
+ */
+public final class ExtraPaymentSavings {
+
+	private final int baselinePayoffMonth;
+
+	private final int payoffMonth;
+
+	private final long baselineTotalInterest;
+
+	private final long totalInterest;
+
+	/**
+	 * @param baselinePayoffMonth   payoff month without the extra payments
+	 * @param payoffMonth           payoff month with the extra payments
+	 * @param baselineTotalInterest interest paid without the extra payments
+	 * @param totalInterest         interest paid with the extra payments
+	 */
+	public ExtraPaymentSavings(int baselinePayoffMonth, int payoffMonth, long baselineTotalInterest,
+			long totalInterest) {
+		this.baselinePayoffMonth = baselinePayoffMonth;
+		this.payoffMonth = payoffMonth;
+		this.baselineTotalInterest = baselineTotalInterest;
+		this.totalInterest = totalInterest;
+	}
+
+	public int getBaselinePayoffMonth() {
+		return baselinePayoffMonth;
+	}
+
+	public int getPayoffMonth() {
+		return payoffMonth;
+	}
+
+	public long getBaselineTotalInterest() {
+		return baselineTotalInterest;
+	}
+
+	public long getTotalInterest() {
+		return totalInterest;
+	}
+
+	public int getMonthsSaved() {
+		return baselinePayoffMonth - payoffMonth;
+	}
+
+	public long getInterestSaved() {
+		return baselineTotalInterest - totalInterest;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(baselinePayoffMonth, baselineTotalInterest, payoffMonth, totalInterest);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ExtraPaymentSavings other = (ExtraPaymentSavings) obj;
+		return baselinePayoffMonth == other.baselinePayoffMonth
+				&& baselineTotalInterest == other.baselineTotalInterest && payoffMonth == other.payoffMonth
+				&& totalInterest == other.totalInterest;
+	}
+
+	@Override
+	public String toString() {
+		return "ExtraPaymentSavings [baselinePayoffMonth=" + baselinePayoffMonth + ", payoffMonth=" + payoffMonth
+				+ ", baselineTotalInterest=" + baselineTotalInterest + ", totalInterest=" + totalInterest + "]";
+	}
+
+}
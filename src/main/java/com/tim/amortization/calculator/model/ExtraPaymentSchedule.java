@@ -0,0 +1,242 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable schedule of extra principal payments, compiled from sparse
+ * ExtraPaymentEvents into two sorted primitive structures:
+ * <ul>
+ * <li>steps: the monthly recurring amount, stored only for the months where it
+ * changes</li>
+ * <li>one-time amounts added to (or, for overrides, subtracted from) the
+ * recurring amount of a single month</li>
+ * </ul>
+ *
+ * A month loop reads the schedule through a {@link Cursor}, which only compares
+ * the month with the next entry of each structure, so there is no lookup cost
+ * per month. All amounts are in cents.
+ */
+public final class ExtraPaymentSchedule {
+
+	private static final ExtraPaymentSchedule NONE = new ExtraPaymentSchedule(new int[0], new long[0], new int[0],
+			new long[0]);
+
+	private final int[] stepMonths;
+
+	private final long[] stepAmounts;
+
+	private final int[] oneTimeMonths;
+
+	private final long[] oneTimeAmounts;
+
+	private ExtraPaymentSchedule(int[] stepMonths, long[] stepAmounts, int[] oneTimeMonths, long[] oneTimeAmounts) {
+		this.stepMonths = stepMonths;
+		this.stepAmounts = stepAmounts;
+		this.oneTimeMonths = oneTimeMonths;
+		this.oneTimeAmounts = oneTimeAmounts;
+	}
+
+	/**
+	 * Schedule without extra payments.
+	 *
+	 * @return
+	 */
+	public static ExtraPaymentSchedule none() {
+		return NONE;
+	}
+
+	/**
+	 * Compile the events. Payments after lastMonth are dropped, so recurring
+	 * events without an end only expand up to the end of the loan.
+	 *
+	 * @param events
+	 * @param lastMonth last month of the loan (Ex: 360 for 30 years)
+	 * @return
+	 */
+	public static ExtraPaymentSchedule of(List<ExtraPaymentEvent> events, int lastMonth) {
+		TreeMap<Integer, Long> stepChanges = new TreeMap<>();
+		TreeMap<Integer, Long> oneTime = new TreeMap<>();
+		TreeMap<Integer, Long> overrides = new TreeMap<>();
+
+		for (ExtraPaymentEvent event : events) {
+			long cents = Math.round(event.getAmount() * 100);
+			int start = event.getStartMonth();
+			int end = Math.min(event.getEndMonth(), lastMonth);
+			if (start > end) {
+				continue;
+			}
+
+			switch (event.getType()) {
+			case LUMP_SUM:
+				oneTime.merge(start, cents, Long::sum);
+				break;
+			case OVERRIDE:
+				overrides.put(start, cents);
+				break;
+			case RECURRING:
+				if (event.getIntervalMonths() == 1) {
+					stepChanges.merge(start, cents, Long::sum);
+					stepChanges.merge(end + 1, -cents, Long::sum);
+				} else {
+					for (int month = start; month <= end; month += event.getIntervalMonths()) {
+						oneTime.merge(month, cents, Long::sum);
+					}
+				}
+				break;
+			}
+		}
+
+		// running total of the step changes, keeping only months where it changes
+		int[] stepMonths = new int[stepChanges.size()];
+		long[] stepAmounts = new long[stepChanges.size()];
+		int steps = 0;
+		long amount = 0;
+		for (Map.Entry<Integer, Long> change : stepChanges.entrySet()) {
+			amount += change.getValue();
+			if (steps == 0 ? amount != 0 : amount != stepAmounts[steps - 1]) {
+				stepMonths[steps] = change.getKey();
+				stepAmounts[steps] = amount;
+				steps++;
+			}
+		}
+		stepMonths = Arrays.copyOf(stepMonths, steps);
+		stepAmounts = Arrays.copyOf(stepAmounts, steps);
+
+		// an override replaces the recurring amount and the lump sums of its month
+		for (Map.Entry<Integer, Long> override : overrides.entrySet()) {
+			oneTime.put(override.getKey(), override.getValue() - stepAmount(stepMonths, stepAmounts, override.getKey()));
+		}
+
+		int[] oneTimeMonths = new int[oneTime.size()];
+		long[] oneTimeAmounts = new long[oneTime.size()];
+		int i = 0;
+		for (Map.Entry<Integer, Long> entry : oneTime.entrySet()) {
+			oneTimeMonths[i] = entry.getKey();
+			oneTimeAmounts[i] = entry.getValue();
+			i++;
+		}
+
+		return new ExtraPaymentSchedule(stepMonths, stepAmounts, oneTimeMonths, oneTimeAmounts);
+	}
+
+	private static long stepAmount(int[] stepMonths, long[] stepAmounts, int month) {
+		int i = Arrays.binarySearch(stepMonths, month);
+		if (i < 0) {
+			i = -i - 2;
+		}
+		return i < 0 ? 0 : stepAmounts[i];
+	}
+
+	/**
+	 * Extra payment of one month, with a binary search. Month loops should use
+	 * {@link #cursor()} instead.
+	 *
+	 * @param month
+	 * @return extra payment in cents
+	 */
+	public long getExtraPayment(int month) {
+		long amount = stepAmount(stepMonths, stepAmounts, month);
+		int i = Arrays.binarySearch(oneTimeMonths, month);
+		return i < 0 ? amount : amount + oneTimeAmounts[i];
+	}
+
+	/**
+	 * First month with an extra payment, or 0 when there are none.
+	 *
+	 * @return
+	 */
+	public int getFirstMonth() {
+		int first = Integer.MAX_VALUE;
+		if (stepMonths.length > 0) {
+			first = stepMonths[0];
+		}
+		for (int i = 0; i < oneTimeMonths.length && oneTimeMonths[i] < first; i++) {
+			if (oneTimeAmounts[i] != 0) {
+				first = oneTimeMonths[i];
+				break;
+			}
+		}
+		return first == Integer.MAX_VALUE ? 0 : first;
+	}
+
+	public boolean isEmpty() {
+		return getFirstMonth() == 0;
+	}
+
+	/**
+	 * Create a cursor positioned before month 1.
+	 *
+	 * @return
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Reads the extra payments month by month, in increasing month order.
+	 */
+	public final class Cursor {
+
+		private int step;
+
+		private int oneTime;
+
+		private long recurring;
+
+		private Cursor() {
+		}
+
+		/**
+		 * Extra payment of the month. Months must be passed in increasing order,
+		 * skipped months are fine.
+		 *
+		 * @param month
+		 * @return extra payment in cents
+		 */
+		public long next(int month) {
+			while (step < stepMonths.length && stepMonths[step] <= month) {
+				recurring = stepAmounts[step++];
+			}
+			while (oneTime < oneTimeMonths.length && oneTimeMonths[oneTime] < month) {
+				oneTime++;
+			}
+			if (oneTime < oneTimeMonths.length && oneTimeMonths[oneTime] == month) {
+				return recurring + oneTimeAmounts[oneTime++];
+			}
+			return recurring;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Arrays.hashCode(stepMonths);
+		result = 31 * result + Arrays.hashCode(stepAmounts);
+		result = 31 * result + Arrays.hashCode(oneTimeMonths);
+		return 31 * result + Arrays.hashCode(oneTimeAmounts);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ExtraPaymentSchedule other = (ExtraPaymentSchedule) obj;
+		return Arrays.equals(stepMonths, other.stepMonths) && Arrays.equals(stepAmounts, other.stepAmounts)
+				&& Arrays.equals(oneTimeMonths, other.oneTimeMonths)
+				&& Arrays.equals(oneTimeAmounts, other.oneTimeAmounts);
+	}
+
+	@Override
+	public String toString() {
+		return "ExtraPaymentSchedule [stepMonths=" + Arrays.toString(stepMonths) + ", stepAmounts="
+				+ Arrays.toString(stepAmounts) + ", oneTimeMonths=" + Arrays.toString(oneTimeMonths)
+				+ ", oneTimeAmounts=" + Arrays.toString(oneTimeAmounts) + "]";
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable forecast of an ARM index rate (Ex: SOFR) by month of the schedule.
+ * The curve is a step function: the rate of a point applies from its month
+ * until the next point, and the first rate also applies before the first
+ * point.
+ */
+public final class IndexCurve {
+
+	private final int[] months;
+
+	private final double[] rates;
+
+	/**
+	 * @param months increasing months of the schedule, starting at 1
+	 * @param rates  annual index percentage from each month on
+	 */
+	public IndexCurve(int[] months, double[] rates) {
+		if (months.length == 0 || months.length != rates.length) {
+			throw new IllegalArgumentException("An index curve needs one rate for each month");
+		}
+		for (int i = 1; i < months.length; i++) {
+			if (months[i] <= months[i - 1]) {
+				throw new IllegalArgumentException("Index curve months must be increasing");
+			}
+		}
+		this.months = months.clone();
+		this.rates = rates.clone();
+	}
+
+	/**
+	 * Curve with the same rate for every month.
+	 *
+	 * @param rate
+	 * @return
+	 */
+	public static IndexCurve flat(double rate) {
+		return new IndexCurve(new int[] { 1 }, new double[] { rate });
+	}
+
+	/**
+	 * Index rate in effect in the given month.
+	 *
+	 * @param month
+	 * @return
+	 */
+	public double rateAt(int month) {
+		int i = Arrays.binarySearch(months, month);
+		if (i < 0) {
+			i = Math.max(-i - 2, 0);
+		}
+		return rates[i];
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(months) + Arrays.hashCode(rates);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IndexCurve other = (IndexCurve) obj;
+		return Arrays.equals(months, other.months) && Arrays.equals(rates, other.rates);
+	}
+
+	@Override
+	public String toString() {
+		return "IndexCurve [months=" + Arrays.toString(months) + ", rates=" + Arrays.toString(rates) + "]";
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable record of one loan in a portfolio that could not be calculated.
+ */
+public final class LoanFailure {
+
+	private final long loanNumber;
+
+	private final String input;
+
+	private final String message;
+
+	/**
+	 * @param loanNumber position of the loan in the portfolio, starting at 1
+	 * @param input      portfolio line or loan terms of the failed loan
+	 * @param message    reason the loan failed
+	 */
+	public LoanFailure(long loanNumber, String input, String message) {
+		this.loanNumber = loanNumber;
+		this.input = input;
+		this.message = message;
+	}
+
+	public long getLoanNumber() {
+		return loanNumber;
+	}
+
+	public String getInput() {
+		return input;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(input, loanNumber, message);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		LoanFailure other = (LoanFailure) obj;
+		return loanNumber == other.loanNumber && Objects.equals(input, other.input)
+				&& Objects.equals(message, other.message);
+	}
+
+	@Override
+	public String toString() {
+		return "LoanFailure [loanNumber=" + loanNumber + ", input=" + input + ", message=" + message + "]";
+	}
+
+}
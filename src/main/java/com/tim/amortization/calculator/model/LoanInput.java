@@ -0,0 +1,120 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable result of parsing the four loan text fields: the parsed values and
+ * the fields that failed validation. The value of an invalid field is NaN (-1
+ * for the mortgage length).
+ */
+public final class LoanInput {
+
+	public enum Field {
+		PRINCIPAL, INTEREST, MORTGAGE_LENGTH, ADDITIONAL_PRINCIPAL
+	}
+
+	private final double principal;
+
+	private final double interestRate;
+
+	private final int mortgageLength;
+
+	private final double additionalPrincipalPayment;
+
+	/**
+	 * one bit per Field ordinal
+	 */
+	private final int invalidFields;
+
+	/**
+	 * @param principal
+	 * @param interestRate
+	 * @param mortgageLength
+	 * @param additionalPrincipalPayment
+	 * @param invalidFields              bit (1 &lt;&lt; Field.ordinal()) set for
+	 *                                   each invalid field
+	 */
+	public LoanInput(double principal, double interestRate, int mortgageLength, double additionalPrincipalPayment,
+			int invalidFields) {
+		this.principal = principal;
+		this.interestRate = interestRate;
+		this.mortgageLength = mortgageLength;
+		this.additionalPrincipalPayment = additionalPrincipalPayment;
+		this.invalidFields = invalidFields;
+	}
+
+	public double getPrincipal() {
+		return principal;
+	}
+
+	public double getInterestRate() {
+		return interestRate;
+	}
+
+	public int getMortgageLength() {
+		return mortgageLength;
+	}
+
+	public double getAdditionalPrincipalPayment() {
+		return additionalPrincipalPayment;
+	}
+
+	public boolean isValid() {
+		return invalidFields == 0;
+	}
+
+	public boolean isInvalid(Field field) {
+		return (invalidFields & (1 << field.ordinal())) != 0;
+	}
+
+	/**
+	 * @return bit (1 &lt;&lt; Field.ordinal()) set for each invalid field
+	 */
+	public int getInvalidFieldMask() {
+		return invalidFields;
+	}
+
+	/**
+	 * @return invalid fields in field order
+	 */
+	public Set<Field> getInvalidFields() {
+		Set<Field> fields = EnumSet.noneOf(Field.class);
+		for (Field field : Field.values()) {
+			if (isInvalid(field)) {
+				fields.add(field);
+			}
+		}
+		return fields;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(additionalPrincipalPayment, interestRate, invalidFields, mortgageLength, principal);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		LoanInput other = (LoanInput) obj;
+		return Double.doubleToLongBits(additionalPrincipalPayment) == Double
+				.doubleToLongBits(other.additionalPrincipalPayment)
+				&& Double.doubleToLongBits(interestRate) == Double.doubleToLongBits(other.interestRate)
+				&& invalidFields == other.invalidFields && mortgageLength == other.mortgageLength
+				&& Double.doubleToLongBits(principal) == Double.doubleToLongBits(other.principal);
+	}
+
+	@Override
+	public String toString() {
+		return "LoanInput [principal=" + principal + ", interestRate=" + interestRate + ", mortgageLength="
+				+ mortgageLength + ", additionalPrincipalPayment=" + additionalPrincipalPayment + ", invalidFields="
+				+ getInvalidFields() + "]";
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable value object containing the terms of one mortgage. Used as the
+ * input for calculations that do not originate from the GUI (batch runs,
+ * portfolio files, etc.)
+ */
+public final class LoanTerms {
+
+	private final double principal;
+
+	private final double interestRate;
+
+	private final int mortgageLength;
+
+	private final double additionalPrincipalPayment;
+
+	/**
+	 * @param principal                  principal balance of the mortgage
+	 * @param interestRate               interest percentage (Ex: 6.5)
+	 * @param mortgageLength             length of the mortgage in years
+	 * @param additionalPrincipalPayment principal only payment made each month
+	 */
+	public LoanTerms(double principal, double interestRate, int mortgageLength, double additionalPrincipalPayment) {
+		this.principal = principal;
+		this.interestRate = interestRate;
+		this.mortgageLength = mortgageLength;
+		this.additionalPrincipalPayment = additionalPrincipalPayment;
+	}
+
+	public double getPrincipal() {
+		return principal;
+	}
+
+	public double getInterestRate() {
+		return interestRate;
+	}
+
+	public int getMortgageLength() {
+		return mortgageLength;
+	}
+
+	public double getAdditionalPrincipalPayment() {
+		return additionalPrincipalPayment;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(additionalPrincipalPayment, interestRate, mortgageLength, principal);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		LoanTerms other = (LoanTerms) obj;
+		return Double.compare(additionalPrincipalPayment, other.additionalPrincipalPayment) == 0
+				&& Double.compare(interestRate, other.interestRate) == 0 && mortgageLength == other.mortgageLength
+				&& Double.compare(principal, other.principal) == 0;
+	}
+
+	@Override
+	public String toString() {
+		return "LoanTerms [principal=" + principal + ", interestRate=" + interestRate + ", mortgageLength="
+				+ mortgageLength + ", additionalPrincipalPayment=" + additionalPrincipalPayment + "]";
+	}
+
+}
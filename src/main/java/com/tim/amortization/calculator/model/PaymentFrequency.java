@@ -0,0 +1,40 @@
+package com.tim.amortization.calculator.model;
+
+/**
+ * How often a loan is paid. Calendar frequencies keep the day of month of the
+ * first payment, day-based frequencies add a fixed number of days.
+ */
+public enum PaymentFrequency {
+
+	/** every month on the day of the first payment */
+	MONTHLY(12, 0),
+
+	/** twice a month, on the day of the first payment and 15 days later */
+	SEMI_MONTHLY(24, 0),
+
+	/** every 14 days */
+	BIWEEKLY(26, 14),
+
+	/** every 7 days */
+	WEEKLY(52, 7);
+
+	private final int periodsPerYear;
+
+	private final int days;
+
+	private PaymentFrequency(int periodsPerYear, int days) {
+		this.periodsPerYear = periodsPerYear;
+		this.days = days;
+	}
+
+	public int getPeriodsPerYear() {
+		return periodsPerYear;
+	}
+
+	/**
+	 * @return days between payments, 0 for calendar frequencies
+	 */
+	public int getDays() {
+		return days;
+	}
+}
@@ -0,0 +1,80 @@
+package com.tim.amortization.calculator.model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable payment frequency, interest day count and first payment date of a
+ * loan. Interest of the first period accrues from one period before the first
+ * payment.
+ */
+public final class PaymentPlan {
+
+	private final PaymentFrequency frequency;
+
+	private final DayCount dayCount;
+
+	private final LocalDate firstPaymentDate;
+
+	/**
+	 * @param frequency
+	 * @param dayCount
+	 * @param firstPaymentDate day 1 to 15 of the month for semi-monthly payments
+	 */
+	public PaymentPlan(PaymentFrequency frequency, DayCount dayCount, LocalDate firstPaymentDate) {
+		this.frequency = Objects.requireNonNull(frequency, "frequency");
+		this.dayCount = Objects.requireNonNull(dayCount, "dayCount");
+		this.firstPaymentDate = Objects.requireNonNull(firstPaymentDate, "firstPaymentDate");
+		if (frequency == PaymentFrequency.SEMI_MONTHLY && firstPaymentDate.getDayOfMonth() > 15) {
+			throw new IllegalArgumentException(
+					"Semi-monthly payments must start on day 1 to 15 of a month: " + firstPaymentDate);
+		}
+	}
+
+	/**
+	 * Monthly payments with equal monthly interest, the plan of
+	 * CalculationUtility.calculateSchedule.
+	 *
+	 * @param firstPaymentDate
+	 * @return
+	 */
+	public static PaymentPlan monthly(LocalDate firstPaymentDate) {
+		return new PaymentPlan(PaymentFrequency.MONTHLY, DayCount.PERIODIC, firstPaymentDate);
+	}
+
+	public PaymentFrequency getFrequency() {
+		return frequency;
+	}
+
+	public DayCount getDayCount() {
+		return dayCount;
+	}
+
+	public LocalDate getFirstPaymentDate() {
+		return firstPaymentDate;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(dayCount, firstPaymentDate, frequency);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PaymentPlan other = (PaymentPlan) obj;
+		return dayCount == other.dayCount && Objects.equals(firstPaymentDate, other.firstPaymentDate)
+				&& frequency == other.frequency;
+	}
+
+	@Override
+	public String toString() {
+		return "PaymentPlan [frequency=" + frequency + ", dayCount=" + dayCount + ", firstPaymentDate="
+				+ firstPaymentDate + "]";
+	}
+}
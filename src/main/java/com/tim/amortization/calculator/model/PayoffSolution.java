@@ -0,0 +1,58 @@
+package com.tim.amortization.calculator.model;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Immutable result of solving for an additional principal payment: the
+ * payment found and the totals of the schedule when it is paid every month.
+ */
+public final class PayoffSolution {
+
+	private final BigDecimal additionalPrincipalPayment;
+
+	private final ScheduleSummary summary;
+
+	/**
+	 * @param additionalPrincipalPayment smallest monthly additional principal
+	 *                                   payment meeting the target
+	 * @param summary                    totals of the schedule with that payment
+	 */
+	public PayoffSolution(BigDecimal additionalPrincipalPayment, ScheduleSummary summary) {
+		this.additionalPrincipalPayment = additionalPrincipalPayment;
+		this.summary = summary;
+	}
+
+	public BigDecimal getAdditionalPrincipalPayment() {
+		return additionalPrincipalPayment;
+	}
+
+	public ScheduleSummary getSummary() {
+		return summary;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(additionalPrincipalPayment, summary);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PayoffSolution other = (PayoffSolution) obj;
+		return Objects.equals(additionalPrincipalPayment, other.additionalPrincipalPayment)
+				&& Objects.equals(summary, other.summary);
+	}
+
+	@Override
+	public String toString() {
+		return "PayoffSolution [additionalPrincipalPayment=" + additionalPrincipalPayment + ", summary=" + summary
+				+ "]";
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.tim.amortization.calculator.model;
+
+/**
+ * Receives the periods of a schedule with any payment frequency as they are
+ * calculated. Dates are epoch days (LocalDate.toEpochDay()) and amounts are
+ * cents, so no object is created per period.
+ */
+@FunctionalInterface
+public interface PeriodRowConsumer {
+
+	/**
+	 * @param period                     period number, starting at 1
+	 * @param paymentDate                epoch day of the payment
+	 * @param principalPaid              principal portion of the payment
+	 * @param interestPaid               interest accrued over the period
+	 * @param remainingPrincipal         principal left after this payment
+	 * @param additionalPrincipalPayment principal only payment made this period
+	 */
+	void accept(int period, long paymentDate, long principalPaid, long interestPaid, long remainingPrincipal,
+			long additionalPrincipalPayment);
+
+}
@@ -0,0 +1,83 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable totals of every loan in a portfolio. All amounts are in cents.
+ */
+public final class PortfolioAggregate {
+
+	private final int loanCount;
+
+	private final long totalInterest;
+
+	private final long[] outstandingByMonth;
+
+	/**
+	 * @param loanCount          number of loans in the portfolio
+	 * @param totalInterest      interest paid over the life of every loan
+	 * @param outstandingByMonth remaining principal of every loan after each
+	 *                           month, index 0 for month 1
+	 */
+	public PortfolioAggregate(int loanCount, long totalInterest, long[] outstandingByMonth) {
+		this.loanCount = loanCount;
+		this.totalInterest = totalInterest;
+		this.outstandingByMonth = outstandingByMonth.clone();
+	}
+
+	public int getLoanCount() {
+		return loanCount;
+	}
+
+	public long getTotalInterest() {
+		return totalInterest;
+	}
+
+	/**
+	 * @return number of months until every loan is paid off
+	 */
+	public int getMonths() {
+		return outstandingByMonth.length;
+	}
+
+	/**
+	 * @param month 1 for the first payment
+	 * @return remaining principal of every loan after the month, 0 after the last
+	 *         loan is paid off
+	 */
+	public long getOutstanding(int month) {
+		if (month < 1) {
+			throw new IllegalArgumentException("Month must be 1 or later: " + month);
+		}
+		return month > outstandingByMonth.length ? 0 : outstandingByMonth[month - 1];
+	}
+
+	public long[] getOutstandingByMonth() {
+		return outstandingByMonth.clone();
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hash(loanCount, totalInterest) + Arrays.hashCode(outstandingByMonth);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PortfolioAggregate other = (PortfolioAggregate) obj;
+		return loanCount == other.loanCount && totalInterest == other.totalInterest
+				&& Arrays.equals(outstandingByMonth, other.outstandingByMonth);
+	}
+
+	@Override
+	public String toString() {
+		return "PortfolioAggregate [loanCount=" + loanCount + ", totalInterest=" + totalInterest + ", months="
+				+ outstandingByMonth.length + "]";
+	}
+}
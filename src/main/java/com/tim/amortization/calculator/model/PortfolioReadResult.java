@@ -0,0 +1,56 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable result of reading a portfolio file: the number of loans read and
+ * the malformed rows, in file order.
+ */
+public final class PortfolioReadResult {
+
+	private final long loansRead;
+
+	private final List<LoanFailure> failures;
+
+	/**
+	 * @param loansRead number of valid loans passed to the consumer
+	 * @param failures  malformed rows, numbered by their position among the loan
+	 *                  rows of the file
+	 */
+	public PortfolioReadResult(long loansRead, List<LoanFailure> failures) {
+		this.loansRead = loansRead;
+		this.failures = List.copyOf(failures);
+	}
+
+	public long getLoansRead() {
+		return loansRead;
+	}
+
+	public List<LoanFailure> getFailures() {
+		return failures;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(failures, loansRead);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		PortfolioReadResult other = (PortfolioReadResult) obj;
+		return Objects.equals(failures, other.failures) && loansRead == other.loansRead;
+	}
+
+	@Override
+	public String toString() {
+		return "PortfolioReadResult [loansRead=" + loansRead + ", failures=" + failures + "]";
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.List;
+
+/**
+ * Immutable outcome of a portfolio run: how many loans were written, which
+ * loans failed and how long the run took.
+ */
+public final class PortfolioRunResult {
+
+	private final long loansCompleted;
+
+	private final List<LoanFailure> failures;
+
+	private final long elapsedNanos;
+
+	/**
+	 * @param loansCompleted number of loans written to the export sink
+	 * @param failures       loans that could not be calculated, in portfolio
+	 *                       order
+	 * @param elapsedNanos   wall clock time of the run
+	 */
+	public PortfolioRunResult(long loansCompleted, List<LoanFailure> failures, long elapsedNanos) {
+		this.loansCompleted = loansCompleted;
+		this.failures = List.copyOf(failures);
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public long getLoansCompleted() {
+		return loansCompleted;
+	}
+
+	public long getLoansFailed() {
+		return failures.size();
+	}
+
+	public List<LoanFailure> getFailures() {
+		return failures;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Throughput of the run, counting completed and failed loans.
+	 *
+	 * @return
+	 */
+	public double getLoansPerSecond() {
+		if (elapsedNanos <= 0) {
+			return 0;
+		}
+		return (loansCompleted + failures.size()) * 1_000_000_000.0 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("PortfolioRunResult [loansCompleted=%d, loansFailed=%d, elapsed=%.3f s, loansPerSecond=%.1f]",
+				loansCompleted, failures.size(), elapsedNanos / 1_000_000_000.0, getLoansPerSecond());
+	}
+
+}
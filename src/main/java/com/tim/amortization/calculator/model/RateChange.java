@@ -0,0 +1,55 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable change of the annual interest rate, effective from the given month
+ * of the schedule until the next change.
+ */
+public final class RateChange {
+
+	private final int month;
+
+	private final double interestRate;
+
+	/**
+	 * @param month        first month charged at the new rate, starting at 1
+	 * @param interestRate annual interest percentage (Ex: 6.5)
+	 */
+	public RateChange(int month, double interestRate) {
+		this.month = month;
+		this.interestRate = interestRate;
+	}
+
+	public int getMonth() {
+		return month;
+	}
+
+	public double getInterestRate() {
+		return interestRate;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(interestRate, month);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		RateChange other = (RateChange) obj;
+		return month == other.month
+				&& Double.doubleToLongBits(interestRate) == Double.doubleToLongBits(other.interestRate);
+	}
+
+	@Override
+	public String toString() {
+		return "RateChange [month=" + month + ", interestRate=" + interestRate + "]";
+	}
+
+}
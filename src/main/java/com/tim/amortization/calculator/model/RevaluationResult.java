@@ -0,0 +1,55 @@
+package com.tim.amortization.calculator.model;
+
+/**
+ * Immutable outcome of an incremental portfolio revaluation: how many loans
+ * were recalculated or removed, and the updated portfolio totals.
+ */
+public final class RevaluationResult {
+
+	private final int loans;
+
+	private final int recalculated;
+
+	private final int removed;
+
+	private final PortfolioAggregate aggregate;
+
+	/**
+	 * @param loans        number of loans in the portfolio
+	 * @param recalculated loans that were new or whose terms changed
+	 * @param removed      loans of the previous run missing from the portfolio
+	 * @param aggregate    totals after applying the changes
+	 */
+	public RevaluationResult(int loans, int recalculated, int removed, PortfolioAggregate aggregate) {
+		this.loans = loans;
+		this.recalculated = recalculated;
+		this.removed = removed;
+		this.aggregate = aggregate;
+	}
+
+	public int getLoans() {
+		return loans;
+	}
+
+	public int getRecalculated() {
+		return recalculated;
+	}
+
+	public int getUnchanged() {
+		return loans - recalculated;
+	}
+
+	public int getRemoved() {
+		return removed;
+	}
+
+	public PortfolioAggregate getAggregate() {
+		return aggregate;
+	}
+
+	@Override
+	public String toString() {
+		return "RevaluationResult [loans=" + loans + ", recalculated=" + recalculated + ", removed=" + removed
+				+ ", aggregate=" + aggregate + "]";
+	}
+}
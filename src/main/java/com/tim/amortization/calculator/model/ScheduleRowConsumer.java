@@ -0,0 +1,21 @@
+package com.tim.amortization.calculator.model;
+
+/**
+ * Receives the rows of an amortization schedule as they are calculated. All
+ * amounts are in cents, so rows can be stored or written without creating an
+ * object per month.
+ */
+@FunctionalInterface
+public interface ScheduleRowConsumer {
+
+	/**
+	 * @param month                      month number, starting at 1
+	 * @param principalPaid              principal portion of the monthly payment
+	 * @param interestPaid               interest portion of the monthly payment
+	 * @param remainingPrincipal         principal left after this month
+	 * @param additionalPrincipalPayment principal only payment made this month
+	 */
+	void accept(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+			long additionalPrincipalPayment);
+
+}
@@ -0,0 +1,87 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable totals of an amortization schedule, calculated without storing the
+ * individual months. All amounts are in cents.
+ */
+public final class ScheduleSummary {
+
+	private final long monthlyPayment;
+
+	private final int payoffMonth;
+
+	private final long totalInterest;
+
+	private final long totalAdditionalPrincipal;
+
+	private final long finalRemainingPrincipal;
+
+	/**
+	 * @param monthlyPayment           scheduled monthly payment
+	 * @param payoffMonth              month the remaining principal reaches zero
+	 * @param totalInterest            interest paid over the life of the loan
+	 * @param totalAdditionalPrincipal additional principal paid over the life of
+	 *                                 the loan
+	 * @param finalRemainingPrincipal  remaining principal after the last month,
+	 *                                 zero or negative when the last payment
+	 *                                 overpays
+	 */
+	public ScheduleSummary(long monthlyPayment, int payoffMonth, long totalInterest, long totalAdditionalPrincipal,
+			long finalRemainingPrincipal) {
+		this.monthlyPayment = monthlyPayment;
+		this.payoffMonth = payoffMonth;
+		this.totalInterest = totalInterest;
+		this.totalAdditionalPrincipal = totalAdditionalPrincipal;
+		this.finalRemainingPrincipal = finalRemainingPrincipal;
+	}
+
+	public long getMonthlyPayment() {
+		return monthlyPayment;
+	}
+
+	public int getPayoffMonth() {
+		return payoffMonth;
+	}
+
+	public long getTotalInterest() {
+		return totalInterest;
+	}
+
+	public long getTotalAdditionalPrincipal() {
+		return totalAdditionalPrincipal;
+	}
+
+	public long getFinalRemainingPrincipal() {
+		return finalRemainingPrincipal;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(finalRemainingPrincipal, monthlyPayment, payoffMonth, totalAdditionalPrincipal,
+				totalInterest);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ScheduleSummary other = (ScheduleSummary) obj;
+		return finalRemainingPrincipal == other.finalRemainingPrincipal && monthlyPayment == other.monthlyPayment
+				&& payoffMonth == other.payoffMonth && totalAdditionalPrincipal == other.totalAdditionalPrincipal
+				&& totalInterest == other.totalInterest;
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduleSummary [monthlyPayment=" + monthlyPayment + ", payoffMonth=" + payoffMonth
+				+ ", totalInterest=" + totalInterest + ", totalAdditionalPrincipal=" + totalAdditionalPrincipal
+				+ ", finalRemainingPrincipal=" + finalRemainingPrincipal + "]";
+	}
+
+}
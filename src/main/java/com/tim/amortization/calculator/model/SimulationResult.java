@@ -0,0 +1,73 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable result of a Monte Carlo simulation of one loan: the distributions
+ * of the payoff month and of the total interest (in cents) over the paths.
+ */
+public final class SimulationResult {
+
+	private final int paths;
+
+	private final DistributionStatistics payoffMonth;
+
+	private final DistributionStatistics totalInterest;
+
+	private final int prepaidPaths;
+
+	/**
+	 * @param paths         number of simulated paths
+	 * @param payoffMonth   distribution of the payoff month
+	 * @param totalInterest distribution of the total interest in cents
+	 * @param prepaidPaths  number of paths where the loan was prepaid in full
+	 */
+	public SimulationResult(int paths, DistributionStatistics payoffMonth, DistributionStatistics totalInterest,
+			int prepaidPaths) {
+		this.paths = paths;
+		this.payoffMonth = payoffMonth;
+		this.totalInterest = totalInterest;
+		this.prepaidPaths = prepaidPaths;
+	}
+
+	public int getPaths() {
+		return paths;
+	}
+
+	public DistributionStatistics getPayoffMonth() {
+		return payoffMonth;
+	}
+
+	public DistributionStatistics getTotalInterest() {
+		return totalInterest;
+	}
+
+	public int getPrepaidPaths() {
+		return prepaidPaths;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(paths, payoffMonth, prepaidPaths, totalInterest);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SimulationResult other = (SimulationResult) obj;
+		return paths == other.paths && Objects.equals(payoffMonth, other.payoffMonth)
+				&& prepaidPaths == other.prepaidPaths && Objects.equals(totalInterest, other.totalInterest);
+	}
+
+	@Override
+	public String toString() {
+		return "SimulationResult [paths=" + paths + ", payoffMonth=" + payoffMonth + ", totalInterest="
+				+ totalInterest + ", prepaidPaths=" + prepaidPaths + "]";
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.tim.amortization.calculator.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable settings of a Monte Carlo simulation of rate and prepayment paths.
+ *
+ * On each path the interest rate moves by a normally distributed step at every
+ * reset, and the loan may be prepaid in full in any month with the monthly
+ * probability implied by the annual prepayment rate (CPR).
+ */
+public final class SimulationSettings {
+
+	private final int paths;
+
+	private final long seed;
+
+	private final double rateVolatility;
+
+	private final int resetMonths;
+
+	private final double prepaymentRate;
+
+	/**
+	 * @param paths          number of simulated paths per loan
+	 * @param seed           seed of the random number generator, the same seed
+	 *                       gives the same result
+	 * @param rateVolatility standard deviation of the yearly rate change in
+	 *                       percentage points (Ex: 1.0)
+	 * @param resetMonths    months between rate changes (Ex: 12)
+	 * @param prepaymentRate annual probability of a full prepayment as a
+	 *                       percentage (Ex: 6 for 6% CPR)
+	 */
+	public SimulationSettings(int paths, long seed, double rateVolatility, int resetMonths, double prepaymentRate) {
+		if (paths < 1) {
+			throw new IllegalArgumentException("Paths must be at least 1: " + paths);
+		}
+		if (resetMonths < 1) {
+			throw new IllegalArgumentException("Reset months must be at least 1: " + resetMonths);
+		}
+		if (rateVolatility < 0) {
+			throw new IllegalArgumentException("Rate volatility must not be negative: " + rateVolatility);
+		}
+		if (prepaymentRate < 0 || prepaymentRate >= 100) {
+			throw new IllegalArgumentException("Prepayment rate must be at least 0 and less than 100: " + prepaymentRate);
+		}
+		this.paths = paths;
+		this.seed = seed;
+		this.rateVolatility = rateVolatility;
+		this.resetMonths = resetMonths;
+		this.prepaymentRate = prepaymentRate;
+	}
+
+	public int getPaths() {
+		return paths;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public double getRateVolatility() {
+		return rateVolatility;
+	}
+
+	public int getResetMonths() {
+		return resetMonths;
+	}
+
+	public double getPrepaymentRate() {
+		return prepaymentRate;
+	}
+
+	/**
+	 * Monthly probability of a full prepayment (single monthly mortality), 1 - (1
+	 * - CPR)^(1/12).
+	 *
+	 * @return
+	 */
+	public double getMonthlyPrepaymentProbability() {
+		return 1 - Math.pow(1 - prepaymentRate / 100, 1.0 / 12);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(paths, prepaymentRate, rateVolatility, resetMonths, seed);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SimulationSettings other = (SimulationSettings) obj;
+		return paths == other.paths
+				&& Double.doubleToLongBits(prepaymentRate) == Double.doubleToLongBits(other.prepaymentRate)
+				&& Double.doubleToLongBits(rateVolatility) == Double.doubleToLongBits(other.rateVolatility)
+				&& resetMonths == other.resetMonths && seed == other.seed;
+	}
+
+	@Override
+	public String toString() {
+		return "SimulationSettings [paths=" + paths + ", seed=" + seed + ", rateVolatility=" + rateVolatility
+				+ ", resetMonths=" + resetMonths + ", prepaymentRate=" + prepaymentRate + "]";
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tim.amortization.calculator.model.ScheduleSummary;
+
+/**
+ * Schedule totals for a batch of loans with the same term and additional
+ * principal payment but different principals and rates, the shape of a
+ * portfolio revaluation.
+ *
+ * When the JVM was started with {@code --add-modules jdk.incubator.vector} the
+ * loans are calculated by {@link VectorBatchKernel}, which advances one loan
+ * per SIMD lane in lockstep. Otherwise, with the system property
+ * {@value #DISABLE_VECTOR_PROPERTY} set to true, or when a balance * rate is
+ * too large for the kernel, each loan is calculated with
+ * {@link ScheduleQueryUtility#summarize(long, long, long, long, RoundingMode)}.
+ * Both paths give the same results.
+ */
+public class BatchCalculationUtility {
+
+	public static final String DISABLE_VECTOR_PROPERTY = "amortization.vector.disabled";
+
+	private static final boolean VECTOR_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+			&& !Boolean.getBoolean(DISABLE_VECTOR_PROPERTY);
+
+	/**
+	 * @return true when batches are calculated with the Vector API
+	 */
+	public static boolean isVectorized() {
+		return VECTOR_AVAILABLE;
+	}
+
+	/**
+	 * Calculate the totals of each loan without producing rows.
+	 *
+	 * @param principalCents    principal of each loan
+	 * @param ratePpm           annual interest rate of each loan in parts per
+	 *                          million
+	 * @param numberOfPayments  number of months of every loan
+	 * @param additionalPayment additional principal payment of every loan in
+	 *                          cents
+	 * @param mode              rounding for the monthly payments and monthly
+	 *                          interest
+	 * @return summary of each loan, in the same order
+	 */
+	public static List<ScheduleSummary> summarize(long[] principalCents, long[] ratePpm, int numberOfPayments,
+			long additionalPayment, RoundingMode mode) {
+		long[] payments = monthlyPayments(principalCents, ratePpm, numberOfPayments, additionalPayment, mode);
+
+		if (VECTOR_AVAILABLE && VectorBatchKernel.supports(principalCents, ratePpm, mode)) {
+			return VectorBatchKernel.summarize(principalCents, ratePpm, payments, additionalPayment, mode);
+		}
+		return summarizeScalar(principalCents, ratePpm, payments, additionalPayment, mode);
+	}
+
+	/**
+	 * Scalar path, one loan at a time.
+	 */
+	static List<ScheduleSummary> summarizeScalar(long[] principalCents, long[] ratePpm, long[] payments,
+			long additionalPayment, RoundingMode mode) {
+		List<ScheduleSummary> summaries = new ArrayList<>(principalCents.length);
+		for (int i = 0; i < principalCents.length; i++) {
+			summaries.add(ScheduleQueryUtility.summarize(principalCents[i], ratePpm[i], payments[i], additionalPayment,
+					mode));
+		}
+		return summaries;
+	}
+
+	/**
+	 * Monthly payment of each loan, checking up front that every loan amortizes
+	 * and that no balance * rate overflows, so the lockstep loop can not throw.
+	 */
+	static long[] monthlyPayments(long[] principalCents, long[] ratePpm, int numberOfPayments,
+			long additionalPayment, RoundingMode mode) {
+		if (principalCents.length != ratePpm.length) {
+			throw new IllegalArgumentException(
+					"Expected one rate per loan: " + principalCents.length + " principals, " + ratePpm.length + " rates");
+		}
+
+		long[] payments = new long[principalCents.length];
+		for (int i = 0; i < payments.length; i++) {
+			if (principalCents[i] < 0 || ratePpm[i] < 0) {
+				throw new IllegalArgumentException(
+						"Principal and rate must not be negative: " + principalCents[i] + ", " + ratePpm[i]);
+			}
+			Math.multiplyExact(principalCents[i], ratePpm[i]);
+
+			payments[i] = FixedPointCalculationUtility.calculateMonthlyPaymentCents(principalCents[i], ratePpm[i],
+					numberOfPayments, mode);
+			FixedPointCalculationUtility.checkAmortizes(principalCents[i], ratePpm[i], payments[i], additionalPayment,
+					mode);
+		}
+		return payments;
+	}
+}
@@ -5,15 +5,17 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import javax.swing.JTextField;
 
-import org.apache.commons.lang3.StringUtils;
-
 import com.tim.amortization.calculator.exception.InputValidationException;
 import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanInput;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
 
 /**
  * Contains logic to calculate payments and to output an excel document with all
@@ -21,48 +23,107 @@ import com.tim.amortization.calculator.model.AmortizationRecord;
  */
 public class CalculationUtility {
 
+	public static final String PRINCIPAL_ERROR = "Invalid value for Principal Amount field. Value must be numeric.";
+
+	public static final String INTEREST_ERROR = "Invalid value for Interest Percentage. must be numeric.";
+
+	public static final String MORTGAGE_LENGTH_ERROR = "Invalid value for Mortgage Length. Value must be numeric.";
+
+	public static final String ADDITIONAL_PRINCIPAL_ERROR = "Invalid value for Additional Principal. Value must be numeric.";
+
+	private static final ScheduleCache SCHEDULE_CACHE = new ScheduleCache();
+
 	/**
-	 * Used to replace any commas in the input to allow for easier conversion into
-	 * Double / BigDecimal
+	 * Cache used by {@link #calculateMonthlyPayment(Double, Double, Double)} and
+	 * {@link #calculateAmortizationSchedule(LoanTerms)}, exposed for its hit, miss
+	 * and eviction counters.
 	 * 
-	 * @param input
 	 * @return
 	 */
-	private static Double convertTextInput(String input) {
-		return Double.valueOf(StringUtils.replace(input, ",", ""));
+	public static ScheduleCache getScheduleCache() {
+		return SCHEDULE_CACHE;
 	}
 
-	private static void validateInput(JTextField principalField, JTextField interestField, JTextField mortgageField,
-			JTextField additionalPrincipalField) {
-		List<String> errorMessages = new ArrayList<>();
+	/**
+	 * Validate text input in the same format the GUI accepts. Throws an
+	 * InputValidationException containing every failed validation, one per line.
+	 * See {@link InputParsingUtility} for the accepted formats.
+	 * 
+	 * @param principalAmt        principal amount (Ex: 600,000)
+	 * @param interestAmt         interest percentage (Ex: 6.5)
+	 * @param mortgageLength      length of mortgage in years (Ex: 30)
+	 * @param additionalPrincipal additional principal payment (Ex: 1000.00)
+	 */
+	public static void validateInput(String principalAmt, String interestAmt, String mortgageLength,
+			String additionalPrincipal) {
+		createLoanTerms(principalAmt, interestAmt, mortgageLength, additionalPrincipal);
+	}
 
-		String principalAmt = principalField.getText();
-		String interestAmt = interestField.getText();
-		String mortgageLength = mortgageField.getText();
-		String additionalPrincipal = additionalPrincipalField.getText();
+	/**
+	 * Validate numeric loan terms. Ranges mirror the text validations: principal
+	 * must be positive, interest between 0 and 100 percent, mortgage length at
+	 * least one year and additional principal non-negative with at most 8 digits.
+	 * 
+	 * @param terms
+	 */
+	public static void validateInput(LoanTerms terms) {
+		long start = MetricsUtility.start();
+		List<String> errorMessages = new ArrayList<>();
+		int invalidFields = 0;
 
-		if (StringUtils.isEmpty(principalAmt) || !Pattern.matches("(([0-9]){1,3}(,){1})+([0-9]){1,3}", principalAmt)) {
-			errorMessages.add("Invalid value for Principal Amount field. Value must be numeric.");
+		if (!Double.isFinite(terms.getPrincipal()) || terms.getPrincipal() <= 0) {
+			errorMessages.add(PRINCIPAL_ERROR);
+			invalidFields |= 1 << LoanInput.Field.PRINCIPAL.ordinal();
 		}
-		if (StringUtils.isEmpty(interestAmt) || !Pattern.matches("([0-9]){1,2}(.){1}([0-9]){1,2}", interestAmt)) {
-			errorMessages.add("Invalid value for Interest Percentage. must be numeric.");
+		if (!Double.isFinite(terms.getInterestRate()) || terms.getInterestRate() <= 0
+				|| terms.getInterestRate() >= 100) {
+			errorMessages.add(INTEREST_ERROR);
+			invalidFields |= 1 << LoanInput.Field.INTEREST.ordinal();
 		}
-		if (StringUtils.isEmpty(mortgageLength) || !StringUtils.isNumeric(mortgageLength)) {
-			errorMessages.add("Invalid value for Mortgage Length. Value must be numeric.");
+		if (terms.getMortgageLength() < 1) {
+			errorMessages.add(MORTGAGE_LENGTH_ERROR);
+			invalidFields |= 1 << LoanInput.Field.MORTGAGE_LENGTH.ordinal();
 		}
-		if (StringUtils.isEmpty(additionalPrincipal)
-				|| !Pattern.matches("([0-9]){1,8}(.){1}([0-9]){1,2}", additionalPrincipal)) {
-			errorMessages.add("Invalid value for Additional Principal. Value must be numeric.");
+		if (!Double.isFinite(terms.getAdditionalPrincipalPayment()) || terms.getAdditionalPrincipalPayment() < 0
+				|| terms.getAdditionalPrincipalPayment() >= 100_000_000) {
+			errorMessages.add(ADDITIONAL_PRINCIPAL_ERROR);
+			invalidFields |= 1 << LoanInput.Field.ADDITIONAL_PRINCIPAL.ordinal();
 		}
 
-		// if errorMessages is not empty then create one string with line separators to
-		// return to the user
+		MetricsUtility.recordValidation(start, invalidFields);
+		throwIfInvalid(errorMessages);
+	}
+
+	/**
+	 * If errorMessages is not empty then create one string with line separators to
+	 * return to the user
+	 * 
+	 * @param errorMessages
+	 */
+	private static void throwIfInvalid(List<String> errorMessages) {
 		if (!errorMessages.isEmpty()) {
 			String err = errorMessages.stream().collect(Collectors.joining("\n"));
 			throw new InputValidationException(err);
 		}
 	}
 
+	/**
+	 * Validate text input and convert it into LoanTerms.
+	 * 
+	 * @param principalAmt
+	 * @param interestAmt
+	 * @param mortgageLength
+	 * @param additionalPrincipal
+	 * @return
+	 */
+	public static LoanTerms createLoanTerms(String principalAmt, String interestAmt, String mortgageLength,
+			String additionalPrincipal) {
+		long start = MetricsUtility.start();
+		LoanInput input = InputParsingUtility.parse(principalAmt, interestAmt, mortgageLength, additionalPrincipal);
+		MetricsUtility.recordValidation(start, input.getInvalidFieldMask());
+		return InputParsingUtility.toLoanTerms(input);
+	}
+
 	/**
 	 * Calculate monthly payment with a PMT function.
 	 * 
@@ -72,12 +133,29 @@ public class CalculationUtility {
 	 * --> (6.5 / 100) / 12 = 0.0054167) n = number of payments (Ex: 30-year --> 30
 	 * * 12 = 360)
 	 * 
+	 * Payments are cached, see {@link #getScheduleCache()}.
+	 * 
 	 * @param principalAmt
 	 * @param interestAmt
 	 * @param mortgageLength
 	 * @return
 	 */
 	public static BigDecimal calculateMonthlyPayment(Double principalAmt, Double interestAmt, Double mortgageLength) {
+		long start = MetricsUtility.start();
+		BigDecimal payment = SCHEDULE_CACHE.getMonthlyPayment(principalAmt, interestAmt, mortgageLength);
+		MetricsUtility.recordMonthlyPayment(start);
+		return payment;
+	}
+
+	/**
+	 * Uncached {@link #calculateMonthlyPayment(Double, Double, Double)}.
+	 * 
+	 * @param principalAmt
+	 * @param interestAmt
+	 * @param mortgageLength
+	 * @return
+	 */
+	static BigDecimal computeMonthlyPayment(Double principalAmt, Double interestAmt, Double mortgageLength) {
 
 		// determine values for PMT function
 		Double numberOfPayment = mortgageLength * 12; // number of months for mortgage
@@ -103,10 +181,22 @@ public class CalculationUtility {
 	 * @return
 	 */
 	public static BigDecimal calculateMonthlyInterest(Double principalAmt, Double interestAmt) {
-		Double monthlyInterest = principalAmt * (interestAmt / 100) / 12;
+		return BigDecimal.valueOf(calculateMonthlyInterestCents(principalAmt, interestAmt), 2);
+	}
+
+	/**
+	 * Same as {@link #calculateMonthlyInterest(Double, Double)} in cents, without
+	 * boxing or creating a BigDecimal.
+	 * 
+	 * @param principalAmt
+	 * @param interestAmt
+	 * @return
+	 */
+	static long calculateMonthlyInterestCents(double principalAmt, double interestAmt) {
+		double monthlyInterest = principalAmt * (interestAmt / 100) / 12;
 
 		// round the result to the nearest cent value
-		return new BigDecimal(monthlyInterest).setScale(2, RoundingMode.CEILING);
+		return CentsUtility.ceilingCents(monthlyInterest);
 	}
 
 	/**
@@ -125,40 +215,106 @@ public class CalculationUtility {
 
 		// validate all user inputs, return String with a list of errors if validations
 		// fail.
-		validateInput(principalField, interestField, mortgageField, additionalPrincipalField);
+		return calculateAmortizationSchedule(createLoanTerms(principalField.getText(), interestField.getText(),
+				mortgageField.getText(), additionalPrincipalField.getText()));
+	}
+
+	/**
+	 * Determine the monthly payments and amortization schedule for already
+	 * validated loan terms. Does not depend on any Swing components so it can be
+	 * used from batch jobs and worker threads.
+	 * 
+	 * Schedules are cached, see {@link #getScheduleCache()}. The returned list is
+	 * a read-only view of a frozen schedule and every record is a new copy, so it
+	 * is safe to share between threads.
+	 * 
+	 * @param terms
+	 * @return read-only list view of the calculated schedule
+	 */
+	public static List<AmortizationRecord> calculateAmortizationSchedule(LoanTerms terms) {
+		long start = MetricsUtility.start();
+		List<AmortizationRecord> records = SCHEDULE_CACHE.getSchedule(terms).asRecords();
+		MetricsUtility.recordSchedule(start);
+		return records;
+	}
 
-		Double principalAmt = convertTextInput(principalField.getText());
-		Double interestAmt = convertTextInput(interestField.getText());
-		Double mortgageLength = convertTextInput(mortgageField.getText());
-		Double additionalPrincipalPayment = convertTextInput(additionalPrincipalField.getText());
+	/**
+	 * Determine the monthly payments and amortization schedule for already
+	 * validated loan terms, stored in columns of cents.
+	 * 
+	 * @param terms
+	 * @return
+	 */
+	public static AmortizationSchedule calculateSchedule(LoanTerms terms) {
+		AmortizationSchedule schedule = new AmortizationSchedule(terms.getMortgageLength() * 12);
+		calculateSchedule(terms, schedule);
+		return schedule;
+	}
+
+	/**
+	 * Calculate the totals of the schedule for already validated loan terms
+	 * without storing the months. Same values as summing the rows of
+	 * {@link #calculateSchedule(LoanTerms)}.
+	 * 
+	 * @param terms
+	 * @return
+	 */
+	public static ScheduleSummary summarizeSchedule(LoanTerms terms) {
+		long[] totals = new long[3];
+		int months = calculateSchedule(terms,
+				(month, principalPaid, interestPaid, remainingPrincipal, additionalPrincipalPayment) -> {
+					totals[0] += interestPaid;
+					totals[1] += additionalPrincipalPayment;
+					totals[2] = remainingPrincipal;
+				});
+		long monthlyPayment = calculateMonthlyPayment(terms.getPrincipal(), terms.getInterestRate(),
+				(double) terms.getMortgageLength()).unscaledValue().longValueExact();
+
+		return new ScheduleSummary(monthlyPayment, months, totals[0], totals[1], totals[2]);
+	}
+
+	/**
+	 * Determine the monthly payments and amortization schedule for already
+	 * validated loan terms, passing each month to the consumer as it is calculated
+	 * instead of storing it.
+	 * 
+	 * @param terms
+	 * @param consumer receives each month of the schedule in cents
+	 * @return number of months until the loan is paid off
+	 */
+	public static int calculateSchedule(LoanTerms terms, ScheduleRowConsumer consumer) {
+
+		double principalAmt = terms.getPrincipal();
+		double interestAmt = terms.getInterestRate();
+		double additionalPrincipalPayment = terms.getAdditionalPrincipalPayment();
 
 		// monthly payment (principalOnly + monthlyInterest)
-		BigDecimal monthlyPayment = CalculationUtility.calculateMonthlyPayment(principalAmt, interestAmt,
-				mortgageLength);
+		double monthlyPayment = CalculationUtility
+				.calculateMonthlyPayment(principalAmt, interestAmt, (double) terms.getMortgageLength()).doubleValue();
+		long additionalPrincipalCents = CentsUtility.ceilingCents(additionalPrincipalPayment);
 
 		int counter = 1;
-		List<AmortizationRecord> records = new ArrayList<>();
 
 		// While principalAmt greater than zero, calculate interest and how much
 		// principal is paid. Once principalAmt is less than 0 break out of loop to
 		// create excel spreadsheet
 		while (principalAmt > 0) {
-			BigDecimal monthlyInterest = CalculationUtility.calculateMonthlyInterest(principalAmt, interestAmt);
-			Double principalOnly = monthlyPayment.doubleValue() - monthlyInterest.doubleValue();
+			long monthlyInterest = calculateMonthlyInterestCents(principalAmt, interestAmt);
+			double principalOnly = monthlyPayment - CentsUtility.toDollars(monthlyInterest);
 
 			// update principalAmt by subtracting the principalOnly amount and any
 			// additionalPrincipalPayment paid each month
 			principalAmt -= (principalOnly + additionalPrincipalPayment);
 
-			records.add(new AmortizationRecord(counter, new BigDecimal(principalOnly).setScale(2, RoundingMode.CEILING),
-					monthlyInterest, new BigDecimal(principalAmt).setScale(2, RoundingMode.CEILING),
-					new BigDecimal(additionalPrincipalPayment).setScale(2, RoundingMode.CEILING)));
+			consumer.accept(counter, CentsUtility.ceilingCents(principalOnly), monthlyInterest,
+					CentsUtility.ceilingCents(principalAmt), additionalPrincipalCents);
 
 			// increment counter for loop and month column in spreadsheet
 			counter++;
 		}
 
-		return records;
+		MetricsUtility.recordScheduleLength(counter - 1);
+		return counter - 1;
 	}
 
 }
@@ -0,0 +1,194 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
+
+/**
+ * Cash flows of many loans summed per calendar month: principal, interest and
+ * additional principal paid, principal outstanding after the payment and the
+ * number of payments. Each column is a long array indexed by the months since
+ * the first month of the ladder, amounts are in cents.
+ *
+ * Pass the ladder to the calculation as the ScheduleRowConsumer after calling
+ * {@link #startLoan(YearMonth)}, no rows are stored per loan. Ladders with the
+ * same first month are combined with {@link #merge(CashFlowLadder)}, which is
+ * associative and commutative, so loans can be summed on any number of threads
+ * in any grouping.
+ *
+ * A ladder is not thread safe, use one per thread and merge them.
+ */
+public final class CashFlowLadder implements ScheduleRowConsumer {
+
+	private static final int INITIAL_MONTHS = 360;
+
+	private final YearMonth firstMonth;
+
+	private long[] principalPaid = new long[INITIAL_MONTHS];
+
+	private long[] interestPaid = new long[INITIAL_MONTHS];
+
+	private long[] additionalPrincipalPayment = new long[INITIAL_MONTHS];
+
+	private long[] outstandingPrincipal = new long[INITIAL_MONTHS];
+
+	private long[] payments = new long[INITIAL_MONTHS];
+
+	private int months;
+
+	private long loans;
+
+	/**
+	 * months between the first month of the ladder and the first payment of the
+	 * current loan
+	 */
+	private int offset = -1;
+
+	/**
+	 * @param firstMonth calendar month of index 0, no loan may start before it
+	 */
+	public CashFlowLadder(YearMonth firstMonth) {
+		this.firstMonth = firstMonth;
+	}
+
+	/**
+	 * Start the rows of a new loan, month 1 of its schedule is added to
+	 * firstPaymentMonth.
+	 *
+	 * @param firstPaymentMonth
+	 */
+	public void startLoan(YearMonth firstPaymentMonth) {
+		long monthsBefore = firstMonth.until(firstPaymentMonth, ChronoUnit.MONTHS);
+		if (monthsBefore < 0 || monthsBefore > Integer.MAX_VALUE / 2) {
+			throw new IllegalArgumentException(
+					"First payment " + firstPaymentMonth + " is outside the ladder starting " + firstMonth);
+		}
+		this.offset = (int) monthsBefore;
+		loans++;
+	}
+
+	@Override
+	public void accept(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+			long additionalPrincipalPayment) {
+		if (offset < 0) {
+			throw new IllegalStateException("startLoan must be called before adding rows");
+		}
+		int index = offset + month - 1;
+		if (index >= this.principalPaid.length) {
+			grow(index + 1);
+		}
+		this.principalPaid[index] += principalPaid;
+		this.interestPaid[index] += interestPaid;
+		this.additionalPrincipalPayment[index] += additionalPrincipalPayment;
+		this.outstandingPrincipal[index] += Math.max(remainingPrincipal, 0);
+		this.payments[index]++;
+		if (index >= months) {
+			months = index + 1;
+		}
+	}
+
+	/**
+	 * Add the cash flows of another ladder to this one.
+	 *
+	 * @param other ladder with the same first month, not modified
+	 * @return this ladder
+	 */
+	public CashFlowLadder merge(CashFlowLadder other) {
+		if (!firstMonth.equals(other.firstMonth)) {
+			throw new IllegalArgumentException(
+					"Cannot merge ladders starting " + firstMonth + " and " + other.firstMonth);
+		}
+		if (other.months > principalPaid.length) {
+			grow(other.months);
+		}
+		for (int i = 0; i < other.months; i++) {
+			principalPaid[i] += other.principalPaid[i];
+			interestPaid[i] += other.interestPaid[i];
+			additionalPrincipalPayment[i] += other.additionalPrincipalPayment[i];
+			outstandingPrincipal[i] += other.outstandingPrincipal[i];
+			payments[i] += other.payments[i];
+		}
+		months = Math.max(months, other.months);
+		loans += other.loans;
+		return this;
+	}
+
+	private void grow(int minMonths) {
+		int length = Math.max(minMonths, principalPaid.length * 2);
+		principalPaid = Arrays.copyOf(principalPaid, length);
+		interestPaid = Arrays.copyOf(interestPaid, length);
+		additionalPrincipalPayment = Arrays.copyOf(additionalPrincipalPayment, length);
+		outstandingPrincipal = Arrays.copyOf(outstandingPrincipal, length);
+		payments = Arrays.copyOf(payments, length);
+	}
+
+	public YearMonth getFirstMonth() {
+		return firstMonth;
+	}
+
+	/**
+	 * @return number of months from the first month to the last payment
+	 */
+	public int size() {
+		return months;
+	}
+
+	/**
+	 * @return number of loans added, including merged ladders
+	 */
+	public long getLoanCount() {
+		return loans;
+	}
+
+	public YearMonth getMonth(int index) {
+		checkIndex(index);
+		return firstMonth.plusMonths(index);
+	}
+
+	public long getPrincipalPaidCents(int index) {
+		checkIndex(index);
+		return principalPaid[index];
+	}
+
+	public long getInterestPaidCents(int index) {
+		checkIndex(index);
+		return interestPaid[index];
+	}
+
+	public long getAdditionalPrincipalPaymentCents(int index) {
+		checkIndex(index);
+		return additionalPrincipalPayment[index];
+	}
+
+	/**
+	 * @param index
+	 * @return principal outstanding after the payments of the month, loans not
+	 *         started yet are not included
+	 */
+	public long getOutstandingPrincipalCents(int index) {
+		checkIndex(index);
+		return outstandingPrincipal[index];
+	}
+
+	/**
+	 * @param index
+	 * @return number of loans with a payment in the month
+	 */
+	public long getPaymentCount(int index) {
+		checkIndex(index);
+		return payments[index];
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= months) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + months);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "CashFlowLadder [firstMonth=" + firstMonth + ", months=" + months + ", loans=" + loans + "]";
+	}
+}
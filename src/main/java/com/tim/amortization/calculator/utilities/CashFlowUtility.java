@@ -0,0 +1,126 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+
+/**
+ * Sums the schedules of a portfolio into a {@link CashFlowLadder} of calendar
+ * months. Loans are calculated with
+ * {@link CalculationUtility#calculateSchedule(LoanTerms, com.tim.amortization.calculator.model.ScheduleRowConsumer)}
+ * straight into the ladder, no schedule or AmortizationRecord is created.
+ *
+ * Loans are split across a fork/join pool, each task sums its loans into its
+ * own ladder and the ladders are merged up the task tree. The sums are exact
+ * longs, so the result does not depend on the number of threads.
+ */
+public class CashFlowUtility {
+
+	/**
+	 * Loans summed by one fork/join task.
+	 */
+	static final int LOANS_PER_TASK = 64;
+
+	/**
+	 * Sum a portfolio file whose loans all make their first payment in the same
+	 * month.
+	 *
+	 * @param portfolioFile
+	 * @param firstPaymentMonth
+	 * @return
+	 * @throws IOException
+	 */
+	public static CashFlowLadder aggregate(Path portfolioFile, YearMonth firstPaymentMonth) throws IOException {
+		return aggregate(PortfolioUtility.readPortfolio(portfolioFile), firstPaymentMonth);
+	}
+
+	/**
+	 * Sum loans that all make their first payment in the same month, on the
+	 * common fork/join pool.
+	 *
+	 * @param loans             validated loan terms
+	 * @param firstPaymentMonth
+	 * @return
+	 */
+	public static CashFlowLadder aggregate(List<LoanTerms> loans, YearMonth firstPaymentMonth) {
+		return aggregate(loans, Collections.nCopies(loans.size(), firstPaymentMonth), firstPaymentMonth,
+				ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Sum loans with their own first payment month on the given fork/join pool.
+	 * The ladder starts at the earliest first payment, or the current month if
+	 * there are no loans.
+	 *
+	 * @param loans              validated loan terms
+	 * @param firstPaymentMonths first payment month of each loan
+	 * @param pool
+	 * @return
+	 */
+	public static CashFlowLadder aggregate(List<LoanTerms> loans, List<YearMonth> firstPaymentMonths,
+			ForkJoinPool pool) {
+		if (loans.size() != firstPaymentMonths.size()) {
+			throw new IllegalArgumentException("Expected a first payment month for each of the " + loans.size()
+					+ " loans, got " + firstPaymentMonths.size());
+		}
+		YearMonth firstMonth = loans.isEmpty() ? YearMonth.now() : Collections.min(firstPaymentMonths);
+		return aggregate(loans, firstPaymentMonths, firstMonth, pool);
+	}
+
+	private static CashFlowLadder aggregate(List<LoanTerms> loans, List<YearMonth> firstPaymentMonths,
+			YearMonth firstMonth, ForkJoinPool pool) {
+		if (loans.isEmpty()) {
+			return new CashFlowLadder(firstMonth);
+		}
+		return pool.invoke(new LadderTask(loans, firstPaymentMonths, firstMonth, 0, loans.size()));
+	}
+
+	private static class LadderTask extends RecursiveTask<CashFlowLadder> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient List<LoanTerms> loans;
+
+		private final transient List<YearMonth> firstPaymentMonths;
+
+		private final YearMonth firstMonth;
+
+		private final int from;
+
+		private final int to;
+
+		LadderTask(List<LoanTerms> loans, List<YearMonth> firstPaymentMonths, YearMonth firstMonth, int from,
+				int to) {
+			this.loans = loans;
+			this.firstPaymentMonths = firstPaymentMonths;
+			this.firstMonth = firstMonth;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected CashFlowLadder compute() {
+			if (to - from <= LOANS_PER_TASK) {
+				CashFlowLadder ladder = new CashFlowLadder(firstMonth);
+				for (int i = from; i < to; i++) {
+					ladder.startLoan(firstPaymentMonths.get(i));
+					CalculationUtility.calculateSchedule(loans.get(i), ladder);
+				}
+				return ladder;
+			}
+
+			int middle = (from + to) >>> 1;
+			LadderTask left = new LadderTask(loans, firstPaymentMonths, firstMonth, from, middle);
+			LadderTask right = new LadderTask(loans, firstPaymentMonths, firstMonth, middle, to);
+			left.fork();
+			CashFlowLadder ladder = right.compute();
+			return ladder.merge(left.join());
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.RoundingMode;
+
+/**
+ * Helpers for working with monetary amounts stored as a long number of cents.
+ */
+public class CentsUtility {
+
+	/**
+	 * Round a double up to the next cent. Returns the same value as
+	 * {@code new BigDecimal(value).setScale(2, RoundingMode.CEILING)} in cents
+	 * without creating a BigDecimal.
+	 *
+	 * {@code value * 100} may be rounded, so the result is corrected using the
+	 * exact sign of {@code 100 * value - cents} from a fused multiply-add.
+	 *
+	 * @param value
+	 * @return
+	 */
+	public static long ceilingCents(double value) {
+		if (!Double.isFinite(value)) {
+			throw new NumberFormatException("Infinite or NaN");
+		}
+
+		long cents = (long) Math.ceil(value * 100);
+		while (Math.fma(100, value, -cents) > 0) {
+			cents++;
+		}
+		while (Math.fma(100, value, -(cents - 1)) <= 0) {
+			cents--;
+		}
+		return cents;
+	}
+
+	/**
+	 * Convert cents into the dollar value used for spreadsheet cells.
+	 *
+	 * @param cents
+	 * @return
+	 */
+	public static double toDollars(long cents) {
+		return cents / 100.0;
+	}
+
+	/**
+	 * Convert a dollar amount into the nearest number of cents.
+	 *
+	 * @param dollars
+	 * @return
+	 */
+	public static long toCents(double dollars) {
+		return Math.round(dollars * 100);
+	}
+
+	/**
+	 * Divide two longs, rounding the quotient with the provided RoundingMode. Gives
+	 * the same result as BigDecimal division to zero decimal places without
+	 * allocating.
+	 *
+	 * @param dividend
+	 * @param divisor  must be positive
+	 * @param mode
+	 * @return
+	 * @throws ArithmeticException if mode is UNNECESSARY and the division is not
+	 *                             exact
+	 */
+	public static long divide(long dividend, long divisor, RoundingMode mode) {
+		long quotient = dividend / divisor;
+		long remainder = dividend % divisor;
+		if (remainder == 0) {
+			return quotient;
+		}
+
+		// the remainder has the same sign as the dividend, round away from zero by
+		// moving the quotient in that direction
+		long away = dividend < 0 ? quotient - 1 : quotient + 1;
+		long absRemainder = Math.abs(remainder);
+		int half = Long.compare(absRemainder, divisor - absRemainder);
+
+		switch (mode) {
+		case UP:
+			return away;
+		case DOWN:
+			return quotient;
+		case CEILING:
+			return dividend > 0 ? away : quotient;
+		case FLOOR:
+			return dividend < 0 ? away : quotient;
+		case HALF_UP:
+			return half >= 0 ? away : quotient;
+		case HALF_DOWN:
+			return half > 0 ? away : quotient;
+		case HALF_EVEN:
+			return half > 0 || (half == 0 && (quotient & 1) != 0) ? away : quotient;
+		default:
+			throw new ArithmeticException("Rounding necessary");
+		}
+	}
+}
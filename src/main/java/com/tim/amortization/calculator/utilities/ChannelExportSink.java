@@ -0,0 +1,129 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Base class for text sinks written through a buffered channel, a FileChannel
+ * for files or any other WritableByteChannel (Ex: an HTTP response body).
+ * Numbers are formatted straight into the buffer, so writing a row does not
+ * create any Strings.
+ */
+abstract class ChannelExportSink implements ExportSink {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final WritableByteChannel channel;
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	private final byte[] digits = new byte[20];
+
+	protected ChannelExportSink(Path outputFile) throws IOException {
+		this(FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING));
+	}
+
+	/**
+	 * @param channel written whenever the buffer fills, closed with the sink
+	 */
+	protected ChannelExportSink(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	protected void put(char c) {
+		if (!buffer.hasRemaining()) {
+			flush();
+		}
+		buffer.put((byte) c);
+	}
+
+	protected void put(String text) {
+		put(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	protected void put(byte[] bytes) {
+		for (byte b : bytes) {
+			if (!buffer.hasRemaining()) {
+				flush();
+			}
+			buffer.put(b);
+		}
+	}
+
+	/**
+	 * Write a whole number in decimal.
+	 *
+	 * @param value
+	 */
+	protected void putLong(long value) {
+		if (value < 0) {
+			put('-');
+			value = -value;
+		}
+
+		int length = 0;
+		do {
+			digits[length++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value > 0);
+
+		while (length > 0) {
+			put((char) digits[--length]);
+		}
+	}
+
+	/**
+	 * Write an amount of cents as dollars with two decimal places (Ex: 54558 -->
+	 * 545.58).
+	 *
+	 * @param cents
+	 */
+	protected void putCents(long cents) {
+		if (cents < 0) {
+			put('-');
+			cents = -cents;
+		}
+		putLong(cents / 100);
+		put('.');
+		put((char) ('0' + cents % 100 / 10));
+		put((char) ('0' + cents % 10));
+	}
+
+	private void flush() {
+		buffer.flip();
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Close the channel without writing what is left in the buffer.
+	 */
+	@Override
+	public void abort() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,191 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+
+/**
+ * Writes schedules in a compact binary columnar format. Rows of a loan are
+ * collected into columns and written as one block when the loan ends, similar
+ * to a Parquet row group. All numbers are big-endian.
+ *
+ * <pre>
+ * file   = "AMRT" version:int block*
+ * block  = nameLength:int name:utf8 rowCount:int
+ *          month:int[rowCount] principalPaid:long[rowCount] interestPaid:long[rowCount]
+ *          remainingPrincipal:long[rowCount] additionalPrincipalPayment:long[rowCount]
+ * </pre>
+ *
+ * Amounts are in cents.
+ */
+public class ColumnarExportSink implements ExportSink {
+
+	static final int MAGIC = 0x414D5254; // "AMRT"
+
+	static final int VERSION = 1;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final FileChannel channel;
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	private final AmortizationSchedule rows = new AmortizationSchedule();
+
+	private byte[] loanName;
+
+	public ColumnarExportSink(Path outputFile) throws IOException {
+		this.channel = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+	}
+
+	@Override
+	public void startLoan(String name) {
+		try {
+			writeBlock();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		this.loanName = name.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void accept(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+			long additionalPrincipalPayment) {
+		if (loanName == null) {
+			throw new IllegalStateException("startLoan must be called before writing rows");
+		}
+		rows.add(month, principalPaid, interestPaid, remainingPrincipal, additionalPrincipalPayment);
+	}
+
+	/**
+	 * Write the rows collected for the current loan as one block.
+	 */
+	private void writeBlock() throws IOException {
+		if (loanName == null) {
+			return;
+		}
+
+		ensureRemaining(Integer.BYTES);
+		buffer.putInt(loanName.length);
+		for (byte b : loanName) {
+			ensureRemaining(1);
+			buffer.put(b);
+		}
+		ensureRemaining(Integer.BYTES);
+		buffer.putInt(rows.size());
+
+		for (int i = 0; i < rows.size(); i++) {
+			ensureRemaining(Integer.BYTES);
+			buffer.putInt(rows.getMonth(i));
+		}
+		for (int i = 0; i < rows.size(); i++) {
+			ensureRemaining(Long.BYTES);
+			buffer.putLong(rows.getPrincipalPaidCents(i));
+		}
+		for (int i = 0; i < rows.size(); i++) {
+			ensureRemaining(Long.BYTES);
+			buffer.putLong(rows.getInterestPaidCents(i));
+		}
+		for (int i = 0; i < rows.size(); i++) {
+			ensureRemaining(Long.BYTES);
+			buffer.putLong(rows.getRemainingPrincipalCents(i));
+		}
+		for (int i = 0; i < rows.size(); i++) {
+			ensureRemaining(Long.BYTES);
+			buffer.putLong(rows.getAdditionalPrincipalPaymentCents(i));
+		}
+
+		rows.clear();
+		loanName = null;
+	}
+
+	private void ensureRemaining(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			writeBlock();
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Close the file without writing the buffered block.
+	 */
+	@Override
+	public void abort() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Read every block of a columnar file, keyed by loan name in file order.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static Map<String, AmortizationSchedule> read(Path file) throws IOException {
+		Map<String, AmortizationSchedule> schedules = new LinkedHashMap<>();
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (data.remaining() < 8 || data.getInt() != MAGIC) {
+				throw new IOException("Not a columnar schedule file: " + file);
+			}
+			int version = data.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported columnar schedule file version " + version + ": " + file);
+			}
+
+			while (data.hasRemaining()) {
+				byte[] name = new byte[data.getInt()];
+				data.get(name);
+				int rowCount = data.getInt();
+
+				int months = data.position();
+				int principal = months + rowCount * Integer.BYTES;
+				int interest = principal + rowCount * Long.BYTES;
+				int remaining = interest + rowCount * Long.BYTES;
+				int additional = remaining + rowCount * Long.BYTES;
+
+				AmortizationSchedule schedule = new AmortizationSchedule(rowCount);
+				for (int i = 0; i < rowCount; i++) {
+					schedule.add(data.getInt(months + i * Integer.BYTES), data.getLong(principal + i * Long.BYTES),
+							data.getLong(interest + i * Long.BYTES), data.getLong(remaining + i * Long.BYTES),
+							data.getLong(additional + i * Long.BYTES));
+				}
+				data.position(additional + rowCount * Long.BYTES);
+
+				schedules.put(new String(name, StandardCharsets.UTF_8), schedule);
+			}
+		}
+
+		return schedules;
+	}
+
+}
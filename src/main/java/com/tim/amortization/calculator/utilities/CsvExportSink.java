@@ -0,0 +1,62 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Writes schedules as CSV, one row per month with a header line. Amounts are
+ * written in dollars with two decimal places.
+ */
+public class CsvExportSink extends ChannelExportSink {
+
+	private byte[] loanName;
+
+	public CsvExportSink(Path outputFile) throws IOException {
+		super(outputFile);
+		putHeader();
+	}
+
+	/**
+	 * @param channel written as the buffer fills, closed with the sink
+	 */
+	public CsvExportSink(WritableByteChannel channel) {
+		super(channel);
+		putHeader();
+	}
+
+	private void putHeader() {
+		put("loan,month,principalPaid,interestPaid,additionalPrincipalPayment,remainingPrincipal\n");
+	}
+
+	@Override
+	public void startLoan(String name) {
+		// quote the name if it contains a separator, doubling any quotes
+		if (name.indexOf(',') >= 0 || name.indexOf('"') >= 0 || name.indexOf('\n') >= 0) {
+			name = '"' + name.replace("\"", "\"\"") + '"';
+		}
+		this.loanName = name.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void accept(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+			long additionalPrincipalPayment) {
+		if (loanName == null) {
+			throw new IllegalStateException("startLoan must be called before writing rows");
+		}
+		put(loanName);
+		put(',');
+		putLong(month);
+		put(',');
+		putCents(principalPaid);
+		put(',');
+		putCents(interestPaid);
+		put(',');
+		putCents(additionalPrincipalPayment);
+		put(',');
+		putCents(remainingPrincipal);
+		put('\n');
+	}
+
+}
@@ -1,27 +1,51 @@
 package com.tim.amortization.calculator.utilities;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PaymentPlan;
 
 /**
  * Class containing functionality to create the output Excel spreadsheet.
  */
 public class ExcelUtility {
 
+	static final String[] SCHEDULE_HEADERS = { "Month", "Principal Payment", "Interest Payment",
+			"Additional Principal Payment", "Remaining Principal" };
+
+	static final int[] SCHEDULE_COLUMN_WIDTHS = { 3000, 8000, 8000, 12000, 8000 };
+
+	static final String[] LADDER_HEADERS = { "Month", "Principal Payment", "Interest Payment",
+			"Additional Principal Payment", "Outstanding Principal", "Payments" };
+
+	static final int[] LADDER_COLUMN_WIDTHS = { 3000, 8000, 8000, 12000, 8000, 4000 };
+
+	static final String[] PERIOD_HEADERS = { "Payment Date", "Period", "Principal Payment", "Interest Payment",
+			"Additional Principal Payment", "Remaining Principal" };
+
+	static final int[] PERIOD_COLUMN_WIDTHS = { 4000, 3000, 8000, 8000, 12000, 8000 };
+
+	/**
+	 * Excel date serial number of 1970-01-01, epoch day 0
+	 */
+	private static final int EXCEL_EPOCH_OFFSET = 25569;
+
 	/**
 	 * Create Excel spreadsheet to contain data.
 	 * 
@@ -29,89 +53,340 @@ public class ExcelUtility {
 	 * @throws IOException
 	 */
 	public static void createExcelDoc(List<AmortizationRecord> records) throws IOException {
-		// create workbook
+		createExcelDoc(records, ExportUtility.defaultOutputFile(ExportFormat.XLSX));
+	}
+
+	/**
+	 * Create Excel spreadsheet containing the records at the provided location.
+	 * 
+	 * @param records
+	 * @param outputFile
+	 * @throws IOException
+	 */
+	public static void createExcelDoc(List<AmortizationRecord> records, Path outputFile) throws IOException {
+		long start = MetricsUtility.start();
 		Workbook workbook = new XSSFWorkbook();
-		Sheet sheet = workbook.createSheet("AmortizationSchedule");
-		sheet.setColumnWidth(0, 3000);
-		sheet.setColumnWidth(1, 8000);
-		sheet.setColumnWidth(2, 8000);
-		sheet.setColumnWidth(3, 12000);
-		sheet.setColumnWidth(4, 8000);
+		Sheet sheet = createScheduleSheet(workbook);
 
-		Row header = sheet.createRow(0);
+		// CellStyle for the data
+		CellStyle style = createDataStyle(workbook);
+
+		// fill in data for each row using an AmortizationRecord from the List
+		records.stream().forEach(rec -> {
+			writeRow(sheet, style, rec.getMonth(), rec.getPrincipalPaid().doubleValue(),
+					rec.getInterestPaid().doubleValue(), rec.getAdditionalPrincipalPayment().doubleValue(),
+					rec.getRemainingPrincipal().doubleValue());
+		});
+
+		writeWorkbook(workbook, outputFile);
+		MetricsUtility.recordExcel(start, records.size(), outputFile);
+	}
+
+	/**
+	 * Create Excel spreadsheet reading directly from the columns of an
+	 * AmortizationSchedule, without creating an AmortizationRecord per row.
+	 * 
+	 * @param schedule
+	 * @throws IOException
+	 */
+	public static void createExcelDoc(AmortizationSchedule schedule) throws IOException {
+		createExcelDoc(schedule, ExportUtility.defaultOutputFile(ExportFormat.XLSX));
+	}
+
+	/**
+	 * Create Excel spreadsheet from the columns of an AmortizationSchedule at the
+	 * provided location.
+	 * 
+	 * @param schedule
+	 * @param outputFile
+	 * @throws IOException
+	 */
+	public static void createExcelDoc(AmortizationSchedule schedule, Path outputFile) throws IOException {
+		long start = MetricsUtility.start();
+		Workbook workbook = new XSSFWorkbook();
+		Sheet sheet = createScheduleSheet(workbook);
+
+		// CellStyle for the data
+		CellStyle style = createDataStyle(workbook);
+
+		for (int i = 0; i < schedule.size(); i++) {
+			writeRow(sheet, style, schedule.getMonth(i), CentsUtility.toDollars(schedule.getPrincipalPaidCents(i)),
+					CentsUtility.toDollars(schedule.getInterestPaidCents(i)),
+					CentsUtility.toDollars(schedule.getAdditionalPrincipalPaymentCents(i)),
+					CentsUtility.toDollars(schedule.getRemainingPrincipalCents(i)));
+		}
+
+		writeWorkbook(workbook, outputFile);
+		MetricsUtility.recordExcel(start, schedule.size(), outputFile);
+	}
+
+	/**
+	 * Calculate and write the schedule of every loan straight into a streaming
+	 * workbook. Rows go from the calculation loop to the sheet without building a
+	 * List&lt;AmortizationRecord&gt;, and memory stays bounded by the row window of
+	 * {@link StreamingExcelWriter}.
+	 * 
+	 * @param loans        validated loan terms, may be read lazily
+	 * @param outputFile   xlsx file to create
+	 * @param sheetPerLoan true for one sheet per loan, false for one long sheet
+	 * @return number of loans written
+	 * @throws IOException
+	 */
+	public static int createStreamingExcelDoc(Iterable<LoanTerms> loans, Path outputFile, boolean sheetPerLoan)
+			throws IOException {
+		try (StreamingExcelWriter writer = new StreamingExcelWriter(outputFile, StreamingExcelWriter.DEFAULT_ROW_WINDOW,
+				sheetPerLoan)) {
+			return ExportUtility.exportPortfolio(loans, writer);
+		}
+	}
+
+	/**
+	 * Calculate every loan and write it to its own sheet, rendering the sheets in
+	 * parallel on every available core. See {@link ParallelExcelWriter}.
+	 * 
+	 * @param loans      loan terms, may be read lazily
+	 * @param outputFile xlsx file to create
+	 * @return number of loans written
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static int createParallelExcelDoc(Iterable<LoanTerms> loans, Path outputFile)
+			throws IOException, InterruptedException {
+		return new ParallelExcelWriter().write(loans, outputFile);
+	}
+
+	/**
+	 * Calculate the schedule of a loan with any payment frequency and write it
+	 * with the payment date of each period. Periods go from the calculation loop
+	 * to the sheet without storing the schedule.
+	 * 
+	 * @param terms      validated loan terms
+	 * @param plan
+	 * @param outputFile
+	 * @return number of payments written
+	 * @throws IOException
+	 */
+	public static int createExcelDoc(LoanTerms terms, PaymentPlan plan, Path outputFile) throws IOException {
+		long start = MetricsUtility.start();
+		Workbook workbook = new XSSFWorkbook();
+		Sheet sheet = createSheet(workbook, "AmortizationSchedule", createHeaderStyle(workbook), PERIOD_HEADERS,
+				PERIOD_COLUMN_WIDTHS);
+
+		// CellStyle for the data
+		CellStyle style = createDataStyle(workbook);
+		CellStyle dateStyle = workbook.createCellStyle();
+		dateStyle.cloneStyleFrom(style);
+		dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+
+		int periods = PeriodCalculationUtility.calculateSchedule(terms, plan,
+				(period, paymentDate, principalPaid, interestPaid, remainingPrincipal, additionalPrincipalPayment) -> {
+					Row row = sheet.createRow(period);
+
+					// cell for payment date, stored as an Excel date serial number
+					Cell cell = row.createCell(0);
+					cell.setCellValue(paymentDate + EXCEL_EPOCH_OFFSET);
+					cell.setCellStyle(dateStyle);
+
+					writeCells(row, 1, style, period, CentsUtility.toDollars(principalPaid),
+							CentsUtility.toDollars(interestPaid), CentsUtility.toDollars(additionalPrincipalPayment),
+							CentsUtility.toDollars(remainingPrincipal));
+				});
+
+		writeWorkbook(workbook, outputFile);
+		MetricsUtility.recordExcel(start, periods, outputFile);
+		return periods;
+	}
+
+	/**
+	 * Create Excel spreadsheet with one row per calendar month of a cash flow
+	 * ladder. The month is written as the date of its first day, formatted as
+	 * yyyy-mm.
+	 * 
+	 * @param ladder
+	 * @param outputFile
+	 * @throws IOException
+	 */
+	public static void createExcelDoc(CashFlowLadder ladder, Path outputFile) throws IOException {
+		long start = MetricsUtility.start();
+		Workbook workbook = new XSSFWorkbook();
+		Sheet sheet = createSheet(workbook, "CashFlowLadder", createHeaderStyle(workbook), LADDER_HEADERS,
+				LADDER_COLUMN_WIDTHS);
+
+		// CellStyle for the data
+		CellStyle style = createDataStyle(workbook);
+		CellStyle monthStyle = workbook.createCellStyle();
+		monthStyle.cloneStyleFrom(style);
+		monthStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm"));
+
+		// months since year 0 of the first month
+		int firstMonth = ladder.getFirstMonth().getYear() * 12 + ladder.getFirstMonth().getMonthValue() - 1;
+
+		for (int i = 0; i < ladder.size(); i++) {
+			Row row = sheet.createRow(i + 1);
+
+			// cell for the first day of the month, stored as an Excel date serial number
+			int month = firstMonth + i;
+			Cell cell = row.createCell(0);
+			cell.setCellValue(PeriodCalculationUtility.epochDay(month / 12, month % 12 + 1, 1) + EXCEL_EPOCH_OFFSET);
+			cell.setCellStyle(monthStyle);
+
+			writeCell(row, 1, style, CentsUtility.toDollars(ladder.getPrincipalPaidCents(i)));
+			writeCell(row, 2, style, CentsUtility.toDollars(ladder.getInterestPaidCents(i)));
+			writeCell(row, 3, style, CentsUtility.toDollars(ladder.getAdditionalPrincipalPaymentCents(i)));
+			writeCell(row, 4, style, CentsUtility.toDollars(ladder.getOutstandingPrincipalCents(i)));
+			writeCell(row, 5, style, ladder.getPaymentCount(i));
+		}
+
+		writeWorkbook(workbook, outputFile);
+		MetricsUtility.recordExcel(start, ladder.size(), outputFile);
+	}
 
+	/**
+	 * Create the "AmortizationSchedule" sheet with column widths and the header
+	 * row.
+	 * 
+	 * @param workbook
+	 * @return
+	 */
+	private static Sheet createScheduleSheet(Workbook workbook) {
+		return createSheet(workbook, "AmortizationSchedule", createHeaderStyle(workbook), SCHEDULE_HEADERS,
+				SCHEDULE_COLUMN_WIDTHS);
+	}
+
+	/**
+	 * Create the CellStyle used for header rows. Styles are stored in the workbook,
+	 * so create this once per workbook and reuse it for every sheet.
+	 * 
+	 * @param workbook
+	 * @return
+	 */
+	static CellStyle createHeaderStyle(Workbook workbook) {
 		CellStyle headerStyle = workbook.createCellStyle();
 		headerStyle.setFillForegroundColor(IndexedColors.PALE_BLUE.getIndex());
 		headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
 
-		XSSFFont font = ((XSSFWorkbook) workbook).createFont();
+		Font font = workbook.createFont();
 		font.setFontName("Arial");
 		font.setFontHeightInPoints((short) 16);
 		font.setBold(true);
 		headerStyle.setFont(font);
 
-		Cell headerCell = header.createCell(0);
-		headerCell.setCellValue("Month");
-		headerCell.setCellStyle(headerStyle);
+		return headerStyle;
+	}
+
+	/**
+	 * Create the CellStyle used for the data rows.
+	 * 
+	 * @param workbook
+	 * @return
+	 */
+	static CellStyle createDataStyle(Workbook workbook) {
+		CellStyle style = workbook.createCellStyle();
+		style.setWrapText(true);
+		return style;
+	}
+
+	/**
+	 * Create a sheet with column widths and a header row.
+	 * 
+	 * @param workbook
+	 * @param name
+	 * @param headerStyle
+	 * @param headers
+	 * @param columnWidths
+	 * @return
+	 */
+	static Sheet createSheet(Workbook workbook, String name, CellStyle headerStyle, String[] headers,
+			int[] columnWidths) {
+		Sheet sheet = workbook.createSheet(name);
+		Row header = sheet.createRow(0);
 
-		headerCell = header.createCell(1);
-		headerCell.setCellValue("Principal Payment");
-		headerCell.setCellStyle(headerStyle);
+		for (int i = 0; i < headers.length; i++) {
+			sheet.setColumnWidth(i, columnWidths[i]);
 
-		headerCell = header.createCell(2);
-		headerCell.setCellValue("Interest Payment");
-		headerCell.setCellStyle(headerStyle);
+			Cell headerCell = header.createCell(i);
+			headerCell.setCellValue(headers[i]);
+			headerCell.setCellStyle(headerStyle);
+		}
 
-		headerCell = header.createCell(3);
-		headerCell.setCellValue("Additional Principal Payment");
-		headerCell.setCellStyle(headerStyle);
+		return sheet;
+	}
 
-		headerCell = header.createCell(4);
-		headerCell.setCellValue("Remaining Principal");
-		headerCell.setCellStyle(headerStyle);
+	/**
+	 * Write one month of the schedule into the sheet.
+	 * 
+	 * @param sheet
+	 * @param style
+	 * @param month
+	 * @param principalPaid
+	 * @param interestPaid
+	 * @param additionalPrincipalPayment
+	 * @param remainingPrincipal
+	 */
+	private static void writeRow(Sheet sheet, CellStyle style, int month, double principalPaid, double interestPaid,
+			double additionalPrincipalPayment, double remainingPrincipal) {
+		writeCells(sheet.createRow(month), 0, style, month, principalPaid, interestPaid, additionalPrincipalPayment,
+				remainingPrincipal);
+	}
 
-		// CellStyle for the data
-		CellStyle style = workbook.createCellStyle();
-		style.setWrapText(true);
+	/**
+	 * Write the schedule columns of one month into a row, starting at firstColumn.
+	 * 
+	 * @param row
+	 * @param firstColumn
+	 * @param style
+	 * @param month
+	 * @param principalPaid
+	 * @param interestPaid
+	 * @param additionalPrincipalPayment
+	 * @param remainingPrincipal
+	 */
+	static void writeCells(Row row, int firstColumn, CellStyle style, int month, double principalPaid,
+			double interestPaid, double additionalPrincipalPayment, double remainingPrincipal) {
+		// cell for month
+		Cell cell = row.createCell(firstColumn);
+		cell.setCellValue(month);
+		cell.setCellStyle(style);
 
-		// fill in data for each row using an AmortizationRecord from the List
-		records.stream().forEach(rec -> {
-			Row row = workbook.getSheet("AmortizationSchedule").createRow(rec.getMonth());
+		// cell for principal payment
+		cell = row.createCell(firstColumn + 1);
+		cell.setCellValue(principalPaid);
+		cell.setCellStyle(style);
 
-			// cell for month
-			Cell cell = row.createCell(0);
-			cell.setCellValue(rec.getMonth());
-			cell.setCellStyle(style);
-
-			// cell for principal payment
-			cell = row.createCell(1);
-			cell.setCellValue(rec.getPrincipalPaid().doubleValue());
-			cell.setCellStyle(style);
-
-			// cell for monthly interest payment
-			cell = row.createCell(2);
-			cell.setCellValue(rec.getInterestPaid().doubleValue());
-			cell.setCellStyle(style);
-
-			// cell for additional principal payment
-			cell = row.createCell(3);
-			cell.setCellValue(rec.getAdditionalPrincipalPayment().doubleValue());
-			cell.setCellStyle(style);
-
-			// cell for remaining principal
-			cell = row.createCell(4);
-			cell.setCellValue(rec.getRemainingPrincipal().doubleValue());
-			cell.setCellStyle(style);
-		});
+		// cell for monthly interest payment
+		cell = row.createCell(firstColumn + 2);
+		cell.setCellValue(interestPaid);
+		cell.setCellStyle(style);
 
-		// Create output file
-		File currDir = new File(".");
-		String path = currDir.getAbsolutePath();
-		String fileLocation = path.substring(0, path.length() - 1) + "temp.xlsx";
+		// cell for additional principal payment
+		cell = row.createCell(firstColumn + 3);
+		cell.setCellValue(additionalPrincipalPayment);
+		cell.setCellStyle(style);
 
-		// Write workbook contents to output file
-		FileOutputStream os = new FileOutputStream(fileLocation);
-		workbook.write(os);
-		workbook.close();
+		// cell for remaining principal
+		cell = row.createCell(firstColumn + 4);
+		cell.setCellValue(remainingPrincipal);
+		cell.setCellStyle(style);
+	}
+
+	private static void writeCell(Row row, int column, CellStyle style, double value) {
+		Cell cell = row.createCell(column);
+		cell.setCellValue(value);
+		cell.setCellStyle(style);
+	}
+
+	/**
+	 * Write workbook contents to the output file.
+	 * 
+	 * @param workbook
+	 * @param outputFile
+	 * @throws IOException
+	 */
+	private static void writeWorkbook(Workbook workbook, Path outputFile) throws IOException {
+		try (OutputStream os = Files.newOutputStream(outputFile)) {
+			workbook.write(os);
+		} finally {
+			workbook.close();
+		}
 	}
 }
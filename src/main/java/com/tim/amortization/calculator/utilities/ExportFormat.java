@@ -0,0 +1,79 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Supported export formats and the sink that writes each of them.
+ */
+public enum ExportFormat {
+
+	XLSX("Excel (xlsx)", "xlsx"),
+
+	CSV("CSV", "csv"),
+
+	NDJSON("Newline delimited JSON", "ndjson"),
+
+	COLUMNAR("Columnar binary", "amrt");
+
+	private final String displayName;
+
+	private final String extension;
+
+	private ExportFormat(String displayName, String extension) {
+		this.displayName = displayName;
+		this.extension = extension;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Open a sink writing this format to the output file, for the schedule of one
+	 * loan. Excel files get a sheet per loan, use
+	 * {@link #openPortfolio(Path)} for more than a few loans.
+	 *
+	 * @param outputFile
+	 * @return
+	 * @throws IOException
+	 */
+	public ExportSink open(Path outputFile) throws IOException {
+		switch (this) {
+		case CSV:
+			return new CsvExportSink(outputFile);
+		case NDJSON:
+			return new NdjsonExportSink(outputFile);
+		case COLUMNAR:
+			return new ColumnarExportSink(outputFile);
+		default:
+			return new StreamingExcelWriter(outputFile, StreamingExcelWriter.DEFAULT_ROW_WINDOW, true);
+		}
+	}
+
+	/**
+	 * Open a sink writing this format to the output file, for the schedules of a
+	 * portfolio. Excel files get one sheet with a Loan column instead of a sheet
+	 * per loan, which would keep a temp file open for every loan until the
+	 * workbook is written.
+	 *
+	 * @param outputFile
+	 * @return
+	 * @throws IOException
+	 */
+	public ExportSink openPortfolio(Path outputFile) throws IOException {
+		if (this == XLSX) {
+			return new StreamingExcelWriter(outputFile);
+		}
+		return open(outputFile);
+	}
+
+	@Override
+	public String toString() {
+		return displayName;
+	}
+}
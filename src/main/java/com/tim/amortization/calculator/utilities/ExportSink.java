@@ -0,0 +1,35 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
+
+/**
+ * Destination for exported amortization schedules. Call
+ * {@link #startLoan(String)} before the rows of each loan, pass the sink to the
+ * calculation as the ScheduleRowConsumer, and close it when every loan has been
+ * written, or abort it to give up on a partial export.
+ *
+ * Sinks are not thread safe.
+ */
+public interface ExportSink extends ScheduleRowConsumer, Closeable {
+
+	/**
+	 * Start the rows of a new loan.
+	 *
+	 * @param name loan name written with the rows
+	 */
+	void startLoan(String name);
+
+	/**
+	 * Release the sink without finishing the output, the caller deletes the
+	 * partial file. Sinks that build the file in {@link #close()} skip that work.
+	 *
+	 * @throws IOException
+	 */
+	default void abort() throws IOException {
+		close();
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+
+/**
+ * Exports amortization schedules through an ExportSink, calculating the rows
+ * directly into the sink.
+ */
+public class ExportUtility {
+
+	/**
+	 * File name used when no output file is chosen, written to the current
+	 * directory with the extension of the export format.
+	 */
+	public static final String DEFAULT_FILE_NAME = "temp";
+
+	/**
+	 * Default output file for the format, Ex: temp.xlsx in the current directory.
+	 * 
+	 * @param format
+	 * @return
+	 */
+	public static Path defaultOutputFile(ExportFormat format) {
+		return Paths.get("").toAbsolutePath().resolve(DEFAULT_FILE_NAME + "." + format.getExtension());
+	}
+
+	/**
+	 * Calculate the schedule for one loan and write it to the output file.
+	 * 
+	 * @param terms      validated loan terms
+	 * @param format
+	 * @param outputFile
+	 * @return number of months until the loan is paid off
+	 * @throws IOException
+	 */
+	public static int exportSchedule(LoanTerms terms, ExportFormat format, Path outputFile) throws IOException {
+		try (ExportSink sink = format.open(outputFile)) {
+			sink.startLoan("AmortizationSchedule");
+			return CalculationUtility.calculateSchedule(terms, sink);
+		}
+	}
+
+	/**
+	 * Calculate the schedule of every loan and write it to the sink, one loan at a
+	 * time. Loans are named "Loan 1", "Loan 2", etc. The sink is not closed.
+	 * Open it with {@link ExportFormat#openPortfolio(Path)}.
+	 * 
+	 * @param loans validated loan terms, may be read lazily
+	 * @param sink
+	 * @return number of loans written
+	 */
+	public static int exportPortfolio(Iterable<LoanTerms> loans, ExportSink sink) {
+		int count = 0;
+		for (LoanTerms terms : loans) {
+			count++;
+			sink.startLoan("Loan " + count);
+			CalculationUtility.calculateSchedule(terms, sink);
+		}
+		return count;
+	}
+}
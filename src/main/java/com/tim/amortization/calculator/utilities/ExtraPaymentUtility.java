@@ -0,0 +1,173 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.RoundingMode;
+import java.util.List;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.ExtraPaymentEvent;
+import com.tim.amortization.calculator.model.ExtraPaymentSavings;
+import com.tim.amortization.calculator.model.ExtraPaymentSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+
+/**
+ * Schedules with irregular extra principal payments (lump sums, recurring
+ * payments, skipped months) using the fixed-point math of
+ * {@link FixedPointCalculationUtility}.
+ *
+ * The additional principal payment of the LoanTerms is still paid every month,
+ * the ExtraPaymentSchedule is paid on top of it.
+ */
+public class ExtraPaymentUtility {
+
+	/**
+	 * Compile extra payment events for the term of the loan.
+	 *
+	 * @param terms
+	 * @param events
+	 * @return
+	 */
+	public static ExtraPaymentSchedule compile(LoanTerms terms, List<ExtraPaymentEvent> events) {
+		return ExtraPaymentSchedule.of(events, terms.getMortgageLength() * 12);
+	}
+
+	/**
+	 * Paying half the monthly payment every two weeks makes 26 half payments, one
+	 * extra monthly payment a year. This is the same extra payment spread over
+	 * the months: a twelfth of the monthly payment (rounded down to the cent)
+	 * every month.
+	 *
+	 * @param terms
+	 * @param mode  rounding of the monthly payment
+	 * @return
+	 */
+	public static ExtraPaymentEvent biweeklyEquivalent(LoanTerms terms, RoundingMode mode) {
+		long monthlyPayment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(
+				CentsUtility.toCents(terms.getPrincipal()),
+				FixedPointCalculationUtility.toRatePpm(terms.getInterestRate()), terms.getMortgageLength() * 12, mode);
+
+		return ExtraPaymentEvent.recurring(1, ExtraPaymentEvent.NO_END, 1,
+				CentsUtility.toDollars(CentsUtility.divide(monthlyPayment, 12, RoundingMode.FLOOR)));
+	}
+
+	/**
+	 * Calculate the schedule with extra payments and pass each month to the
+	 * consumer. The additional principal payment column of each month is the
+	 * terms' additional principal payment plus that month's extra payment.
+	 *
+	 * @param terms
+	 * @param extras
+	 * @param mode     rounding for the monthly payment and monthly interest
+	 * @param consumer receives each month of the schedule
+	 * @return number of months until the loan is paid off
+	 */
+	public static int calculateSchedule(LoanTerms terms, ExtraPaymentSchedule extras, RoundingMode mode,
+			ScheduleRowConsumer consumer) {
+		long balance = CentsUtility.toCents(terms.getPrincipal());
+		long ratePpm = FixedPointCalculationUtility.toRatePpm(terms.getInterestRate());
+		long monthlyPayment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(balance, ratePpm,
+				terms.getMortgageLength() * 12, mode);
+		long additional = CentsUtility.toCents(terms.getAdditionalPrincipalPayment());
+		FixedPointCalculationUtility.checkAmortizes(balance, ratePpm, monthlyPayment, additional, mode);
+
+		ExtraPaymentSchedule.Cursor cursor = extras.cursor();
+		int month = 0;
+
+		while (balance > 0) {
+			month++;
+			long monthlyInterest = FixedPointCalculationUtility.calculateMonthlyInterestCents(balance, ratePpm, mode);
+			long principalOnly = monthlyPayment - monthlyInterest;
+			long extra = additional + cursor.next(month);
+
+			balance -= principalOnly + extra;
+
+			consumer.accept(month, principalOnly, monthlyInterest, balance, extra);
+		}
+
+		return month;
+	}
+
+	/**
+	 * Calculate the schedule with extra payments into a columnar
+	 * AmortizationSchedule.
+	 *
+	 * @param terms
+	 * @param extras
+	 * @param mode
+	 * @return
+	 */
+	public static AmortizationSchedule calculateSchedule(LoanTerms terms, ExtraPaymentSchedule extras,
+			RoundingMode mode) {
+		AmortizationSchedule schedule = new AmortizationSchedule(terms.getMortgageLength() * 12);
+		calculateSchedule(terms, extras, mode, schedule);
+		return schedule;
+	}
+
+	/**
+	 * Months and interest saved by the extra payments, in one pass without rows.
+	 * The months before the first extra payment are the same with and without
+	 * extras, so they are calculated once; from the first extra payment on both
+	 * balances are calculated in the same loop until both loans are paid off.
+	 *
+	 * @param terms
+	 * @param extras
+	 * @param mode
+	 * @return
+	 */
+	public static ExtraPaymentSavings compare(LoanTerms terms, ExtraPaymentSchedule extras, RoundingMode mode) {
+		long principalCents = CentsUtility.toCents(terms.getPrincipal());
+		long ratePpm = FixedPointCalculationUtility.toRatePpm(terms.getInterestRate());
+		long monthlyPayment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(principalCents, ratePpm,
+				terms.getMortgageLength() * 12, mode);
+		long additional = CentsUtility.toCents(terms.getAdditionalPrincipalPayment());
+
+		int firstExtraMonth = extras.getFirstMonth();
+		if (firstExtraMonth == 0) {
+			ScheduleSummary baseline = ScheduleQueryUtility.summarize(principalCents, ratePpm, monthlyPayment,
+					additional, mode);
+			return new ExtraPaymentSavings(baseline.getPayoffMonth(), baseline.getPayoffMonth(),
+					baseline.getTotalInterest(), baseline.getTotalInterest());
+		}
+		FixedPointCalculationUtility.checkAmortizes(principalCents, ratePpm, monthlyPayment, additional, mode);
+
+		// shared months before the first extra payment
+		long balance = principalCents;
+		long interest = 0;
+		int month = 0;
+		while (balance > 0 && month < firstExtraMonth - 1) {
+			month++;
+			long monthlyInterest = FixedPointCalculationUtility.calculateMonthlyInterestCents(balance, ratePpm, mode);
+			interest += monthlyInterest;
+			balance -= monthlyPayment - monthlyInterest + additional;
+		}
+
+		long baselineBalance = balance;
+		long baselineInterest = interest;
+		int baselineMonth = month;
+		long extraBalance = balance;
+		long extraInterest = interest;
+		int extraMonth = month;
+		ExtraPaymentSchedule.Cursor cursor = extras.cursor();
+
+		while (baselineBalance > 0 || extraBalance > 0) {
+			month++;
+			if (baselineBalance > 0) {
+				long monthlyInterest = FixedPointCalculationUtility.calculateMonthlyInterestCents(baselineBalance,
+						ratePpm, mode);
+				baselineInterest += monthlyInterest;
+				baselineBalance -= monthlyPayment - monthlyInterest + additional;
+				baselineMonth = month;
+			}
+			if (extraBalance > 0) {
+				long monthlyInterest = FixedPointCalculationUtility.calculateMonthlyInterestCents(extraBalance,
+						ratePpm, mode);
+				extraInterest += monthlyInterest;
+				extraBalance -= monthlyPayment - monthlyInterest + additional + cursor.next(month);
+				extraMonth = month;
+			}
+		}
+
+		return new ExtraPaymentSavings(baselineMonth, extraMonth, baselineInterest, extraInterest);
+	}
+}
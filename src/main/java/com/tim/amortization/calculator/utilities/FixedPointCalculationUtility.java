@@ -0,0 +1,160 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
+
+/**
+ * Amortization calculations using fixed-point arithmetic. Amounts are long
+ * cents and the interest rate is a long in parts per million of the annual
+ * rate (Ex: 6.5% --> 65,000), so each month is calculated exactly with integer
+ * math and an explicit RoundingMode instead of doubles and BigDecimals.
+ *
+ * The month loop does not allocate; rows are passed to a ScheduleRowConsumer.
+ */
+public class FixedPointCalculationUtility {
+
+	/**
+	 * Scale of the interest rate: percentage * RATE_SCALE = parts per million.
+	 */
+	public static final long RATE_SCALE = 10_000;
+
+	/**
+	 * balance * rate / MONTHLY_RATE_DIVISOR = monthly interest, (100% * 12 months
+	 * * RATE_SCALE)
+	 */
+	static final long MONTHLY_RATE_DIVISOR = 100 * 12 * RATE_SCALE;
+
+	public static final String NEGATIVE_AMORTIZATION_ERROR = "Monthly payment does not cover the interest, the loan would never be paid off.";
+
+	/**
+	 * Convert an interest percentage (Ex: 6.5) into parts per million.
+	 *
+	 * @param interestRate
+	 * @return
+	 */
+	public static long toRatePpm(double interestRate) {
+		return Math.round(interestRate * RATE_SCALE);
+	}
+
+	/**
+	 * Calculate monthly payment with a PMT function, rounded to cents with the
+	 * provided RoundingMode. With RoundingMode.CEILING this is the same value as
+	 * {@link CalculationUtility#calculateMonthlyPayment(Double, Double, Double)}.
+	 *
+	 * @param principalCents
+	 * @param ratePpm          annual interest rate in parts per million
+	 * @param numberOfPayments number of months for the mortgage
+	 * @param mode
+	 * @return monthly payment in cents
+	 */
+	public static long calculateMonthlyPaymentCents(long principalCents, long ratePpm, int numberOfPayments,
+			RoundingMode mode) {
+		if (ratePpm == 0) {
+			return CentsUtility.divide(principalCents, numberOfPayments, mode);
+		}
+
+		double principalAmt = CentsUtility.toDollars(principalCents);
+		double rate = ((double) ratePpm / RATE_SCALE / 100) / 12;
+		double growth = Math.pow(1 + rate, numberOfPayments);
+		double monthlyPayment = principalAmt * (rate * growth) / (growth - 1);
+
+		// same decimal conversion as CalculationUtility, only done once per loan
+		return new BigDecimal(String.valueOf(monthlyPayment)).setScale(2, mode).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Calculate the current month's interest exactly, MI = (P * I) / 12, rounded to
+	 * cents with the provided RoundingMode.
+	 *
+	 * @param balanceCents
+	 * @param ratePpm      annual interest rate in parts per million
+	 * @param mode
+	 * @return monthly interest in cents
+	 */
+	public static long calculateMonthlyInterestCents(long balanceCents, long ratePpm, RoundingMode mode) {
+		return CentsUtility.divide(Math.multiplyExact(balanceCents, ratePpm), MONTHLY_RATE_DIVISOR, mode);
+	}
+
+	/**
+	 * Calculate the schedule for the loan terms and pass each month to the
+	 * consumer. Like CalculationUtility, payments continue while principal remains
+	 * and the last month may leave a negative remaining principal.
+	 *
+	 * @param terms
+	 * @param mode     rounding for the monthly payment and monthly interest
+	 * @param consumer receives each month of the schedule
+	 * @return number of months until the loan is paid off
+	 */
+	public static int calculateSchedule(LoanTerms terms, RoundingMode mode, ScheduleRowConsumer consumer) {
+		long principalCents = CentsUtility.toCents(terms.getPrincipal());
+		long ratePpm = toRatePpm(terms.getInterestRate());
+		long monthlyPayment = calculateMonthlyPaymentCents(principalCents, ratePpm, terms.getMortgageLength() * 12,
+				mode);
+
+		return calculateSchedule(principalCents, ratePpm, monthlyPayment,
+				CentsUtility.toCents(terms.getAdditionalPrincipalPayment()), mode, consumer);
+	}
+
+	/**
+	 * Calculate the schedule from fixed-point values.
+	 *
+	 * @param principalCents
+	 * @param ratePpm           annual interest rate in parts per million
+	 * @param monthlyPayment    monthly payment in cents
+	 * @param additionalPayment additional principal payment in cents
+	 * @param mode              rounding for the monthly interest
+	 * @param consumer          receives each month of the schedule
+	 * @return number of months until the loan is paid off
+	 */
+	public static int calculateSchedule(long principalCents, long ratePpm, long monthlyPayment,
+			long additionalPayment, RoundingMode mode, ScheduleRowConsumer consumer) {
+		checkAmortizes(principalCents, ratePpm, monthlyPayment, additionalPayment, mode);
+
+		long balance = principalCents;
+		int month = 0;
+
+		while (balance > 0) {
+			month++;
+			long monthlyInterest = calculateMonthlyInterestCents(balance, ratePpm, mode);
+			long principalOnly = monthlyPayment - monthlyInterest;
+
+			balance -= principalOnly + additionalPayment;
+
+			consumer.accept(month, principalOnly, monthlyInterest, balance, additionalPayment);
+		}
+
+		return month;
+	}
+
+	/**
+	 * Calculate the schedule for the loan terms into a columnar
+	 * AmortizationSchedule.
+	 *
+	 * @param terms
+	 * @param mode
+	 * @return
+	 */
+	public static AmortizationSchedule calculateSchedule(LoanTerms terms, RoundingMode mode) {
+		AmortizationSchedule schedule = new AmortizationSchedule(terms.getMortgageLength() * 12);
+		calculateSchedule(terms, mode, schedule);
+		return schedule;
+	}
+
+	/**
+	 * Interest only goes down as the balance is paid, so if the first month reduces
+	 * the balance every month will.
+	 */
+	static void checkAmortizes(long principalCents, long ratePpm, long monthlyPayment, long additionalPayment,
+			RoundingMode mode) {
+		if (principalCents > 0 && monthlyPayment + additionalPayment <= calculateMonthlyInterestCents(principalCents,
+				ratePpm, mode)) {
+			throw new InputValidationException(NEGATIVE_AMORTIZATION_ERROR);
+		}
+	}
+
+}
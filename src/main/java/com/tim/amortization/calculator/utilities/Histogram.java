@@ -0,0 +1,126 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of recorded values in fixed buckets, written in the Prometheus
+ * text format: one cumulative _bucket line per upper bound plus +Inf, _sum and
+ * _count.
+ *
+ * Recording is thread safe and does not lock, each bucket is a LongAdder. A
+ * scrape taken while values are recorded may see the count and sum of slightly
+ * different moments.
+ */
+public final class Histogram {
+
+	private final String name;
+
+	private final String help;
+
+	private final double[] upperBounds;
+
+	/**
+	 * not cumulative, the last bucket counts values above every upper bound
+	 */
+	private final LongAdder[] buckets;
+
+	private final DoubleAdder sum = new DoubleAdder();
+
+	/**
+	 * @param name        metric name, Ex: amortization_schedule_seconds
+	 * @param help        description written on the HELP line
+	 * @param upperBounds inclusive upper bounds of the buckets, increasing
+	 */
+	public Histogram(String name, String help, double... upperBounds) {
+		for (int i = 1; i < upperBounds.length; i++) {
+			if (!(upperBounds[i] > upperBounds[i - 1])) {
+				throw new IllegalArgumentException("Bucket upper bounds must be increasing: "
+						+ Arrays.toString(upperBounds));
+			}
+		}
+		this.name = name;
+		this.help = help;
+		this.upperBounds = upperBounds.clone();
+		this.buckets = new LongAdder[upperBounds.length + 1];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void record(double value) {
+		int bucket = 0;
+		while (bucket < upperBounds.length && value > upperBounds[bucket]) {
+			bucket++;
+		}
+		buckets[bucket].increment();
+		sum.add(value);
+	}
+
+	/**
+	 * Record the time since start in seconds.
+	 *
+	 * @param start System.nanoTime() at the start of the timed operation
+	 */
+	public void recordNanosSince(long start) {
+		record((System.nanoTime() - start) / 1e9);
+	}
+
+	public long getCount() {
+		long count = 0;
+		for (LongAdder bucket : buckets) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	public double getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * Number of recorded values less than or equal to the upper bound of the
+	 * bucket.
+	 *
+	 * @param bucket index of the upper bound, upperBounds.length for +Inf
+	 * @return
+	 */
+	public long getCumulativeCount(int bucket) {
+		long count = 0;
+		for (int i = 0; i <= bucket; i++) {
+			count += buckets[i].sum();
+		}
+		return count;
+	}
+
+	void reset() {
+		for (LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+		sum.reset();
+	}
+
+	/**
+	 * Append the HELP, TYPE and sample lines in the Prometheus text format.
+	 *
+	 * @param out
+	 */
+	void write(StringBuilder out) {
+		out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(name).append(" histogram\n");
+		long cumulative = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			cumulative += buckets[i].sum();
+			out.append(name).append("_bucket{le=\"");
+			out.append(i < upperBounds.length ? MetricsUtility.formatValue(upperBounds[i]) : "+Inf");
+			out.append("\"} ").append(cumulative).append('\n');
+		}
+		out.append(name).append("_sum ").append(MetricsUtility.formatValue(getSum())).append('\n');
+		out.append(name).append("_count ").append(cumulative).append('\n');
+	}
+}
@@ -0,0 +1,220 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanInput;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+/**
+ * Validates and parses the loan text fields in one pass over the characters,
+ * without regular expressions, substrings or boxed numbers.
+ *
+ * The accepted formats are those of the original regular expressions, with
+ * these fixes:
+ * <ul>
+ * <li>the decimal point of the interest and additional principal must be a
+ * '.'. The original unescaped '.' matched any character, so "6x5" passed
+ * validation and then failed to convert, and "655" was read as 655%</li>
+ * <li>whole numbers are accepted for the interest (Ex: 6) and additional
+ * principal (Ex: 0). The original patterns only accepted "1000" because its
+ * third character matched the '.'</li>
+ * <li>the principal may be written without thousands separators (Ex:
+ * 603500)</li>
+ * <li>the mortgage length must be ASCII digits. StringUtils.isNumeric also
+ * accepted other Unicode digits, which then failed to convert</li>
+ * </ul>
+ */
+public class InputParsingUtility {
+
+	/**
+	 * Largest additional principal payment the text field accepts, 8 integer
+	 * digits and 2 decimals.
+	 */
+	public static final long MAX_ADDITIONAL_PRINCIPAL_CENTS = 99_999_999_99L;
+
+	private static final int ADDITIONAL_PRINCIPAL_DIGITS = 8;
+
+	/**
+	 * Whole numbers up to 2^53 are exact doubles.
+	 */
+	private static final long MAX_EXACT = 1L << 53;
+
+	private static final double[] POWERS_OF_TEN = { 1, 10, 100 };
+
+	/**
+	 * Parse the four text fields. Never throws, invalid fields are reported in the
+	 * result.
+	 *
+	 * @param principalAmt        principal amount (Ex: 600,000)
+	 * @param interestAmt         interest percentage (Ex: 6.5)
+	 * @param mortgageLength      length of mortgage in years (Ex: 30)
+	 * @param additionalPrincipal additional principal payment (Ex: 1000.00)
+	 * @return
+	 */
+	public static LoanInput parse(CharSequence principalAmt, CharSequence interestAmt, CharSequence mortgageLength,
+			CharSequence additionalPrincipal) {
+		double principal = parsePrincipal(principalAmt);
+		double interest = parseDecimal(interestAmt, 2);
+		int length = parseMortgageLength(mortgageLength);
+		double additional = parseDecimal(additionalPrincipal, ADDITIONAL_PRINCIPAL_DIGITS);
+
+		int invalidFields = 0;
+		if (Double.isNaN(principal)) {
+			invalidFields |= 1 << LoanInput.Field.PRINCIPAL.ordinal();
+		}
+		if (Double.isNaN(interest)) {
+			invalidFields |= 1 << LoanInput.Field.INTEREST.ordinal();
+		}
+		if (length < 0) {
+			invalidFields |= 1 << LoanInput.Field.MORTGAGE_LENGTH.ordinal();
+		}
+		if (Double.isNaN(additional)) {
+			invalidFields |= 1 << LoanInput.Field.ADDITIONAL_PRINCIPAL.ordinal();
+		}
+
+		return new LoanInput(principal, interest, length, additional, invalidFields);
+	}
+
+	/**
+	 * Convert parsed input into LoanTerms. Throws an InputValidationException
+	 * containing the message of every invalid field, one per line.
+	 *
+	 * @param input
+	 * @return
+	 */
+	public static LoanTerms toLoanTerms(LoanInput input) {
+		if (!input.isValid()) {
+			List<String> errorMessages = new ArrayList<>();
+			for (LoanInput.Field field : input.getInvalidFields()) {
+				errorMessages.add(getErrorMessage(field));
+			}
+			throw new InputValidationException(String.join("\n", errorMessages));
+		}
+
+		return new LoanTerms(input.getPrincipal(), input.getInterestRate(), input.getMortgageLength(),
+				input.getAdditionalPrincipalPayment());
+	}
+
+	/**
+	 * @param field
+	 * @return the validation message shown for the field
+	 */
+	public static String getErrorMessage(LoanInput.Field field) {
+		switch (field) {
+		case PRINCIPAL:
+			return CalculationUtility.PRINCIPAL_ERROR;
+		case INTEREST:
+			return CalculationUtility.INTEREST_ERROR;
+		case MORTGAGE_LENGTH:
+			return CalculationUtility.MORTGAGE_LENGTH_ERROR;
+		default:
+			return CalculationUtility.ADDITIONAL_PRINCIPAL_ERROR;
+		}
+	}
+
+	/**
+	 * Digits in groups of 1 to 3 separated by commas (Ex: 603,500), or digits
+	 * without commas (Ex: 603500).
+	 *
+	 * @param text
+	 * @return NaN when invalid
+	 */
+	static double parsePrincipal(CharSequence text) {
+		if (text == null || text.length() == 0) {
+			return Double.NaN;
+		}
+
+		long value = 0;
+		boolean exact = true;
+		boolean separated = false;
+		int group = 0;
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				group++;
+				if (value < MAX_EXACT / 10) {
+					value = value * 10 + (c - '0');
+				} else {
+					exact = false;
+				}
+			} else if (c == ',' && group >= 1 && group <= 3) {
+				separated = true;
+				group = 0;
+			} else {
+				return Double.NaN;
+			}
+		}
+		if (group == 0 || (separated && group > 3)) {
+			return Double.NaN;
+		}
+
+		// more digits than a long holds exactly, rare enough to parse a String
+		return exact ? value : Double.parseDouble(text.toString().replace(",", ""));
+	}
+
+	/**
+	 * 1 to maxIntegerDigits digits, optionally followed by '.' and 1 or 2 digits
+	 * (Ex: 6.5, 1000.00, 0).
+	 *
+	 * @param text
+	 * @param maxIntegerDigits
+	 * @return NaN when invalid
+	 */
+	static double parseDecimal(CharSequence text, int maxIntegerDigits) {
+		if (text == null) {
+			return Double.NaN;
+		}
+
+		long value = 0;
+		int integerDigits = 0;
+		int decimals = -1;
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (decimals < 0) {
+					integerDigits++;
+				} else {
+					decimals++;
+				}
+				value = value * 10 + (c - '0');
+			} else if (c == '.' && decimals < 0) {
+				decimals = 0;
+			} else {
+				return Double.NaN;
+			}
+		}
+		if (integerDigits < 1 || integerDigits > maxIntegerDigits || decimals == 0 || decimals > 2) {
+			return Double.NaN;
+		}
+
+		// both are exact doubles, so the division rounds like Double.valueOf
+		return decimals < 0 ? value : value / POWERS_OF_TEN[decimals];
+	}
+
+	/**
+	 * One or more ASCII digits. Like the original Double.intValue() conversion,
+	 * values above Integer.MAX_VALUE become Integer.MAX_VALUE.
+	 *
+	 * @param text
+	 * @return -1 when invalid
+	 */
+	static int parseMortgageLength(CharSequence text) {
+		if (text == null || text.length() == 0) {
+			return -1;
+		}
+
+		long value = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = Math.min(value * 10 + (c - '0'), Integer.MAX_VALUE);
+		}
+		return (int) value;
+	}
+}
@@ -0,0 +1,480 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanFailure;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PortfolioReadResult;
+
+/**
+ * Reads large portfolio files in CSV (the format of {@link PortfolioUtility})
+ * or fixed-width columns.
+ *
+ * The file is split into chunks of about {@link #DEFAULT_CHUNK_SIZE} bytes that
+ * end at line boundaries. Each chunk is memory-mapped and parsed in parallel,
+ * and numbers (with the commas the GUI allows) are parsed straight from the
+ * mapped bytes, so no String is created per line or field. Only malformed rows
+ * are copied into a String for their LoanFailure.
+ *
+ * Rows are validated with {@link CalculationUtility#validateInput(LoanTerms)}
+ * and malformed rows are reported with the InputValidationException messages:
+ * {@link PortfolioUtility#FIELD_COUNT_ERROR} when the row does not have 4
+ * fields, otherwise one message per invalid field, one per line. Blank lines,
+ * lines starting with '#' and header lines starting with a letter are skipped.
+ */
+public class MappedPortfolioReader {
+
+	public static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * Decimals with a mantissa up to 2^53 and at most 22 decimal places are
+	 * divided by an exact power of ten, which gives the same double as
+	 * Double.parseDouble.
+	 */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	private static final double[] POWERS_OF_TEN = new double[23];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private static final int FIELDS = 4;
+
+	/**
+	 * width of each field for fixed-width files, null for CSV
+	 */
+	private final int[] fieldWidths;
+
+	private final long chunkSize;
+
+	private MappedPortfolioReader(int[] fieldWidths, long chunkSize) {
+		this.fieldWidths = fieldWidths;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Reader for comma separated files, fields containing commas must be quoted.
+	 *
+	 * @return
+	 */
+	public static MappedPortfolioReader csv() {
+		return new MappedPortfolioReader(null, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Reader for fixed-width files, each field padded with spaces to its width.
+	 * Commas are allowed in the numbers without quotes.
+	 *
+	 * @param principalWidth
+	 * @param interestWidth
+	 * @param mortgageLengthWidth
+	 * @param additionalPrincipalWidth
+	 * @return
+	 */
+	public static MappedPortfolioReader fixedWidth(int principalWidth, int interestWidth, int mortgageLengthWidth,
+			int additionalPrincipalWidth) {
+		int[] widths = { principalWidth, interestWidth, mortgageLengthWidth, additionalPrincipalWidth };
+		for (int width : widths) {
+			if (width < 1) {
+				throw new IllegalArgumentException("Field widths must be at least 1: " + Arrays.toString(widths));
+			}
+		}
+		return new MappedPortfolioReader(widths, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Same reader with another chunk size.
+	 *
+	 * @param chunkSize bytes per chunk, a chunk is extended to the end of its last
+	 *                  line
+	 * @return
+	 */
+	public MappedPortfolioReader withChunkSize(long chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be at least 1: " + chunkSize);
+		}
+		return new MappedPortfolioReader(fieldWidths, chunkSize);
+	}
+
+	/**
+	 * Parse the file in parallel and pass each valid loan to the consumer. The
+	 * consumer is called from multiple threads, not in file order, and must be
+	 * thread safe.
+	 *
+	 * @param file
+	 * @param consumer
+	 * @return number of loans read and the malformed rows in file order
+	 * @throws IOException
+	 */
+	public PortfolioReadResult read(Path file, Consumer<LoanTerms> consumer) throws IOException {
+		List<ChunkResult> results = parse(file, consumer, false);
+
+		long loansRead = 0;
+		long previousRows = 0;
+		List<LoanFailure> failures = new ArrayList<>();
+		for (ChunkResult result : results) {
+			loansRead += result.rows - result.failures.size();
+			for (LoanFailure failure : result.failures) {
+				failures.add(new LoanFailure(previousRows + failure.getLoanNumber(), failure.getInput(),
+						failure.getMessage()));
+			}
+			previousRows += result.rows;
+		}
+		return new PortfolioReadResult(loansRead, failures);
+	}
+
+	/**
+	 * Read every loan in the file into memory, in file order, like
+	 * {@link PortfolioUtility#readPortfolio(Path)}.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 * @throws InputValidationException for the first malformed row
+	 */
+	public List<LoanTerms> readAll(Path file) throws IOException {
+		List<ChunkResult> results = parse(file, null, true);
+
+		List<LoanTerms> loans = new ArrayList<>();
+		for (ChunkResult result : results) {
+			if (!result.failures.isEmpty()) {
+				throw new InputValidationException(result.failures.get(0).getMessage());
+			}
+			loans.addAll(result.loans);
+		}
+		return loans;
+	}
+
+	private List<ChunkResult> parse(Path file, Consumer<LoanTerms> consumer, boolean keepLoans) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			List<long[]> chunks = split(channel);
+			try {
+				return chunks.parallelStream().map(chunk -> parseChunk(channel, chunk[0], chunk[1], consumer, keepLoans))
+						.collect(Collectors.toList());
+			} catch (UncheckedIOException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+
+	/**
+	 * Split the file into [start, end) ranges of about chunkSize bytes, each
+	 * ending after a line feed or at the end of the file.
+	 */
+	private List<long[]> split(FileChannel channel) throws IOException {
+		long size = channel.size();
+		List<long[]> chunks = new ArrayList<>();
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+		long start = 0;
+		while (start < size) {
+			long end = start + chunkSize >= size ? size : nextLineStart(channel, start + chunkSize, size, buffer);
+			if (end - start > Integer.MAX_VALUE) {
+				throw new IOException("Line longer than " + Integer.MAX_VALUE + " bytes at offset " + start);
+			}
+			chunks.add(new long[] { start, end });
+			start = end;
+		}
+		return chunks;
+	}
+
+	/**
+	 * Position after the first line feed at or after position - 1.
+	 */
+	private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer buffer)
+			throws IOException {
+		long offset = position - 1;
+		while (offset < size) {
+			buffer.clear();
+			int read = channel.read(buffer, offset);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return offset + i + 1;
+				}
+			}
+			offset += read;
+		}
+		return size;
+	}
+
+	private ChunkResult parseChunk(FileChannel channel, long start, long end, Consumer<LoanTerms> consumer,
+			boolean keepLoans) {
+		MappedByteBuffer buffer;
+		try {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		ChunkResult result = new ChunkResult(keepLoans);
+		int[] bounds = new int[FIELDS * 2];
+		int limit = buffer.limit();
+		int position = 0;
+
+		while (position < limit) {
+			int lineFeed = position;
+			while (lineFeed < limit && buffer.get(lineFeed) != '\n') {
+				lineFeed++;
+			}
+			int lineEnd = lineFeed > position && buffer.get(lineFeed - 1) == '\r' ? lineFeed - 1 : lineFeed;
+
+			if (isLoanLine(buffer, position, lineEnd)) {
+				result.rows++;
+				try {
+					LoanTerms terms = parseLine(buffer, position, lineEnd, bounds);
+					if (keepLoans) {
+						result.loans.add(terms);
+					} else {
+						consumer.accept(terms);
+					}
+				} catch (InputValidationException ex) {
+					result.failures.add(new LoanFailure(result.rows, text(buffer, position, lineEnd), ex.getMessage()));
+				}
+			}
+			position = lineFeed + 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Same rule as {@link PortfolioUtility#isLoanLine(String)}: skip blank lines,
+	 * comments and lines starting with a letter.
+	 */
+	private static boolean isLoanLine(ByteBuffer buffer, int from, int to) {
+		int i = from;
+		while (i < to && buffer.get(i) <= ' ' && buffer.get(i) >= 0) {
+			i++;
+		}
+		if (i == to) {
+			return false;
+		}
+		byte first = buffer.get(i);
+		return first != '#' && !((first >= 'a' && first <= 'z') || (first >= 'A' && first <= 'Z'));
+	}
+
+	private LoanTerms parseLine(ByteBuffer buffer, int from, int to, int[] bounds) {
+		boolean fieldsFound = fieldWidths == null ? splitCsv(buffer, from, to, bounds)
+				: splitFixedWidth(buffer, from, to, bounds);
+		if (!fieldsFound) {
+			throw new InputValidationException(PortfolioUtility.FIELD_COUNT_ERROR + text(buffer, from, to));
+		}
+
+		double principal = parseDecimal(buffer, bounds[0], bounds[1]);
+		double interest = parseDecimal(buffer, bounds[2], bounds[3]);
+		int mortgageLength = parseInteger(buffer, bounds[4], bounds[5]);
+		double additionalPrincipal = parseDecimal(buffer, bounds[6], bounds[7]);
+
+		List<String> errorMessages = new ArrayList<>(0);
+		if (Double.isNaN(principal)) {
+			errorMessages.add(CalculationUtility.PRINCIPAL_ERROR);
+		}
+		if (Double.isNaN(interest)) {
+			errorMessages.add(CalculationUtility.INTEREST_ERROR);
+		}
+		if (mortgageLength < 0) {
+			errorMessages.add(CalculationUtility.MORTGAGE_LENGTH_ERROR);
+		}
+		if (Double.isNaN(additionalPrincipal)) {
+			errorMessages.add(CalculationUtility.ADDITIONAL_PRINCIPAL_ERROR);
+		}
+		if (!errorMessages.isEmpty()) {
+			throw new InputValidationException(String.join("\n", errorMessages));
+		}
+
+		LoanTerms terms = new LoanTerms(principal, interest, mortgageLength, additionalPrincipal);
+		CalculationUtility.validateInput(terms);
+		return terms;
+	}
+
+	/**
+	 * Field ranges of a CSV line, commas inside double quotes do not separate
+	 * fields.
+	 *
+	 * @return false unless the line has exactly 4 fields
+	 */
+	private static boolean splitCsv(ByteBuffer buffer, int from, int to, int[] bounds) {
+		int field = 0;
+		int fieldStart = from;
+		boolean quoted = false;
+
+		for (int i = from; i < to; i++) {
+			byte c = buffer.get(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == ',' && !quoted) {
+				if (field == FIELDS - 1) {
+					return false;
+				}
+				bounds[field * 2] = fieldStart;
+				bounds[field * 2 + 1] = i;
+				field++;
+				fieldStart = i + 1;
+			}
+		}
+		if (field != FIELDS - 1) {
+			return false;
+		}
+		bounds[field * 2] = fieldStart;
+		bounds[field * 2 + 1] = to;
+		return true;
+	}
+
+	/**
+	 * Field ranges of a fixed-width line. The last field may be cut short
+	 * (trailing spaces removed), anything after it must be blank.
+	 *
+	 * @return false when the line does not reach the last field or has more data
+	 *         after it
+	 */
+	private boolean splitFixedWidth(ByteBuffer buffer, int from, int to, int[] bounds) {
+		int start = from;
+		for (int field = 0; field < FIELDS; field++) {
+			bounds[field * 2] = Math.min(start, to);
+			start += fieldWidths[field];
+			bounds[field * 2 + 1] = Math.min(start, to);
+		}
+		if (bounds[FIELDS * 2 - 2] >= to) {
+			return false;
+		}
+		for (int i = start; i < to; i++) {
+			if (buffer.get(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parse a decimal number, ignoring surrounding whitespace, double quotes and
+	 * thousands separators (Ex: "603,500.00").
+	 *
+	 * @return NaN when the field is not a number
+	 */
+	static double parseDecimal(ByteBuffer buffer, int from, int to) {
+		while (from < to && isPadding(buffer.get(from))) {
+			from++;
+		}
+		while (to > from && isPadding(buffer.get(to - 1))) {
+			to--;
+		}
+
+		int i = from;
+		boolean negative = false;
+		if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+			negative = buffer.get(i) == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int scale = 0;
+		int digits = 0;
+		boolean decimalPoint = false;
+		boolean exact = true;
+
+		for (; i < to; i++) {
+			byte c = buffer.get(i);
+			if (c >= '0' && c <= '9') {
+				digits++;
+				if (mantissa < MAX_EXACT_MANTISSA / 10) {
+					mantissa = mantissa * 10 + (c - '0');
+					if (decimalPoint) {
+						scale++;
+					}
+				} else {
+					exact = false;
+				}
+			} else if (c == '.' && !decimalPoint) {
+				decimalPoint = true;
+			} else if (c != ',' && c != '"') {
+				return Double.NaN;
+			}
+		}
+		if (digits == 0) {
+			return Double.NaN;
+		}
+
+		if (!exact || scale >= POWERS_OF_TEN.length) {
+			// too many digits to divide exactly, rare enough to parse a String
+			String number = text(buffer, from, to).replace(",", "").replace("\"", "");
+			return Double.parseDouble(number);
+		}
+
+		double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parse a whole number of at most 9 digits, ignoring surrounding whitespace
+	 * and double quotes.
+	 *
+	 * @return -1 when the field is not a whole number
+	 */
+	static int parseInteger(ByteBuffer buffer, int from, int to) {
+		while (from < to && isPadding(buffer.get(from))) {
+			from++;
+		}
+		while (to > from && isPadding(buffer.get(to - 1))) {
+			to--;
+		}
+		if (from == to || to - from > 9) {
+			return -1;
+		}
+
+		int value = 0;
+		for (int i = from; i < to; i++) {
+			byte c = buffer.get(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static boolean isPadding(byte c) {
+		return c == '"' || (c >= 0 && c <= ' ');
+	}
+
+	private static String text(ByteBuffer buffer, int from, int to) {
+		byte[] bytes = new byte[to - from];
+		buffer.get(from, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Loans and malformed rows of one chunk, failures are numbered from the start
+	 * of the chunk.
+	 */
+	private static class ChunkResult {
+
+		private final List<LoanTerms> loans;
+
+		private final List<LoanFailure> failures = new ArrayList<>(0);
+
+		private long rows;
+
+		ChunkResult(boolean keepLoans) {
+			this.loans = keepLoans ? new ArrayList<>() : null;
+		}
+	}
+}
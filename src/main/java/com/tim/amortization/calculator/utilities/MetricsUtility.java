@@ -0,0 +1,246 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.tim.amortization.calculator.model.LoanInput;
+
+/**
+ * Timers, counters and histograms of the calculation and export paths, written
+ * in the Prometheus text format by {@link #scrape()}. The CalculationServer
+ * serves them on /metrics, and {@link #dump(Path)} writes them to a file.
+ *
+ * Metrics are disabled unless the system property
+ * {@value #ENABLED_PROPERTY} is true or {@link #setEnabled(boolean)} is
+ * called. While disabled {@link #start()} returns 0 without reading the clock
+ * and every record method returns after one volatile read. Setting
+ * {@value #DUMP_FILE_PROPERTY} to a file name enables the metrics and writes
+ * them to that file when the JVM exits.
+ *
+ * Rates (Ex: rows per second) are left to the scraper, which divides the
+ * increase of a _total counter by the scrape interval. Throughput of a single
+ * Excel document is also recorded as a histogram.
+ */
+public class MetricsUtility {
+
+	public static final String ENABLED_PROPERTY = "amortization.metrics.enabled";
+
+	public static final String DUMP_FILE_PROPERTY = "amortization.metrics.file";
+
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	/**
+	 * 10 microseconds to 10 seconds
+	 */
+	private static final double[] LATENCY_BUCKETS = { 0.00001, 0.000025, 0.00005, 0.0001, 0.00025, 0.0005, 0.001,
+			0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+	static final Histogram SCHEDULE_SECONDS = new Histogram("amortization_schedule_seconds",
+			"Time to get an amortization schedule, including cache hits.", LATENCY_BUCKETS);
+
+	static final Histogram SCHEDULE_MONTHS = new Histogram("amortization_schedule_months",
+			"Months until the loan is paid off, per calculated schedule.", 12, 60, 120, 180, 240, 300, 360, 480);
+
+	static final LongAdder SCHEDULE_ROWS = new LongAdder();
+
+	static final Histogram MONTHLY_PAYMENT_SECONDS = new Histogram("amortization_monthly_payment_seconds",
+			"Time to get a monthly payment, including cache hits.", LATENCY_BUCKETS);
+
+	static final Histogram VALIDATION_SECONDS = new Histogram("amortization_validation_seconds",
+			"Time to validate loan input.", LATENCY_BUCKETS);
+
+	/**
+	 * indexed by LoanInput.Field ordinal
+	 */
+	static final LongAdder[] VALIDATION_FAILURES = new LongAdder[LoanInput.Field.values().length];
+
+	static final Histogram EXCEL_SECONDS = new Histogram("amortization_excel_seconds",
+			"Time to create an Excel document.", LATENCY_BUCKETS);
+
+	static final Histogram EXCEL_ROWS_PER_SECOND = new Histogram("amortization_excel_rows_per_second",
+			"Schedule rows written per second, per Excel document.", 1_000, 5_000, 10_000, 25_000, 50_000, 100_000,
+			250_000, 500_000, 1_000_000);
+
+	static final LongAdder EXCEL_ROWS = new LongAdder();
+
+	static final LongAdder EXCEL_BYTES = new LongAdder();
+
+	private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	static {
+		for (int i = 0; i < VALIDATION_FAILURES.length; i++) {
+			VALIDATION_FAILURES[i] = new LongAdder();
+		}
+
+		String dumpFile = System.getProperty(DUMP_FILE_PROPERTY);
+		if (dumpFile != null) {
+			enabled = true;
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					dump(Paths.get(dumpFile));
+				} catch (IOException ex) {
+					System.err.println("Could not write metrics to " + dumpFile + ": " + ex);
+				}
+			}, "metrics-dump"));
+		}
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		MetricsUtility.enabled = enabled;
+	}
+
+	/**
+	 * Start timing an operation, pass the result to the matching record method.
+	 *
+	 * @return System.nanoTime(), or 0 when metrics are disabled
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	static void recordSchedule(long start) {
+		if (start != 0) {
+			SCHEDULE_SECONDS.recordNanosSince(start);
+		}
+	}
+
+	static void recordScheduleLength(int months) {
+		if (enabled) {
+			SCHEDULE_MONTHS.record(months);
+			SCHEDULE_ROWS.add(months);
+		}
+	}
+
+	static void recordMonthlyPayment(long start) {
+		if (start != 0) {
+			MONTHLY_PAYMENT_SECONDS.recordNanosSince(start);
+		}
+	}
+
+	/**
+	 * @param start
+	 * @param invalidFields bit (1 &lt;&lt; Field.ordinal()) set for each invalid
+	 *                      field
+	 */
+	static void recordValidation(long start, int invalidFields) {
+		if (start != 0) {
+			VALIDATION_SECONDS.recordNanosSince(start);
+			for (int i = 0; i < VALIDATION_FAILURES.length; i++) {
+				if ((invalidFields & (1 << i)) != 0) {
+					VALIDATION_FAILURES[i].increment();
+				}
+			}
+		}
+	}
+
+	static void recordExcel(long start, int rows, Path outputFile) throws IOException {
+		if (start != 0) {
+			long elapsed = System.nanoTime() - start;
+			EXCEL_SECONDS.record(elapsed / 1e9);
+			EXCEL_ROWS_PER_SECOND.record(rows * 1e9 / Math.max(elapsed, 1));
+			EXCEL_ROWS.add(rows);
+			EXCEL_BYTES.add(Files.size(outputFile));
+		}
+	}
+
+	/**
+	 * @return every metric in the Prometheus text format
+	 */
+	public static String scrape() {
+		StringBuilder out = new StringBuilder(4096);
+
+		SCHEDULE_SECONDS.write(out);
+		SCHEDULE_MONTHS.write(out);
+		writeCounter(out, "amortization_schedule_rows_total", "Schedule rows calculated.", SCHEDULE_ROWS.sum());
+		MONTHLY_PAYMENT_SECONDS.write(out);
+
+		VALIDATION_SECONDS.write(out);
+		String failures = "amortization_validation_failures_total";
+		out.append("# HELP ").append(failures).append(" Loan input fields that failed validation.\n");
+		out.append("# TYPE ").append(failures).append(" counter\n");
+		for (LoanInput.Field field : LoanInput.Field.values()) {
+			out.append(failures).append("{field=\"").append(field.name().toLowerCase(Locale.ROOT)).append("\"} ")
+					.append(VALIDATION_FAILURES[field.ordinal()].sum()).append('\n');
+		}
+
+		EXCEL_SECONDS.write(out);
+		EXCEL_ROWS_PER_SECOND.write(out);
+		writeCounter(out, "amortization_excel_rows_total", "Schedule rows written to Excel documents.",
+				EXCEL_ROWS.sum());
+		writeCounter(out, "amortization_excel_bytes_total", "Bytes of Excel documents written.", EXCEL_BYTES.sum());
+
+		ScheduleCache cache = CalculationUtility.getScheduleCache();
+		writeCacheCounter(out, "amortization_cache_hits_total", "Schedule and monthly payment cache hits.",
+				cache.getScheduleHitCount(), cache.getPaymentHitCount());
+		writeCacheCounter(out, "amortization_cache_misses_total", "Schedule and monthly payment cache misses.",
+				cache.getScheduleMissCount(), cache.getPaymentMissCount());
+		writeCacheCounter(out, "amortization_cache_evictions_total",
+				"Schedule and monthly payment cache evictions.", cache.getScheduleEvictionCount(),
+				cache.getPaymentEvictionCount());
+
+		return out.toString();
+	}
+
+	/**
+	 * Write {@link #scrape()} to the file, replacing it.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void dump(Path file) throws IOException {
+		Files.write(file, scrape().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Clear every metric, the cache counters are not metrics and are kept.
+	 */
+	static void reset() {
+		for (Histogram histogram : new Histogram[] { SCHEDULE_SECONDS, SCHEDULE_MONTHS, MONTHLY_PAYMENT_SECONDS,
+				VALIDATION_SECONDS, EXCEL_SECONDS, EXCEL_ROWS_PER_SECOND }) {
+			histogram.reset();
+		}
+		for (LongAdder counter : new LongAdder[] { SCHEDULE_ROWS, EXCEL_ROWS, EXCEL_BYTES }) {
+			counter.reset();
+		}
+		for (LongAdder counter : VALIDATION_FAILURES) {
+			counter.reset();
+		}
+	}
+
+	private static void writeCounter(StringBuilder out, String name, String help, long value) {
+		out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(name).append(" counter\n");
+		out.append(name).append(' ').append(value).append('\n');
+	}
+
+	private static void writeCacheCounter(StringBuilder out, String name, String help, long schedules,
+			long payments) {
+		out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		out.append("# TYPE ").append(name).append(" counter\n");
+		out.append(name).append("{cache=\"schedule\"} ").append(schedules).append('\n');
+		out.append(name).append("{cache=\"payment\"} ").append(payments).append('\n');
+	}
+
+	/**
+	 * Whole numbers without a decimal point, others as Double.toString (Ex: 360,
+	 * 2.5E-5).
+	 *
+	 * @param value
+	 * @return
+	 */
+	static String formatValue(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+}
@@ -0,0 +1,208 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.tim.amortization.calculator.model.DistributionStatistics;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.SimulationResult;
+import com.tim.amortization.calculator.model.SimulationSettings;
+
+/**
+ * Monte Carlo simulation of rate and prepayment paths of a loan using the
+ * fixed-point math of {@link FixedPointCalculationUtility}.
+ *
+ * Each path only keeps its balance, rate, payment and interest paid; no rows
+ * are stored. At every reset the rate moves by a normally distributed step
+ * (floored at zero) and, when it changed, the payment is re-amortized over the
+ * remaining months of the term. After each month's payment the loan is prepaid
+ * in full with the monthly prepayment probability.
+ *
+ * Paths are split across a fork/join pool. The random number generator is a
+ * SplittableRandom split along the task tree, which only depends on the number
+ * of paths, so the same seed gives the same result on any number of threads.
+ */
+public class MonteCarloUtility {
+
+	/**
+	 * Paths calculated by one fork/join task.
+	 */
+	static final int PATHS_PER_TASK = 64;
+
+	/**
+	 * Simulate the paths of the loan on the common fork/join pool.
+	 *
+	 * @param terms
+	 * @param settings
+	 * @param mode     rounding for the monthly payments and monthly interest
+	 * @return distributions of the payoff month and total interest
+	 */
+	public static SimulationResult simulate(LoanTerms terms, SimulationSettings settings, RoundingMode mode) {
+		return simulate(terms, settings, mode, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Simulate the paths of the loan on the given fork/join pool.
+	 *
+	 * @param terms
+	 * @param settings
+	 * @param mode
+	 * @param pool
+	 * @return
+	 */
+	public static SimulationResult simulate(LoanTerms terms, SimulationSettings settings, RoundingMode mode,
+			ForkJoinPool pool) {
+		Kernel kernel = new Kernel(terms, settings, mode);
+		int paths = settings.getPaths();
+		long[] payoffMonths = new long[paths];
+		long[] totalInterest = new long[paths];
+		boolean[] prepaid = new boolean[paths];
+
+		pool.invoke(new PathTask(kernel, new SplittableRandom(settings.getSeed()), 0, paths, payoffMonths,
+				totalInterest, prepaid));
+
+		int prepaidPaths = 0;
+		for (boolean p : prepaid) {
+			if (p) {
+				prepaidPaths++;
+			}
+		}
+		return new SimulationResult(paths, DistributionStatistics.of(payoffMonths),
+				DistributionStatistics.of(totalInterest), prepaidPaths);
+	}
+
+	/**
+	 * Calculates one path at a time. Shared by all tasks of a simulation, so it
+	 * only holds the loan and settings.
+	 */
+	private static class Kernel {
+
+		private final RoundingMode mode;
+
+		private final int numberOfPayments;
+
+		private final long principalCents;
+
+		private final long initialRatePpm;
+
+		private final long initialPayment;
+
+		private final long additional;
+
+		private final int resetMonths;
+
+		/**
+		 * standard deviation of one rate step in parts per million
+		 */
+		private final double stepPpm;
+
+		private final double prepaymentProbability;
+
+		Kernel(LoanTerms terms, SimulationSettings settings, RoundingMode mode) {
+			this.mode = mode;
+			this.numberOfPayments = terms.getMortgageLength() * 12;
+			this.principalCents = CentsUtility.toCents(terms.getPrincipal());
+			this.initialRatePpm = FixedPointCalculationUtility.toRatePpm(terms.getInterestRate());
+			this.initialPayment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(principalCents,
+					initialRatePpm, numberOfPayments, mode);
+			this.additional = CentsUtility.toCents(terms.getAdditionalPrincipalPayment());
+			this.resetMonths = settings.getResetMonths();
+			this.stepPpm = settings.getRateVolatility() * Math.sqrt(resetMonths / 12.0)
+					* FixedPointCalculationUtility.RATE_SCALE;
+			this.prepaymentProbability = settings.getMonthlyPrepaymentProbability();
+
+			FixedPointCalculationUtility.checkAmortizes(principalCents, initialRatePpm, initialPayment, additional,
+					mode);
+		}
+
+		/**
+		 * Calculate one path and store its payoff month, total interest and whether
+		 * it was prepaid at the index.
+		 */
+		void path(SplittableRandom random, int index, long[] payoffMonths, long[] totalInterest, boolean[] prepaid) {
+			long balance = principalCents;
+			long ratePpm = initialRatePpm;
+			long payment = initialPayment;
+			long interest = 0;
+			int month = 0;
+
+			while (balance > 0) {
+				month++;
+
+				if (stepPpm > 0 && month > 1 && month <= numberOfPayments && (month - 1) % resetMonths == 0) {
+					long newRate = Math.max(ratePpm + Math.round(random.nextGaussian() * stepPpm), 0);
+					if (newRate != ratePpm) {
+						ratePpm = newRate;
+						payment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(balance, ratePpm,
+								numberOfPayments - month + 1, mode);
+						FixedPointCalculationUtility.checkAmortizes(balance, ratePpm, payment, additional, mode);
+					}
+				}
+
+				long monthlyInterest = FixedPointCalculationUtility.calculateMonthlyInterestCents(balance, ratePpm,
+						mode);
+				interest += monthlyInterest;
+				balance -= payment - monthlyInterest + additional;
+
+				if (balance > 0 && prepaymentProbability > 0 && random.nextDouble() < prepaymentProbability) {
+					balance = 0;
+					prepaid[index] = true;
+				}
+			}
+
+			payoffMonths[index] = month;
+			totalInterest[index] = interest;
+		}
+	}
+
+	/**
+	 * Splits the range of paths in halves until it is at most PATHS_PER_TASK,
+	 * splitting the random number generator with it. Each task writes only its
+	 * own range of the result arrays.
+	 */
+	private static class PathTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Kernel kernel;
+
+		private final transient SplittableRandom random;
+
+		private final int from;
+
+		private final int to;
+
+		private final long[] payoffMonths;
+
+		private final long[] totalInterest;
+
+		private final boolean[] prepaid;
+
+		PathTask(Kernel kernel, SplittableRandom random, int from, int to, long[] payoffMonths, long[] totalInterest,
+				boolean[] prepaid) {
+			this.kernel = kernel;
+			this.random = random;
+			this.from = from;
+			this.to = to;
+			this.payoffMonths = payoffMonths;
+			this.totalInterest = totalInterest;
+			this.prepaid = prepaid;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PATHS_PER_TASK) {
+				for (int path = from; path < to; path++) {
+					kernel.path(random, path, payoffMonths, totalInterest, prepaid);
+				}
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new PathTask(kernel, random.split(), from, middle, payoffMonths, totalInterest, prepaid),
+					new PathTask(kernel, random, middle, to, payoffMonths, totalInterest, prepaid));
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Writes schedules as newline delimited JSON, one object per month:
+ *
+ * <pre>
+ * {"loan":"Loan 1","month":1,"principalPaid":545.58,"interestPaid":3268.96,"additionalPrincipalPayment":1000.00,"remainingPrincipal":601954.42}
+ * </pre>
+ */
+public class NdjsonExportSink extends ChannelExportSink {
+
+	private static final byte[] PRINCIPAL_PAID = ",\"principalPaid\":".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] INTEREST_PAID = ",\"interestPaid\":".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] ADDITIONAL_PRINCIPAL_PAYMENT = ",\"additionalPrincipalPayment\":"
+			.getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] REMAINING_PRINCIPAL = ",\"remainingPrincipal\":".getBytes(StandardCharsets.UTF_8);
+
+	private byte[] loanName;
+
+	public NdjsonExportSink(Path outputFile) throws IOException {
+		super(outputFile);
+	}
+
+	/**
+	 * @param channel written as the buffer fills, closed with the sink
+	 */
+	public NdjsonExportSink(WritableByteChannel channel) {
+		super(channel);
+	}
+
+	@Override
+	public void startLoan(String name) {
+		StringBuilder json = new StringBuilder("{\"loan\":\"");
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append("\",\"month\":");
+		this.loanName = json.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void accept(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+			long additionalPrincipalPayment) {
+		if (loanName == null) {
+			throw new IllegalStateException("startLoan must be called before writing rows");
+		}
+		put(loanName);
+		putLong(month);
+		put(PRINCIPAL_PAID);
+		putCents(principalPaid);
+		put(INTEREST_PAID);
+		putCents(interestPaid);
+		put(ADDITIONAL_PRINCIPAL_PAYMENT);
+		putCents(additionalPrincipalPayment);
+		put(REMAINING_PRINCIPAL);
+		putCents(remainingPrincipal);
+		put('}');
+		put('\n');
+	}
+
+}
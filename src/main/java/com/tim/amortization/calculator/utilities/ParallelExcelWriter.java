@@ -0,0 +1,362 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
+
+/**
+ * Writes a portfolio to one XLSX workbook with a sheet per loan, rendering the
+ * sheets in parallel. Each worker calculates a loan, writes its sheet XML and
+ * deflates it into a separate part. The calling thread only copies the
+ * compressed parts into the ZIP package, in portfolio order, so export time
+ * scales with the number of cores rather than the number of loans.
+ *
+ * The header and data styles are created once by ExcelUtility and shared by
+ * every sheet through a single xl/styles.xml part. Sheets look the same as the
+ * sheet per loan layout of {@link StreamingExcelWriter}: "Loan 1", "Loan 2",
+ * etc. with the schedule columns of ExcelUtility.
+ *
+ * At most maxInFlight rendered sheets wait to be written, so memory stays
+ * bounded. The package must stay under the 4 GB and 65535 sheet limits of a
+ * ZIP without ZIP64, use StreamingExcelWriter on a single sheet beyond that.
+ */
+public class ParallelExcelWriter {
+
+	public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+	private static final String MAIN_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+	private static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+	private static final String SHEET_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml";
+
+	private final int parallelism;
+
+	private final int maxInFlight;
+
+	/**
+	 * Every available core.
+	 */
+	public ParallelExcelWriter() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_IN_FLIGHT);
+	}
+
+	/**
+	 * @param parallelism number of worker threads
+	 * @param maxInFlight maximum number of sheets rendered but not yet written
+	 */
+	public ParallelExcelWriter(int parallelism, int maxInFlight) {
+		if (parallelism < 1 || maxInFlight < 1) {
+			throw new IllegalArgumentException("parallelism and maxInFlight must be at least 1");
+		}
+		this.parallelism = parallelism;
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * Calculate every loan and write its sheet to the output file. The first loan
+	 * that fails validation stops the export, its exception is thrown and the
+	 * partial file is deleted.
+	 *
+	 * @param loans      loan terms, validated by the worker threads, may be read
+	 *                   lazily
+	 * @param outputFile xlsx file to create
+	 * @return number of sheets written
+	 * @throws IOException
+	 * @throws InterruptedException the calling thread was interrupted, the export
+	 *                              is stopped
+	 */
+	public int write(Iterable<LoanTerms> loans, Path outputFile) throws IOException, InterruptedException {
+		boolean written = false;
+		try (ZipPackageWriter zip = new ZipPackageWriter(outputFile)) {
+			int sheets = writeSheets(loans.iterator(), zip);
+			writePackageParts(zip, sheets);
+			written = true;
+			return sheets;
+		} finally {
+			if (!written) {
+				Files.deleteIfExists(outputFile);
+			}
+		}
+	}
+
+	private int writeSheets(Iterator<LoanTerms> loans, ZipPackageWriter zip)
+			throws IOException, InterruptedException {
+		BlockingQueue<RenderedSheet> results = new LinkedBlockingQueue<>();
+		Map<Integer, RenderedSheet> pending = new HashMap<>();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+		try {
+			int submitted = 0;
+			int nextSheet = 1;
+			while (loans.hasNext() || nextSheet <= submitted) {
+				if (loans.hasNext() && submitted - nextSheet + 1 < maxInFlight) {
+					LoanTerms terms = loans.next();
+					int number = ++submitted;
+					pool.execute(() -> results.add(render(number, terms)));
+					continue;
+				}
+
+				// hold sheets that finished early until every earlier sheet is written
+				RenderedSheet result = results.take();
+				pending.put(result.number, result);
+				RenderedSheet next;
+				while ((next = pending.remove(nextSheet)) != null) {
+					if (next.error instanceof RuntimeException) {
+						throw (RuntimeException) next.error;
+					} else if (next.error != null) {
+						throw (Error) next.error;
+					}
+					zip.put("xl/worksheets/sheet" + next.number + ".xml", next.part);
+					nextSheet++;
+				}
+			}
+			return submitted;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Calculate the loan and deflate its sheet, on a worker thread.
+	 */
+	private static RenderedSheet render(int number, LoanTerms terms) {
+		try {
+			CalculationUtility.validateInput(terms);
+			SheetXml sheet = new SheetXml(terms.getMortgageLength() * 12);
+			CalculationUtility.calculateSchedule(terms, sheet);
+			sheet.finish();
+			return new RenderedSheet(number, ZipPackageWriter.DeflatedEntry.deflate(sheet.bytes, sheet.length), null);
+		} catch (RuntimeException | Error ex) {
+			// still hand a result to the writer so it does not wait forever
+			return new RenderedSheet(number, null, ex);
+		}
+	}
+
+	private static final class RenderedSheet {
+
+		final int number;
+
+		final ZipPackageWriter.DeflatedEntry part;
+
+		final Throwable error;
+
+		RenderedSheet(int number, ZipPackageWriter.DeflatedEntry part, Throwable error) {
+			this.number = number;
+			this.part = part;
+			this.error = error;
+		}
+	}
+
+	/**
+	 * Workbook, relationship, content type and style parts, written after the
+	 * sheets since their number is only known once every loan is read.
+	 */
+	private static void writePackageParts(ZipPackageWriter zip, int sheets) throws IOException {
+		StringBuilder workbook = new StringBuilder(XML_DECLARATION);
+		workbook.append("<workbook xmlns=\"").append(MAIN_NAMESPACE).append("\" xmlns:r=\"")
+				.append(RELATIONSHIPS_NAMESPACE).append("\"><sheets>");
+		StringBuilder workbookRels = new StringBuilder(XML_DECLARATION);
+		workbookRels.append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+		StringBuilder contentTypes = new StringBuilder(XML_DECLARATION);
+		contentTypes.append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+				+ "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+				+ "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+				+ "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+				+ "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+
+		for (int i = 1; i <= sheets; i++) {
+			workbook.append("<sheet name=\"Loan ").append(i).append("\" sheetId=\"").append(i).append("\" r:id=\"rId")
+					.append(i).append("\"/>");
+			workbookRels.append("<Relationship Id=\"rId").append(i).append("\" Type=\"")
+					.append(RELATIONSHIPS_NAMESPACE).append("/worksheet\" Target=\"worksheets/sheet").append(i)
+					.append(".xml\"/>");
+			contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ContentType=\"")
+					.append(SHEET_CONTENT_TYPE).append("\"/>");
+		}
+		workbook.append("</sheets></workbook>");
+		workbookRels.append("<Relationship Id=\"rId").append(sheets + 1).append("\" Type=\"")
+				.append(RELATIONSHIPS_NAMESPACE).append("/styles\" Target=\"styles.xml\"/></Relationships>");
+		contentTypes.append("</Types>");
+
+		zip.put("xl/workbook.xml", workbook.toString());
+		zip.put("xl/_rels/workbook.xml.rels", workbookRels.toString());
+		zip.put("xl/styles.xml", Styles.XML);
+		zip.put("[Content_Types].xml", contentTypes.toString());
+		zip.put("_rels/.rels", XML_DECLARATION
+				+ "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+				+ "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIPS_NAMESPACE
+				+ "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+	}
+
+	/**
+	 * styles.xml with the header and data styles of ExcelUtility, created once.
+	 */
+	private static final class Styles {
+
+		static final String XML;
+
+		static final int HEADER_STYLE;
+
+		static final int DATA_STYLE;
+
+		static {
+			try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+				CellStyle headerStyle = ExcelUtility.createHeaderStyle(workbook);
+				CellStyle dataStyle = ExcelUtility.createDataStyle(workbook);
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				workbook.getStylesSource().writeTo(out);
+
+				XML = out.toString(StandardCharsets.UTF_8);
+				HEADER_STYLE = headerStyle.getIndex();
+				DATA_STYLE = dataStyle.getIndex();
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+
+	/**
+	 * Worksheet XML of one schedule, written straight from the calculation into
+	 * a byte array. Amounts are written as exact decimals of the cents.
+	 */
+	private static final class SheetXml implements ScheduleRowConsumer {
+
+		private static final byte[] ROW_END = "</row>".getBytes(StandardCharsets.UTF_8);
+
+		private byte[] bytes;
+
+		private int length;
+
+		private final byte[] digits = new byte[20];
+
+		private byte[] dataCellStart;
+
+		SheetXml(int expectedRows) {
+			this.bytes = new byte[4096 + expectedRows * 256];
+
+			StringBuilder start = new StringBuilder(XML_DECLARATION);
+			start.append("<worksheet xmlns=\"").append(MAIN_NAMESPACE).append("\"><cols>");
+			int[] widths = ExcelUtility.SCHEDULE_COLUMN_WIDTHS;
+			for (int i = 0; i < widths.length; i++) {
+				start.append("<col min=\"").append(i + 1).append("\" max=\"").append(i + 1).append("\" width=\"")
+						.append(widths[i] / 256.0).append("\" customWidth=\"1\"/>");
+			}
+			start.append("</cols><sheetData><row r=\"1\">");
+			String[] headers = ExcelUtility.SCHEDULE_HEADERS;
+			for (int i = 0; i < headers.length; i++) {
+				start.append("<c r=\"").append((char) ('A' + i)).append("1\" s=\"").append(Styles.HEADER_STYLE)
+						.append("\" t=\"inlineStr\"><is><t>").append(headers[i]).append("</t></is></c>");
+			}
+			start.append("</row>");
+			put(start.toString().getBytes(StandardCharsets.UTF_8));
+
+			dataCellStart = ("\" s=\"" + Styles.DATA_STYLE + "\"><v>").getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public void accept(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+				long additionalPrincipalPayment) {
+			int row = month + 1;
+			put("<row r=\"");
+			putLong(row);
+			put("\">");
+			putCell('A', row, month, false);
+			putCell('B', row, principalPaid, true);
+			putCell('C', row, interestPaid, true);
+			putCell('D', row, additionalPrincipalPayment, true);
+			putCell('E', row, remainingPrincipal, true);
+			put(ROW_END);
+		}
+
+		void finish() {
+			put("</sheetData></worksheet>");
+		}
+
+		private void putCell(char column, int row, long value, boolean cents) {
+			put("<c r=\"");
+			putByte(column);
+			putLong(row);
+			put(dataCellStart);
+			if (cents) {
+				putCents(value);
+			} else {
+				putLong(value);
+			}
+			put("</v></c>");
+		}
+
+		private void put(String ascii) {
+			ensureCapacity(ascii.length());
+			for (int i = 0; i < ascii.length(); i++) {
+				bytes[length++] = (byte) ascii.charAt(i);
+			}
+		}
+
+		private void put(byte[] value) {
+			ensureCapacity(value.length);
+			System.arraycopy(value, 0, bytes, length, value.length);
+			length += value.length;
+		}
+
+		private void putByte(char c) {
+			ensureCapacity(1);
+			bytes[length++] = (byte) c;
+		}
+
+		private void putLong(long value) {
+			if (value < 0) {
+				putByte('-');
+				value = -value;
+			}
+			int count = 0;
+			do {
+				digits[count++] = (byte) ('0' + value % 10);
+				value /= 10;
+			} while (value > 0);
+
+			ensureCapacity(count);
+			while (count > 0) {
+				bytes[length++] = digits[--count];
+			}
+		}
+
+		/**
+		 * Cents as dollars with two decimal places (Ex: 54558 --> 545.58).
+		 */
+		private void putCents(long cents) {
+			if (cents < 0) {
+				putByte('-');
+				cents = -cents;
+			}
+			putLong(cents / 100);
+			putByte('.');
+			putByte((char) ('0' + cents % 100 / 10));
+			putByte((char) ('0' + cents % 10));
+		}
+
+		private void ensureCapacity(int extra) {
+			if (length + extra > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+			}
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.BigDecimal;
+import java.util.function.Predicate;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PayoffSolution;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+
+/**
+ * Finds the smallest constant additional principal payment that meets a
+ * target, instead of trying values in the GUI one Excel file at a time.
+ *
+ * Each try is a {@link CalculationUtility#summarizeSchedule(LoanTerms)} (no
+ * rows, no Excel). Paying more never pays the loan off later or pays more
+ * interest, so the payment is found by bisection over whole cents between zero
+ * and the principal, about 30 summaries for any loan. The payment is at most
+ * {@link InputParsingUtility#MAX_ADDITIONAL_PRINCIPAL_CENTS} so it can be
+ * entered in the additional principal field.
+ */
+public class PayoffSolverUtility {
+
+	public static final String TARGET_MONTH_ERROR = "Invalid value for Target Payoff Month. Value must be at least 1.";
+
+	public static final String TARGET_INTEREST_ERROR = "Target total interest is less than the interest of the first month.";
+
+	public static final String TARGET_UNREACHABLE_ERROR = "Target can not be met with an additional principal payment of at most 99999999.99.";
+
+	/**
+	 * Smallest additional principal payment that pays the loan off by the target
+	 * month. The additional principal payment of the terms is ignored.
+	 *
+	 * @param terms       validated loan terms
+	 * @param targetMonth latest payoff month
+	 * @return
+	 */
+	public static PayoffSolution solveForPayoffMonth(LoanTerms terms, int targetMonth) {
+		if (targetMonth < 1) {
+			throw new InputValidationException(TARGET_MONTH_ERROR);
+		}
+		return solve(terms, summary -> summary.getPayoffMonth() <= targetMonth);
+	}
+
+	/**
+	 * Smallest additional principal payment that keeps the total interest at or
+	 * below the target. The additional principal payment of the terms is ignored.
+	 *
+	 * @param terms         validated loan terms
+	 * @param totalInterest highest total interest
+	 * @return
+	 */
+	public static PayoffSolution solveForTotalInterest(LoanTerms terms, BigDecimal totalInterest) {
+		long targetCents = totalInterest.movePointRight(2).longValue();
+		long firstMonthInterest = CalculationUtility
+				.calculateMonthlyInterest(terms.getPrincipal(), terms.getInterestRate()).unscaledValue().longValue();
+
+		// the first month's interest is charged on the full principal whatever is paid
+		if (targetCents < firstMonthInterest) {
+			throw new InputValidationException(TARGET_INTEREST_ERROR);
+		}
+		return solve(terms, summary -> summary.getTotalInterest() <= targetCents);
+	}
+
+	private static PayoffSolution solve(LoanTerms terms, Predicate<ScheduleSummary> target) {
+		ScheduleSummary summary = summarize(terms, 0);
+		if (target.test(summary)) {
+			return new PayoffSolution(BigDecimal.valueOf(0, 2), summary);
+		}
+
+		// paying the whole principal in the first month meets any valid target, but
+		// larger loans are limited to what the additional principal field accepts
+		long low = 0;
+		long high = Math.min(CentsUtility.toCents(terms.getPrincipal()),
+				InputParsingUtility.MAX_ADDITIONAL_PRINCIPAL_CENTS);
+		ScheduleSummary highSummary = summarize(terms, high);
+		if (!target.test(highSummary)) {
+			throw new InputValidationException(TARGET_UNREACHABLE_ERROR);
+		}
+
+		while (high - low > 1) {
+			long middle = low + (high - low) / 2;
+			summary = summarize(terms, middle);
+			if (target.test(summary)) {
+				high = middle;
+				highSummary = summary;
+			} else {
+				low = middle;
+			}
+		}
+
+		return new PayoffSolution(BigDecimal.valueOf(high, 2), highSummary);
+	}
+
+	private static ScheduleSummary summarize(LoanTerms terms, long additionalCents) {
+		return CalculationUtility.summarizeSchedule(new LoanTerms(terms.getPrincipal(), terms.getInterestRate(),
+				terms.getMortgageLength(), CentsUtility.toDollars(additionalCents)));
+	}
+}
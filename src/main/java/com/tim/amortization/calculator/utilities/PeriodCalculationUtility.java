@@ -0,0 +1,266 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+import com.tim.amortization.calculator.model.DayCount;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PaymentFrequency;
+import com.tim.amortization.calculator.model.PaymentPlan;
+import com.tim.amortization.calculator.model.PeriodRowConsumer;
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
+
+/**
+ * Amortization schedules with monthly, semi-monthly, biweekly or weekly
+ * payments and periodic, actual/365 or 30/360 interest. A monthly plan with
+ * periodic interest gives the same rows as
+ * {@link CalculationUtility#calculateSchedule(LoanTerms, ScheduleRowConsumer)}.
+ *
+ * The payment is the PMT of the periodic rate over mortgageLength *
+ * periodsPerYear payments, rounded up to the cent. The additional principal of
+ * the loan terms is paid with every payment. Payment dates are calculated as
+ * epoch days with integer arithmetic, so a period costs the same for every
+ * frequency and creates no objects.
+ */
+public class PeriodCalculationUtility {
+
+	/**
+	 * A schedule longer than this many times the scheduled payments does not
+	 * amortize, the interest of a period exceeds the payment.
+	 */
+	private static final int MAX_PERIODS_FACTOR = 4;
+
+	/**
+	 * Payment for one period, rounded up to the cent. Monthly payments are cached
+	 * by {@link CalculationUtility#calculateMonthlyPayment(Double, Double, Double)}.
+	 *
+	 * @param principalAmt
+	 * @param interestAmt    interest percentage (Ex: 6.5)
+	 * @param mortgageLength length of the mortgage in years
+	 * @param frequency
+	 * @return
+	 */
+	public static BigDecimal calculatePeriodicPayment(double principalAmt, double interestAmt, int mortgageLength,
+			PaymentFrequency frequency) {
+		if (frequency == PaymentFrequency.MONTHLY) {
+			return CalculationUtility.calculateMonthlyPayment(principalAmt, interestAmt, (double) mortgageLength);
+		}
+
+		// determine values for PMT function
+		double numberOfPayments = (double) mortgageLength * frequency.getPeriodsPerYear();
+		double rate = (interestAmt / 100) / frequency.getPeriodsPerYear();
+
+		// calculate PMT function
+		double payment = principalAmt * (rate * Math.pow(1 + rate, numberOfPayments))
+				/ (Math.pow(1 + rate, numberOfPayments) - 1);
+
+		// round the result to the nearest cent value
+		return new BigDecimal(String.valueOf(payment)).setScale(2, RoundingMode.CEILING);
+	}
+
+	/**
+	 * Calculate the schedule of already validated loan terms, passing each period
+	 * to the consumer without the payment date.
+	 *
+	 * @param terms
+	 * @param plan
+	 * @param consumer receives each period of the schedule in cents
+	 * @return number of payments until the loan is paid off
+	 */
+	public static int calculateSchedule(LoanTerms terms, PaymentPlan plan, ScheduleRowConsumer consumer) {
+		return calculateSchedule(terms, plan, (period, paymentDate, principalPaid, interestPaid, remainingPrincipal,
+				additionalPrincipalPayment) -> consumer.accept(period, principalPaid, interestPaid, remainingPrincipal,
+						additionalPrincipalPayment));
+	}
+
+	/**
+	 * Calculate the schedule of already validated loan terms, passing each period
+	 * to the consumer as it is calculated instead of storing it.
+	 *
+	 * @param terms
+	 * @param plan
+	 * @param consumer receives each period of the schedule in cents
+	 * @return number of payments until the loan is paid off
+	 * @throws IllegalArgumentException if the interest of a period exceeds the
+	 *                                  payment so the loan is never paid off
+	 */
+	public static int calculateSchedule(LoanTerms terms, PaymentPlan plan, PeriodRowConsumer consumer) {
+		PaymentFrequency frequency = plan.getFrequency();
+		DayCount dayCount = plan.getDayCount();
+		LocalDate first = plan.getFirstPaymentDate();
+		long firstEpochDay = first.toEpochDay();
+		int firstMonth = first.getYear() * 12 + first.getMonthValue() - 1;
+		int firstDay = first.getDayOfMonth();
+
+		double principalAmt = terms.getPrincipal();
+		double interestAmt = terms.getInterestRate();
+		double additionalPrincipalPayment = terms.getAdditionalPrincipalPayment();
+		double payment = calculatePeriodicPayment(principalAmt, interestAmt, terms.getMortgageLength(), frequency)
+				.doubleValue();
+		long additionalPrincipalCents = CentsUtility.ceilingCents(additionalPrincipalPayment);
+		long maxPeriods = (long) terms.getMortgageLength() * frequency.getPeriodsPerYear() * MAX_PERIODS_FACTOR;
+
+		long previousDate = paymentDate(frequency, firstEpochDay, firstMonth, firstDay, 0);
+		int period = 1;
+
+		while (principalAmt > 0) {
+			if (period > maxPeriods) {
+				throw new IllegalArgumentException("Payments of " + payment + " do not pay off " + terms + " with "
+						+ plan);
+			}
+			long date = paymentDate(frequency, firstEpochDay, firstMonth, firstDay, period);
+			long interest = calculateInterestCents(principalAmt, interestAmt, frequency, dayCount, previousDate,
+					date);
+			double principalOnly = payment - CentsUtility.toDollars(interest);
+
+			// update principalAmt by subtracting the principalOnly amount and any
+			// additionalPrincipalPayment paid each period
+			principalAmt -= (principalOnly + additionalPrincipalPayment);
+
+			consumer.accept(period, date, CentsUtility.ceilingCents(principalOnly), interest,
+					CentsUtility.ceilingCents(principalAmt), additionalPrincipalCents);
+
+			previousDate = date;
+			period++;
+		}
+
+		MetricsUtility.recordScheduleLength(period - 1);
+		return period - 1;
+	}
+
+	/**
+	 * Interest accrued between two payments, rounded up to the cent. Periodic
+	 * interest is the same value as the monthly interest of
+	 * CalculationUtility.calculateMonthlyInterest for monthly payments.
+	 *
+	 * @param principalAmt
+	 * @param interestAmt  interest percentage
+	 * @param frequency
+	 * @param dayCount
+	 * @param start        epoch day of the previous payment
+	 * @param end          epoch day of the payment
+	 * @return
+	 */
+	static long calculateInterestCents(double principalAmt, double interestAmt, PaymentFrequency frequency,
+			DayCount dayCount, long start, long end) {
+		double interest;
+		switch (dayCount) {
+		case ACTUAL_365:
+			interest = principalAmt * (interestAmt / 100) * (end - start) / 365;
+			break;
+		case THIRTY_360:
+			interest = principalAmt * (interestAmt / 100) * days360(start, end) / 360;
+			break;
+		default:
+			interest = principalAmt * (interestAmt / 100) / frequency.getPeriodsPerYear();
+		}
+
+		// round the result to the nearest cent value
+		return CentsUtility.ceilingCents(interest);
+	}
+
+	/**
+	 * Date of a payment of the plan.
+	 *
+	 * @param plan
+	 * @param period payment number starting at 1, 0 for the start of interest
+	 *               accrual one period before the first payment
+	 * @return
+	 */
+	public static LocalDate paymentDate(PaymentPlan plan, int period) {
+		LocalDate first = plan.getFirstPaymentDate();
+		return LocalDate.ofEpochDay(paymentDate(plan.getFrequency(), first.toEpochDay(),
+				first.getYear() * 12 + first.getMonthValue() - 1, first.getDayOfMonth(), period));
+	}
+
+	/**
+	 * @param firstMonth months since year 0 of the first payment
+	 * @param firstDay   day of month of the first payment
+	 * @return epoch day of the payment
+	 */
+	private static long paymentDate(PaymentFrequency frequency, long firstEpochDay, int firstMonth, int firstDay,
+			int period) {
+		if (frequency.getDays() > 0) {
+			return firstEpochDay + (long) (period - 1) * frequency.getDays();
+		}
+
+		int month;
+		int day;
+		if (frequency == PaymentFrequency.SEMI_MONTHLY) {
+			month = firstMonth + Math.floorDiv(period - 1, 2);
+			day = firstDay + 15 * Math.floorMod(period - 1, 2);
+		} else {
+			month = firstMonth + period - 1;
+			day = firstDay;
+		}
+		int year = Math.floorDiv(month, 12);
+		int monthOfYear = Math.floorMod(month, 12) + 1;
+		return epochDay(year, monthOfYear, Math.min(day, lengthOfMonth(year, monthOfYear)));
+	}
+
+	/**
+	 * Days between two dates counting every month as 30 days, the day of month is
+	 * capped at 30 (30/360 bond basis).
+	 *
+	 * @param start epoch day
+	 * @param end   epoch day
+	 * @return
+	 */
+	static int days360(long start, long end) {
+		int startDate = civilDate(start);
+		int endDate = civilDate(end);
+		int startDay = Math.min(startDate & 0x1F, 30);
+		int endDay = endDate & 0x1F;
+		if (startDay == 30) {
+			endDay = Math.min(endDay, 30);
+		}
+		return 360 * ((endDate >> 9) - (startDate >> 9)) + 30 * (((endDate >> 5) & 0xF) - ((startDate >> 5) & 0xF))
+				+ endDay - startDay;
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		switch (month) {
+		case 2:
+			return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+
+	/**
+	 * Same value as LocalDate.of(year, month, day).toEpochDay(), without creating
+	 * a LocalDate (days_from_civil by Howard Hinnant).
+	 */
+	static long epochDay(int year, int month, int day) {
+		int y = month <= 2 ? year - 1 : year;
+		int era = Math.floorDiv(y, 400);
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+
+	/**
+	 * Year, month and day of an epoch day packed into an int as year &lt;&lt; 9 |
+	 * month &lt;&lt; 5 | day (civil_from_days by Howard Hinnant). Years before 0
+	 * are not supported.
+	 */
+	static int civilDate(long epochDay) {
+		long z = epochDay + 719468;
+		long era = Math.floorDiv(z, 146097);
+		int dayOfEra = (int) (z - era * 146097);
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int shiftedMonth = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+		int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+		int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+		return year << 9 | month << 5 | day;
+	}
+}
@@ -0,0 +1,288 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PortfolioAggregate;
+import com.tim.amortization.calculator.model.RevaluationResult;
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
+
+/**
+ * Revalues a portfolio by recalculating only the loans whose terms changed
+ * since the previous run. Each loan's terms are reduced to a 64 bit
+ * fingerprint; a loan with the same fingerprint keeps the schedule stored in
+ * the {@link ScheduleStore}. The portfolio totals are updated by subtracting
+ * the stored schedule of a changed or removed loan and adding the new one,
+ * instead of summing every loan again.
+ *
+ * The fingerprints and totals are saved to a state file after each run,
+ * together with the size of the store they match. If the store was written or
+ * compacted without updating the state file, the state is discarded and the
+ * next run recalculates every loan.
+ *
+ * Fingerprints cover the loan terms only. Delete the state file to recalculate
+ * every loan after a change to the calculation itself. After a failed run,
+ * open a new PortfolioRevaluation instead of reusing this one.
+ */
+public class PortfolioRevaluation {
+
+	static final int MAGIC = 0x414D5256; // "AMRV"
+
+	static final int VERSION = 1;
+
+	private final ScheduleStore store;
+
+	private final Path stateFile;
+
+	/**
+	 * fingerprint of each loan included in the totals
+	 */
+	private Map<String, Long> fingerprints = new HashMap<>();
+
+	private long totalInterest;
+
+	/**
+	 * remaining principal after each month, index 0 for month 1
+	 */
+	private long[] outstanding = new long[0];
+
+	/**
+	 * @param store     schedules of the previous run, updated with the changed
+	 *                  loans
+	 * @param stateFile fingerprints and totals of the previous run, created if it
+	 *                  does not exist
+	 * @throws IOException if the state file cannot be read or has an unsupported
+	 *                     version
+	 */
+	public PortfolioRevaluation(ScheduleStore store, Path stateFile) throws IOException {
+		this.store = store;
+		this.stateFile = stateFile;
+		if (Files.exists(stateFile)) {
+			readState();
+		}
+	}
+
+	/**
+	 * Revalue a portfolio file, loans are named "Loan 1", "Loan 2", etc. as in
+	 * {@link ExportUtility#exportPortfolio(Iterable, ExportSink)}.
+	 *
+	 * @param portfolioFile
+	 * @param changed       receives the schedule of each recalculated loan, may
+	 *                      be null
+	 * @return
+	 * @throws IOException
+	 */
+	public RevaluationResult revalue(Path portfolioFile, ExportSink changed) throws IOException {
+		return revalue(PortfolioUtility.readPortfolio(portfolioFile), changed);
+	}
+
+	/**
+	 * Revalue loans named "Loan 1", "Loan 2", etc. in list order.
+	 *
+	 * @param loans   validated loan terms
+	 * @param changed receives the schedule of each recalculated loan, may be null
+	 * @return
+	 * @throws IOException
+	 */
+	public RevaluationResult revalue(List<LoanTerms> loans, ExportSink changed) throws IOException {
+		Map<String, LoanTerms> named = new LinkedHashMap<>();
+		for (int i = 0; i < loans.size(); i++) {
+			named.put("Loan " + (i + 1), loans.get(i));
+		}
+		return revalue(named, changed);
+	}
+
+	/**
+	 * Recalculate the loans that are new or whose terms changed, drop the loans
+	 * missing from the portfolio, update the totals and save the state file.
+	 *
+	 * @param loans   validated loan terms by loan ID, the complete portfolio
+	 * @param changed receives the schedule of each recalculated loan, may be null.
+	 *                It is not closed, open it with
+	 *                {@link ExportFormat#openPortfolio(Path)}.
+	 * @return
+	 * @throws IOException
+	 */
+	public synchronized RevaluationResult revalue(Map<String, LoanTerms> loans, ExportSink changed)
+			throws IOException {
+		Map<String, Long> current = new HashMap<>(loans.size() * 4 / 3 + 1);
+		int recalculated = 0;
+		for (Map.Entry<String, LoanTerms> loan : loans.entrySet()) {
+			String loanId = loan.getKey();
+			long fingerprint = fingerprint(loan.getValue());
+			current.put(loanId, fingerprint);
+
+			Long previous = fingerprints.get(loanId);
+			if (previous != null && previous == fingerprint) {
+				continue;
+			}
+			if (previous != null) {
+				subtract(loanId);
+			}
+			AmortizationSchedule schedule = CalculationUtility.calculateSchedule(loan.getValue());
+			add(schedule);
+			store.put(loanId, schedule);
+			if (changed != null) {
+				changed.startLoan(loanId);
+				schedule.forEachRow(changed);
+			}
+			recalculated++;
+		}
+
+		int removed = 0;
+		for (String loanId : store.getLoanIds()) {
+			if (!current.containsKey(loanId)) {
+				if (fingerprints.containsKey(loanId)) {
+					subtract(loanId);
+				}
+				store.remove(loanId);
+				removed++;
+			}
+		}
+
+		fingerprints = current;
+		store.force();
+		writeState();
+		return new RevaluationResult(loans.size(), recalculated, removed, getAggregate());
+	}
+
+	/**
+	 * @return totals of the portfolio of the last run
+	 */
+	public synchronized PortfolioAggregate getAggregate() {
+		int months = outstanding.length;
+		while (months > 0 && outstanding[months - 1] == 0) {
+			months--;
+		}
+		return new PortfolioAggregate(fingerprints.size(), totalInterest, Arrays.copyOf(outstanding, months));
+	}
+
+	private void add(AmortizationSchedule schedule) {
+		ensureMonths(schedule.size());
+		schedule.forEachRow(delta(1));
+	}
+
+	private void subtract(String loanId) throws IOException {
+		StoredSchedule stored = store.get(loanId);
+		if (stored == null) {
+			throw new IOException("Schedule store has no schedule for " + loanId + ", delete " + stateFile
+					+ " to recalculate every loan");
+		}
+		ensureMonths(stored.size());
+		stored.forEachRow(delta(-1));
+	}
+
+	private ScheduleRowConsumer delta(int sign) {
+		return (month, principalPaid, interestPaid, remainingPrincipal, additionalPrincipalPayment) -> {
+			totalInterest += sign * interestPaid;
+			outstanding[month - 1] += sign * Math.max(remainingPrincipal, 0);
+		};
+	}
+
+	private void ensureMonths(int months) {
+		if (months > outstanding.length) {
+			outstanding = Arrays.copyOf(outstanding, Math.max(months, outstanding.length * 2));
+		}
+	}
+
+	/**
+	 * 64 bit hash of the loan terms, equal for equal terms.
+	 *
+	 * @param terms
+	 * @return
+	 */
+	public static long fingerprint(LoanTerms terms) {
+		long hash = mix(Double.doubleToLongBits(terms.getPrincipal()));
+		hash = mix(hash ^ Double.doubleToLongBits(terms.getInterestRate()));
+		hash = mix(hash ^ terms.getMortgageLength());
+		return mix(hash ^ Double.doubleToLongBits(terms.getAdditionalPrincipalPayment()));
+	}
+
+	/**
+	 * SplitMix64 finalizer, every input bit affects every output bit.
+	 */
+	private static long mix(long value) {
+		long z = value + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * <pre>
+	 * state = "AMRV" version:int storeSize:long totalInterest:long
+	 *         months:int outstanding:long[months]
+	 *         loanCount:int (idLength:int id:utf8 fingerprint:long)[loanCount]
+	 * </pre>
+	 */
+	private void writeState() throws IOException {
+		Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(store.getFileSize());
+			out.writeLong(totalInterest);
+			out.writeInt(outstanding.length);
+			for (long value : outstanding) {
+				out.writeLong(value);
+			}
+			out.writeInt(fingerprints.size());
+			for (Map.Entry<String, Long> entry : fingerprints.entrySet()) {
+				byte[] id = entry.getKey().getBytes(StandardCharsets.UTF_8);
+				out.writeInt(id.length);
+				out.write(id);
+				out.writeLong(entry.getValue());
+			}
+		}
+		Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void readState() throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(stateFile), 64 * 1024))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a revaluation state file: " + stateFile);
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported revaluation state file version " + version + ": " + stateFile);
+			}
+			if (in.readLong() != store.getFileSize()) {
+				// the store changed after the state was saved, start over
+				return;
+			}
+
+			long interest = in.readLong();
+			long[] months = new long[in.readInt()];
+			for (int i = 0; i < months.length; i++) {
+				months[i] = in.readLong();
+			}
+			int loanCount = in.readInt();
+			Map<String, Long> loans = new HashMap<>(loanCount * 4 / 3 + 1);
+			for (int i = 0; i < loanCount; i++) {
+				byte[] id = new byte[in.readInt()];
+				in.readFully(id);
+				loans.put(new String(id, StandardCharsets.UTF_8), in.readLong());
+			}
+
+			this.totalInterest = interest;
+			this.outstanding = months;
+			this.fingerprints = loans;
+		}
+	}
+}
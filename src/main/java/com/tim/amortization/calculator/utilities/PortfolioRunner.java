@@ -0,0 +1,225 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanFailure;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PortfolioRunResult;
+
+/**
+ * Calculates a portfolio of loans on a ForkJoinPool and writes the schedules
+ * to an ExportSink.
+ *
+ * <ul>
+ * <li>Backpressure: at most maxInFlight loans are read but not yet written, so
+ * memory stays bounded no matter how large the portfolio is. The calling thread
+ * stops reading input until a slot is free.</li>
+ * <li>Error isolation: a loan that fails to parse, validate or calculate is
+ * recorded as a LoanFailure and the run continues.</li>
+ * <li>Delivery: the calling thread is the only writer to the sink. Ordered runs
+ * write loans in portfolio order, unordered runs write them as they
+ * finish.</li>
+ * </ul>
+ *
+ * Loans are named "Loan 1", "Loan 2", etc. by their position in the portfolio,
+ * in both delivery modes.
+ */
+public class PortfolioRunner {
+
+	public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+
+	private final int parallelism;
+
+	private final int maxInFlight;
+
+	private final boolean ordered;
+
+	/**
+	 * Ordered delivery using every available core.
+	 */
+	public PortfolioRunner() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_IN_FLIGHT, true);
+	}
+
+	/**
+	 * @param parallelism number of worker threads
+	 * @param maxInFlight maximum number of loans read but not yet written
+	 * @param ordered     true to write loans in portfolio order, false to write
+	 *                    them as they finish
+	 */
+	public PortfolioRunner(int parallelism, int maxInFlight, boolean ordered) {
+		if (parallelism < 1 || maxInFlight < 1) {
+			throw new IllegalArgumentException("parallelism and maxInFlight must be at least 1");
+		}
+		this.parallelism = parallelism;
+		this.maxInFlight = maxInFlight;
+		this.ordered = ordered;
+	}
+
+	/**
+	 * Stream the portfolio file (see {@link PortfolioUtility} for the format) and
+	 * write every loan to the sink. The sink is not closed.
+	 *
+	 * @param portfolioFile
+	 * @param sink
+	 * @return
+	 * @throws IOException          the portfolio file could not be opened
+	 * @throws InterruptedException the calling thread was interrupted, the run is
+	 *                              stopped
+	 */
+	public PortfolioRunResult run(Path portfolioFile, ExportSink sink) throws IOException, InterruptedException {
+		try (Stream<String> lines = Files.lines(portfolioFile, StandardCharsets.UTF_8)) {
+			return run(lines.filter(PortfolioUtility::isLoanLine).iterator(), PortfolioUtility::parseLoanTerms,
+					sink);
+		}
+	}
+
+	/**
+	 * Write every loan to the sink. The sink is not closed.
+	 *
+	 * @param loans loan terms, validated by the worker threads, may be read lazily
+	 * @param sink
+	 * @return
+	 * @throws InterruptedException the calling thread was interrupted, the run is
+	 *                              stopped
+	 */
+	public PortfolioRunResult run(Iterable<LoanTerms> loans, ExportSink sink) throws InterruptedException {
+		return run(loans.iterator(), terms -> {
+			CalculationUtility.validateInput(terms);
+			return terms;
+		}, sink);
+	}
+
+	private <T> PortfolioRunResult run(Iterator<T> inputs, Function<T, LoanTerms> parser, ExportSink sink)
+			throws InterruptedException {
+		long start = System.nanoTime();
+		Delivery delivery = new Delivery(sink);
+		BlockingQueue<LoanResult> results = new LinkedBlockingQueue<>();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+		try {
+			long loanNumber = 0;
+			while (inputs.hasNext()) {
+				while (delivery.inFlight == maxInFlight) {
+					delivery.deliver(results.take());
+				}
+
+				T input = inputs.next();
+				long number = ++loanNumber;
+				pool.execute(() -> results.add(calculate(number, input, parser)));
+				delivery.inFlight++;
+			}
+
+			while (delivery.inFlight > 0) {
+				delivery.deliver(results.take());
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		delivery.failures.sort(Comparator.comparingLong(LoanFailure::getLoanNumber));
+		return new PortfolioRunResult(delivery.completed, delivery.failures, System.nanoTime() - start);
+	}
+
+	private static <T> LoanResult calculate(long number, T input, Function<T, LoanTerms> parser) {
+		try {
+			LoanTerms terms = parser.apply(input);
+			return new LoanResult(number, input, CalculationUtility.calculateSchedule(terms), null);
+		} catch (RuntimeException ex) {
+			return new LoanResult(number, input, null, ex);
+		} catch (Error err) {
+			// still hand a result to the writer so it does not wait forever
+			LoanResult result = new LoanResult(number, input, null, null);
+			result.fatal = err;
+			return result;
+		}
+	}
+
+	/**
+	 * Writes results to the sink, on the calling thread only.
+	 */
+	private class Delivery {
+
+		private final ExportSink sink;
+
+		private final Map<Long, LoanResult> pending = new HashMap<>();
+
+		private final List<LoanFailure> failures = new ArrayList<>();
+
+		private long nextLoanNumber = 1;
+
+		private int inFlight;
+
+		private long completed;
+
+		Delivery(ExportSink sink) {
+			this.sink = sink;
+		}
+
+		void deliver(LoanResult result) {
+			if (!ordered) {
+				write(result);
+				return;
+			}
+
+			// hold results that finished early until every earlier loan is written,
+			// at most maxInFlight of them
+			pending.put(result.number, result);
+			LoanResult next;
+			while ((next = pending.remove(nextLoanNumber)) != null) {
+				write(next);
+				nextLoanNumber++;
+			}
+		}
+
+		private void write(LoanResult result) {
+			inFlight--;
+			if (result.fatal != null) {
+				throw result.fatal;
+			}
+
+			if (result.error != null) {
+				failures.add(new LoanFailure(result.number, String.valueOf(result.input), result.error.getMessage()));
+			} else {
+				sink.startLoan("Loan " + result.number);
+				result.schedule.forEachRow(sink);
+				completed++;
+			}
+		}
+	}
+
+	private static class LoanResult {
+
+		private final long number;
+
+		private final Object input;
+
+		private final AmortizationSchedule schedule;
+
+		private final RuntimeException error;
+
+		private Error fatal;
+
+		LoanResult(long number, Object input, AmortizationSchedule schedule, RuntimeException error) {
+			this.number = number;
+			this.input = input;
+			this.schedule = schedule;
+			this.error = error;
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+/**
+ * Headless batch calculations for a portfolio of mortgages. Schedules are
+ * computed in parallel across all available cores.
+ *
+ * Portfolio files contain one loan per line in the order principal, interest
+ * percentage, mortgage length (years) and additional principal payment:
+ *
+ * <pre>
+ * principal,interest,mortgageLength,additionalPrincipal
+ * "603,500",6.5,30,1000.00
+ * 250000,5.25,15,0
+ * </pre>
+ *
+ * Fields containing thousands separators must be quoted. Blank lines, lines
+ * starting with '#' and a header line are skipped.
+ */
+public class PortfolioUtility {
+
+	public static final String FIELD_COUNT_ERROR = "Invalid portfolio line, expected 4 fields: ";
+
+	/**
+	 * Read every loan in the portfolio file into memory.
+	 *
+	 * @param portfolioFile
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<LoanTerms> readPortfolio(Path portfolioFile) throws IOException {
+		try (Stream<String> lines = Files.lines(portfolioFile, StandardCharsets.UTF_8)) {
+			return lines.filter(PortfolioUtility::isLoanLine).map(PortfolioUtility::parseLoanTerms)
+					.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Calculate the amortization schedule for each loan in parallel. The returned
+	 * list is in the same order as the provided loans.
+	 *
+	 * @param loans
+	 * @return
+	 */
+	public static List<List<AmortizationRecord>> calculateAmortizationSchedules(List<LoanTerms> loans) {
+		return loans.parallelStream().map(terms -> {
+			CalculationUtility.validateInput(terms);
+			return CalculationUtility.calculateAmortizationSchedule(terms);
+		}).collect(Collectors.toList());
+	}
+
+	/**
+	 * Stream the portfolio file and calculate each loan in parallel without
+	 * holding the whole portfolio in memory. The consumer is called from multiple
+	 * threads and must be thread safe.
+	 *
+	 * @param portfolioFile
+	 * @param consumer      receives the loan terms and the calculated schedule
+	 * @return number of loans calculated
+	 * @throws IOException
+	 */
+	public static long calculatePortfolio(Path portfolioFile,
+			BiConsumer<LoanTerms, List<AmortizationRecord>> consumer) throws IOException {
+		AtomicLong count = new AtomicLong();
+
+		try (Stream<String> lines = Files.lines(portfolioFile, StandardCharsets.UTF_8)) {
+			lines.parallel().filter(PortfolioUtility::isLoanLine).map(PortfolioUtility::parseLoanTerms)
+					.forEach(terms -> {
+						consumer.accept(terms, CalculationUtility.calculateAmortizationSchedule(terms));
+						count.incrementAndGet();
+					});
+		}
+
+		return count.get();
+	}
+
+	/**
+	 * Stream the portfolio file and export the schedule of each loan to the output
+	 * file in the chosen format. Loans are calculated and written one at a time,
+	 * in file order.
+	 *
+	 * @param portfolioFile
+	 * @param format
+	 * @param outputFile
+	 * @return number of loans exported
+	 * @throws IOException
+	 */
+	public static int exportPortfolio(Path portfolioFile, ExportFormat format, Path outputFile) throws IOException {
+		try (Stream<String> lines = Files.lines(portfolioFile, StandardCharsets.UTF_8);
+				ExportSink sink = format.openPortfolio(outputFile)) {
+			Iterator<LoanTerms> loans = lines.filter(PortfolioUtility::isLoanLine)
+					.map(PortfolioUtility::parseLoanTerms).iterator();
+			return ExportUtility.exportPortfolio(() -> loans, sink);
+		}
+	}
+
+	/**
+	 * Parse and validate one line of a portfolio file.
+	 *
+	 * @param line
+	 * @return
+	 */
+	public static LoanTerms parseLoanTerms(String line) {
+		List<String> fields = splitLine(line);
+		if (fields.size() != 4) {
+			throw new InputValidationException(FIELD_COUNT_ERROR + line);
+		}
+
+		LoanTerms terms;
+		try {
+			terms = new LoanTerms(parseNumber(fields.get(0)), parseNumber(fields.get(1)),
+					Integer.parseInt(fields.get(2).trim()), parseNumber(fields.get(3)));
+		} catch (NumberFormatException ex) {
+			throw new InputValidationException("Invalid portfolio line, values must be numeric: " + line);
+		}
+
+		CalculationUtility.validateInput(terms);
+		return terms;
+	}
+
+	/**
+	 * Skip blank lines, comments and header lines (any line starting with a
+	 * letter).
+	 *
+	 * @param line
+	 * @return
+	 */
+	public static boolean isLoanLine(String line) {
+		String trimmed = line.trim();
+		return !trimmed.isEmpty() && trimmed.charAt(0) != '#' && !Character.isLetter(trimmed.charAt(0));
+	}
+
+	private static double parseNumber(String field) {
+		return Double.parseDouble(StringUtils.replace(field.trim(), ",", ""));
+	}
+
+	/**
+	 * Split a line on commas, ignoring commas inside double quotes.
+	 *
+	 * @param line
+	 * @return
+	 */
+	private static List<String> splitLine(String line) {
+		List<String> fields = new ArrayList<>(4);
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == ',' && !quoted) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+
+		return fields;
+	}
+}
@@ -0,0 +1,290 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+/**
+ * Bounded cache of calculated schedules and monthly payments, keyed by the
+ * loan terms normalized to cents and parts per million of the interest rate.
+ *
+ * Schedules are evicted least recently used first once the total number of
+ * cached rows passes maxRows, so a few 40 year loans weigh as much as many
+ * short ones. Monthly payments are evicted least recently used first once
+ * there are more than maxPayments of them.
+ *
+ * Cached schedules are frozen, so the same instance is shared by every caller
+ * and thread. Terms that are not whole cents (or whole ppm of the rate) would
+ * calculate differently than their normalized key, so they bypass the cache.
+ *
+ * Hits, misses and evictions are counted separately for schedules and
+ * payments. A schedule miss calculates the schedule with the cached monthly
+ * payment, so it may also count a payment hit or miss.
+ *
+ * All methods are thread safe. Values are calculated outside the lock, so two
+ * threads missing on the same terms at the same time may both calculate them.
+ */
+public class ScheduleCache {
+
+	/**
+	 * About 36 bytes per row, roughly 36 MB of schedules.
+	 */
+	public static final long DEFAULT_MAX_ROWS = 1_000_000;
+
+	public static final int DEFAULT_MAX_PAYMENTS = 10_000;
+
+	private final long maxRows;
+
+	private final int maxPayments;
+
+	private final LinkedHashMap<Key, AmortizationSchedule> schedules = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final LinkedHashMap<Key, BigDecimal> payments;
+
+	private long rows;
+
+	private final LongAdder scheduleHits = new LongAdder();
+
+	private final LongAdder scheduleMisses = new LongAdder();
+
+	private final LongAdder scheduleEvictions = new LongAdder();
+
+	private final LongAdder paymentHits = new LongAdder();
+
+	private final LongAdder paymentMisses = new LongAdder();
+
+	private final LongAdder paymentEvictions = new LongAdder();
+
+	public ScheduleCache() {
+		this(DEFAULT_MAX_ROWS, DEFAULT_MAX_PAYMENTS);
+	}
+
+	/**
+	 * @param maxRows     maximum number of schedule rows kept, 0 disables schedule
+	 *                    caching
+	 * @param maxPayments maximum number of monthly payments kept, 0 disables
+	 *                    payment caching
+	 */
+	public ScheduleCache(long maxRows, int maxPayments) {
+		if (maxRows < 0 || maxPayments < 0) {
+			throw new IllegalArgumentException("Cache limits must not be negative");
+		}
+		this.maxRows = maxRows;
+		this.maxPayments = maxPayments;
+		this.payments = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, BigDecimal> eldest) {
+				if (size() > ScheduleCache.this.maxPayments) {
+					paymentEvictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Get the frozen schedule for the loan terms, calculating it with
+	 * {@link CalculationUtility#calculateSchedule(LoanTerms)} on a miss.
+	 *
+	 * @param terms
+	 * @return frozen schedule, shared with other callers
+	 */
+	public AmortizationSchedule getSchedule(LoanTerms terms) {
+		Key key = Key.of(terms);
+		if (key == null || maxRows == 0) {
+			return CalculationUtility.calculateSchedule(terms).freeze();
+		}
+
+		AmortizationSchedule schedule;
+		synchronized (this) {
+			schedule = schedules.get(key);
+		}
+		if (schedule != null) {
+			scheduleHits.increment();
+			return schedule;
+		}
+
+		scheduleMisses.increment();
+		schedule = CalculationUtility.calculateSchedule(terms).freeze();
+		putSchedule(key, schedule);
+		return schedule;
+	}
+
+	/**
+	 * Get the monthly payment, calculating it with the PMT function on a miss.
+	 *
+	 * @param principalAmt
+	 * @param interestAmt
+	 * @param mortgageLength
+	 * @return
+	 * @see CalculationUtility#calculateMonthlyPayment(Double, Double, Double)
+	 */
+	public BigDecimal getMonthlyPayment(Double principalAmt, Double interestAmt, Double mortgageLength) {
+		Key key = Key.of(principalAmt, interestAmt, mortgageLength, 0);
+		if (key == null || maxPayments == 0) {
+			return CalculationUtility.computeMonthlyPayment(principalAmt, interestAmt, mortgageLength);
+		}
+
+		BigDecimal payment;
+		synchronized (this) {
+			payment = payments.get(key);
+		}
+		if (payment != null) {
+			paymentHits.increment();
+			return payment;
+		}
+
+		paymentMisses.increment();
+		payment = CalculationUtility.computeMonthlyPayment(principalAmt, interestAmt, mortgageLength);
+		synchronized (this) {
+			payments.put(key, payment);
+		}
+		return payment;
+	}
+
+	private synchronized void putSchedule(Key key, AmortizationSchedule schedule) {
+		long weight = weight(schedule);
+		if (weight > maxRows) {
+			return;
+		}
+
+		AmortizationSchedule previous = schedules.put(key, schedule);
+		rows += weight - (previous == null ? 0 : weight(previous));
+
+		// access order, so the iterator starts with the least recently used schedule
+		Iterator<AmortizationSchedule> eldest = schedules.values().iterator();
+		while (rows > maxRows) {
+			rows -= weight(eldest.next());
+			eldest.remove();
+			scheduleEvictions.increment();
+		}
+	}
+
+	private static long weight(AmortizationSchedule schedule) {
+		return Math.max(schedule.size(), 1);
+	}
+
+	/**
+	 * Remove every cached schedule and payment. Counters are not reset.
+	 */
+	public synchronized void invalidateAll() {
+		schedules.clear();
+		payments.clear();
+		rows = 0;
+	}
+
+	public long getScheduleHitCount() {
+		return scheduleHits.sum();
+	}
+
+	public long getScheduleMissCount() {
+		return scheduleMisses.sum();
+	}
+
+	public long getScheduleEvictionCount() {
+		return scheduleEvictions.sum();
+	}
+
+	public long getPaymentHitCount() {
+		return paymentHits.sum();
+	}
+
+	public long getPaymentMissCount() {
+		return paymentMisses.sum();
+	}
+
+	public long getPaymentEvictionCount() {
+		return paymentEvictions.sum();
+	}
+
+	/**
+	 * @return number of schedule rows currently cached
+	 */
+	public synchronized long getRowCount() {
+		return rows;
+	}
+
+	/**
+	 * @return number of schedules and payments currently cached
+	 */
+	public synchronized int size() {
+		return schedules.size() + payments.size();
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduleCache [scheduleHits=" + getScheduleHitCount() + ", scheduleMisses=" + getScheduleMissCount()
+				+ ", scheduleEvictions=" + getScheduleEvictionCount() + ", paymentHits=" + getPaymentHitCount()
+				+ ", paymentMisses=" + getPaymentMissCount() + ", paymentEvictions=" + getPaymentEvictionCount()
+				+ ", size=" + size() + ", rows=" + getRowCount() + "]";
+	}
+
+	/**
+	 * Loan terms in cents and parts per million.
+	 */
+	private static final class Key {
+
+		private final long principalCents;
+
+		private final long ratePpm;
+
+		private final int mortgageLength;
+
+		private final long additionalCents;
+
+		private Key(long principalCents, long ratePpm, int mortgageLength, long additionalCents) {
+			this.principalCents = principalCents;
+			this.ratePpm = ratePpm;
+			this.mortgageLength = mortgageLength;
+			this.additionalCents = additionalCents;
+		}
+
+		static Key of(LoanTerms terms) {
+			return of(terms.getPrincipal(), terms.getInterestRate(), terms.getMortgageLength(),
+					terms.getAdditionalPrincipalPayment());
+		}
+
+		/**
+		 * @return the key, or null when the values do not normalize exactly
+		 */
+		static Key of(double principal, double interestRate, double mortgageLength, double additional) {
+			long principalCents = CentsUtility.toCents(principal);
+			long ratePpm = FixedPointCalculationUtility.toRatePpm(interestRate);
+			long additionalCents = CentsUtility.toCents(additional);
+
+			if (CentsUtility.toDollars(principalCents) != principal
+					|| (double) ratePpm / FixedPointCalculationUtility.RATE_SCALE != interestRate
+					|| (int) mortgageLength != mortgageLength || CentsUtility.toDollars(additionalCents) != additional) {
+				return null;
+			}
+			return new Key(principalCents, ratePpm, (int) mortgageLength, additionalCents);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = Long.hashCode(principalCents);
+			result = 31 * result + Long.hashCode(ratePpm);
+			result = 31 * result + mortgageLength;
+			return 31 * result + Long.hashCode(additionalCents);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return principalCents == other.principalCents && ratePpm == other.ratePpm
+					&& mortgageLength == other.mortgageLength && additionalCents == other.additionalCents;
+		}
+	}
+}
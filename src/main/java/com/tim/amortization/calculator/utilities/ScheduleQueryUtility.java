@@ -0,0 +1,265 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.RoundingMode;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+
+/**
+ * Answers questions about a schedule ("balance after month k", "total
+ * interest", "payoff month") without generating the schedule rows.
+ *
+ * Three kinds of queries are provided:
+ * <ul>
+ * <li>{@link #balanceAfterMonth(LoanTerms, int)} matches the schedule of
+ * {@link CalculationUtility#calculateSchedule(LoanTerms)} to the cent.
+ * Interest is rounded every month, which makes the recurrence non-linear, so
+ * it walks the months with primitive math only (no rows, no allocation) and
+ * stops at the month asked for. The payoff month and total interest of that
+ * schedule are given by
+ * {@link CalculationUtility#summarizeSchedule(LoanTerms)}.</li>
+ * <li>Fixed-point queries with a RoundingMode match
+ * {@link FixedPointCalculationUtility} to the cent the same way.
+ * CalculationUtility carries the balance in a double, so the two kernels can
+ * differ by a few cents of remaining principal and a month of payoff.</li>
+ * <li>Estimate queries are O(1) annuity closed forms, including a constant
+ * additional principal payment. They ignore the monthly rounding, so they can
+ * differ from the schedule by at most
+ * {@link #estimateErrorBoundCents(LoanTerms, int)}.</li>
+ * </ul>
+ */
+public class ScheduleQueryUtility {
+
+	/**
+	 * Remaining principal after the given month, or the final (zero or negative)
+	 * remaining principal if the loan is paid off before that month. Same value
+	 * as the remaining principal of that month of
+	 * {@link CalculationUtility#calculateSchedule(LoanTerms)}.
+	 *
+	 * @param terms
+	 * @param month
+	 * @return remaining principal in cents
+	 */
+	public static long balanceAfterMonth(LoanTerms terms, int month) {
+		double principalAmt = terms.getPrincipal();
+		double interestAmt = terms.getInterestRate();
+		double additionalPrincipalPayment = terms.getAdditionalPrincipalPayment();
+		double monthlyPayment = CalculationUtility
+				.calculateMonthlyPayment(principalAmt, interestAmt, (double) terms.getMortgageLength()).doubleValue();
+
+		// same arithmetic as CalculationUtility.calculateSchedule
+		for (int i = 0; i < month && principalAmt > 0; i++) {
+			long monthlyInterest = CalculationUtility.calculateMonthlyInterestCents(principalAmt, interestAmt);
+			double principalOnly = monthlyPayment - CentsUtility.toDollars(monthlyInterest);
+			principalAmt -= (principalOnly + additionalPrincipalPayment);
+		}
+		return CentsUtility.ceilingCents(principalAmt);
+	}
+
+	/**
+	 * Remaining principal after the given month with the fixed-point kernel, or
+	 * the final (zero or negative) remaining principal if the loan is paid off
+	 * before that month.
+	 *
+	 * @param terms
+	 * @param month
+	 * @param mode
+	 * @return remaining principal in cents
+	 */
+	public static long balanceAfterMonth(LoanTerms terms, int month, RoundingMode mode) {
+		long ratePpm = FixedPointCalculationUtility.toRatePpm(terms.getInterestRate());
+		long principalCents = CentsUtility.toCents(terms.getPrincipal());
+		long monthlyPayment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(principalCents, ratePpm,
+				terms.getMortgageLength() * 12, mode);
+
+		return balanceAfterMonth(principalCents, ratePpm, monthlyPayment,
+				CentsUtility.toCents(terms.getAdditionalPrincipalPayment()), month, mode);
+	}
+
+	/**
+	 * Remaining principal after the given month from fixed-point values.
+	 *
+	 * @param principalCents
+	 * @param ratePpm
+	 * @param monthlyPayment
+	 * @param additionalPayment
+	 * @param month
+	 * @param mode
+	 * @return remaining principal in cents
+	 */
+	public static long balanceAfterMonth(long principalCents, long ratePpm, long monthlyPayment,
+			long additionalPayment, int month, RoundingMode mode) {
+		long balance = principalCents;
+		for (int i = 0; i < month && balance > 0; i++) {
+			long monthlyInterest = FixedPointCalculationUtility.calculateMonthlyInterestCents(balance, ratePpm, mode);
+			balance -= monthlyPayment - monthlyInterest + additionalPayment;
+		}
+		return balance;
+	}
+
+	/**
+	 * Month the loan is paid off with the fixed-point kernel.
+	 *
+	 * @param terms
+	 * @param mode
+	 * @return
+	 */
+	public static int payoffMonth(LoanTerms terms, RoundingMode mode) {
+		return summarize(terms, mode).getPayoffMonth();
+	}
+
+	/**
+	 * Interest paid over the life of the loan with the fixed-point kernel.
+	 *
+	 * @param terms
+	 * @param mode
+	 * @return total interest in cents
+	 */
+	public static long totalInterest(LoanTerms terms, RoundingMode mode) {
+		return summarize(terms, mode).getTotalInterest();
+	}
+
+	/**
+	 * Calculate the totals of the fixed-point schedule for the loan terms.
+	 *
+	 * @param terms
+	 * @param mode
+	 * @return
+	 */
+	public static ScheduleSummary summarize(LoanTerms terms, RoundingMode mode) {
+		long ratePpm = FixedPointCalculationUtility.toRatePpm(terms.getInterestRate());
+		long principalCents = CentsUtility.toCents(terms.getPrincipal());
+		long monthlyPayment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(principalCents, ratePpm,
+				terms.getMortgageLength() * 12, mode);
+
+		return summarize(principalCents, ratePpm, monthlyPayment,
+				CentsUtility.toCents(terms.getAdditionalPrincipalPayment()), mode);
+	}
+
+	/**
+	 * Calculate the totals of the schedule from fixed-point values. Same loop as
+	 * {@link FixedPointCalculationUtility#calculateSchedule} without producing
+	 * rows.
+	 *
+	 * @param principalCents
+	 * @param ratePpm
+	 * @param monthlyPayment
+	 * @param additionalPayment
+	 * @param mode
+	 * @return
+	 */
+	public static ScheduleSummary summarize(long principalCents, long ratePpm, long monthlyPayment,
+			long additionalPayment, RoundingMode mode) {
+		FixedPointCalculationUtility.checkAmortizes(principalCents, ratePpm, monthlyPayment, additionalPayment, mode);
+
+		long balance = principalCents;
+		long totalInterest = 0;
+		int month = 0;
+
+		while (balance > 0) {
+			month++;
+			long monthlyInterest = FixedPointCalculationUtility.calculateMonthlyInterestCents(balance, ratePpm, mode);
+			totalInterest += monthlyInterest;
+			balance -= monthlyPayment - monthlyInterest + additionalPayment;
+		}
+
+		return new ScheduleSummary(monthlyPayment, month, totalInterest, month * additionalPayment, balance);
+	}
+
+	/**
+	 * Closed form estimate of the remaining principal after the given month:
+	 *
+	 * B(k) = P(1 + r)^k - (M + E)((1 + r)^k - 1) / r
+	 *
+	 * B = balance, P = principal, r = monthly rate, M = monthly payment, E =
+	 * additional principal payment
+	 *
+	 * @param terms
+	 * @param month
+	 * @param mode  rounding of the monthly payment
+	 * @return estimated remaining principal in cents
+	 */
+	public static long estimateBalanceAfterMonth(LoanTerms terms, int month, RoundingMode mode) {
+		double rate = monthlyRate(terms);
+		double principal = terms.getPrincipal();
+		double payment = totalMonthlyPayment(terms, mode);
+
+		if (rate == 0) {
+			return Math.round((principal - payment * month) * 100);
+		}
+
+		double growth = Math.pow(1 + rate, month);
+		return Math.round((principal * growth - payment * (growth - 1) / rate) * 100);
+	}
+
+	/**
+	 * Closed form estimate of the payoff month, the first month where B(k) &lt;= 0:
+	 *
+	 * n = ceil( -ln(1 - rP / (M + E)) / ln(1 + r) )
+	 *
+	 * @param terms
+	 * @param mode  rounding of the monthly payment
+	 * @return
+	 */
+	public static int estimatePayoffMonth(LoanTerms terms, RoundingMode mode) {
+		double rate = monthlyRate(terms);
+		double principal = terms.getPrincipal();
+		double payment = totalMonthlyPayment(terms, mode);
+
+		if (rate == 0) {
+			return (int) Math.ceil(principal / payment);
+		}
+		return (int) Math.ceil(-Math.log(1 - rate * principal / payment) / Math.log1p(rate));
+	}
+
+	/**
+	 * Closed form estimate of the total interest. Every month pays M + E, so the
+	 * interest is everything paid that did not reduce the principal:
+	 *
+	 * I = n(M + E) - P + B(n)
+	 *
+	 * @param terms
+	 * @param mode  rounding of the monthly payment
+	 * @return estimated total interest in cents
+	 */
+	public static long estimateTotalInterest(LoanTerms terms, RoundingMode mode) {
+		int payoffMonth = estimatePayoffMonth(terms, mode);
+		long payment = Math.round(totalMonthlyPayment(terms, mode) * 100);
+
+		return payoffMonth * payment - CentsUtility.toCents(terms.getPrincipal())
+				+ estimateBalanceAfterMonth(terms, payoffMonth, mode);
+	}
+
+	/**
+	 * Largest difference between {@link #estimateBalanceAfterMonth} and the exact
+	 * balance. Rounding the interest moves the balance by less than a cent each
+	 * month and every earlier difference grows with interest, so after k months
+	 * the difference is below ((1 + r)^k - 1) / r cents.
+	 *
+	 * @param terms
+	 * @param month
+	 * @return
+	 */
+	public static long estimateErrorBoundCents(LoanTerms terms, int month) {
+		double rate = monthlyRate(terms);
+		if (rate == 0) {
+			return 1;
+		}
+		return (long) Math.ceil((Math.pow(1 + rate, month) - 1) / rate) + 1;
+	}
+
+	private static double monthlyRate(LoanTerms terms) {
+		return (terms.getInterestRate() / 100) / 12;
+	}
+
+	/**
+	 * Rounded monthly payment plus the additional principal payment, in dollars.
+	 */
+	private static double totalMonthlyPayment(LoanTerms terms, RoundingMode mode) {
+		long monthlyPayment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(
+				CentsUtility.toCents(terms.getPrincipal()),
+				FixedPointCalculationUtility.toRatePpm(terms.getInterestRate()), terms.getMortgageLength() * 12, mode);
+
+		return CentsUtility.toDollars(monthlyPayment + CentsUtility.toCents(terms.getAdditionalPrincipalPayment()));
+	}
+}
@@ -0,0 +1,463 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+
+/**
+ * Append-only file of calculated schedules, keyed by loan ID. Rows are stored
+ * as fixed-width cents, so row i of a loan is read from the memory-mapped file
+ * at a computed offset without parsing. All numbers are big-endian.
+ *
+ * <pre>
+ * file   = "AMRS" version:int record*
+ * record = recordLength:int idLength:int rowCount:int reserved:int id:utf8
+ *          row[rowCount] padding
+ * row    = month:int principalPaid:long interestPaid:long remainingPrincipal:long
+ *          additionalPrincipalPayment:long
+ * </pre>
+ *
+ * recordLength includes the header and the zero padding that aligns the next
+ * record to 8 bytes, reserved is 0 in version 1. A record with rowCount -1 is a
+ * removal. A record with idLength -1 only pads the file to the next segment
+ * boundary, no record crosses a boundary so each record is read from a single
+ * mapping.
+ *
+ * Writing a loan again appends a new record, the offset index kept in memory
+ * points at the latest one. The index is rebuilt on open by reading only the
+ * record headers, a record cut short by a crash is dropped. Superseded and
+ * removed records stay in the file until {@link #compact(Path)}.
+ *
+ * Writes are synchronized, StoredSchedule views are safe to read from any
+ * thread.
+ */
+public class ScheduleStore implements Closeable {
+
+	static final int MAGIC = 0x414D5253; // "AMRS"
+
+	static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+	static final int RECORD_HEADER_SIZE = 4 * Integer.BYTES;
+
+	static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+	private static final int ALIGNMENT = 8;
+
+	private static final int REMOVED = -1;
+
+	private static final int PADDING = -1;
+
+	/**
+	 * recordLength:int idLength:int, the smallest padding record
+	 */
+	private static final int PADDING_SIZE = 2 * Integer.BYTES;
+
+	private final Path file;
+
+	private final FileChannel channel;
+
+	private final int segmentSize;
+
+	/**
+	 * offset of the latest record of each loan ID, in write order
+	 */
+	private final Map<String, Long> index = new LinkedHashMap<>();
+
+	private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+	private long size;
+
+	/**
+	 * bytes of the file covered by segments
+	 */
+	private long mappedSize;
+
+	/**
+	 * bytes of records that are not in the index
+	 */
+	private long garbageSize;
+
+	/**
+	 * Open the store, creating the file if it does not exist.
+	 *
+	 * @param file
+	 * @throws IOException if the file is not a schedule store, has an unsupported
+	 *                     version or is corrupt
+	 */
+	public ScheduleStore(Path file) throws IOException {
+		this(file, DEFAULT_SEGMENT_SIZE);
+	}
+
+	ScheduleStore(Path file, int segmentSize) throws IOException {
+		if (segmentSize % ALIGNMENT != 0 || segmentSize <= HEADER_SIZE) {
+			throw new IllegalArgumentException("Segment size must be a multiple of " + ALIGNMENT + ": " + segmentSize);
+		}
+		this.file = file;
+		this.segmentSize = segmentSize;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			this.size = channel.size();
+			if (size == 0) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+				header.putInt(MAGIC).putInt(VERSION).flip();
+				writeFully(header, 0);
+				size = HEADER_SIZE;
+			} else {
+				readIndex();
+			}
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	private void readIndex() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		if (size < HEADER_SIZE || channel.read(header, 0) < HEADER_SIZE || header.getInt(0) != MAGIC) {
+			throw new IOException("Not a schedule store: " + file);
+		}
+		int version = header.getInt(Integer.BYTES);
+		if (version != VERSION) {
+			throw new IOException("Unsupported schedule store version " + version + ": " + file);
+		}
+
+		long end = size;
+		long offset = HEADER_SIZE;
+		mapTo(end);
+		while (offset < end) {
+			ByteBuffer segment = segments.get(segmentOf(offset));
+			int position = positionOf(offset);
+			if (segment.limit() - position < PADDING_SIZE || segment.getInt(position) > segment.limit() - position) {
+				// appended by a writer that did not finish, drop it
+				truncate(offset);
+				break;
+			}
+
+			int recordLength = segment.getInt(position);
+			int idLength = segment.getInt(position + Integer.BYTES);
+			if (idLength == PADDING && recordLength >= PADDING_SIZE && recordLength % ALIGNMENT == 0) {
+				garbageSize += recordLength;
+			} else {
+				int rowCount = recordLength < RECORD_HEADER_SIZE ? 0 : segment.getInt(position + 2 * Integer.BYTES);
+				if (recordLength < RECORD_HEADER_SIZE || recordLength % ALIGNMENT != 0 || idLength < 0
+						|| rowCount < REMOVED || recordLength < recordLength(idLength, Math.max(rowCount, 0))) {
+					throw new IOException("Corrupt schedule store record at offset " + offset + ": " + file);
+				}
+				byte[] id = new byte[idLength];
+				segment.get(position + RECORD_HEADER_SIZE, id);
+				index(new String(id, StandardCharsets.UTF_8), offset, rowCount == REMOVED, recordLength);
+			}
+			offset += recordLength;
+		}
+	}
+
+	/**
+	 * Point the index at a new record of a loan, counting the record it replaces
+	 * as garbage. A removal record is garbage as soon as it is written.
+	 */
+	private void index(String loanId, long offset, boolean removed, int recordLength) throws IOException {
+		Long previous = index.remove(loanId);
+		if (previous != null) {
+			garbageSize += readRecordLength(previous);
+		}
+		if (removed) {
+			garbageSize += recordLength;
+		} else {
+			index.put(loanId, offset);
+		}
+	}
+
+	private int readRecordLength(long offset) throws IOException {
+		mapTo(offset + RECORD_HEADER_SIZE);
+		return segments.get(segmentOf(offset)).getInt(positionOf(offset));
+	}
+
+	/**
+	 * Append the schedule, replacing any schedule stored for the loan.
+	 *
+	 * @param loanId
+	 * @param schedule
+	 * @throws IOException
+	 */
+	public synchronized void put(String loanId, AmortizationSchedule schedule) throws IOException {
+		byte[] id = loanId.getBytes(StandardCharsets.UTF_8);
+		int rowCount = schedule.size();
+		ByteBuffer record = newRecord(id, rowCount);
+		for (int i = 0; i < rowCount; i++) {
+			record.putInt(schedule.getMonth(i));
+			record.putLong(schedule.getPrincipalPaidCents(i));
+			record.putLong(schedule.getInterestPaidCents(i));
+			record.putLong(schedule.getRemainingPrincipalCents(i));
+			record.putLong(schedule.getAdditionalPrincipalPaymentCents(i));
+		}
+		long offset = append(record);
+		index(loanId, offset, false, record.capacity());
+	}
+
+	/**
+	 * Append a removal of the loan.
+	 *
+	 * @param loanId
+	 * @return false if the store has no schedule for the loan
+	 * @throws IOException
+	 */
+	public synchronized boolean remove(String loanId) throws IOException {
+		if (!index.containsKey(loanId)) {
+			return false;
+		}
+		byte[] id = loanId.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer record = newRecord(id, REMOVED);
+		long offset = append(record);
+		index(loanId, offset, true, record.capacity());
+		return true;
+	}
+
+	private ByteBuffer newRecord(byte[] id, int rowCount) throws IOException {
+		long recordLength = recordLength(id.length, Math.max(rowCount, 0));
+		if (recordLength > segmentSize - HEADER_SIZE) {
+			throw new IOException("Schedule of " + rowCount + " rows is too large for the schedule store");
+		}
+		ByteBuffer record = ByteBuffer.allocate((int) recordLength);
+		record.putInt((int) recordLength);
+		record.putInt(id.length);
+		record.putInt(rowCount);
+		record.putInt(0);
+		record.put(id);
+		return record;
+	}
+
+	private static long recordLength(int idLength, int rowCount) {
+		long length = RECORD_HEADER_SIZE + (long) idLength + (long) rowCount * StoredSchedule.ROW_SIZE;
+		return (length + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	/**
+	 * Write the record at the end of the file, after a padding record if it would
+	 * cross a segment boundary.
+	 *
+	 * @return offset of the record
+	 */
+	private long append(ByteBuffer record) throws IOException {
+		int remaining = segmentSize - positionOf(size);
+		if (record.capacity() > remaining) {
+			ByteBuffer padding = ByteBuffer.allocate(remaining);
+			padding.putInt(remaining).putInt(PADDING).clear();
+			writeFully(padding, size);
+			size += remaining;
+			garbageSize += remaining;
+		}
+		long offset = size;
+		record.clear();
+		writeFully(record, offset);
+		size += record.capacity();
+		return offset;
+	}
+
+	private void writeFully(ByteBuffer buffer, long offset) throws IOException {
+		while (buffer.hasRemaining()) {
+			offset += channel.write(buffer, offset);
+		}
+	}
+
+	private void truncate(long offset) throws IOException {
+		channel.truncate(offset);
+		size = offset;
+		// the last mapping may extend past the new end
+		int last = segmentOf(Math.max(offset - 1, 0));
+		while (segments.size() > last) {
+			segments.remove(segments.size() - 1);
+		}
+		mappedSize = Math.min(mappedSize, (long) segments.size() * segmentSize);
+	}
+
+	/**
+	 * @param loanId
+	 * @return a view of the latest schedule of the loan, or null if the store
+	 *         has none
+	 * @throws IOException
+	 */
+	public synchronized StoredSchedule get(String loanId) throws IOException {
+		Long offset = index.get(loanId);
+		if (offset == null) {
+			return null;
+		}
+		mapTo(size);
+		ByteBuffer segment = segments.get(segmentOf(offset));
+		int position = positionOf(offset);
+		int idLength = segment.getInt(position + Integer.BYTES);
+		int rowCount = segment.getInt(position + 2 * Integer.BYTES);
+		return new StoredSchedule(loanId, segment, position + RECORD_HEADER_SIZE + idLength, rowCount);
+	}
+
+	/**
+	 * Remaining principal after a month, without creating a view.
+	 *
+	 * @param loanId
+	 * @param month  1 for the first payment
+	 * @return remaining principal in cents, or -1 if the store has no schedule
+	 *         for the loan or it does not reach the month
+	 * @throws IOException
+	 */
+	public long getRemainingPrincipalCents(String loanId, int month) throws IOException {
+		StoredSchedule schedule = get(loanId);
+		if (schedule == null || month < 1 || month > schedule.size()) {
+			return -1;
+		}
+		return schedule.getRemainingPrincipalCents(month - 1);
+	}
+
+	public synchronized boolean contains(String loanId) {
+		return index.containsKey(loanId);
+	}
+
+	/**
+	 * @return loan IDs with a stored schedule, in write order
+	 */
+	public synchronized Set<String> getLoanIds() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(index.keySet()));
+	}
+
+	/**
+	 * @return number of loans with a stored schedule
+	 */
+	public synchronized int size() {
+		return index.size();
+	}
+
+	/**
+	 * @return size of the file in bytes
+	 */
+	public synchronized long getFileSize() {
+		return size;
+	}
+
+	/**
+	 * @return bytes of superseded, removed and padding records that
+	 *         {@link #compact(Path)} would reclaim
+	 */
+	public synchronized long getGarbageSize() {
+		return garbageSize;
+	}
+
+	/**
+	 * Map the file up to end, remapping the last segment if the file grew.
+	 */
+	private void mapTo(long end) throws IOException {
+		if (end <= mappedSize) {
+			return;
+		}
+		int first = segmentOf(mappedSize);
+		while (segments.size() > first) {
+			segments.remove(segments.size() - 1);
+		}
+		for (long start = (long) first * segmentSize; start < size; start += segmentSize) {
+			long length = Math.min(segmentSize, size - start);
+			segments.add(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+		}
+		mappedSize = size;
+	}
+
+	private int segmentOf(long offset) {
+		return (int) (offset / segmentSize);
+	}
+
+	private int positionOf(long offset) {
+		return (int) (offset % segmentSize);
+	}
+
+	/**
+	 * Flush the file to the storage device.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void force() throws IOException {
+		channel.force(false);
+	}
+
+	/**
+	 * Flush the file to the storage device and close it. Views returned by
+	 * {@link #get(String)} must not be used afterwards.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			channel.force(false);
+		} finally {
+			channel.close();
+			segments.clear();
+		}
+	}
+
+	/**
+	 * Rewrite a closed store with only the latest schedule of each loan, and
+	 * replace the file. Records are copied as they are, without decoding rows.
+	 * The new file is written next to it and moved over it, so a failure leaves
+	 * the original intact.
+	 *
+	 * @param file
+	 * @return bytes reclaimed
+	 * @throws IOException
+	 */
+	public static long compact(Path file) throws IOException {
+		Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+		Files.deleteIfExists(compacted);
+		long before;
+		long after;
+		try (ScheduleStore source = new ScheduleStore(file)) {
+			before = source.getFileSize();
+			try (ScheduleStore target = new ScheduleStore(compacted)) {
+				source.mapTo(source.size);
+				for (Map.Entry<String, Long> entry : source.index.entrySet()) {
+					ByteBuffer segment = source.segments.get(source.segmentOf(entry.getValue()));
+					int position = source.positionOf(entry.getValue());
+					ByteBuffer record = segment.slice(position, segment.getInt(position));
+					long offset = target.append(record);
+					target.index.put(entry.getKey(), offset);
+				}
+				after = target.getFileSize();
+			}
+		} catch (IOException | RuntimeException ex) {
+			Files.deleteIfExists(compacted);
+			throw ex;
+		}
+		Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return before - after;
+	}
+
+	/**
+	 * Compaction tool, Ex: java ... ScheduleStore schedules.amrs
+	 *
+	 * @param args store files to compact
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: ScheduleStore <store file>...");
+			System.exit(2);
+		}
+		for (String arg : args) {
+			long reclaimed = compact(Paths.get(arg));
+			System.out.println(arg + ": reclaimed " + reclaimed + " bytes");
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.nio.ByteBuffer;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
+
+/**
+ * Read-only view of a schedule in a {@link ScheduleStore}. Rows are read
+ * straight from the memory-mapped file at a fixed offset, nothing is copied or
+ * parsed until a value is requested. All amounts are in cents.
+ *
+ * The view stays valid after later writes to the store, until the store is
+ * closed or compacted.
+ */
+public final class StoredSchedule {
+
+	/**
+	 * month:int principalPaid:long interestPaid:long remainingPrincipal:long
+	 * additionalPrincipalPayment:long
+	 */
+	static final int ROW_SIZE = Integer.BYTES + 4 * Long.BYTES;
+
+	private final String loanId;
+
+	private final ByteBuffer segment;
+
+	private final int rowsOffset;
+
+	private final int size;
+
+	StoredSchedule(String loanId, ByteBuffer segment, int rowsOffset, int size) {
+		this.loanId = loanId;
+		this.segment = segment;
+		this.rowsOffset = rowsOffset;
+		this.size = size;
+	}
+
+	public String getLoanId() {
+		return loanId;
+	}
+
+	/**
+	 * @return number of months in the schedule
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int getMonth(int index) {
+		return segment.getInt(position(index));
+	}
+
+	public long getPrincipalPaidCents(int index) {
+		return segment.getLong(position(index) + Integer.BYTES);
+	}
+
+	public long getInterestPaidCents(int index) {
+		return segment.getLong(position(index) + Integer.BYTES + Long.BYTES);
+	}
+
+	public long getRemainingPrincipalCents(int index) {
+		return segment.getLong(position(index) + Integer.BYTES + 2 * Long.BYTES);
+	}
+
+	public long getAdditionalPrincipalPaymentCents(int index) {
+		return segment.getLong(position(index) + Integer.BYTES + 3 * Long.BYTES);
+	}
+
+	/**
+	 * Pass every row to the consumer, in month order.
+	 *
+	 * @param consumer
+	 */
+	public void forEachRow(ScheduleRowConsumer consumer) {
+		for (int i = 0; i < size; i++) {
+			int position = rowsOffset + i * ROW_SIZE;
+			consumer.accept(segment.getInt(position), segment.getLong(position + Integer.BYTES),
+					segment.getLong(position + Integer.BYTES + Long.BYTES),
+					segment.getLong(position + Integer.BYTES + 2 * Long.BYTES),
+					segment.getLong(position + Integer.BYTES + 3 * Long.BYTES));
+		}
+	}
+
+	/**
+	 * @return a copy of the rows on the heap
+	 */
+	public AmortizationSchedule toSchedule() {
+		AmortizationSchedule schedule = new AmortizationSchedule(size);
+		forEachRow(schedule);
+		return schedule;
+	}
+
+	private int position(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+		}
+		return rowsOffset + index * ROW_SIZE;
+	}
+
+	@Override
+	public String toString() {
+		return "StoredSchedule [loanId=" + loanId + ", size=" + size + "]";
+	}
+}
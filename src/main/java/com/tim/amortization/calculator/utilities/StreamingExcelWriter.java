@@ -0,0 +1,183 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Writes amortization schedules to an XLSX file as they are calculated, using
+ * POI's streaming SXSSF workbook. Only the last rowWindow rows are kept in
+ * memory, older rows are flushed to compressed temp files, so memory stays
+ * bounded no matter how many rows are written.
+ *
+ * Two layouts are supported:
+ * <ul>
+ * <li>one long "AmortizationSchedule" sheet with a Loan column, rolling over to
+ * a new sheet when the Excel row limit is reached. Recommended for large
+ * portfolios.</li>
+ * <li>one sheet per loan. SXSSF keeps a temp file open for every sheet until
+ * the workbook is written, so this layout is limited by the number of open
+ * files allowed.</li>
+ * </ul>
+ *
+ * Call {@link #startLoan(String)} before the rows of each loan, then pass this
+ * writer to the calculation as the ScheduleRowConsumer.
+ */
+public class StreamingExcelWriter implements ExportSink {
+
+	public static final int DEFAULT_ROW_WINDOW = 100;
+
+	private static final String[] PORTFOLIO_HEADERS = { "Loan", "Month", "Principal Payment", "Interest Payment",
+			"Additional Principal Payment", "Remaining Principal" };
+
+	private static final int[] PORTFOLIO_COLUMN_WIDTHS = { 6000, 3000, 8000, 8000, 12000, 8000 };
+
+	private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+	private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+	private final Path outputFile;
+
+	private final boolean sheetPerLoan;
+
+	private final SXSSFWorkbook workbook;
+
+	private final CellStyle headerStyle;
+
+	private final CellStyle style;
+
+	/**
+	 * Lower case sheet names in use, Excel compares them ignoring case.
+	 */
+	private final Set<String> sheetNames = new HashSet<>();
+
+	private Sheet sheet;
+
+	private int sheetCount;
+
+	private int rowNum;
+
+	private String loanName;
+
+	/**
+	 * Single sheet layout with the default row window.
+	 *
+	 * @param outputFile
+	 */
+	public StreamingExcelWriter(Path outputFile) {
+		this(outputFile, DEFAULT_ROW_WINDOW, false);
+	}
+
+	/**
+	 * @param outputFile   xlsx file to create
+	 * @param rowWindow    number of rows kept in memory per sheet
+	 * @param sheetPerLoan true for one sheet per loan, false for one long sheet
+	 */
+	public StreamingExcelWriter(Path outputFile, int rowWindow, boolean sheetPerLoan) {
+		this.outputFile = outputFile;
+		this.sheetPerLoan = sheetPerLoan;
+		this.workbook = new SXSSFWorkbook(rowWindow);
+		this.workbook.setCompressTempFiles(true);
+
+		// styles are shared by every sheet, create them once
+		this.headerStyle = ExcelUtility.createHeaderStyle(workbook);
+		this.style = ExcelUtility.createDataStyle(workbook);
+	}
+
+	/**
+	 * Start the rows of a new loan.
+	 *
+	 * @param name loan name, used as the sheet name (one sheet per loan) or in the
+	 *             Loan column (single sheet). Sheet names are cut to 31
+	 *             characters and made unique with a " (2)", " (3)", etc. suffix.
+	 */
+	public void startLoan(String name) {
+		this.loanName = name;
+		if (sheetPerLoan) {
+			newSheet(uniqueSheetName(name), ExcelUtility.SCHEDULE_HEADERS, ExcelUtility.SCHEDULE_COLUMN_WIDTHS);
+		} else if (sheet == null) {
+			newSheet("AmortizationSchedule", PORTFOLIO_HEADERS, PORTFOLIO_COLUMN_WIDTHS);
+		}
+	}
+
+	@Override
+	public void accept(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+			long additionalPrincipalPayment) {
+		if (sheet == null) {
+			throw new IllegalStateException("startLoan must be called before writing rows");
+		}
+		if (rowNum == MAX_ROWS) {
+			newSheet("AmortizationSchedule" + (sheetCount + 1), PORTFOLIO_HEADERS, PORTFOLIO_COLUMN_WIDTHS);
+		}
+
+		Row row = sheet.createRow(rowNum++);
+		int firstColumn = 0;
+		if (!sheetPerLoan) {
+			Cell cell = row.createCell(0);
+			cell.setCellValue(loanName);
+			cell.setCellStyle(style);
+			firstColumn = 1;
+		}
+
+		ExcelUtility.writeCells(row, firstColumn, style, month, CentsUtility.toDollars(principalPaid),
+				CentsUtility.toDollars(interestPaid), CentsUtility.toDollars(additionalPrincipalPayment),
+				CentsUtility.toDollars(remainingPrincipal));
+	}
+
+	private String uniqueSheetName(String name) {
+		String safeName = WorkbookUtil.createSafeSheetName(name);
+		String uniqueName = safeName;
+		for (int n = 2; sheetNames.contains(uniqueName.toLowerCase(Locale.ROOT)); n++) {
+			String suffix = " (" + n + ")";
+			uniqueName = safeName.substring(0, Math.min(safeName.length(), MAX_SHEET_NAME_LENGTH - suffix.length()))
+					+ suffix;
+		}
+		return uniqueName;
+	}
+
+	private void newSheet(String name, String[] headers, int[] columnWidths) {
+		sheetNames.add(name.toLowerCase(Locale.ROOT));
+		sheet = ExcelUtility.createSheet(workbook, name, headerStyle, headers, columnWidths);
+		sheetCount++;
+		rowNum = 1;
+	}
+
+	/**
+	 * Write the workbook to the output file and delete the temp files. Most of
+	 * the export time is spent here, the file is written through a FileChannel so
+	 * interrupting the thread stops the write with an IOException.
+	 */
+	@Override
+	public void close() throws IOException {
+		try (OutputStream os = Channels.newOutputStream(FileChannel.open(outputFile, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+			workbook.write(os);
+		} finally {
+			workbook.close();
+		}
+	}
+
+	/**
+	 * Delete the temp files without writing the workbook, the output file is
+	 * never created.
+	 */
+	@Override
+	public void abort() throws IOException {
+		workbook.close();
+	}
+
+}
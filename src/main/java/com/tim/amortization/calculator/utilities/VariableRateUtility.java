@@ -0,0 +1,279 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.ArmTerms;
+import com.tim.amortization.calculator.model.ArmValuation;
+import com.tim.amortization.calculator.model.IndexCurve;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.RateChange;
+import com.tim.amortization.calculator.model.ScheduleRowConsumer;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+
+/**
+ * Variable rate and ARM schedules using the fixed-point math of
+ * {@link FixedPointCalculationUtility}.
+ *
+ * At each rate change the monthly payment is re-amortized: recalculated from
+ * the remaining principal at the new rate over the remaining months of the
+ * term. The schedule only moves forward, months before a change are never
+ * recalculated.
+ *
+ * ARM portfolios are revalued under a new index curve with
+ * {@link #revalue(ArmValuation, IndexCurve)}, which restarts each loan from the
+ * checkpoint of its first reset whose rate changes.
+ */
+public class VariableRateUtility {
+
+	/**
+	 * Calculate the schedule with the rate changing at the given months and pass
+	 * each month to the consumer.
+	 *
+	 * @param terms    principal, initial interest rate, term and additional
+	 *                 principal payment
+	 * @param changes  rate changes in increasing month order, within the term
+	 * @param mode     rounding for the monthly payments and monthly interest
+	 * @param consumer receives each month of the schedule
+	 * @return number of months until the loan is paid off
+	 */
+	public static int calculateSchedule(LoanTerms terms, List<RateChange> changes, RoundingMode mode,
+			ScheduleRowConsumer consumer) {
+		int numberOfPayments = terms.getMortgageLength() * 12;
+		int[] resetMonths = resetMonths(changes, numberOfPayments);
+
+		Walk walk = start(terms, mode);
+		walk.walk(numberOfPayments, resetMonths, resetRates(changes), consumer, null, null);
+		return walk.month;
+	}
+
+	/**
+	 * Calculate the schedule with the rate changing at the given months into a
+	 * columnar AmortizationSchedule.
+	 *
+	 * @param terms
+	 * @param changes
+	 * @param mode
+	 * @return
+	 */
+	public static AmortizationSchedule calculateSchedule(LoanTerms terms, List<RateChange> changes,
+			RoundingMode mode) {
+		AmortizationSchedule schedule = new AmortizationSchedule(terms.getMortgageLength() * 12);
+		calculateSchedule(terms, changes, mode, schedule);
+		return schedule;
+	}
+
+	/**
+	 * Rate set at each reset of the ARM: the index at the reset month plus the
+	 * margin, moved at most initialCap (first reset) or periodicCap (later resets)
+	 * from the previous rate, at most lifetimeCap above the initial rate and at
+	 * least the floor.
+	 *
+	 * @param arm
+	 * @param curve
+	 * @return one rate change per reset within the term
+	 */
+	public static List<RateChange> armRateChanges(ArmTerms arm, IndexCurve curve) {
+		LoanTerms loan = arm.getLoan();
+		int numberOfPayments = loan.getMortgageLength() * 12;
+		long initialRate = FixedPointCalculationUtility.toRatePpm(loan.getInterestRate());
+		long margin = FixedPointCalculationUtility.toRatePpm(arm.getMargin());
+		long maxRate = initialRate + FixedPointCalculationUtility.toRatePpm(arm.getLifetimeCap());
+		long floor = Math.max(FixedPointCalculationUtility.toRatePpm(arm.getFloor()), 0);
+
+		List<RateChange> changes = new ArrayList<>();
+		long previousRate = initialRate;
+		for (int month = arm.getFixedMonths() + 1; month <= numberOfPayments; month += arm.getResetMonths()) {
+			long cap = FixedPointCalculationUtility
+					.toRatePpm(changes.isEmpty() ? arm.getInitialCap() : arm.getPeriodicCap());
+			long rate = FixedPointCalculationUtility.toRatePpm(curve.rateAt(month)) + margin;
+
+			rate = Math.min(Math.max(rate, previousRate - cap), previousRate + cap);
+			rate = Math.max(Math.min(rate, maxRate), floor);
+
+			changes.add(new RateChange(month, (double) rate / FixedPointCalculationUtility.RATE_SCALE));
+			previousRate = rate;
+		}
+		return changes;
+	}
+
+	/**
+	 * Value the ARM under the index curve, keeping a checkpoint at every reset.
+	 *
+	 * @param arm
+	 * @param curve
+	 * @param mode
+	 * @return
+	 */
+	public static ArmValuation value(ArmTerms arm, IndexCurve curve, RoundingMode mode) {
+		List<RateChange> changes = armRateChanges(arm, curve);
+		long[] balances = new long[changes.size()];
+		long[] interest = new long[changes.size()];
+
+		Walk walk = start(arm.getLoan(), mode);
+		return finish(arm, mode, changes, walk, balances, interest, 0);
+	}
+
+	/**
+	 * Value the ARM under a new index curve. Resets before the first reset whose
+	 * rate changes produce the same months as before, so the calculation starts
+	 * from that reset's checkpoint. The result is the same as
+	 * {@link #value(ArmTerms, IndexCurve, RoundingMode)} with the new curve.
+	 *
+	 * @param previous valuation under the previous curve
+	 * @param curve
+	 * @return
+	 */
+	public static ArmValuation revalue(ArmValuation previous, IndexCurve curve) {
+		ArmTerms arm = previous.getArm();
+		List<RateChange> changes = armRateChanges(arm, curve);
+		List<RateChange> previousChanges = previous.getRateChanges();
+
+		int firstChanged = 0;
+		while (firstChanged < changes.size() && changes.get(firstChanged).equals(previousChanges.get(firstChanged))) {
+			firstChanged++;
+		}
+
+		long[] balances = new long[changes.size()];
+		long[] interest = new long[changes.size()];
+		int reached = Math.min(firstChanged, previous.getCheckpointCount());
+		for (int reset = 0; reset < reached; reset++) {
+			balances[reset] = previous.getCheckpointBalance(reset);
+			interest[reset] = previous.getCheckpointInterest(reset);
+		}
+
+		// the loan was paid off before the first changed reset, nothing to recalculate
+		if (firstChanged >= previous.getCheckpointCount()) {
+			return new ArmValuation(arm, previous.getMode(), changes, balances, interest,
+					previous.getCheckpointCount(), previous.getSummary(), changes.size());
+		}
+
+		Walk walk = new Walk(previous.getMode(), CentsUtility.toCents(arm.getLoan().getAdditionalPrincipalPayment()));
+		walk.balance = previous.getCheckpointBalance(firstChanged);
+		walk.totalInterest = previous.getCheckpointInterest(firstChanged);
+		walk.month = changes.get(firstChanged).getMonth() - 1;
+		walk.reset = firstChanged;
+
+		return finish(arm, previous.getMode(), changes, walk, balances, interest, firstChanged);
+	}
+
+	/**
+	 * Revalue every ARM in parallel under the new index curve.
+	 *
+	 * @param valuations
+	 * @param curve
+	 * @return valuations in the same order
+	 */
+	public static List<ArmValuation> revaluePortfolio(List<ArmValuation> valuations, IndexCurve curve) {
+		return valuations.parallelStream().map(valuation -> revalue(valuation, curve)).collect(Collectors.toList());
+	}
+
+	private static Walk start(LoanTerms terms, RoundingMode mode) {
+		Walk walk = new Walk(mode, CentsUtility.toCents(terms.getAdditionalPrincipalPayment()));
+		walk.balance = CentsUtility.toCents(terms.getPrincipal());
+		walk.ratePpm = FixedPointCalculationUtility.toRatePpm(terms.getInterestRate());
+		walk.payment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(walk.balance, walk.ratePpm,
+				terms.getMortgageLength() * 12, mode);
+		FixedPointCalculationUtility.checkAmortizes(walk.balance, walk.ratePpm, walk.payment, walk.additional, mode);
+		return walk;
+	}
+
+	private static ArmValuation finish(ArmTerms arm, RoundingMode mode, List<RateChange> changes, Walk walk,
+			long[] balances, long[] interest, int recalculatedFromReset) {
+		int numberOfPayments = arm.getLoan().getMortgageLength() * 12;
+		walk.walk(numberOfPayments, resetMonths(changes, numberOfPayments), resetRates(changes), null, balances,
+				interest);
+
+		ScheduleSummary summary = new ScheduleSummary(walk.payment, walk.month, walk.totalInterest,
+				walk.month * walk.additional, walk.balance);
+		return new ArmValuation(arm, mode, changes, balances, interest, walk.reset, summary, recalculatedFromReset);
+	}
+
+	private static int[] resetMonths(List<RateChange> changes, int numberOfPayments) {
+		int[] months = new int[changes.size()];
+		for (int i = 0; i < months.length; i++) {
+			months[i] = changes.get(i).getMonth();
+			if (months[i] < 1 || months[i] > numberOfPayments || (i > 0 && months[i] <= months[i - 1])) {
+				throw new IllegalArgumentException(
+						"Rate changes must be in increasing month order within the term: " + changes);
+			}
+		}
+		return months;
+	}
+
+	private static long[] resetRates(List<RateChange> changes) {
+		long[] rates = new long[changes.size()];
+		for (int i = 0; i < rates.length; i++) {
+			rates[i] = FixedPointCalculationUtility.toRatePpm(changes.get(i).getInterestRate());
+		}
+		return rates;
+	}
+
+	/**
+	 * State of the schedule after the last calculated month.
+	 */
+	private static class Walk {
+
+		private final RoundingMode mode;
+
+		private final long additional;
+
+		private long balance;
+
+		private long totalInterest;
+
+		private int month;
+
+		private long ratePpm;
+
+		private long payment;
+
+		/**
+		 * index of the next reset
+		 */
+		private int reset;
+
+		Walk(RoundingMode mode, long additional) {
+			this.mode = mode;
+			this.additional = additional;
+		}
+
+		/**
+		 * Calculate months until the loan is paid off, re-amortizing at each reset
+		 * and recording the checkpoint before it.
+		 */
+		void walk(int numberOfPayments, int[] resetMonths, long[] resetRates, ScheduleRowConsumer consumer,
+				long[] checkpointBalances, long[] checkpointInterest) {
+			while (balance > 0) {
+				int current = month + 1;
+
+				if (reset < resetMonths.length && current == resetMonths[reset]) {
+					if (checkpointBalances != null) {
+						checkpointBalances[reset] = balance;
+						checkpointInterest[reset] = totalInterest;
+					}
+					ratePpm = resetRates[reset];
+					payment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(balance, ratePpm,
+							numberOfPayments - current + 1, mode);
+					FixedPointCalculationUtility.checkAmortizes(balance, ratePpm, payment, additional, mode);
+					reset++;
+				}
+
+				long monthlyInterest = FixedPointCalculationUtility.calculateMonthlyInterestCents(balance, ratePpm,
+						mode);
+				long principalOnly = payment - monthlyInterest;
+
+				balance -= principalOnly + additional;
+				totalInterest += monthlyInterest;
+				month = current;
+
+				if (consumer != null) {
+					consumer.accept(current, principalOnly, monthlyInterest, balance, additional);
+				}
+			}
+		}
+	}
+}
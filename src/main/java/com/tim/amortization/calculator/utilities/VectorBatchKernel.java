@@ -0,0 +1,168 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tim.amortization.calculator.model.ScheduleSummary;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD version of the month loop of
+ * {@link ScheduleQueryUtility#summarize(long, long, long, long, RoundingMode)}
+ * using the incubating Vector API: each lane holds one loan and all lanes
+ * advance one month per iteration. A loan that is paid off is masked out and
+ * keeps its payoff month, interest and final balance while the other lanes
+ * continue; the loop ends when every lane is paid off.
+ *
+ * The lanes are doubles holding whole cents. JDK 17 has no SIMD long division
+ * or double to long conversion, but doubles hold integers exactly up to 2^53,
+ * so as long as balance * rate stays below that the monthly interest
+ * balance * rate / MONTHLY_RATE_DIVISOR is exact: the quotient is estimated
+ * with a multiply, corrected with the exact remainder, then rounded with the
+ * same rules as {@link CentsUtility#divide(long, long, RoundingMode)} for
+ * positive balances.
+ *
+ * Only loaded by {@link BatchCalculationUtility} when the jdk.incubator.vector
+ * module is present, callers must check the payments first.
+ */
+final class VectorBatchKernel {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/**
+	 * largest balance * rate that is exact in a double
+	 */
+	private static final long MAX_EXACT = 1L << 53;
+
+	private static final double DIVISOR = FixedPointCalculationUtility.MONTHLY_RATE_DIVISOR;
+
+	private static final double INVERSE_DIVISOR = 1.0 / DIVISOR;
+
+	/**
+	 * adding and subtracting 2^52 rounds a double below 2^51 to a whole number
+	 */
+	private static final double ROUND_TO_INTEGER = 0x1p52;
+
+	private VectorBatchKernel() {
+	}
+
+	/**
+	 * @param principalCents
+	 * @param ratePpm
+	 * @param mode
+	 * @return false when a balance * rate is not exact in a double, or for
+	 *         RoundingMode.UNNECESSARY, which is left to the scalar path so it
+	 *         can throw
+	 */
+	static boolean supports(long[] principalCents, long[] ratePpm, RoundingMode mode) {
+		if (mode == RoundingMode.UNNECESSARY) {
+			return false;
+		}
+		for (int i = 0; i < principalCents.length; i++) {
+			if (principalCents[i] * ratePpm[i] > MAX_EXACT) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static List<ScheduleSummary> summarize(long[] principalCents, long[] ratePpm, long[] payments,
+			long additionalPayment, RoundingMode mode) {
+		int loans = principalCents.length;
+		double[] balances = new double[loans];
+		double[] rates = new double[loans];
+		// principal paid before the monthly interest is added back
+		double[] paid = new double[loans];
+		for (int i = 0; i < loans; i++) {
+			balances[i] = principalCents[i];
+			rates[i] = ratePpm[i];
+			paid[i] = payments[i] + additionalPayment;
+		}
+		double[] payoffMonths = new double[loans];
+		double[] totalInterest = new double[loans];
+
+		for (int i = 0; i < loans; i += SPECIES.length()) {
+			VectorMask<Double> inRange = SPECIES.indexInRange(i, loans);
+			DoubleVector balance = DoubleVector.fromArray(SPECIES, balances, i, inRange);
+			DoubleVector rate = DoubleVector.fromArray(SPECIES, rates, i, inRange);
+			DoubleVector payment = DoubleVector.fromArray(SPECIES, paid, i, inRange);
+			DoubleVector interest = DoubleVector.zero(SPECIES);
+			DoubleVector months = DoubleVector.zero(SPECIES);
+
+			VectorMask<Double> active = balance.compare(VectorOperators.GT, 0);
+			double month = 0;
+			while (active.anyTrue()) {
+				month++;
+				DoubleVector monthlyInterest = monthlyInterest(balance.mul(rate), mode);
+
+				balance = balance.sub(payment.sub(monthlyInterest), active);
+				interest = interest.add(monthlyInterest, active);
+				months = months.blend(month, active);
+				active = balance.compare(VectorOperators.GT, 0);
+			}
+
+			months.intoArray(payoffMonths, i, inRange);
+			interest.intoArray(totalInterest, i, inRange);
+			balance.intoArray(balances, i, inRange);
+		}
+
+		List<ScheduleSummary> summaries = new ArrayList<>(loans);
+		for (int i = 0; i < loans; i++) {
+			int payoffMonth = (int) payoffMonths[i];
+			summaries.add(new ScheduleSummary(payments[i], payoffMonth, (long) totalInterest[i],
+					payoffMonth * additionalPayment, (long) balances[i]));
+		}
+		return summaries;
+	}
+
+	/**
+	 * dividend / DIVISOR rounded with the mode, exact for whole, non-negative
+	 * dividends up to 2^53. Lanes of paid off loans may be negative, their result
+	 * is not used.
+	 */
+	private static DoubleVector monthlyInterest(DoubleVector dividend, RoundingMode mode) {
+		// the rounded estimate is at most one off the floor
+		DoubleVector quotient = dividend.mul(INVERSE_DIVISOR).add(ROUND_TO_INTEGER).sub(ROUND_TO_INTEGER);
+		DoubleVector remainder = dividend.sub(quotient.mul(DIVISOR));
+
+		VectorMask<Double> under = remainder.compare(VectorOperators.LT, 0);
+		quotient = quotient.sub(1, under);
+		remainder = remainder.add(DIVISOR, under);
+		VectorMask<Double> over = remainder.compare(VectorOperators.GE, DIVISOR);
+		quotient = quotient.add(1, over);
+		remainder = remainder.sub(DIVISOR, over);
+
+		// 0 <= remainder < DIVISOR, quotient is the floor
+		DoubleVector twice = remainder.add(remainder);
+		VectorMask<Double> roundUp;
+		switch (mode) {
+		case UP:
+		case CEILING:
+			roundUp = remainder.compare(VectorOperators.NE, 0);
+			break;
+		case HALF_UP:
+			roundUp = twice.compare(VectorOperators.GE, DIVISOR);
+			break;
+		case HALF_DOWN:
+			roundUp = twice.compare(VectorOperators.GT, DIVISOR);
+			break;
+		case HALF_EVEN:
+			// the quotient is odd when half of it is not a whole number
+			DoubleVector half = quotient.mul(0.5);
+			VectorMask<Double> odd = half.add(ROUND_TO_INTEGER).sub(ROUND_TO_INTEGER).compare(VectorOperators.NE,
+					half);
+			roundUp = twice.compare(VectorOperators.GT, DIVISOR)
+					.or(twice.compare(VectorOperators.EQ, DIVISOR).and(odd));
+			break;
+		default:
+			// DOWN and FLOOR
+			return quotient;
+		}
+		return quotient.add(1, roundUp);
+	}
+}
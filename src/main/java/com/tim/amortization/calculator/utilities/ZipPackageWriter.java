@@ -0,0 +1,223 @@
+package com.tim.amortization.calculator.utilities;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Minimal ZIP writer for OOXML packages whose entries were deflated in advance,
+ * possibly on other threads. java.util.zip.ZipOutputStream always compresses
+ * on the writing thread, this writer only copies the compressed bytes.
+ *
+ * Entries are written in call order with the sizes and CRC in the local header.
+ * ZIP64 is not supported: the package must stay under 4 GB and 65535 entries.
+ */
+final class ZipPackageWriter implements Closeable {
+
+	private static final long MAX_SIZE = 0xFFFFFFFFL;
+
+	private static final int MAX_ENTRIES = 0xFFFF;
+
+	/**
+	 * general purpose flag bit 11, names are UTF-8
+	 */
+	private static final int UTF8_FLAG = 0x0800;
+
+	private static final int DEFLATED = 8;
+
+	private final OutputStream out;
+
+	private final int dosTime;
+
+	private final int dosDate;
+
+	private final List<Entry> entries = new ArrayList<>();
+
+	private long offset;
+
+	/**
+	 * An entry deflated without zlib header (new Deflater(level, true)).
+	 */
+	static final class DeflatedEntry {
+
+		final byte[] compressed;
+
+		final int compressedLength;
+
+		final long crc;
+
+		final long size;
+
+		DeflatedEntry(byte[] compressed, int compressedLength, long crc, long size) {
+			this.compressed = compressed;
+			this.compressedLength = compressedLength;
+			this.crc = crc;
+			this.size = size;
+		}
+
+		/**
+		 * Deflate content with the default compression level.
+		 *
+		 * @param content
+		 * @param length
+		 * @return
+		 */
+		static DeflatedEntry deflate(byte[] content, int length) {
+			CRC32 crc = new CRC32();
+			crc.update(content, 0, length);
+
+			Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+			try {
+				deflater.setInput(content, 0, length);
+				deflater.finish();
+				byte[] compressed = new byte[length / 4 + 64];
+				int compressedLength = 0;
+				while (!deflater.finished()) {
+					if (compressedLength == compressed.length) {
+						compressed = Arrays.copyOf(compressed, compressed.length * 2);
+					}
+					compressedLength += deflater.deflate(compressed, compressedLength,
+							compressed.length - compressedLength);
+				}
+				return new DeflatedEntry(compressed, compressedLength, crc.getValue(), length);
+			} finally {
+				deflater.end();
+			}
+		}
+	}
+
+	private static final class Entry {
+
+		final byte[] name;
+
+		final DeflatedEntry data;
+
+		final long offset;
+
+		Entry(byte[] name, DeflatedEntry data, long offset) {
+			this.name = name;
+			this.data = data;
+			this.offset = offset;
+		}
+	}
+
+	ZipPackageWriter(Path outputFile) throws IOException {
+		this.out = new BufferedOutputStream(Files.newOutputStream(outputFile), 64 * 1024);
+
+		LocalDateTime now = LocalDateTime.now();
+		this.dosTime = now.getHour() << 11 | now.getMinute() << 5 | now.getSecond() / 2;
+		this.dosDate = Math.max(now.getYear() - 1980, 0) << 9 | now.getMonthValue() << 5 | now.getDayOfMonth();
+	}
+
+	/**
+	 * Deflate and write an entry.
+	 *
+	 * @param name    path inside the package, Ex: xl/workbook.xml
+	 * @param content
+	 * @throws IOException
+	 */
+	void put(String name, String content) throws IOException {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		put(name, DeflatedEntry.deflate(bytes, bytes.length));
+	}
+
+	/**
+	 * Write an entry deflated in advance.
+	 *
+	 * @param name
+	 * @param data
+	 * @throws IOException
+	 */
+	void put(String name, DeflatedEntry data) throws IOException {
+		if (entries.size() == MAX_ENTRIES || offset + data.compressedLength > MAX_SIZE || data.size > MAX_SIZE) {
+			throw new IOException("Workbook exceeds the 4 GB or 65535 part ZIP limit");
+		}
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		entries.add(new Entry(nameBytes, data, offset));
+
+		writeInt(0x04034b50);
+		writeShort(20); // version needed to extract
+		writeShort(UTF8_FLAG);
+		writeShort(DEFLATED);
+		writeShort(dosTime);
+		writeShort(dosDate);
+		writeInt(data.crc);
+		writeInt(data.compressedLength);
+		writeInt(data.size);
+		writeShort(nameBytes.length);
+		writeShort(0); // extra field length
+		write(nameBytes, nameBytes.length);
+		write(data.compressed, data.compressedLength);
+	}
+
+	/**
+	 * Write the central directory and close the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			long directoryOffset = offset;
+			for (Entry entry : entries) {
+				writeInt(0x02014b50);
+				writeShort(20); // version made by
+				writeShort(20); // version needed to extract
+				writeShort(UTF8_FLAG);
+				writeShort(DEFLATED);
+				writeShort(dosTime);
+				writeShort(dosDate);
+				writeInt(entry.data.crc);
+				writeInt(entry.data.compressedLength);
+				writeInt(entry.data.size);
+				writeShort(entry.name.length);
+				writeShort(0); // extra field length
+				writeShort(0); // comment length
+				writeShort(0); // disk number
+				writeShort(0); // internal attributes
+				writeInt(0); // external attributes
+				writeInt(entry.offset);
+				write(entry.name, entry.name.length);
+			}
+			long directorySize = offset - directoryOffset;
+			if (offset > MAX_SIZE) {
+				throw new IOException("Workbook exceeds the 4 GB ZIP limit");
+			}
+
+			writeInt(0x06054b50);
+			writeShort(0); // disk number
+			writeShort(0); // disk with the central directory
+			writeShort(entries.size());
+			writeShort(entries.size());
+			writeInt(directorySize);
+			writeInt(directoryOffset);
+			writeShort(0); // comment length
+		} finally {
+			out.close();
+		}
+	}
+
+	private void write(byte[] bytes, int length) throws IOException {
+		out.write(bytes, 0, length);
+		offset += length;
+	}
+
+	private void writeShort(int value) throws IOException {
+		out.write(value);
+		out.write(value >>> 8);
+		offset += 2;
+	}
+
+	private void writeInt(long value) throws IOException {
+		writeShort((int) value & 0xFFFF);
+		writeShort((int) (value >>> 16) & 0xFFFF);
+	}
+}
@@ -0,0 +1,131 @@
+package com.tim.amortization.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.utilities.CalculationUtility;
+import com.tim.amortization.calculator.utilities.ExportFormat;
+import com.tim.amortization.calculator.utilities.ExportUtility;
+import com.tim.amortization.calculator.utilities.MetricsUtility;
+
+public class CalculationServerTest {
+
+	private static final String LOAN = "principal=603%2C500&interest=6.5&mortgageLength=30&additionalPrincipal=1000.00";
+
+	@TempDir
+	Path tempDir;
+
+	private CalculationServer server;
+
+	private HttpClient client;
+
+	@BeforeEach
+	public void start() throws IOException {
+		server = new CalculationServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+		server.start();
+		client = HttpClient.newHttpClient();
+	}
+
+	@AfterEach
+	public void stop() {
+		server.close();
+	}
+
+	private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+		return client.send(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + server.getPort() + path);
+	}
+
+	@Test
+	public void scheduleMatchesExportTest() throws Exception {
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 1000);
+		for (ExportFormat format : new ExportFormat[] { ExportFormat.NDJSON, ExportFormat.CSV }) {
+			Path file = tempDir.resolve("schedule." + format.getExtension());
+			ExportUtility.exportSchedule(terms, format, file);
+
+			HttpResponse<String> response = get("/schedule?" + LOAN + "&format=" + format.getExtension());
+
+			assertEquals(200, response.statusCode());
+			assertEquals("chunked", response.headers().firstValue("Transfer-Encoding").orElse(null));
+			assertEquals(Files.readString(file), response.body());
+		}
+		// NDJSON by default, no header line
+		assertEquals(211, get("/schedule?" + LOAN).body().lines().count());
+	}
+
+	@Test
+	public void summaryTest() throws Exception {
+		HttpResponse<String> response = get("/summary?" + LOAN);
+
+		assertEquals(200, response.statusCode());
+		assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(null));
+		assertTrue(response.body().startsWith("{\"monthlyPayment\":3814.54,\"payoffMonth\":211,"), response.body());
+	}
+
+	@Test
+	public void batchTest() throws Exception {
+		String portfolio = "principal,interest,mortgageLength,additionalPrincipal\n\"603,500\",6.5,30,1000.00\n\n"
+				+ "abc\n250000,0,15,0\n250000,5.25,15,0\n";
+		HttpResponse<String> response = client.send(
+				HttpRequest.newBuilder(uri("/batch")).POST(HttpRequest.BodyPublishers.ofString(portfolio)).build(),
+				HttpResponse.BodyHandlers.ofString());
+
+		assertEquals(200, response.statusCode());
+		String[] lines = response.body().split("\n");
+		assertEquals(3, lines.length);
+		assertTrue(lines[0].startsWith("{\"loan\":1,\"monthlyPayment\":3814.54,\"payoffMonth\":211,"), lines[0]);
+		assertEquals("{\"loan\":2,\"error\":\"" + CalculationUtility.INTEREST_ERROR + "\"}", lines[1]);
+		assertTrue(lines[2].startsWith("{\"loan\":3,\"monthlyPayment\":2009.70,\"payoffMonth\":180,"), lines[2]);
+	}
+
+	@Test
+	public void errorsTest() throws Exception {
+		HttpResponse<String> response = get("/summary?principal=abc&interest=6.5&mortgageLength=&additionalPrincipal=0");
+		assertEquals(400, response.statusCode());
+		assertEquals(CalculationUtility.PRINCIPAL_ERROR + "\n" + CalculationUtility.MORTGAGE_LENGTH_ERROR + "\n",
+				response.body());
+
+		response = get("/schedule?" + LOAN + "&format=xlsx");
+		assertEquals(400, response.statusCode());
+		assertEquals(CalculationServer.FORMAT_ERROR + "\n", response.body());
+
+		assertEquals(405, get("/batch").statusCode());
+		assertEquals(404, get("/unknown").statusCode());
+	}
+
+	@Test
+	public void metricsTest() throws Exception {
+		HttpResponse<String> response = get("/metrics");
+
+		assertEquals(200, response.statusCode());
+		assertEquals(MetricsUtility.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(null));
+		assertTrue(response.body().contains("# TYPE amortization_schedule_rows_total counter\n"));
+	}
+
+	@Test
+	public void parseQueryTest() {
+		assertEquals(Map.of("principal", "603,500", "interest", "6.5", "flag", ""),
+				CalculationServer.parseQuery("principal=603%2C500&interest=6.5&flag"));
+		assertEquals(Map.of(), CalculationServer.parseQuery(null));
+	}
+}
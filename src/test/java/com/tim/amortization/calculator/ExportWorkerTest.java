@@ -0,0 +1,61 @@
+package com.tim.amortization.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.utilities.ExportFormat;
+
+public class ExportWorkerTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void exportTest() throws Exception {
+		Path file = tempDir.resolve("schedule.csv");
+		ExportWorker worker = new ExportWorker(new LoanTerms(603500, 6.5, 30, 1000), ExportFormat.CSV, file);
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		worker.addPropertyChangeListener(event -> events.add(event.getPropertyName() + "=" + event.getNewValue()));
+
+		worker.execute();
+
+		assertEquals(211, worker.get());
+		assertEquals(212, Files.readAllLines(file).size());
+
+		// property changes are delivered on the event dispatch thread
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!events.contains(ExportWorker.CLOSING_PROPERTY + "=true") && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(events.contains(ExportWorker.CLOSING_PROPERTY + "=true"));
+		assertEquals(100, worker.getProgress());
+	}
+
+	@Test
+	public void cancelledExportTest() {
+		Path file = tempDir.resolve("schedule.xlsx");
+		ExportWorker worker = new ExportWorker(new LoanTerms(603500, 6.5, 30, 1000), ExportFormat.XLSX, file);
+
+		Thread.currentThread().interrupt();
+		try {
+			assertThrows(InterruptedException.class, () -> worker.doInBackground());
+		} finally {
+			Thread.interrupted();
+		}
+
+		assertFalse(Files.exists(file));
+		assertTrue(worker.getProgress() < 100);
+	}
+}
@@ -0,0 +1,170 @@
+package com.tim.amortization.calculator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.InvocationTargetException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.swing.JLabel;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+import com.tim.amortization.calculator.utilities.CalculationUtility;
+
+public class LiveSummaryUpdaterTest {
+
+	/**
+	 * Long enough that the timer never fires while a test calls recalculate.
+	 */
+	private static final int NO_DEBOUNCE = 60_000;
+
+	private final JTextField principal = new JTextField("600,000");
+
+	private final JTextField interest = new JTextField("6.5");
+
+	private final JTextField mortgageLength = new JTextField("30");
+
+	private final JTextField additionalPrincipal = new JTextField("0.00");
+
+	private final JLabel payment = new JLabel();
+
+	private final JLabel payoff = new JLabel();
+
+	private final JLabel totalInterest = new JLabel();
+
+	/**
+	 * Terms passed to the summarizer, in order.
+	 */
+	private final List<LoanTerms> summarized = Collections.synchronizedList(new ArrayList<>());
+
+	/**
+	 * Workers waiting to be run by the test.
+	 */
+	private final List<Runnable> queued = new ArrayList<>();
+
+	private LiveSummaryUpdater updater(int debounceMillis, Executor executor) {
+		return new LiveSummaryUpdater(principal, interest, mortgageLength, additionalPrincipal, payment, payoff,
+				totalInterest, debounceMillis, executor, terms -> {
+					summarized.add(terms);
+					return CalculationUtility.summarizeSchedule(terms);
+				});
+	}
+
+	private static String formattedPayment(LoanTerms terms) {
+		ScheduleSummary summary = CalculationUtility.summarizeSchedule(terms);
+		return LiveSummaryUpdater.formatCents(summary.getMonthlyPayment());
+	}
+
+	private static void onEdt(Runnable runnable) throws InterruptedException, InvocationTargetException {
+		SwingUtilities.invokeAndWait(runnable);
+	}
+
+	/**
+	 * SwingWorker posts done() to the event dispatch thread with a short timer,
+	 * wait until the label has been written.
+	 */
+	private static void awaitText(JLabel label) throws InterruptedException, InvocationTargetException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (label.getText().isEmpty() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		onEdt(() -> {
+		});
+	}
+
+	@Test
+	public void debounceTest() throws Exception {
+		onEdt(() -> updater(100, Runnable::run));
+
+		// several edits inside the debounce window
+		onEdt(() -> {
+			principal.setText("500,000");
+			interest.setText("5");
+			interest.setText("5.25");
+			mortgageLength.setText("15");
+		});
+		awaitText(payment);
+
+		LoanTerms terms = new LoanTerms(500000, 5.25, 15, 0);
+		assertEquals(List.of(terms), summarized);
+		assertEquals(formattedPayment(terms), payment.getText());
+	}
+
+	@Test
+	public void staleResultDiscardedTest() throws Exception {
+		LiveSummaryUpdater updater = updater(NO_DEBOUNCE, queued::add);
+
+		onEdt(updater::recalculate);
+		onEdt(() -> {
+			principal.setText("400,000");
+			updater.recalculate();
+		});
+		assertEquals(2, queued.size());
+
+		// the newer calculation finishes first, then the stale one is run
+		queued.get(1).run();
+		queued.get(0).run();
+		awaitText(payment);
+
+		LoanTerms terms = new LoanTerms(400000, 6.5, 30, 0);
+		assertEquals(List.of(terms), summarized);
+		assertEquals(formattedPayment(terms), payment.getText());
+	}
+
+	@Test
+	public void unchangedTermsSkippedTest() throws Exception {
+		LiveSummaryUpdater updater = updater(NO_DEBOUNCE, queued::add);
+
+		onEdt(updater::recalculate);
+		// same value written differently
+		onEdt(() -> {
+			principal.setText("600000");
+			additionalPrincipal.setText("0");
+			updater.recalculate();
+		});
+
+		assertEquals(1, queued.size());
+		queued.get(0).run();
+		awaitText(payment);
+		assertEquals(1, summarized.size());
+		assertEquals(formattedPayment(new LoanTerms(600000, 6.5, 30, 0)), payment.getText());
+	}
+
+	@Test
+	public void invalidInputClearsSummaryTest() throws Exception {
+		LiveSummaryUpdater updater = updater(NO_DEBOUNCE, queued::add);
+
+		onEdt(() -> {
+			updater.recalculate();
+			principal.setText("abc");
+			updater.recalculate();
+		});
+		queued.get(0).run();
+		onEdt(() -> {
+		});
+
+		assertEquals(0, summarized.size());
+		assertEquals("-", payment.getText());
+		assertEquals("-", payoff.getText());
+	}
+
+	@Test
+	public void formatCentsTest() {
+		assertEquals("$3,814.54", LiveSummaryUpdater.formatCents(381454));
+		assertEquals("$0.05", LiveSummaryUpdater.formatCents(5));
+	}
+
+	@Test
+	public void formatPayoffTest() {
+		assertEquals("August 2042 (17 years and 7 months)", LiveSummaryUpdater.formatPayoff(YearMonth.of(2025, 1), 211));
+		assertEquals("January 2055 (30 years and 0 months)", LiveSummaryUpdater.formatPayoff(YearMonth.of(2025, 1), 360));
+	}
+}
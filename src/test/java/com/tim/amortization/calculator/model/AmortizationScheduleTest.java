@@ -0,0 +1,72 @@
+package com.tim.amortization.calculator.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class AmortizationScheduleTest {
+
+	@Test
+	public void addAndGetTest() {
+		AmortizationSchedule schedule = new AmortizationSchedule(1);
+		for (int month = 1; month <= 10; month++) {
+			schedule.add(month, 54558, 326896, 60295443 - month, 100000);
+		}
+
+		assertEquals(10, schedule.size());
+		assertEquals(10, schedule.getMonth(9));
+		assertEquals(54558, schedule.getPrincipalPaidCents(9));
+		assertEquals(326896, schedule.getInterestPaidCents(9));
+		assertEquals(60295433, schedule.getRemainingPrincipalCents(9));
+		assertEquals(100000, schedule.getAdditionalPrincipalPaymentCents(9));
+		assertThrows(IndexOutOfBoundsException.class, () -> schedule.getMonth(10));
+	}
+
+	@Test
+	public void asRecordsTest() {
+		AmortizationSchedule schedule = new AmortizationSchedule();
+		schedule.add(1, 54558, 326896, 60295443, 0);
+
+		List<AmortizationRecord> records = schedule.asRecords();
+
+		assertEquals(1, records.size());
+		assertEquals(new AmortizationRecord(1, new BigDecimal("545.58"), new BigDecimal("3268.96"),
+				new BigDecimal("602954.43"), new BigDecimal("0.00")), records.get(0));
+		assertThrows(UnsupportedOperationException.class, () -> records.add(new AmortizationRecord()));
+		assertThrows(UnsupportedOperationException.class, () -> records.clear());
+		assertEquals(1, schedule.size());
+	}
+
+	@Test
+	public void freezeTest() {
+		AmortizationSchedule schedule = new AmortizationSchedule();
+		schedule.add(1, 54558, 326896, 60295443, 0);
+
+		assertFalse(schedule.isFrozen());
+		assertSame(schedule, schedule.freeze());
+		assertTrue(schedule.isFrozen());
+		assertThrows(UnsupportedOperationException.class, () -> schedule.add(2, 54558, 326896, 60240885, 0));
+		assertThrows(UnsupportedOperationException.class, () -> schedule.clear());
+
+		// records are copies, changing one does not change the frozen schedule
+		schedule.asRecords().get(0).setInterestPaid(BigDecimal.ZERO);
+		assertEquals(326896, schedule.getInterestPaidCents(0));
+	}
+
+	@Test
+	public void fromRecordsTest() {
+		List<AmortizationRecord> records = List.of(new AmortizationRecord(1, new BigDecimal("545.58"),
+				new BigDecimal("3268.96"), new BigDecimal("602954.43"), new BigDecimal("1000.00")));
+
+		AmortizationSchedule schedule = AmortizationSchedule.fromRecords(records);
+
+		assertEquals(records, schedule.asRecords());
+	}
+}
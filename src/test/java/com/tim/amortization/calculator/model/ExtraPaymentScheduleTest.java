@@ -0,0 +1,64 @@
+package com.tim.amortization.calculator.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ExtraPaymentScheduleTest {
+
+	private static final ExtraPaymentSchedule SCHEDULE = ExtraPaymentSchedule.of(List.of(
+			ExtraPaymentEvent.recurring(13, ExtraPaymentEvent.NO_END, 1, 200),
+			ExtraPaymentEvent.recurring(25, 36, 1, 50), ExtraPaymentEvent.recurring(12, 60, 12, 1000),
+			ExtraPaymentEvent.lumpSum(5, 10000), ExtraPaymentEvent.lumpSum(24, 500),
+			ExtraPaymentEvent.override(30, 0), ExtraPaymentEvent.override(48, 75)), 360);
+
+	@Test
+	public void extraPaymentTest() {
+		assertEquals(0, SCHEDULE.getExtraPayment(1));
+		assertEquals(1_000_000, SCHEDULE.getExtraPayment(5));
+		assertEquals(100_000, SCHEDULE.getExtraPayment(12));
+		assertEquals(20_000, SCHEDULE.getExtraPayment(13));
+		assertEquals(20_000 + 100_000 + 50_000, SCHEDULE.getExtraPayment(24));
+		assertEquals(25_000, SCHEDULE.getExtraPayment(25));
+		assertEquals(0, SCHEDULE.getExtraPayment(30));
+		assertEquals(20_000, SCHEDULE.getExtraPayment(37));
+		assertEquals(7_500, SCHEDULE.getExtraPayment(48));
+		assertEquals(20_000, SCHEDULE.getExtraPayment(72));
+		assertEquals(20_000, SCHEDULE.getExtraPayment(360));
+		assertEquals(5, SCHEDULE.getFirstMonth());
+	}
+
+	@Test
+	public void cursorTest() {
+		ExtraPaymentSchedule.Cursor cursor = SCHEDULE.cursor();
+		for (int month = 1; month <= 360; month++) {
+			assertEquals(SCHEDULE.getExtraPayment(month), cursor.next(month), "month " + month);
+		}
+
+		// skipped months
+		ExtraPaymentSchedule.Cursor skipping = SCHEDULE.cursor();
+		assertEquals(100_000, skipping.next(12));
+		assertEquals(25_000, skipping.next(26));
+		assertEquals(7_500, skipping.next(48));
+	}
+
+	@Test
+	public void emptyTest() {
+		assertTrue(ExtraPaymentSchedule.none().isEmpty());
+		assertTrue(ExtraPaymentSchedule.of(List.of(ExtraPaymentEvent.lumpSum(400, 100)), 360).isEmpty());
+		assertTrue(ExtraPaymentSchedule.of(List.of(ExtraPaymentEvent.override(10, 0)), 360).isEmpty());
+		assertEquals(ExtraPaymentSchedule.none(), ExtraPaymentSchedule.of(List.of(), 360));
+	}
+
+	@Test
+	public void invalidEventTest() {
+		assertThrows(IllegalArgumentException.class, () -> ExtraPaymentEvent.lumpSum(0, 100));
+		assertThrows(IllegalArgumentException.class, () -> ExtraPaymentEvent.lumpSum(1, -100));
+		assertThrows(IllegalArgumentException.class, () -> ExtraPaymentEvent.recurring(12, 11, 1, 100));
+		assertThrows(IllegalArgumentException.class, () -> ExtraPaymentEvent.recurring(1, 12, 0, 100));
+	}
+}
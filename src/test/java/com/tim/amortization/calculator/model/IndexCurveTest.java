@@ -0,0 +1,27 @@
+package com.tim.amortization.calculator.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class IndexCurveTest {
+
+	@Test
+	public void rateAtTest() {
+		IndexCurve curve = new IndexCurve(new int[] { 13, 61, 121 }, new double[] { 4.5, 5, 3.25 });
+
+		assertEquals(4.5, curve.rateAt(1));
+		assertEquals(4.5, curve.rateAt(13));
+		assertEquals(4.5, curve.rateAt(60));
+		assertEquals(5, curve.rateAt(61));
+		assertEquals(3.25, curve.rateAt(360));
+	}
+
+	@Test
+	public void invalidCurveTest() {
+		assertThrows(IllegalArgumentException.class, () -> new IndexCurve(new int[] {}, new double[] {}));
+		assertThrows(IllegalArgumentException.class, () -> new IndexCurve(new int[] { 1, 1 }, new double[] { 1, 2 }));
+		assertThrows(IllegalArgumentException.class, () -> new IndexCurve(new int[] { 1 }, new double[] { 1, 2 }));
+	}
+}
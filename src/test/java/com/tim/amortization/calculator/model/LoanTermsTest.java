@@ -0,0 +1,40 @@
+package com.tim.amortization.calculator.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LoanTermsTest {
+
+	@Test
+	public void getterTest() {
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 1000);
+
+		assertEquals(603500, terms.getPrincipal());
+		assertEquals(6.5, terms.getInterestRate());
+		assertEquals(30, terms.getMortgageLength());
+		assertEquals(1000, terms.getAdditionalPrincipalPayment());
+	}
+
+	@Test
+	public void equalsTest() {
+		LoanTerms terms1 = new LoanTerms(603500, 6.5, 30, 1000);
+		LoanTerms terms2 = new LoanTerms(603500, 6.5, 30, 1000);
+
+		assertTrue(terms1.equals(terms1));
+		assertTrue(terms1.equals(terms2));
+		assertEquals(terms1.hashCode(), terms2.hashCode());
+		assertFalse(terms1.equals(null));
+		assertFalse(terms1.equals(new Object()));
+		assertFalse(terms1.equals(new LoanTerms(603500, 6.5, 15, 1000)));
+	}
+
+	@Test
+	public void toStringTest() {
+		assertEquals(
+				"LoanTerms [principal=603500.0, interestRate=6.5, mortgageLength=30, additionalPrincipalPayment=1000.0]",
+				new LoanTerms(603500, 6.5, 30, 1000).toString());
+	}
+}
@@ -0,0 +1,91 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+
+public class BatchCalculationUtilityTest {
+
+	@Test
+	public void vectorizedInTestsTest() {
+		// surefire runs with --add-modules jdk.incubator.vector
+		assertTrue(BatchCalculationUtility.isVectorized());
+	}
+
+	@Test
+	public void matchesScheduleQueryUtilityTest() {
+		long[] principals = { 60_350_000, 30_000_000, 0, 12_345_678, 100_000_00 };
+		long[] rates = { 65_000, 60_000, 70_000, 0, 123_456 };
+
+		List<ScheduleSummary> summaries = BatchCalculationUtility.summarize(principals, rates, 360, 100_000,
+				RoundingMode.CEILING);
+
+		assertEquals(ScheduleQueryUtility.summarize(new LoanTerms(603500, 6.5, 30, 1000), RoundingMode.CEILING),
+				summaries.get(0));
+		for (int i = 0; i < principals.length; i++) {
+			long payment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(principals[i], rates[i], 360,
+					RoundingMode.CEILING);
+			assertEquals(ScheduleQueryUtility.summarize(principals[i], rates[i], payment, 100_000, RoundingMode.CEILING),
+					summaries.get(i));
+		}
+	}
+
+	@Test
+	public void vectorMatchesScalarTest() {
+		Random random = new Random(16);
+		for (RoundingMode mode : new RoundingMode[] { RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING,
+				RoundingMode.FLOOR, RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN }) {
+			// not a multiple of the lane count, so the last vector is partly masked
+			int loans = 1 + random.nextInt(200);
+			long[] principals = new long[loans];
+			long[] rates = new long[loans];
+			for (int i = 0; i < loans; i++) {
+				principals[i] = random.nextInt(100_000_000);
+				// multiples of 5 ppm give exact halves of a cent
+				rates[i] = random.nextBoolean() ? random.nextInt(150_000) : 5 * random.nextInt(30_000);
+			}
+			int numberOfPayments = 12 * (1 + random.nextInt(40));
+			long additional = random.nextBoolean() ? 0 : random.nextInt(100_000);
+			long[] payments = BatchCalculationUtility.monthlyPayments(principals, rates, numberOfPayments,
+					additional, mode);
+
+			assertEquals(BatchCalculationUtility.summarizeScalar(principals, rates, payments, additional, mode),
+					VectorBatchKernel.summarize(principals, rates, payments, additional, mode), mode.toString());
+		}
+	}
+
+	@Test
+	public void largeBalanceUsesScalarTest() {
+		// 100 billion dollars at 10%, balance * rate is not exact in a double
+		long[] principals = { 10_000_000_000_000L, 60_350_000 };
+		long[] rates = { 100_000, 65_000 };
+		assertFalse(VectorBatchKernel.supports(principals, rates, RoundingMode.HALF_EVEN));
+
+		long[] payments = BatchCalculationUtility.monthlyPayments(principals, rates, 360, 0, RoundingMode.HALF_EVEN);
+		assertEquals(BatchCalculationUtility.summarizeScalar(principals, rates, payments, 0, RoundingMode.HALF_EVEN),
+				BatchCalculationUtility.summarize(principals, rates, 360, 0, RoundingMode.HALF_EVEN));
+	}
+
+	@Test
+	public void invalidBatchTest() {
+		assertThrows(IllegalArgumentException.class, () -> BatchCalculationUtility.summarize(new long[2],
+				new long[1], 360, 0, RoundingMode.CEILING));
+		assertThrows(IllegalArgumentException.class, () -> BatchCalculationUtility
+				.summarize(new long[] { -1 }, new long[] { 65_000 }, 360, 0, RoundingMode.CEILING));
+		assertThrows(ArithmeticException.class, () -> BatchCalculationUtility
+				.summarize(new long[] { Long.MAX_VALUE / 2 }, new long[] { 65_000 }, 360, 0, RoundingMode.CEILING));
+		// UNNECESSARY is left to the scalar path, which throws for inexact cents
+		assertThrows(ArithmeticException.class, () -> BatchCalculationUtility
+				.summarize(new long[] { 60_350_000 }, new long[] { 65_000 }, 360, 0, RoundingMode.UNNECESSARY));
+	}
+}
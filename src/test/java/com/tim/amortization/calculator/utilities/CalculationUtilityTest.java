@@ -1,12 +1,16 @@
 package com.tim.amortization.calculator.utilities;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import javax.swing.JTextField;
 
@@ -17,6 +21,9 @@ import org.junit.jupiter.api.TestInstance.Lifecycle;
 
 import com.tim.amortization.calculator.exception.InputValidationException;
 import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleSummary;
 
 @TestInstance(Lifecycle.PER_CLASS)
 public class CalculationUtilityTest {
@@ -112,4 +119,87 @@ public class CalculationUtilityTest {
 		assertEquals(601954.43, rec.getRemainingPrincipal().doubleValue());
 
 	}
+
+	@Test
+	public void successTest_withLoanTerms() {
+		List<AmortizationRecord> fieldRecords = CalculationUtility.calculateAmortizationSchedule(
+				CalculationUtility.createLoanTerms("603,500", "6.5", "30", "1000.00"));
+		List<AmortizationRecord> termsRecords = CalculationUtility
+				.calculateAmortizationSchedule(new LoanTerms(principalAmt, interestAmt, 30, additionalPrincipal));
+
+		assertEquals(211, termsRecords.size());
+		assertEquals(fieldRecords, termsRecords);
+	}
+
+	@Test
+	public void summarizeScheduleTest() {
+		LoanTerms terms = new LoanTerms(principalAmt, interestAmt, 30, additionalPrincipal);
+		AmortizationSchedule schedule = CalculationUtility.calculateSchedule(terms);
+		long totalInterest = 0;
+		for (int row = 0; row < schedule.size(); row++) {
+			totalInterest += schedule.getInterestPaidCents(row);
+		}
+
+		ScheduleSummary summary = CalculationUtility.summarizeSchedule(terms);
+
+		assertEquals(new ScheduleSummary(381454, 211, totalInterest, 211 * 100000,
+				schedule.getRemainingPrincipalCents(210)), summary);
+	}
+
+	@Test
+	public void invalidStringInputs() {
+		InputValidationException ex = assertThrows(InputValidationException.class,
+				() -> CalculationUtility.createLoanTerms("abc", "6.5", "30", null));
+
+		assertEquals(CalculationUtility.PRINCIPAL_ERROR + "\n" + CalculationUtility.ADDITIONAL_PRINCIPAL_ERROR,
+				ex.getMessage());
+	}
+
+	@Test
+	public void invalidLoanTerms() {
+		InputValidationException ex = assertThrows(InputValidationException.class,
+				() -> CalculationUtility.validateInput(new LoanTerms(-1, 100, 0, Double.NaN)));
+
+		assertEquals(4, ex.getMessage().split("\n").length);
+		assertDoesNotThrow(() -> CalculationUtility.validateInput(new LoanTerms(999, 0.5, 1, 0)));
+	}
+
+	/**
+	 * Copy of the original object-per-row loop, used to check that the columnar
+	 * schedule produces identical records.
+	 */
+	private static List<AmortizationRecord> legacySchedule(Double principalAmt, Double interestAmt,
+			Double mortgageLength, Double additionalPrincipalPayment) {
+		BigDecimal monthlyPayment = CalculationUtility.calculateMonthlyPayment(principalAmt, interestAmt,
+				mortgageLength);
+		List<AmortizationRecord> records = new ArrayList<>();
+		int counter = 1;
+		while (principalAmt > 0) {
+			BigDecimal monthlyInterest = new BigDecimal(principalAmt * (interestAmt / 100) / 12).setScale(2,
+					RoundingMode.CEILING);
+			Double principalOnly = monthlyPayment.doubleValue() - monthlyInterest.doubleValue();
+			principalAmt -= (principalOnly + additionalPrincipalPayment);
+			records.add(new AmortizationRecord(counter, new BigDecimal(principalOnly).setScale(2, RoundingMode.CEILING),
+					monthlyInterest, new BigDecimal(principalAmt).setScale(2, RoundingMode.CEILING),
+					new BigDecimal(additionalPrincipalPayment).setScale(2, RoundingMode.CEILING)));
+			counter++;
+		}
+		return records;
+	}
+
+	@Test
+	public void calculateScheduleMatchesLegacy() {
+		Random random = new Random(7);
+		for (int i = 0; i < 200; i++) {
+			double principal = 10_000 + random.nextInt(2_000_000);
+			double interest = (1 + random.nextInt(1200)) / 100.0;
+			int years = 1 + random.nextInt(40);
+			double additional = random.nextBoolean() ? 0 : random.nextInt(300_000) / 100.0;
+
+			AmortizationSchedule schedule = CalculationUtility
+					.calculateSchedule(new LoanTerms(principal, interest, years, additional));
+
+			assertEquals(legacySchedule(principal, interest, (double) years, additional), schedule.asRecords());
+		}
+	}
 }
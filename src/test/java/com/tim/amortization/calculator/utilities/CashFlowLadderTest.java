@@ -0,0 +1,58 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+
+public class CashFlowLadderTest {
+
+	private static final YearMonth JANUARY = YearMonth.of(2026, 1);
+
+	@Test
+	public void startLoanTest() {
+		CashFlowLadder ladder = new CashFlowLadder(JANUARY);
+		assertThrows(IllegalStateException.class, () -> ladder.accept(1, 100, 50, 900, 0));
+
+		ladder.startLoan(JANUARY);
+		ladder.accept(1, 100, 50, 900, 10);
+		ladder.accept(2, 110, 40, 780, 10);
+		ladder.startLoan(YearMonth.of(2026, 2));
+		ladder.accept(1, 200, 20, -5, 0);
+
+		assertEquals(2, ladder.size());
+		assertEquals(2, ladder.getLoanCount());
+		assertEquals(YearMonth.of(2026, 2), ladder.getMonth(1));
+		assertEquals(310, ladder.getPrincipalPaidCents(1));
+		assertEquals(60, ladder.getInterestPaidCents(1));
+		assertEquals(10, ladder.getAdditionalPrincipalPaymentCents(1));
+		// the overpaid last month does not reduce the outstanding principal
+		assertEquals(780, ladder.getOutstandingPrincipalCents(1));
+		assertEquals(2, ladder.getPaymentCount(1));
+
+		assertThrows(IllegalArgumentException.class, () -> ladder.startLoan(YearMonth.of(2025, 12)));
+		assertThrows(IndexOutOfBoundsException.class, () -> ladder.getPrincipalPaidCents(2));
+	}
+
+	@Test
+	public void mergeTest() {
+		CashFlowLadder a = new CashFlowLadder(JANUARY);
+		a.startLoan(JANUARY);
+		a.accept(1, 100, 50, 900, 0);
+
+		CashFlowLadder b = new CashFlowLadder(JANUARY);
+		b.startLoan(JANUARY.plusYears(50));
+		b.accept(1, 7, 3, 90, 0);
+
+		CashFlowLadder merged = new CashFlowLadder(JANUARY).merge(a).merge(b);
+		assertEquals(601, merged.size());
+		assertEquals(2, merged.getLoanCount());
+		assertEquals(100, merged.getPrincipalPaidCents(0));
+		assertEquals(7, merged.getPrincipalPaidCents(600));
+		assertEquals(0, merged.getPaymentCount(300));
+
+		assertThrows(IllegalArgumentException.class, () -> a.merge(new CashFlowLadder(JANUARY.plusMonths(1))));
+	}
+}
@@ -0,0 +1,82 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class CashFlowUtilityTest {
+
+	private static final YearMonth FIRST_PAYMENT = YearMonth.of(2026, 11);
+
+	@Test
+	public void aggregateTest() {
+		List<LoanTerms> loans = portfolio(500);
+
+		CashFlowLadder ladder = CashFlowUtility.aggregate(loans, FIRST_PAYMENT);
+
+		assertEquals(FIRST_PAYMENT, ladder.getFirstMonth());
+		assertEquals(500, ladder.getLoanCount());
+		long[] interest = new long[ladder.size()];
+		long[] outstanding = new long[ladder.size()];
+		for (LoanTerms terms : loans) {
+			AmortizationSchedule schedule = CalculationUtility.calculateSchedule(terms);
+			for (int i = 0; i < schedule.size(); i++) {
+				interest[i] += schedule.getInterestPaidCents(i);
+				outstanding[i] += Math.max(schedule.getRemainingPrincipalCents(i), 0);
+			}
+		}
+		for (int i = 0; i < ladder.size(); i++) {
+			assertEquals(interest[i], ladder.getInterestPaidCents(i));
+			assertEquals(outstanding[i], ladder.getOutstandingPrincipalCents(i));
+		}
+		assertEquals(500, ladder.getPaymentCount(0));
+	}
+
+	@Test
+	public void firstPaymentMonthsTest() {
+		List<LoanTerms> loans = portfolio(300);
+		List<YearMonth> firstPayments = new ArrayList<>();
+		for (int i = 0; i < loans.size(); i++) {
+			firstPayments.add(FIRST_PAYMENT.plusMonths(i % 24));
+		}
+
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool four = new ForkJoinPool(4);
+		try {
+			CashFlowLadder sequential = CashFlowUtility.aggregate(loans, firstPayments, single);
+			CashFlowLadder parallel = CashFlowUtility.aggregate(loans, firstPayments, four);
+
+			assertEquals(sequential.size(), parallel.size());
+			for (int i = 0; i < sequential.size(); i++) {
+				assertEquals(sequential.getPrincipalPaidCents(i), parallel.getPrincipalPaidCents(i));
+				assertEquals(sequential.getOutstandingPrincipalCents(i), parallel.getOutstandingPrincipalCents(i));
+				assertEquals(sequential.getPaymentCount(i), parallel.getPaymentCount(i));
+			}
+			// only the loans starting in the first month pay in it
+			assertEquals(13, parallel.getPaymentCount(0));
+		} finally {
+			single.shutdown();
+			four.shutdown();
+		}
+
+		assertThrows(IllegalArgumentException.class,
+				() -> CashFlowUtility.aggregate(loans, firstPayments.subList(1, 300), ForkJoinPool.commonPool()));
+	}
+
+	private static List<LoanTerms> portfolio(int size) {
+		List<LoanTerms> loans = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			loans.add(new LoanTerms(100_000 + i * 1000, 4 + (i % 8) * 0.5, i % 3 == 0 ? 15 : 30, i % 5 * 100));
+		}
+		return loans;
+	}
+}
@@ -0,0 +1,53 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class CentsUtilityTest {
+
+	private static long expectedCeilingCents(double value) {
+		return new BigDecimal(value).setScale(2, RoundingMode.CEILING).unscaledValue().longValueExact();
+	}
+
+	@Test
+	public void ceilingCentsTest() {
+		assertEquals(54558, CentsUtility.ceilingCents(3814.54 - 3268.96));
+		assertEquals(60295443, CentsUtility.ceilingCents(603500 - (3814.54 - 3268.96)));
+		assertEquals(100, CentsUtility.ceilingCents(1.0));
+		assertEquals(0, CentsUtility.ceilingCents(0.0));
+		assertEquals(-1, CentsUtility.ceilingCents(-0.019));
+	}
+
+	@Test
+	public void ceilingCentsMatchesBigDecimal() {
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			double value = (random.nextDouble() - 0.1) * Math.pow(10, random.nextInt(8));
+			assertEquals(expectedCeilingCents(value), CentsUtility.ceilingCents(value), "value " + value);
+
+			// values close to a cent boundary
+			double boundary = random.nextInt(100_000_000) / 100.0;
+			assertEquals(expectedCeilingCents(boundary), CentsUtility.ceilingCents(boundary), "value " + boundary);
+			double sum = boundary + 0.1 + 0.2;
+			assertEquals(expectedCeilingCents(sum), CentsUtility.ceilingCents(sum), "value " + sum);
+		}
+	}
+
+	@Test
+	public void ceilingCentsInvalid() {
+		assertThrows(NumberFormatException.class, () -> CentsUtility.ceilingCents(Double.NaN));
+		assertThrows(NumberFormatException.class, () -> CentsUtility.ceilingCents(Double.POSITIVE_INFINITY));
+	}
+
+	@Test
+	public void toDollarsTest() {
+		assertEquals(545.58, CentsUtility.toDollars(54558));
+		assertEquals(new BigDecimal("602954.43").doubleValue(), CentsUtility.toDollars(60295443));
+	}
+}
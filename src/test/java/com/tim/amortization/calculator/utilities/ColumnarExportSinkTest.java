@@ -0,0 +1,48 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class ColumnarExportSinkTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void roundTripTest() throws IOException {
+		Path file = tempDir.resolve("portfolio.amrt");
+		List<LoanTerms> loans = List.of(new LoanTerms(603500, 6.5, 30, 1000), new LoanTerms(250000, 5.25, 15, 0),
+				new LoanTerms(1_500_000, 7.125, 40, 250));
+
+		try (ColumnarExportSink sink = new ColumnarExportSink(file)) {
+			assertEquals(3, ExportUtility.exportPortfolio(loans, sink));
+		}
+
+		Map<String, AmortizationSchedule> schedules = ColumnarExportSink.read(file);
+		assertEquals(List.of("Loan 1", "Loan 2", "Loan 3"), List.copyOf(schedules.keySet()));
+		for (int i = 0; i < loans.size(); i++) {
+			assertEquals(CalculationUtility.calculateAmortizationSchedule(loans.get(i)),
+					schedules.get("Loan " + (i + 1)).asRecords());
+		}
+	}
+
+	@Test
+	public void invalidFileTest() throws IOException {
+		Path file = tempDir.resolve("invalid.amrt");
+		Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+
+		assertThrows(IOException.class, () -> ColumnarExportSink.read(file));
+	}
+}
@@ -0,0 +1,61 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class CsvExportSinkTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void writeTest() throws IOException {
+		Path file = tempDir.resolve("schedule.csv");
+		try (CsvExportSink sink = new CsvExportSink(file)) {
+			sink.startLoan("Loan 1");
+			sink.accept(1, 54558, 326896, 60195442, 100000);
+			sink.startLoan("Smith, J \"Jr\"");
+			sink.accept(12, 5, 0, -7, 0);
+		}
+
+		List<String> lines = Files.readAllLines(file);
+		assertEquals("loan,month,principalPaid,interestPaid,additionalPrincipalPayment,remainingPrincipal",
+				lines.get(0));
+		assertEquals("Loan 1,1,545.58,3268.96,1000.00,601954.42", lines.get(1));
+		assertEquals("\"Smith, J \"\"Jr\"\"\",12,0.05,0.00,0.00,-0.07", lines.get(2));
+	}
+
+	@Test
+	public void largeScheduleTest() throws IOException {
+		Path file = tempDir.resolve("schedule.csv");
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 0);
+
+		try (CsvExportSink sink = new CsvExportSink(file)) {
+			for (int i = 0; i < 200; i++) {
+				sink.startLoan("Loan " + i);
+				CalculationUtility.calculateSchedule(terms, sink);
+			}
+		}
+
+		List<String> lines = Files.readAllLines(file);
+		assertEquals(1 + 200 * 360, lines.size());
+		assertEquals("Loan 199,360", lines.get(lines.size() - 1).substring(0, 12));
+	}
+
+	@Test
+	public void rowsBeforeStartLoanTest() throws IOException {
+		try (CsvExportSink sink = new CsvExportSink(tempDir.resolve("empty.csv"))) {
+			assertThrows(IllegalStateException.class, () -> sink.accept(1, 0, 0, 0, 0));
+		}
+	}
+}
@@ -1,19 +1,39 @@
 package com.tim.amortization.calculator.utilities;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.DayCount;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PaymentFrequency;
+import com.tim.amortization.calculator.model.PaymentPlan;
 
 public class ExcelUtilityTest {
+
+	@TempDir
+	Path tempDir;
 	
 	@Test
 	public void createExcelTest() throws IOException {
@@ -34,4 +54,60 @@ public class ExcelUtilityTest {
 		assertTrue(f.isFile());
 	}
 
+	@Test
+	public void createExcelFromScheduleTest() throws IOException {
+		AmortizationSchedule schedule = new AmortizationSchedule();
+		schedule.add(1, 2533, 2533, 2533, 2533);
+
+		ExcelUtility.createExcelDoc(schedule);
+
+		File currDir = new File(".");
+		String path = currDir.getAbsolutePath();
+		String fileLocation = path.substring(0, path.length() - 1) + "temp.xlsx";
+
+		try (Workbook workbook = new XSSFWorkbook(new File(fileLocation))) {
+			Row row = workbook.getSheet("AmortizationSchedule").getRow(1);
+			assertEquals(1, row.getCell(0).getNumericCellValue());
+			assertEquals(25.33, row.getCell(4).getNumericCellValue());
+		} catch (InvalidFormatException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	@Test
+	public void createExcelFromLadderTest() throws IOException {
+		CashFlowLadder ladder = new CashFlowLadder(YearMonth.of(2026, 11));
+		ladder.startLoan(YearMonth.of(2026, 12));
+		ladder.accept(1, 2533, 1000, 97467, 0);
+		Path file = tempDir.resolve("ladder.xlsx");
+
+		ExcelUtility.createExcelDoc(ladder, file);
+
+		try (InputStream in = Files.newInputStream(file); Workbook workbook = new XSSFWorkbook(in)) {
+			Row row = workbook.getSheet("CashFlowLadder").getRow(2);
+			assertEquals(LocalDate.of(2026, 12, 1), row.getCell(0).getLocalDateTimeCellValue().toLocalDate());
+			assertEquals("yyyy-mm", row.getCell(0).getCellStyle().getDataFormatString());
+			assertEquals(25.33, row.getCell(1).getNumericCellValue());
+			assertEquals(974.67, row.getCell(4).getNumericCellValue());
+			assertEquals(1, row.getCell(5).getNumericCellValue());
+		}
+	}
+
+	@Test
+	public void createExcelFromPaymentPlanTest() throws IOException {
+		LocalDate firstPayment = LocalDate.of(2026, 11, 6);
+		PaymentPlan plan = new PaymentPlan(PaymentFrequency.BIWEEKLY, DayCount.ACTUAL_365, firstPayment);
+		Path file = tempDir.resolve("biweekly.xlsx");
+
+		int payments = ExcelUtility.createExcelDoc(new LoanTerms(300000, 6.0, 30, 0), plan, file);
+
+		try (InputStream in = Files.newInputStream(file); Workbook workbook = new XSSFWorkbook(in)) {
+			Sheet sheet = workbook.getSheet("AmortizationSchedule");
+			assertEquals(payments, sheet.getLastRowNum());
+			Row row = sheet.getRow(2);
+			assertEquals(firstPayment.plusWeeks(2), row.getCell(0).getLocalDateTimeCellValue().toLocalDate());
+			assertEquals(2, row.getCell(1).getNumericCellValue());
+		}
+	}
+
 }
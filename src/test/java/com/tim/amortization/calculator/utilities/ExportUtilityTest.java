@@ -0,0 +1,78 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class ExportUtilityTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void defaultOutputFileTest() {
+		assertEquals(Paths.get("").toAbsolutePath().resolve("temp.xlsx"),
+				ExportUtility.defaultOutputFile(ExportFormat.XLSX));
+		assertEquals("temp.csv", ExportUtility.defaultOutputFile(ExportFormat.CSV).getFileName().toString());
+	}
+
+	@Test
+	public void exportScheduleTest() throws IOException {
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 1000);
+
+		for (ExportFormat format : ExportFormat.values()) {
+			Path file = tempDir.resolve("schedule." + format.getExtension());
+			assertEquals(211, ExportUtility.exportSchedule(terms, format, file));
+			assertTrue(Files.size(file) > 0, format.toString());
+		}
+
+		List<String> lines = Files.readAllLines(tempDir.resolve("schedule.csv"));
+		assertEquals(212, lines.size());
+		assertEquals("AmortizationSchedule,1,545.58,3268.96,1000.00,601954.43", lines.get(1));
+	}
+
+	@Test
+	public void exportPortfolioFileTest() throws IOException {
+		Path portfolio = tempDir.resolve("portfolio.csv");
+		Files.write(portfolio, List.of("principal,interest,mortgageLength,additionalPrincipal",
+				"\"603,500\",6.5,30,1000.00", "250000,5.25,15,0"));
+		Path output = tempDir.resolve("portfolio.ndjson");
+
+		assertEquals(2, PortfolioUtility.exportPortfolio(portfolio, ExportFormat.NDJSON, output));
+		assertEquals(211 + CalculationUtility.calculateSchedule(new LoanTerms(250000, 5.25, 15, 0)).size(),
+				Files.readAllLines(output).size());
+	}
+
+	@Test
+	public void exportPortfolioExcelTest() throws IOException, InvalidFormatException {
+		Path portfolio = tempDir.resolve("portfolio.csv");
+		Files.write(portfolio, List.of("principal,interest,mortgageLength,additionalPrincipal",
+				"\"603,500\",6.5,30,1000.00", "250000,5.25,15,0", "100000,4,10,0"));
+		Path output = tempDir.resolve("portfolio.xlsx");
+
+		assertEquals(3, PortfolioUtility.exportPortfolio(portfolio, ExportFormat.XLSX, output));
+
+		// one sheet with a Loan column, not a sheet per loan
+		try (XSSFWorkbook workbook = new XSSFWorkbook(output.toFile())) {
+			assertEquals(1, workbook.getNumberOfSheets());
+			Sheet sheet = workbook.getSheet("AmortizationSchedule");
+			assertEquals("Loan", sheet.getRow(0).getCell(0).getStringCellValue());
+			assertEquals("Loan 1", sheet.getRow(1).getCell(0).getStringCellValue());
+			assertEquals("Loan 2", sheet.getRow(212).getCell(0).getStringCellValue());
+			assertEquals("Loan 3", sheet.getRow(sheet.getLastRowNum()).getCell(0).getStringCellValue());
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.ExtraPaymentEvent;
+import com.tim.amortization.calculator.model.ExtraPaymentSavings;
+import com.tim.amortization.calculator.model.ExtraPaymentSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class ExtraPaymentUtilityTest {
+
+	private static long totalInterest(AmortizationSchedule schedule) {
+		long total = 0;
+		for (int row = 0; row < schedule.size(); row++) {
+			total += schedule.getInterestPaidCents(row);
+		}
+		return total;
+	}
+
+	@Test
+	public void recurringMatchesAdditionalPrincipalTest() {
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 0);
+		ExtraPaymentSchedule extras = ExtraPaymentUtility.compile(terms,
+				List.of(ExtraPaymentEvent.recurring(1, ExtraPaymentEvent.NO_END, 1, 1000)));
+
+		assertEquals(
+				FixedPointCalculationUtility.calculateSchedule(new LoanTerms(603500, 6.5, 30, 1000),
+						RoundingMode.CEILING).asRecords(),
+				ExtraPaymentUtility.calculateSchedule(terms, extras, RoundingMode.CEILING).asRecords());
+	}
+
+	@Test
+	public void lumpSumTest() {
+		LoanTerms terms = new LoanTerms(300000, 6, 30, 0);
+		AmortizationSchedule schedule = ExtraPaymentUtility.calculateSchedule(terms,
+				ExtraPaymentUtility.compile(terms, List.of(ExtraPaymentEvent.lumpSum(12, 50000))),
+				RoundingMode.HALF_EVEN);
+
+		assertEquals(0, schedule.getAdditionalPrincipalPaymentCents(10));
+		assertEquals(5_000_000, schedule.getAdditionalPrincipalPaymentCents(11));
+		assertEquals(schedule.getRemainingPrincipalCents(10) - schedule.getPrincipalPaidCents(11) - 5_000_000,
+				schedule.getRemainingPrincipalCents(11));
+		assertTrue(schedule.size() < 360);
+	}
+
+	@Test
+	public void compareMatchesFullSchedulesTest() {
+		Random random = new Random(29);
+		for (int i = 0; i < 300; i++) {
+			LoanTerms terms = new LoanTerms(20_000 + random.nextInt(1_000_000), (1 + random.nextInt(1200)) / 100.0,
+					1 + random.nextInt(40), random.nextBoolean() ? 0 : random.nextInt(500));
+			int months = terms.getMortgageLength() * 12;
+
+			List<ExtraPaymentEvent> events = new ArrayList<>();
+			for (int e = random.nextInt(4); e > 0; e--) {
+				int month = 1 + random.nextInt(months);
+				switch (random.nextInt(3)) {
+				case 0:
+					events.add(ExtraPaymentEvent.lumpSum(month, random.nextInt(20_000)));
+					break;
+				case 1:
+					events.add(ExtraPaymentEvent.recurring(month, month + random.nextInt(120), 1 + random.nextInt(12),
+							random.nextInt(1000)));
+					break;
+				default:
+					events.add(ExtraPaymentEvent.override(month, random.nextInt(100)));
+					break;
+				}
+			}
+			ExtraPaymentSchedule extras = ExtraPaymentUtility.compile(terms, events);
+
+			AmortizationSchedule baseline = ExtraPaymentUtility.calculateSchedule(terms, ExtraPaymentSchedule.none(),
+					RoundingMode.HALF_EVEN);
+			AmortizationSchedule withExtras = ExtraPaymentUtility.calculateSchedule(terms, extras,
+					RoundingMode.HALF_EVEN);
+
+			assertEquals(new ExtraPaymentSavings(baseline.size(), withExtras.size(), totalInterest(baseline),
+					totalInterest(withExtras)), ExtraPaymentUtility.compare(terms, extras, RoundingMode.HALF_EVEN),
+					terms + " " + events);
+		}
+	}
+
+	@Test
+	public void biweeklyTest() {
+		LoanTerms terms = new LoanTerms(300000, 6, 30, 0);
+		ExtraPaymentEvent biweekly = ExtraPaymentUtility.biweeklyEquivalent(terms, RoundingMode.CEILING);
+
+		// 1,798.66 / 12
+		assertEquals(149.88, biweekly.getAmount());
+
+		ExtraPaymentSavings savings = ExtraPaymentUtility.compare(terms,
+				ExtraPaymentUtility.compile(terms, List.of(biweekly)), RoundingMode.CEILING);
+		assertEquals(360, savings.getBaselinePayoffMonth());
+		assertTrue(savings.getMonthsSaved() > 12 * 5, savings.toString());
+		assertTrue(savings.getInterestSaved() > 0);
+	}
+}
@@ -0,0 +1,173 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+/**
+ * Differential tests of the fixed-point kernel against a BigDecimal
+ * implementation of the same schedule and against CalculationUtility.
+ */
+public class FixedPointCalculationUtilityTest {
+
+	private static final RoundingMode[] MODES = { RoundingMode.CEILING, RoundingMode.HALF_EVEN, RoundingMode.HALF_UP,
+			RoundingMode.FLOOR };
+
+	private static LoanTerms randomTerms(Random random) {
+		double principal = (1_000_000 + random.nextInt(200_000_000)) / 100.0;
+		double interest = (1 + random.nextInt(1500)) / 100.0;
+		int years = 1 + random.nextInt(40);
+		double additional = random.nextBoolean() ? 0 : random.nextInt(300_000) / 100.0;
+		return new LoanTerms(principal, interest, years, additional);
+	}
+
+	/**
+	 * Reference schedule using BigDecimal for every month.
+	 */
+	private static AmortizationSchedule bigDecimalSchedule(LoanTerms terms, RoundingMode mode) {
+		double rate = (terms.getInterestRate() / 100) / 12;
+		int numberOfPayments = terms.getMortgageLength() * 12;
+		double pmt = terms.getPrincipal() * (rate * Math.pow(1 + rate, numberOfPayments))
+				/ (Math.pow(1 + rate, numberOfPayments) - 1);
+
+		BigDecimal monthlyPayment = new BigDecimal(String.valueOf(pmt)).setScale(2, mode);
+		BigDecimal annualRate = BigDecimal.valueOf(terms.getInterestRate());
+		BigDecimal additional = BigDecimal.valueOf(terms.getAdditionalPrincipalPayment()).setScale(2);
+		BigDecimal balance = BigDecimal.valueOf(terms.getPrincipal()).setScale(2);
+		BigDecimal divisor = BigDecimal.valueOf(1200);
+
+		AmortizationSchedule schedule = new AmortizationSchedule();
+		int month = 1;
+		while (balance.signum() > 0) {
+			BigDecimal interest = balance.multiply(annualRate).divide(divisor, 2, mode);
+			BigDecimal principalOnly = monthlyPayment.subtract(interest);
+			balance = balance.subtract(principalOnly).subtract(additional);
+			schedule.add(month++, principalOnly.unscaledValue().longValueExact(),
+					interest.unscaledValue().longValueExact(), balance.unscaledValue().longValueExact(),
+					additional.unscaledValue().longValueExact());
+		}
+		return schedule;
+	}
+
+	@Test
+	public void matchesBigDecimalSchedule() {
+		Random random = new Random(11);
+		for (int i = 0; i < 500; i++) {
+			LoanTerms terms = randomTerms(random);
+			for (RoundingMode mode : MODES) {
+				AmortizationSchedule expected = bigDecimalSchedule(terms, mode);
+				AmortizationSchedule actual = FixedPointCalculationUtility.calculateSchedule(terms, mode);
+
+				assertEquals(expected.asRecords(), actual.asRecords(), terms + " " + mode);
+			}
+		}
+	}
+
+	@Test
+	public void matchesCalculationUtility() {
+		Random random = new Random(13);
+		for (int i = 0; i < 500; i++) {
+			LoanTerms terms = randomTerms(random);
+			AmortizationSchedule expected = CalculationUtility.calculateSchedule(terms);
+			AmortizationSchedule actual = FixedPointCalculationUtility.calculateSchedule(terms, RoundingMode.CEILING);
+
+			assertEquals(CalculationUtility.calculateMonthlyPayment(terms.getPrincipal(), terms.getInterestRate(),
+					(double) terms.getMortgageLength()).movePointRight(2).longValueExact(),
+					FixedPointCalculationUtility.calculateMonthlyPaymentCents(
+							CentsUtility.toCents(terms.getPrincipal()),
+							FixedPointCalculationUtility.toRatePpm(terms.getInterestRate()),
+							terms.getMortgageLength() * 12, RoundingMode.CEILING));
+
+			// CalculationUtility carries the balance in a double, so a month can round to
+			// a different cent and the difference carries forward. Check that it stays
+			// within a few cents and never changes the payoff by more than a month.
+			assertTrue(Math.abs(expected.size() - actual.size()) <= 1, terms.toString());
+			for (int row = 0; row < Math.min(expected.size(), actual.size()) - 1; row++) {
+				assertTrue(Math.abs(expected.getInterestPaidCents(row) - actual.getInterestPaidCents(row)) <= 1,
+						terms + " month " + (row + 1));
+				assertTrue(Math.abs(expected.getRemainingPrincipalCents(row) - actual.getRemainingPrincipalCents(row)) <= 5,
+						terms + " month " + (row + 1));
+			}
+		}
+	}
+
+	@Test
+	public void sampleLoanTest() {
+		AmortizationSchedule schedule = FixedPointCalculationUtility
+				.calculateSchedule(new LoanTerms(603500, 6.5, 30, 1000), RoundingMode.CEILING);
+
+		assertEquals(211, schedule.size());
+		assertEquals(54558, schedule.getPrincipalPaidCents(0));
+		assertEquals(326896, schedule.getInterestPaidCents(0));
+		assertEquals(60195442, schedule.getRemainingPrincipalCents(0));
+		assertEquals(100000, schedule.getAdditionalPrincipalPaymentCents(0));
+	}
+
+	@Test
+	public void zeroInterestTest() {
+		AmortizationSchedule schedule = FixedPointCalculationUtility.calculateSchedule(new LoanTerms(1000, 0, 1, 0),
+				RoundingMode.CEILING);
+
+		assertEquals(12, schedule.size());
+		assertEquals(0, schedule.getInterestPaidCents(0));
+		assertEquals(8334, schedule.getPrincipalPaidCents(0));
+	}
+
+	@Test
+	public void negativeAmortizationTest() {
+		assertThrows(InputValidationException.class, () -> FixedPointCalculationUtility.calculateSchedule(100_000_00,
+				65_000, 100, 0, RoundingMode.CEILING, (month, principal, interest, remaining, additional) -> {
+				}));
+	}
+
+	@Test
+	public void divideTest() {
+		Random random = new Random(17);
+		for (int i = 0; i < 10_000; i++) {
+			long dividend = random.nextInt() * (long) random.nextInt(1000);
+			long divisor = 1 + random.nextInt(i % 2 == 0 ? 20 : 12_000_000);
+			for (RoundingMode mode : RoundingMode.values()) {
+				if (mode == RoundingMode.UNNECESSARY) {
+					continue;
+				}
+				assertEquals(BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, mode).longValueExact(),
+						CentsUtility.divide(dividend, divisor, mode), dividend + " / " + divisor + " " + mode);
+			}
+		}
+		assertThrows(ArithmeticException.class, () -> CentsUtility.divide(5, 2, RoundingMode.UNNECESSARY));
+	}
+
+	@Test
+	public void monthLoopDoesNotAllocate() {
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long[] totalInterest = new long[1];
+
+		// warm up, then measure the allocations of 1,000 schedules
+		for (int i = 0; i < 1_000; i++) {
+			FixedPointCalculationUtility.calculateSchedule(60_350_000, 65_000, 381_454, 100_000, RoundingMode.HALF_EVEN,
+					(month, principal, interest, remaining, additional) -> totalInterest[0] += interest);
+		}
+		long before = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		for (int i = 0; i < 1_000; i++) {
+			FixedPointCalculationUtility.calculateSchedule(60_350_000, 65_000, 381_454, 100_000, RoundingMode.HALF_EVEN,
+					(month, principal, interest, remaining, additional) -> totalInterest[0] += interest);
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+		// 211 months * 1,000 schedules, anything close to a byte per month is an
+		// allocation in the loop
+		assertTrue(allocated < 64 * 1024, "allocated " + allocated + " bytes");
+	}
+}
@@ -0,0 +1,41 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class HistogramTest {
+
+	@Test
+	public void recordTest() {
+		Histogram histogram = new Histogram("test_months", "Test months.", 12, 60, 360);
+		for (double value : new double[] { 1, 12, 13, 360, 361, 480 }) {
+			histogram.record(value);
+		}
+
+		assertEquals(6, histogram.getCount());
+		assertEquals(1227, histogram.getSum());
+		assertEquals(2, histogram.getCumulativeCount(0));
+		assertEquals(3, histogram.getCumulativeCount(1));
+		assertEquals(4, histogram.getCumulativeCount(2));
+		assertEquals(6, histogram.getCumulativeCount(3));
+
+		StringBuilder out = new StringBuilder();
+		histogram.write(out);
+		assertEquals("# HELP test_months Test months.\n# TYPE test_months histogram\n"
+				+ "test_months_bucket{le=\"12\"} 2\ntest_months_bucket{le=\"60\"} 3\n"
+				+ "test_months_bucket{le=\"360\"} 4\ntest_months_bucket{le=\"+Inf\"} 6\n" + "test_months_sum 1227\n"
+				+ "test_months_count 6\n", out.toString());
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getSum());
+	}
+
+	@Test
+	public void invalidBoundsTest() {
+		assertThrows(IllegalArgumentException.class, () -> new Histogram("test", "Test.", 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new Histogram("test", "Test.", 2, 1));
+	}
+}
@@ -0,0 +1,158 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanInput;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class InputParsingUtilityTest {
+
+	/**
+	 * Original validation patterns of CalculationUtility.validateInput.
+	 */
+	private static final Pattern LEGACY_PRINCIPAL = Pattern.compile("(([0-9]){1,3}(,){1})+([0-9]){1,3}");
+
+	private static final Pattern LEGACY_INTEREST = Pattern.compile("([0-9]){1,2}(.){1}([0-9]){1,2}");
+
+	private static final Pattern LEGACY_ADDITIONAL = Pattern.compile("([0-9]){1,8}(.){1}([0-9]){1,2}");
+
+	/**
+	 * Same patterns with the documented fixes: a literal '.', optional decimals
+	 * and a principal without separators.
+	 */
+	private static final Pattern FIXED_INTEREST = Pattern.compile("[0-9]{1,2}(\\.[0-9]{1,2})?");
+
+	private static final Pattern FIXED_ADDITIONAL = Pattern.compile("[0-9]{1,8}(\\.[0-9]{1,2})?");
+
+	private static final Pattern DIGITS = Pattern.compile("[0-9]+");
+
+	private static final String ALPHABET = "0123456789012345678901234567890123456789,,,,....x -٣";
+
+	private static String randomInput(Random random) {
+		StringBuilder text = new StringBuilder();
+		for (int length = random.nextInt(13); length > 0; length--) {
+			text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		}
+		return text.toString();
+	}
+
+	@Test
+	public void principalFuzzTest() {
+		Random random = new Random(18);
+		for (int i = 0; i < 200_000; i++) {
+			String text = randomInput(random);
+			double value = InputParsingUtility.parsePrincipal(text);
+
+			boolean expected = LEGACY_PRINCIPAL.matcher(text).matches() || DIGITS.matcher(text).matches();
+			assertEquals(expected, !Double.isNaN(value), text);
+			if (expected) {
+				assertEquals(Double.valueOf(StringUtils.replace(text, ",", "")), value, text);
+			}
+		}
+	}
+
+	@Test
+	public void decimalFuzzTest() {
+		Random random = new Random(18);
+		for (int i = 0; i < 200_000; i++) {
+			String text = randomInput(random);
+			double interest = InputParsingUtility.parseDecimal(text, 2);
+			double additional = InputParsingUtility.parseDecimal(text, 8);
+
+			assertEquals(FIXED_INTEREST.matcher(text).matches(), !Double.isNaN(interest), text);
+			assertEquals(FIXED_ADDITIONAL.matcher(text).matches(), !Double.isNaN(additional), text);
+
+			// the only differences with the original patterns are the documented fixes
+			assertOnlyDocumentedFixes(LEGACY_INTEREST, FIXED_INTEREST, text);
+			assertOnlyDocumentedFixes(LEGACY_ADDITIONAL, FIXED_ADDITIONAL, text);
+			if (!Double.isNaN(additional)) {
+				assertEquals(Double.valueOf(text), additional, text);
+			}
+		}
+	}
+
+	/**
+	 * The original pattern only accepts what the fixed one rejects when its '.'
+	 * matched another character, the fixed one only accepts what the original
+	 * rejects for whole numbers.
+	 */
+	private static void assertOnlyDocumentedFixes(Pattern legacy, Pattern fixed, String text) {
+		boolean legacyMatches = legacy.matcher(text).matches();
+		boolean fixedMatches = fixed.matcher(text).matches();
+		if (legacyMatches && !fixedMatches) {
+			assertFalse(Pattern.matches("[0-9]+\\.[0-9]+", text), text);
+		}
+		if (fixedMatches && !legacyMatches) {
+			assertTrue(DIGITS.matcher(text).matches(), text);
+		}
+	}
+
+	@Test
+	public void mortgageLengthFuzzTest() {
+		Random random = new Random(18);
+		for (int i = 0; i < 200_000; i++) {
+			String text = randomInput(random);
+			int value = InputParsingUtility.parseMortgageLength(text);
+
+			boolean legacy = !StringUtils.isEmpty(text) && StringUtils.isNumeric(text);
+			boolean ascii = text.indexOf('٣') < 0;
+			assertEquals(legacy && ascii, value >= 0, text);
+			if (value >= 0) {
+				assertEquals(Double.valueOf(text).intValue(), value, text);
+			}
+		}
+	}
+
+	@Test
+	public void documentedFixesTest() {
+		// '.' matched any character
+		assertTrue(LEGACY_INTEREST.matcher("6x5").matches());
+		assertTrue(Double.isNaN(InputParsingUtility.parseDecimal("6x5", 2)));
+		assertTrue(LEGACY_INTEREST.matcher("655").matches());
+		assertTrue(Double.isNaN(InputParsingUtility.parseDecimal("655", 2)));
+
+		// whole numbers
+		assertFalse(LEGACY_INTEREST.matcher("6").matches());
+		assertEquals(6, InputParsingUtility.parseDecimal("6", 2));
+		assertFalse(LEGACY_ADDITIONAL.matcher("0").matches());
+		assertEquals(0, InputParsingUtility.parseDecimal("0", 8));
+
+		// principal without separators
+		assertFalse(LEGACY_PRINCIPAL.matcher("603500").matches());
+		assertEquals(603500, InputParsingUtility.parsePrincipal("603500"));
+
+		// other Unicode digits
+		assertTrue(StringUtils.isNumeric("٣٠"));
+		assertEquals(-1, InputParsingUtility.parseMortgageLength("٣٠"));
+	}
+
+	@Test
+	public void parseTest() {
+		LoanInput input = InputParsingUtility.parse("603,500", "6.5", "30", "1000.00");
+
+		assertTrue(input.isValid());
+		assertEquals(new LoanTerms(603500, 6.5, 30, 1000), InputParsingUtility.toLoanTerms(input));
+
+		input = InputParsingUtility.parse("abc", "6.5", "", null);
+		assertEquals(EnumSet.of(LoanInput.Field.PRINCIPAL, LoanInput.Field.MORTGAGE_LENGTH,
+				LoanInput.Field.ADDITIONAL_PRINCIPAL), input.getInvalidFields());
+		assertEquals(6.5, input.getInterestRate());
+
+		LoanInput invalid = input;
+		InputValidationException ex = assertThrows(InputValidationException.class,
+				() -> InputParsingUtility.toLoanTerms(invalid));
+		assertEquals(CalculationUtility.PRINCIPAL_ERROR + "\n" + CalculationUtility.MORTGAGE_LENGTH_ERROR + "\n"
+				+ CalculationUtility.ADDITIONAL_PRINCIPAL_ERROR, ex.getMessage());
+	}
+}
@@ -0,0 +1,157 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanFailure;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PortfolioReadResult;
+
+public class MappedPortfolioReaderTest {
+
+	@TempDir
+	Path tempDir;
+
+	private Path writePortfolio(String... lines) throws IOException {
+		Path file = tempDir.resolve("portfolio.csv");
+		Files.write(file, List.of(lines));
+		return file;
+	}
+
+	@Test
+	public void readAllMatchesPortfolioUtilityTest() throws IOException {
+		Path file = writePortfolio("principal,interest,mortgageLength,additionalPrincipal",
+				"\"603,500\",6.5,30,1000.00", "", "# comment", " 250000 , 5.25 ,15,0\r",
+				"\"1,000,000.50\",3.125,40,\"1,250\"");
+
+		List<LoanTerms> loans = MappedPortfolioReader.csv().readAll(file);
+
+		assertEquals(PortfolioUtility.readPortfolio(file), loans);
+		assertEquals(new LoanTerms(1000000.5, 3.125, 40, 1250), loans.get(2));
+	}
+
+	@Test
+	public void chunksMatchWholeFileTest() throws IOException {
+		Random random = new Random(17);
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			lines.add("\"" + String.format("%,d", 10_000 + random.nextInt(2_000_000)) + "\","
+					+ (1 + random.nextInt(1500)) / 100.0 + "," + (1 + random.nextInt(40)) + ","
+					+ random.nextInt(100_000) / 100.0);
+			if (i % 500 == 0) {
+				lines.add("abc,6.5,30,0.00");
+			}
+		}
+		Path file = tempDir.resolve("large.csv");
+		Files.write(file, lines);
+
+		List<LoanTerms> expected = PortfolioUtility.readPortfolio(writePortfolio(
+				lines.stream().filter(line -> !line.startsWith("abc")).toArray(String[]::new)));
+
+		for (long chunkSize : new long[] { 1, 7, 100, 4096, MappedPortfolioReader.DEFAULT_CHUNK_SIZE }) {
+			LongAdder count = new LongAdder();
+			PortfolioReadResult result = MappedPortfolioReader.csv().withChunkSize(chunkSize).read(file,
+					terms -> count.increment());
+
+			assertEquals(2000, result.getLoansRead());
+			assertEquals(2000, count.sum());
+			// skipped as header lines, since they start with a letter
+			assertEquals(List.of(), result.getFailures());
+		}
+
+		Files.write(file, lines.stream().map(line -> line.replace("abc", "-1")).toList());
+		for (long chunkSize : new long[] { 1, 100, MappedPortfolioReader.DEFAULT_CHUNK_SIZE }) {
+			PortfolioReadResult result = MappedPortfolioReader.csv().withChunkSize(chunkSize).read(file, terms -> {
+			});
+
+			assertEquals(2000, result.getLoansRead());
+			assertEquals(List.of(2L, 503L, 1004L, 1505L),
+					result.getFailures().stream().map(LoanFailure::getLoanNumber).toList());
+			assertEquals(new LoanFailure(503, "-1,6.5,30,0.00", CalculationUtility.PRINCIPAL_ERROR),
+					result.getFailures().get(1));
+		}
+
+		Files.write(file, lines.stream().filter(line -> !line.startsWith("abc")).toList());
+		assertEquals(expected, MappedPortfolioReader.csv().withChunkSize(100).readAll(file));
+	}
+
+	@Test
+	public void malformedRowsTest() throws IOException {
+		Path file = writePortfolio("603500,6.5,30", "603500,x,3.5,1000", "603500,0,30,0", "603500,6.5,30,0,1",
+				"603500,6.5,30,0");
+
+		PortfolioReadResult result = MappedPortfolioReader.csv().read(file, terms -> {
+		});
+
+		assertEquals(1, result.getLoansRead());
+		assertEquals(List.of(
+				new LoanFailure(1, "603500,6.5,30", PortfolioUtility.FIELD_COUNT_ERROR + "603500,6.5,30"),
+				new LoanFailure(2, "603500,x,3.5,1000",
+						CalculationUtility.INTEREST_ERROR + "\n" + CalculationUtility.MORTGAGE_LENGTH_ERROR),
+				new LoanFailure(3, "603500,0,30,0", CalculationUtility.INTEREST_ERROR),
+				new LoanFailure(4, "603500,6.5,30,0,1", PortfolioUtility.FIELD_COUNT_ERROR + "603500,6.5,30,0,1")),
+				result.getFailures());
+
+		InputValidationException ex = assertThrows(InputValidationException.class,
+				() -> MappedPortfolioReader.csv().readAll(file));
+		assertEquals(PortfolioUtility.FIELD_COUNT_ERROR + "603500,6.5,30", ex.getMessage());
+	}
+
+	@Test
+	public void fixedWidthTest() throws IOException {
+		// widths 12, 6, 4 and 8
+		Path file = writePortfolio("PRINCIPAL   RATE  YRS EXTRA", "  603,500   6.5   30  1,000.00",
+				"250000.00   5.25  15  0", "  100000    4     15  ", "  100000    4     15  0       extra");
+
+		MappedPortfolioReader reader = MappedPortfolioReader.fixedWidth(12, 6, 4, 8);
+		List<LoanTerms> loans = new ArrayList<>();
+		PortfolioReadResult result = reader.read(file, loans::add);
+
+		assertEquals(2, result.getLoansRead());
+		assertEquals(List.of(new LoanTerms(603500, 6.5, 30, 1000), new LoanTerms(250000, 5.25, 15, 0)),
+				loans.stream().sorted((a, b) -> Double.compare(b.getPrincipal(), a.getPrincipal())).toList());
+		assertEquals(List.of(3L, 4L), result.getFailures().stream().map(LoanFailure::getLoanNumber).toList());
+		assertEquals(PortfolioUtility.FIELD_COUNT_ERROR + "  100000    4     15  ",
+				result.getFailures().get(0).getMessage());
+
+		assertThrows(IllegalArgumentException.class, () -> MappedPortfolioReader.fixedWidth(12, 0, 4, 8));
+	}
+
+	@Test
+	public void parseDecimalTest() {
+		Random random = new Random(3);
+		for (int i = 0; i < 10_000; i++) {
+			String number = random.nextInt(100_000_000) + "." + random.nextInt(1000);
+			assertEquals(Double.parseDouble(number), parseDecimal(number), number);
+		}
+		assertEquals(Double.parseDouble("12345678901234567890.123"), parseDecimal("12345678901234567890.123"));
+		assertEquals(603500.0, parseDecimal(" \"603,500\" "));
+		assertEquals(-2.5, parseDecimal("-2.5"));
+		assertEquals(0.5, parseDecimal(".5"));
+
+		assertEquals(Double.NaN, parseDecimal(""));
+		assertEquals(Double.NaN, parseDecimal("."));
+		assertEquals(Double.NaN, parseDecimal("1.2.3"));
+		assertEquals(Double.NaN, parseDecimal("1e5"));
+		assertEquals(Double.NaN, parseDecimal("6 .5"));
+	}
+
+	private static double parseDecimal(String field) {
+		byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+		return MappedPortfolioReader.parseDecimal(ByteBuffer.wrap(bytes), 0, bytes.length);
+	}
+}
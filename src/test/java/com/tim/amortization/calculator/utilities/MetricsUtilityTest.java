@@ -0,0 +1,109 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class MetricsUtilityTest {
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeEach
+	public void enable() {
+		MetricsUtility.reset();
+		MetricsUtility.setEnabled(true);
+	}
+
+	@AfterEach
+	public void disable() {
+		MetricsUtility.setEnabled(false);
+		MetricsUtility.reset();
+	}
+
+	@Test
+	public void calculationMetricsTest() {
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 1000);
+		CalculationUtility.calculateAmortizationSchedule(terms);
+		CalculationUtility.calculateAmortizationSchedule(terms);
+		CalculationUtility.calculateSchedule(new LoanTerms(250000, 5.25, 15, 0), (month, principalPaid,
+				interestPaid, remainingPrincipal, additionalPrincipalPayment) -> {
+		});
+
+		assertEquals(2, MetricsUtility.SCHEDULE_SECONDS.getCount());
+		assertTrue(MetricsUtility.SCHEDULE_MONTHS.getCount() >= 1);
+		assertTrue(MetricsUtility.SCHEDULE_ROWS.sum() >= 180);
+		assertTrue(MetricsUtility.MONTHLY_PAYMENT_SECONDS.getCount() >= 1);
+
+		String scrape = MetricsUtility.scrape();
+		assertTrue(scrape.contains("# TYPE amortization_schedule_seconds histogram\n"), scrape);
+		assertTrue(scrape.contains("amortization_schedule_seconds_count 2\n"), scrape);
+		assertTrue(scrape.contains("amortization_schedule_months_bucket{le=\"180\"} "), scrape);
+		assertTrue(scrape.contains("amortization_cache_hits_total{cache=\"schedule\"} "), scrape);
+		assertTrue(scrape.contains("amortization_cache_hits_total{cache=\"payment\"} "), scrape);
+	}
+
+	@Test
+	public void validationFailuresTest() {
+		CalculationUtility.createLoanTerms("603,500", "6.5", "30", "1000.00");
+		assertThrows(InputValidationException.class,
+				() -> CalculationUtility.createLoanTerms("abc", "6.5", "", "1000.00"));
+		assertThrows(InputValidationException.class,
+				() -> CalculationUtility.validateInput(new LoanTerms(603500, 0, 30, 0)));
+
+		assertEquals(3, MetricsUtility.VALIDATION_SECONDS.getCount());
+		String scrape = MetricsUtility.scrape();
+		assertTrue(scrape.contains("amortization_validation_failures_total{field=\"principal\"} 1\n"
+				+ "amortization_validation_failures_total{field=\"interest\"} 1\n"
+				+ "amortization_validation_failures_total{field=\"mortgage_length\"} 1\n"
+				+ "amortization_validation_failures_total{field=\"additional_principal\"} 0\n"), scrape);
+	}
+
+	@Test
+	public void excelMetricsTest() throws IOException {
+		Path file = tempDir.resolve("schedule.xlsx");
+		ExcelUtility.createExcelDoc(CalculationUtility.calculateSchedule(new LoanTerms(603500, 6.5, 30, 1000)), file);
+
+		assertEquals(1, MetricsUtility.EXCEL_SECONDS.getCount());
+		assertEquals(1, MetricsUtility.EXCEL_ROWS_PER_SECOND.getCount());
+		assertEquals(211, MetricsUtility.EXCEL_ROWS.sum());
+		assertEquals(Files.size(file), MetricsUtility.EXCEL_BYTES.sum());
+
+		Path dump = tempDir.resolve("metrics.prom");
+		MetricsUtility.dump(dump);
+		assertTrue(Files.readString(dump).contains("amortization_excel_rows_total 211\n"));
+	}
+
+	@Test
+	public void disabledTest() {
+		MetricsUtility.setEnabled(false);
+
+		assertEquals(0, MetricsUtility.start());
+		CalculationUtility.calculateAmortizationSchedule(new LoanTerms(603500, 6.5, 30, 1000));
+		assertThrows(InputValidationException.class,
+				() -> CalculationUtility.createLoanTerms("abc", "6.5", "30", "1000.00"));
+
+		assertEquals(0, MetricsUtility.SCHEDULE_SECONDS.getCount());
+		assertEquals(0, MetricsUtility.SCHEDULE_ROWS.sum());
+		assertEquals(0, MetricsUtility.VALIDATION_SECONDS.getCount());
+	}
+
+	@Test
+	public void formatValueTest() {
+		assertEquals("360", MetricsUtility.formatValue(360));
+		assertEquals("2.5E-5", MetricsUtility.formatValue(0.000025));
+		assertEquals("0.5", MetricsUtility.formatValue(0.5));
+	}
+}
@@ -0,0 +1,97 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.RoundingMode;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.model.DistributionStatistics;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+import com.tim.amortization.calculator.model.SimulationResult;
+import com.tim.amortization.calculator.model.SimulationSettings;
+
+public class MonteCarloUtilityTest {
+
+	private static final LoanTerms TERMS = new LoanTerms(300000, 6, 30, 0);
+
+	@Test
+	public void noVolatilityNoPrepaymentMatchesScheduleTest() {
+		ScheduleSummary summary = ScheduleQueryUtility.summarize(TERMS, RoundingMode.HALF_EVEN);
+		SimulationResult result = MonteCarloUtility.simulate(TERMS, new SimulationSettings(200, 1, 0, 12, 0),
+				RoundingMode.HALF_EVEN);
+
+		long month = summary.getPayoffMonth();
+		long interest = summary.getTotalInterest();
+		assertEquals(new DistributionStatistics(month, month, month, month, month, month), result.getPayoffMonth());
+		assertEquals(new DistributionStatistics(interest, interest, interest, interest, interest, interest),
+				result.getTotalInterest());
+		assertEquals(0, result.getPrepaidPaths());
+	}
+
+	@Test
+	public void sameSeedSameResultTest() {
+		SimulationSettings settings = new SimulationSettings(1000, 42, 1.0, 12, 8);
+		SimulationResult common = MonteCarloUtility.simulate(TERMS, settings, RoundingMode.HALF_EVEN);
+
+		ForkJoinPool single = new ForkJoinPool(1);
+		try {
+			assertEquals(common, MonteCarloUtility.simulate(TERMS, settings, RoundingMode.HALF_EVEN, single));
+		} finally {
+			single.shutdown();
+		}
+
+		assertNotEquals(common, MonteCarloUtility.simulate(TERMS, new SimulationSettings(1000, 43, 1.0, 12, 8),
+				RoundingMode.HALF_EVEN));
+	}
+
+	@Test
+	public void rateVolatilitySpreadsInterestTest() {
+		long baseline = ScheduleQueryUtility.summarize(TERMS, RoundingMode.HALF_EVEN).getTotalInterest();
+		SimulationResult result = MonteCarloUtility.simulate(TERMS, new SimulationSettings(2000, 7, 1.0, 12, 0),
+				RoundingMode.HALF_EVEN);
+
+		DistributionStatistics interest = result.getTotalInterest();
+		assertTrue(interest.getPercentile5() < baseline, interest.toString());
+		assertTrue(interest.getPercentile95() > baseline, interest.toString());
+		assertTrue(interest.getMin() <= interest.getPercentile5() && interest.getPercentile5() <= interest.getMedian()
+				&& interest.getMedian() <= interest.getPercentile95()
+				&& interest.getPercentile95() <= interest.getMax());
+
+		// re-amortized payments still pay the loan off at the end of the term
+		assertEquals(360, result.getPayoffMonth().getMedian());
+	}
+
+	@Test
+	public void prepaymentShortensLoanTest() {
+		long baseline = ScheduleQueryUtility.summarize(TERMS, RoundingMode.HALF_EVEN).getTotalInterest();
+		SimulationResult result = MonteCarloUtility.simulate(TERMS, new SimulationSettings(2000, 7, 0, 12, 10),
+				RoundingMode.HALF_EVEN);
+
+		// about 1 - 0.9^30 = 96% of the loans are prepaid before the last payment
+		assertTrue(result.getPrepaidPaths() > 1850, result.toString());
+		assertTrue(result.getPayoffMonth().getMedian() < 120, result.toString());
+		assertTrue(result.getTotalInterest().getMean() < baseline);
+		assertEquals(1, result.getPayoffMonth().getMin(), result.toString());
+	}
+
+	@Test
+	public void invalidSettingsTest() {
+		assertThrows(IllegalArgumentException.class, () -> new SimulationSettings(0, 1, 0, 12, 0));
+		assertThrows(IllegalArgumentException.class, () -> new SimulationSettings(1, 1, 0, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new SimulationSettings(1, 1, -1, 12, 0));
+		assertThrows(IllegalArgumentException.class, () -> new SimulationSettings(1, 1, 0, 12, 100));
+	}
+
+	@Test
+	public void percentileTest() {
+		DistributionStatistics statistics = DistributionStatistics.of(new long[] { 10, 1, 9, 2, 8, 3, 7, 4, 6, 5 });
+
+		assertEquals(new DistributionStatistics(5.5, 1, 1, 5, 10, 10), statistics);
+	}
+}
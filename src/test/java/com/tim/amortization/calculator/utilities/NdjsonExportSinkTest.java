@@ -0,0 +1,35 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class NdjsonExportSinkTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void writeTest() throws IOException {
+		Path file = tempDir.resolve("schedule.ndjson");
+		try (NdjsonExportSink sink = new NdjsonExportSink(file)) {
+			sink.startLoan("Loan 1");
+			sink.accept(1, 54558, 326896, 60195442, 100000);
+			sink.startLoan("Say \"hi\"\\\n");
+			sink.accept(2, 1, 2, 3, 4);
+		}
+
+		List<String> lines = Files.readAllLines(file);
+		assertEquals(2, lines.size());
+		assertEquals("{\"loan\":\"Loan 1\",\"month\":1,\"principalPaid\":545.58,\"interestPaid\":3268.96,"
+				+ "\"additionalPrincipalPayment\":1000.00,\"remainingPrincipal\":601954.42}", lines.get(0));
+		assertEquals("{\"loan\":\"Say \\\"hi\\\"\\\\\\u000a\",\"month\":2,\"principalPaid\":0.01,\"interestPaid\":0.02,"
+				+ "\"additionalPrincipalPayment\":0.04,\"remainingPrincipal\":0.03}", lines.get(1));
+	}
+}
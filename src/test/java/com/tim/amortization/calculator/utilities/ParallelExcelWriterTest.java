@@ -0,0 +1,118 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class ParallelExcelWriterTest {
+
+	@TempDir
+	Path tempDir;
+
+	private static XSSFWorkbook open(Path file) throws IOException {
+		try {
+			return new XSSFWorkbook(file.toFile());
+		} catch (InvalidFormatException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	private static List<LoanTerms> portfolio(int size) {
+		List<LoanTerms> loans = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			loans.add(new LoanTerms(100_000 + i * 5_000, 3 + (i % 40) / 10.0, 10 + i % 21, i % 3 * 250));
+		}
+		return loans;
+	}
+
+	@Test
+	public void matchesStreamingWriterTest() throws Exception {
+		List<LoanTerms> loans = portfolio(12);
+		Path parallel = tempDir.resolve("parallel.xlsx");
+		Path streaming = tempDir.resolve("streaming.xlsx");
+
+		// small window so sheets finish out of order and wait to be written
+		assertEquals(12, new ParallelExcelWriter(4, 3).write(loans, parallel));
+		ExcelUtility.createStreamingExcelDoc(loans, streaming, true);
+
+		try (XSSFWorkbook actual = open(parallel); XSSFWorkbook expected = open(streaming)) {
+			assertEquals(expected.getNumberOfSheets(), actual.getNumberOfSheets());
+			for (int i = 0; i < expected.getNumberOfSheets(); i++) {
+				Sheet expectedSheet = expected.getSheetAt(i);
+				Sheet actualSheet = actual.getSheetAt(i);
+				assertEquals(expectedSheet.getSheetName(), actualSheet.getSheetName());
+				assertEquals(expectedSheet.getLastRowNum(), actualSheet.getLastRowNum());
+
+				for (int c = 0; c < ExcelUtility.SCHEDULE_HEADERS.length; c++) {
+					assertEquals(expectedSheet.getColumnWidth(c), actualSheet.getColumnWidth(c));
+				}
+				for (Row expectedRow : expectedSheet) {
+					Row actualRow = actualSheet.getRow(expectedRow.getRowNum());
+					for (Cell expectedCell : expectedRow) {
+						Cell actualCell = actualRow.getCell(expectedCell.getColumnIndex());
+						assertEquals(expectedCell.toString(), actualCell.toString(),
+								actualSheet.getSheetName() + "!" + actualCell.getAddress());
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void sharedStylesTest() throws Exception {
+		Path file = tempDir.resolve("portfolio.xlsx");
+		ExcelUtility.createParallelExcelDoc(portfolio(3), file);
+
+		// 3 sheets, workbook, workbook relationships, styles, content types and
+		// package relationships. Checked first, closing a POI workbook saves it
+		try (ZipFile zip = new ZipFile(file.toFile())) {
+			assertEquals(3 + 5, zip.size());
+		}
+
+		try (XSSFWorkbook workbook = open(file)) {
+			// default style plus the header and data styles, once for every sheet
+			assertEquals(3, workbook.getNumCellStyles());
+
+			XSSFCellStyle header = workbook.getSheetAt(2).getRow(0).getCell(0).getCellStyle();
+			assertEquals("Arial", header.getFont().getFontName());
+			assertEquals(16, header.getFont().getFontHeightInPoints());
+			assertTrue(header.getFont().getBold());
+			assertEquals(IndexedColors.PALE_BLUE.getIndex(), header.getFillForegroundColor());
+			assertTrue(workbook.getSheetAt(0).getRow(1).getCell(1).getCellStyle().getWrapText());
+		}
+	}
+
+	@Test
+	public void invalidLoanTest() {
+		Path file = tempDir.resolve("portfolio.xlsx");
+		List<LoanTerms> loans = portfolio(10);
+		loans.set(6, new LoanTerms(100_000, 0, 30, 0));
+
+		InputValidationException ex = assertThrows(InputValidationException.class,
+				() -> new ParallelExcelWriter(2, 4).write(loans, file));
+		assertEquals(CalculationUtility.INTEREST_ERROR, ex.getMessage());
+		assertFalse(file.toFile().exists());
+
+		assertThrows(IllegalArgumentException.class, () -> new ParallelExcelWriter(0, 1));
+	}
+}
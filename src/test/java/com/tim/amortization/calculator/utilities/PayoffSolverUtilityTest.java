@@ -0,0 +1,94 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PayoffSolution;
+
+public class PayoffSolverUtilityTest {
+
+	private static LoanTerms withAdditional(LoanTerms terms, BigDecimal additional) {
+		return new LoanTerms(terms.getPrincipal(), terms.getInterestRate(), terms.getMortgageLength(),
+				additional.doubleValue());
+	}
+
+	@Test
+	public void solveForPayoffMonthTest() {
+		Random random = new Random(31);
+		for (int i = 0; i < 50; i++) {
+			LoanTerms terms = new LoanTerms(50_000 + random.nextInt(1_000_000), (100 + random.nextInt(1000)) / 100.0,
+					5 + random.nextInt(36), 0);
+			int targetMonth = 1 + random.nextInt(terms.getMortgageLength() * 12);
+
+			PayoffSolution solution = PayoffSolverUtility.solveForPayoffMonth(terms, targetMonth);
+			BigDecimal additional = solution.getAdditionalPrincipalPayment();
+
+			assertEquals(CalculationUtility.summarizeSchedule(withAdditional(terms, additional)),
+					solution.getSummary());
+			assertTrue(solution.getSummary().getPayoffMonth() <= targetMonth);
+			if (additional.signum() > 0) {
+				// one cent less misses the target
+				assertTrue(CalculationUtility
+						.summarizeSchedule(withAdditional(terms, additional.subtract(new BigDecimal("0.01"))))
+						.getPayoffMonth() > targetMonth, terms + " target " + targetMonth);
+			}
+		}
+	}
+
+	@Test
+	public void targetAlreadyMetTest() {
+		PayoffSolution solution = PayoffSolverUtility.solveForPayoffMonth(new LoanTerms(603500, 6.5, 30, 1000), 360);
+
+		assertEquals(new BigDecimal("0.00"), solution.getAdditionalPrincipalPayment());
+		assertEquals(360, solution.getSummary().getPayoffMonth());
+	}
+
+	@Test
+	public void solveForTotalInterestTest() {
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 0);
+		BigDecimal target = new BigDecimal("500000.00");
+
+		PayoffSolution solution = PayoffSolverUtility.solveForTotalInterest(terms, target);
+		BigDecimal additional = solution.getAdditionalPrincipalPayment();
+
+		assertTrue(solution.getSummary().getTotalInterest() <= 50_000_000);
+		assertTrue(CalculationUtility
+				.summarizeSchedule(withAdditional(terms, additional.subtract(new BigDecimal("0.01"))))
+				.getTotalInterest() > 50_000_000);
+	}
+
+	@Test
+	public void invalidTargetTest() {
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 0);
+
+		InputValidationException month = assertThrows(InputValidationException.class,
+				() -> PayoffSolverUtility.solveForPayoffMonth(terms, 0));
+		assertEquals(PayoffSolverUtility.TARGET_MONTH_ERROR, month.getMessage());
+
+		InputValidationException interest = assertThrows(InputValidationException.class,
+				() -> PayoffSolverUtility.solveForTotalInterest(terms, new BigDecimal("100.00")));
+		assertEquals(PayoffSolverUtility.TARGET_INTEREST_ERROR, interest.getMessage());
+	}
+
+	@Test
+	public void largePrincipalTest() {
+		LoanTerms terms = new LoanTerms(250_000_000, 6.5, 30, 0);
+
+		PayoffSolution solution = PayoffSolverUtility.solveForPayoffMonth(terms, 120);
+		String additional = solution.getAdditionalPrincipalPayment().toPlainString();
+		// the solved payment can be entered in the additional principal field
+		assertTrue(InputParsingUtility.parse("250,000,000", "6.5", "30", additional).isValid(), additional);
+
+		InputValidationException unreachable = assertThrows(InputValidationException.class,
+				() -> PayoffSolverUtility.solveForPayoffMonth(terms, 1));
+		assertEquals(PayoffSolverUtility.TARGET_UNREACHABLE_ERROR, unreachable.getMessage());
+	}
+}
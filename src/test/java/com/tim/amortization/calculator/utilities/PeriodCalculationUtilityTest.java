@@ -0,0 +1,122 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.DayCount;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PaymentFrequency;
+import com.tim.amortization.calculator.model.PaymentPlan;
+
+public class PeriodCalculationUtilityTest {
+
+	private static final LocalDate FIRST_PAYMENT = LocalDate.of(2026, 11, 1);
+
+	@Test
+	public void monthlyTest() {
+		for (LoanTerms terms : new LoanTerms[] { new LoanTerms(603500, 6.5, 30, 1000),
+				new LoanTerms(250000, 5.25, 15, 0), new LoanTerms(1_500_000, 7.125, 40, 250) }) {
+			AmortizationSchedule schedule = new AmortizationSchedule();
+			PeriodCalculationUtility.calculateSchedule(terms, PaymentPlan.monthly(FIRST_PAYMENT), schedule);
+
+			assertEquals(CalculationUtility.calculateSchedule(terms).asRecords(), schedule.asRecords());
+		}
+	}
+
+	@Test
+	public void weeklyTest() {
+		LoanTerms terms = new LoanTerms(300000, 6.0, 30, 0);
+		PaymentPlan plan = new PaymentPlan(PaymentFrequency.WEEKLY, DayCount.ACTUAL_365, FIRST_PAYMENT);
+		long[] totals = new long[2];
+		long[] lastDate = new long[1];
+
+		int payments = PeriodCalculationUtility.calculateSchedule(terms, plan,
+				(period, paymentDate, principalPaid, interestPaid, remainingPrincipal, additional) -> {
+					if (period > 1) {
+						assertEquals(lastDate[0] + 7, paymentDate);
+					}
+					lastDate[0] = paymentDate;
+					totals[0] += principalPaid;
+					totals[1] += interestPaid;
+				});
+
+		assertTrue(payments > 1540 && payments <= 1560, "payments " + payments);
+		// the last payment overpays, as in monthly schedules
+		long payment = PeriodCalculationUtility.calculatePeriodicPayment(300000, 6.0, 30, PaymentFrequency.WEEKLY)
+				.movePointRight(2).longValueExact();
+		assertTrue(totals[0] >= 30000000 && totals[0] < 30000000 + payment, "principal " + totals[0]);
+		// weekly payments pay less interest than monthly payments
+		long monthlyInterest = CalculationUtility.summarizeSchedule(terms).getTotalInterest();
+		assertTrue(totals[1] < monthlyInterest);
+		assertEquals(FIRST_PAYMENT.plusWeeks(payments - 1).toEpochDay(), lastDate[0]);
+	}
+
+	@Test
+	public void periodicPaymentTest() {
+		assertEquals(CalculationUtility.calculateMonthlyPayment(300000.0, 6.0, 30.0),
+				PeriodCalculationUtility.calculatePeriodicPayment(300000, 6.0, 30, PaymentFrequency.MONTHLY));
+		// PMT of 6% / 26 over 780 payments
+		assertEquals(new BigDecimal("829.75"),
+				PeriodCalculationUtility.calculatePeriodicPayment(300000, 6.0, 30, PaymentFrequency.BIWEEKLY));
+	}
+
+	@Test
+	public void paymentDateTest() {
+		PaymentPlan monthly = PaymentPlan.monthly(LocalDate.of(2027, 1, 31));
+		assertEquals(LocalDate.of(2026, 12, 31), PeriodCalculationUtility.paymentDate(monthly, 0));
+		assertEquals(LocalDate.of(2027, 2, 28), PeriodCalculationUtility.paymentDate(monthly, 2));
+		assertEquals(LocalDate.of(2027, 3, 31), PeriodCalculationUtility.paymentDate(monthly, 3));
+
+		PaymentPlan semiMonthly = new PaymentPlan(PaymentFrequency.SEMI_MONTHLY, DayCount.PERIODIC,
+				LocalDate.of(2027, 1, 15));
+		assertEquals(LocalDate.of(2026, 12, 30), PeriodCalculationUtility.paymentDate(semiMonthly, 0));
+		assertEquals(LocalDate.of(2027, 1, 30), PeriodCalculationUtility.paymentDate(semiMonthly, 2));
+		assertEquals(LocalDate.of(2027, 2, 28), PeriodCalculationUtility.paymentDate(semiMonthly, 4));
+
+		PaymentPlan biweekly = new PaymentPlan(PaymentFrequency.BIWEEKLY, DayCount.PERIODIC, FIRST_PAYMENT);
+		assertEquals(FIRST_PAYMENT.minusWeeks(2), PeriodCalculationUtility.paymentDate(biweekly, 0));
+		assertEquals(FIRST_PAYMENT.plusWeeks(52), PeriodCalculationUtility.paymentDate(biweekly, 27));
+
+		assertThrows(IllegalArgumentException.class, () -> new PaymentPlan(PaymentFrequency.SEMI_MONTHLY,
+				DayCount.PERIODIC, LocalDate.of(2027, 1, 16)));
+	}
+
+	@Test
+	public void civilDateTest() {
+		for (LocalDate date = LocalDate.of(1899, 12, 1); date.getYear() < 2250; date = date.plusDays(13)) {
+			assertEquals(date.toEpochDay(),
+					PeriodCalculationUtility.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+			int civil = PeriodCalculationUtility.civilDate(date.toEpochDay());
+			assertEquals(date.getYear(), civil >> 9);
+			assertEquals(date.getMonthValue(), (civil >> 5) & 0xF);
+			assertEquals(date.getDayOfMonth(), civil & 0x1F);
+		}
+	}
+
+	@Test
+	public void dayCountTest() {
+		assertEquals(30, days360(LocalDate.of(2026, 1, 15), LocalDate.of(2026, 2, 15)));
+		assertEquals(28, days360(LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 28)));
+		assertEquals(30, days360(LocalDate.of(2026, 3, 31), LocalDate.of(2026, 4, 30)));
+		assertEquals(30, days360(LocalDate.of(2026, 3, 30), LocalDate.of(2026, 4, 30)));
+		assertEquals(360, days360(LocalDate.of(2026, 2, 28), LocalDate.of(2027, 2, 28)));
+
+		long start = LocalDate.of(2026, 1, 1).toEpochDay();
+		// 100,000 at 7.3% for 31 days is 620.00 actual/365 and 608.34 periodic
+		assertEquals(62000, PeriodCalculationUtility.calculateInterestCents(100000, 7.3, PaymentFrequency.MONTHLY,
+				DayCount.ACTUAL_365, start, start + 31));
+		assertEquals(60834, PeriodCalculationUtility.calculateInterestCents(100000, 7.3, PaymentFrequency.MONTHLY,
+				DayCount.PERIODIC, start, start + 31));
+	}
+
+	private static int days360(LocalDate start, LocalDate end) {
+		return PeriodCalculationUtility.days360(start.toEpochDay(), end.toEpochDay());
+	}
+}
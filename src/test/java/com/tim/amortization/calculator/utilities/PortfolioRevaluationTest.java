@@ -0,0 +1,128 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PortfolioAggregate;
+import com.tim.amortization.calculator.model.RevaluationResult;
+
+public class PortfolioRevaluationTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final List<LoanTerms> loans = List.of(new LoanTerms(603500, 6.5, 30, 1000),
+			new LoanTerms(250000, 5.25, 15, 0), new LoanTerms(1_500_000, 7.125, 40, 250),
+			new LoanTerms(80000, 4.0, 10, 0));
+
+	@Test
+	public void revalueTest() throws IOException {
+		Path storeFile = tempDir.resolve("schedules.amrs");
+		Path stateFile = tempDir.resolve("revaluation.state");
+
+		try (ScheduleStore store = new ScheduleStore(storeFile)) {
+			RevaluationResult result = new PortfolioRevaluation(store, stateFile).revalue(loans, null);
+			assertEquals(4, result.getRecalculated());
+			assertEquals(aggregate(loans), result.getAggregate());
+		}
+
+		// same portfolio in a later run
+		try (ScheduleStore store = new ScheduleStore(storeFile)) {
+			PortfolioRevaluation revaluation = new PortfolioRevaluation(store, stateFile);
+			assertEquals(aggregate(loans), revaluation.getAggregate());
+			RevaluationResult result = revaluation.revalue(loans, null);
+			assertEquals(0, result.getRecalculated());
+			assertEquals(4, result.getUnchanged());
+			assertEquals(aggregate(loans), result.getAggregate());
+		}
+
+		// rate of loan 2 changes, loan 4 is paid off, loan 5 is new
+		List<LoanTerms> changed = new ArrayList<>(loans);
+		changed.set(1, new LoanTerms(250000, 4.75, 15, 0));
+		changed.remove(3);
+		changed.add(new LoanTerms(400000, 6.0, 30, 500));
+		Map<String, LoanTerms> named = Map.of("Loan 1", changed.get(0), "Loan 2", changed.get(1), "Loan 3",
+				changed.get(2), "Loan 5", changed.get(3));
+
+		Path exportFile = tempDir.resolve("changed.amrt");
+		try (ScheduleStore store = new ScheduleStore(storeFile);
+				ColumnarExportSink sink = new ColumnarExportSink(exportFile)) {
+			RevaluationResult result = new PortfolioRevaluation(store, stateFile).revalue(named, sink);
+			assertEquals(2, result.getRecalculated());
+			assertEquals(1, result.getRemoved());
+			assertEquals(aggregate(changed), result.getAggregate());
+			assertEquals(CalculationUtility.calculateSchedule(changed.get(1)).asRecords(),
+					store.get("Loan 2").toSchedule().asRecords());
+		}
+		Map<String, AmortizationSchedule> exported = ColumnarExportSink.read(exportFile);
+		assertEquals(2, exported.size());
+		assertEquals(CalculationUtility.calculateSchedule(changed.get(3)).asRecords(),
+				exported.get("Loan 5").asRecords());
+	}
+
+	@Test
+	public void storeChangedTest() throws IOException {
+		Path storeFile = tempDir.resolve("schedules.amrs");
+		Path stateFile = tempDir.resolve("revaluation.state");
+
+		try (ScheduleStore store = new ScheduleStore(storeFile)) {
+			new PortfolioRevaluation(store, stateFile).revalue(loans, null);
+			store.put("Loan 1", CalculationUtility.calculateSchedule(new LoanTerms(1000, 1, 1, 0)));
+		}
+
+		// the state no longer matches the store, every loan is recalculated
+		try (ScheduleStore store = new ScheduleStore(storeFile)) {
+			RevaluationResult result = new PortfolioRevaluation(store, stateFile).revalue(loans, null);
+			assertEquals(4, result.getRecalculated());
+			assertEquals(aggregate(loans), result.getAggregate());
+		}
+	}
+
+	@Test
+	public void fingerprintTest() {
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 1000);
+		assertEquals(PortfolioRevaluation.fingerprint(terms),
+				PortfolioRevaluation.fingerprint(new LoanTerms(603500, 6.5, 30, 1000)));
+		assertNotEquals(PortfolioRevaluation.fingerprint(terms),
+				PortfolioRevaluation.fingerprint(new LoanTerms(603500, 6.5, 30, 1001)));
+		assertNotEquals(PortfolioRevaluation.fingerprint(terms),
+				PortfolioRevaluation.fingerprint(new LoanTerms(603500, 6.25, 30, 1000)));
+		assertNotEquals(PortfolioRevaluation.fingerprint(new LoanTerms(1, 2, 3, 4)),
+				PortfolioRevaluation.fingerprint(new LoanTerms(2, 1, 3, 4)));
+	}
+
+	/**
+	 * Totals summed over every loan.
+	 */
+	private static PortfolioAggregate aggregate(List<LoanTerms> loans) {
+		long totalInterest = 0;
+		long[] outstanding = new long[0];
+		for (LoanTerms terms : loans) {
+			AmortizationSchedule schedule = CalculationUtility.calculateSchedule(terms);
+			if (schedule.size() > outstanding.length) {
+				outstanding = Arrays.copyOf(outstanding, schedule.size());
+			}
+			for (int i = 0; i < schedule.size(); i++) {
+				totalInterest += schedule.getInterestPaidCents(i);
+				outstanding[i] += Math.max(schedule.getRemainingPrincipalCents(i), 0);
+			}
+		}
+		int months = outstanding.length;
+		while (months > 0 && outstanding[months - 1] == 0) {
+			months--;
+		}
+		return new PortfolioAggregate(loans.size(), totalInterest, Arrays.copyOf(outstanding, months));
+	}
+}
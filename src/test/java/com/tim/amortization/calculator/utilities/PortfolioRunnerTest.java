@@ -0,0 +1,143 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.model.LoanFailure;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.PortfolioRunResult;
+
+public class PortfolioRunnerTest {
+
+	@TempDir
+	Path tempDir;
+
+	private static List<LoanTerms> loans(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> new LoanTerms(100_000 + i * 250, 3 + (i % 40) / 10.0, 10 + i % 21, i % 3 * 100))
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void orderedRunTest() throws Exception {
+		List<LoanTerms> loans = loans(300);
+		Path expected = tempDir.resolve("expected.csv");
+		Path actual = tempDir.resolve("actual.csv");
+
+		try (CsvExportSink sink = new CsvExportSink(expected)) {
+			ExportUtility.exportPortfolio(loans, sink);
+		}
+		PortfolioRunResult result;
+		try (CsvExportSink sink = new CsvExportSink(actual)) {
+			result = new PortfolioRunner(4, 16, true).run(loans, sink);
+		}
+
+		assertEquals(300, result.getLoansCompleted());
+		assertEquals(0, result.getLoansFailed());
+		assertTrue(result.getLoansPerSecond() > 0);
+		assertEquals(Files.readAllLines(expected), Files.readAllLines(actual));
+	}
+
+	@Test
+	public void unorderedRunTest() throws Exception {
+		List<LoanTerms> loans = loans(300);
+		Path expected = tempDir.resolve("expected.csv");
+		Path actual = tempDir.resolve("actual.csv");
+
+		try (CsvExportSink sink = new CsvExportSink(expected)) {
+			ExportUtility.exportPortfolio(loans, sink);
+		}
+		try (CsvExportSink sink = new CsvExportSink(actual)) {
+			new PortfolioRunner(4, 16, false).run(loans, sink);
+		}
+
+		List<String> expectedLines = Files.readAllLines(expected);
+		List<String> actualLines = Files.readAllLines(actual);
+		expectedLines.sort(null);
+		actualLines.sort(null);
+		assertEquals(expectedLines, actualLines);
+	}
+
+	@Test
+	public void failedLoansDoNotStopRunTest() throws Exception {
+		Path portfolio = tempDir.resolve("portfolio.csv");
+		Files.write(portfolio, List.of("principal,interest,mortgageLength,additionalPrincipal", "250000,5.25,15,0",
+				"250000,150,15,0", "100000,4,x,0", "\"603,500\",6.5,30,1000.00"));
+
+		PortfolioRunResult result;
+		try (CsvExportSink sink = new CsvExportSink(tempDir.resolve("out.csv"))) {
+			result = new PortfolioRunner(2, 2, true).run(portfolio, sink);
+		}
+
+		assertEquals(2, result.getLoansCompleted());
+		assertEquals(List.of(new LoanFailure(2, "250000,150,15,0", CalculationUtility.INTEREST_ERROR),
+				new LoanFailure(3, "100000,4,x,0", "Invalid portfolio line, values must be numeric: 100000,4,x,0")),
+				result.getFailures());
+
+		List<String> lines = Files.readAllLines(tempDir.resolve("out.csv"));
+		assertTrue(lines.get(1).startsWith("Loan 1,1,"));
+		assertTrue(lines.get(lines.size() - 1).startsWith("Loan 4,211,"));
+	}
+
+	@Test
+	public void backpressureTest() throws Exception {
+		int maxInFlight = 8;
+		List<LoanTerms> loans = loans(200);
+		int[] read = new int[1];
+		Iterable<LoanTerms> counted = () -> new Iterator<>() {
+			private final Iterator<LoanTerms> it = loans.iterator();
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public LoanTerms next() {
+				read[0]++;
+				return it.next();
+			}
+		};
+
+		List<Integer> inFlight = new ArrayList<>();
+		ExportSink sink = new ExportSink() {
+			private int written;
+
+			@Override
+			public void startLoan(String name) {
+				written++;
+				inFlight.add(read[0] - written);
+			}
+
+			@Override
+			public void accept(int month, long principalPaid, long interestPaid, long remainingPrincipal,
+					long additionalPrincipalPayment) {
+			}
+
+			@Override
+			public void close() throws IOException {
+			}
+		};
+
+		for (boolean ordered : new boolean[] { true, false }) {
+			read[0] = 0;
+			inFlight.clear();
+			PortfolioRunResult result = new PortfolioRunner(4, maxInFlight, ordered).run(counted, sink);
+
+			assertEquals(200, result.getLoansCompleted());
+			assertTrue(inFlight.stream().allMatch(n -> n < maxInFlight), inFlight.toString());
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.exception.InputValidationException;
+import com.tim.amortization.calculator.model.AmortizationRecord;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class PortfolioUtilityTest {
+
+	@TempDir
+	Path tempDir;
+
+	private Path writePortfolio(String... lines) throws IOException {
+		Path file = tempDir.resolve("portfolio.csv");
+		Files.write(file, List.of(lines));
+		return file;
+	}
+
+	@Test
+	public void readPortfolioTest() throws IOException {
+		Path file = writePortfolio("principal,interest,mortgageLength,additionalPrincipal", "\"603,500\",6.5,30,1000.00",
+				"", "# comment", "250000,5.25,15,0");
+
+		List<LoanTerms> loans = PortfolioUtility.readPortfolio(file);
+
+		assertEquals(2, loans.size());
+		assertEquals(new LoanTerms(603500, 6.5, 30, 1000), loans.get(0));
+		assertEquals(new LoanTerms(250000, 5.25, 15, 0), loans.get(1));
+	}
+
+	@Test
+	public void calculateAmortizationSchedulesTest() {
+		List<LoanTerms> loans = List.of(new LoanTerms(603500, 6.5, 30, 1000), new LoanTerms(603500, 6.5, 30, 0));
+
+		List<List<AmortizationRecord>> schedules = PortfolioUtility.calculateAmortizationSchedules(loans);
+
+		assertEquals(2, schedules.size());
+		assertEquals(211, schedules.get(0).size());
+		assertEquals(360, schedules.get(1).size());
+	}
+
+	@Test
+	public void calculatePortfolioTest() throws IOException {
+		Path file = writePortfolio("\"603,500\",6.5,30,1000.00", "603500,6.5,30,0", "100000,4,15,0");
+		Map<LoanTerms, Integer> sizes = new ConcurrentHashMap<>();
+
+		long count = PortfolioUtility.calculatePortfolio(file, (terms, records) -> sizes.put(terms, records.size()));
+
+		assertEquals(3, count);
+		assertEquals(211, sizes.get(new LoanTerms(603500, 6.5, 30, 1000)));
+		assertEquals(360, sizes.get(new LoanTerms(603500, 6.5, 30, 0)));
+		assertEquals(CalculationUtility.calculateAmortizationSchedule(new LoanTerms(100000, 4, 15, 0)).size(),
+				sizes.get(new LoanTerms(100000, 4, 15, 0)));
+	}
+
+	@Test
+	public void invalidLineTest() {
+		assertThrows(InputValidationException.class, () -> PortfolioUtility.parseLoanTerms("603500,6.5,30"));
+		assertThrows(InputValidationException.class, () -> PortfolioUtility.parseLoanTerms("abc,6.5,30,0"));
+		assertThrows(InputValidationException.class, () -> PortfolioUtility.parseLoanTerms("603500,150,30,0"));
+	}
+}
@@ -0,0 +1,163 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class ScheduleCacheTest {
+
+	@Test
+	public void scheduleHitTest() {
+		ScheduleCache cache = new ScheduleCache();
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 1000);
+
+		AmortizationSchedule first = cache.getSchedule(terms);
+		AmortizationSchedule second = cache.getSchedule(new LoanTerms(603500, 6.5, 30, 1000));
+
+		assertSame(first, second);
+		assertTrue(first.isFrozen());
+		assertEquals(CalculationUtility.calculateSchedule(terms).asRecords(), first.asRecords());
+		assertEquals(1, cache.getScheduleHitCount());
+		assertEquals(1, cache.getScheduleMissCount());
+		assertEquals(0, cache.getPaymentHitCount() + cache.getPaymentMissCount());
+		assertEquals(211, cache.getRowCount());
+		assertThrows(UnsupportedOperationException.class, () -> first.add(212, 0, 0, 0, 0));
+	}
+
+	@Test
+	public void paymentHitTest() {
+		ScheduleCache cache = new ScheduleCache();
+
+		BigDecimal payment = cache.getMonthlyPayment(603500.0, 6.5, 30.0);
+
+		assertEquals(new BigDecimal("3814.54"), payment);
+		assertSame(payment, cache.getMonthlyPayment(603500.0, 6.5, 30.0));
+		assertEquals(1, cache.getPaymentHitCount());
+		assertEquals(1, cache.getPaymentMissCount());
+		assertEquals(0, cache.getScheduleHitCount() + cache.getScheduleMissCount());
+	}
+
+	@Test
+	public void evictionByRowsTest() {
+		// room for two 30 year schedules
+		ScheduleCache cache = new ScheduleCache(720, 0);
+		LoanTerms first = new LoanTerms(100000, 5, 30, 0);
+		LoanTerms second = new LoanTerms(200000, 5, 30, 0);
+		LoanTerms third = new LoanTerms(300000, 5, 30, 0);
+
+		AmortizationSchedule firstSchedule = cache.getSchedule(first);
+		cache.getSchedule(second);
+		// use first so second is the least recently used
+		cache.getSchedule(first);
+		cache.getSchedule(third);
+
+		assertEquals(1, cache.getScheduleEvictionCount());
+		assertEquals(720, cache.getRowCount());
+		assertSame(firstSchedule, cache.getSchedule(first));
+		assertEquals(2, cache.getScheduleHitCount());
+		assertEquals(3, cache.getScheduleMissCount());
+
+		cache.getSchedule(second);
+		assertEquals(4, cache.getScheduleMissCount());
+		assertEquals(2, cache.getScheduleEvictionCount());
+	}
+
+	@Test
+	public void evictionByPaymentsTest() {
+		ScheduleCache cache = new ScheduleCache(0, 2);
+
+		cache.getMonthlyPayment(100000.0, 5.0, 30.0);
+		cache.getMonthlyPayment(200000.0, 5.0, 30.0);
+		cache.getMonthlyPayment(300000.0, 5.0, 30.0);
+
+		assertEquals(1, cache.getPaymentEvictionCount());
+		assertEquals(0, cache.getScheduleEvictionCount());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void oversizedScheduleTest() {
+		ScheduleCache cache = new ScheduleCache(100, 0);
+
+		AmortizationSchedule schedule = cache.getSchedule(new LoanTerms(100000, 5, 30, 0));
+
+		assertTrue(schedule.isFrozen());
+		assertEquals(0, cache.getRowCount());
+		assertEquals(0, cache.getScheduleEvictionCount());
+	}
+
+	@Test
+	public void unnormalizedTermsBypassCacheTest() {
+		ScheduleCache cache = new ScheduleCache();
+		LoanTerms terms = new LoanTerms(100000.004, 5.0000001, 30, 0);
+
+		AmortizationSchedule schedule = cache.getSchedule(terms);
+
+		assertNotSame(schedule, cache.getSchedule(terms));
+		assertEquals(CalculationUtility.calculateSchedule(terms).asRecords(), schedule.asRecords());
+		assertEquals(0, cache.getScheduleHitCount() + cache.getScheduleMissCount());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void invalidateAllTest() {
+		ScheduleCache cache = new ScheduleCache();
+		cache.getSchedule(new LoanTerms(100000, 5, 30, 0));
+		cache.getMonthlyPayment(100000.0, 5.0, 30.0);
+
+		cache.invalidateAll();
+
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getRowCount());
+	}
+
+	@Test
+	public void concurrentAccessTest() throws Exception {
+		ScheduleCache cache = new ScheduleCache(50 * 180, 100);
+		List<LoanTerms> loans = IntStream.range(0, 100)
+				.mapToObj(i -> new LoanTerms(100_000 + (i % 80) * 1000, 4.5, 15, 0)).collect(Collectors.toList());
+
+		Callable<Boolean> task = () -> {
+			for (int i = 0; i < 20; i++) {
+				for (LoanTerms terms : loans) {
+					AmortizationSchedule schedule = cache.getSchedule(terms);
+					if (schedule.getRemainingPrincipalCents(schedule.size() - 1) > 0) {
+						return false;
+					}
+				}
+			}
+			return true;
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> results = executor.invokeAll(Collections.nCopies(8, task));
+
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(8 * 20 * 100, cache.getScheduleHitCount() + cache.getScheduleMissCount());
+		assertTrue(cache.getRowCount() <= 50 * 180, cache.toString());
+	}
+}
@@ -0,0 +1,121 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+
+public class ScheduleQueryUtilityTest {
+
+	private static LoanTerms randomTerms(Random random) {
+		double principal = (1_000_000 + random.nextInt(200_000_000)) / 100.0;
+		double interest = (1 + random.nextInt(1500)) / 100.0;
+		int years = 1 + random.nextInt(40);
+		double additional = random.nextBoolean() ? 0 : random.nextInt(300_000) / 100.0;
+		return new LoanTerms(principal, interest, years, additional);
+	}
+
+	@Test
+	public void balanceMatchesCalculationSchedule() {
+		Random random = new Random(17);
+		for (int i = 0; i < 300; i++) {
+			LoanTerms terms = randomTerms(random);
+			AmortizationSchedule schedule = CalculationUtility.calculateSchedule(terms);
+			int month = 1 + random.nextInt(schedule.size());
+
+			assertEquals(schedule.getRemainingPrincipalCents(month - 1),
+					ScheduleQueryUtility.balanceAfterMonth(terms, month), terms + " month " + month);
+			assertEquals(schedule.getRemainingPrincipalCents(schedule.size() - 1),
+					ScheduleQueryUtility.balanceAfterMonth(terms, schedule.size() + 12));
+		}
+	}
+
+	@Test
+	public void fixedPointQueriesCloseToCalculationSchedule() {
+		Random random = new Random(29);
+		for (int i = 0; i < 300; i++) {
+			LoanTerms terms = randomTerms(random);
+			ScheduleSummary expected = CalculationUtility.summarizeSchedule(terms);
+			ScheduleSummary actual = ScheduleQueryUtility.summarize(terms, RoundingMode.CEILING);
+
+			assertEquals(expected.getMonthlyPayment(), actual.getMonthlyPayment(), terms.toString());
+			assertTrue(Math.abs(expected.getPayoffMonth() - actual.getPayoffMonth()) <= 1, terms.toString());
+			// a cent of interest a month, or a whole payment when the payoff moves by a month
+			long bound = Math.max(expected.getPayoffMonth(), actual.getPayoffMonth());
+			if (expected.getPayoffMonth() != actual.getPayoffMonth()) {
+				bound += actual.getMonthlyPayment();
+			}
+			assertTrue(Math.abs(expected.getTotalInterest() - actual.getTotalInterest()) <= bound,
+					terms + " " + expected + " " + actual);
+		}
+	}
+
+	@Test
+	public void fixedPointQueriesMatchFixedPointSchedule() {
+		Random random = new Random(19);
+		for (int i = 0; i < 300; i++) {
+			LoanTerms terms = randomTerms(random);
+			RoundingMode mode = i % 2 == 0 ? RoundingMode.CEILING : RoundingMode.HALF_EVEN;
+			AmortizationSchedule schedule = FixedPointCalculationUtility.calculateSchedule(terms, mode);
+
+			long totalInterest = 0;
+			for (int row = 0; row < schedule.size(); row++) {
+				totalInterest += schedule.getInterestPaidCents(row);
+			}
+			int month = 1 + random.nextInt(schedule.size());
+
+			assertEquals(schedule.size(), ScheduleQueryUtility.payoffMonth(terms, mode));
+			assertEquals(totalInterest, ScheduleQueryUtility.totalInterest(terms, mode));
+			assertEquals(schedule.getRemainingPrincipalCents(month - 1),
+					ScheduleQueryUtility.balanceAfterMonth(terms, month, mode));
+			assertEquals(schedule.getRemainingPrincipalCents(schedule.size() - 1),
+					ScheduleQueryUtility.balanceAfterMonth(terms, schedule.size() + 12, mode));
+		}
+	}
+
+	@Test
+	public void summarizeTest() {
+		ScheduleSummary summary = ScheduleQueryUtility.summarize(new LoanTerms(603500, 6.5, 30, 1000),
+				RoundingMode.CEILING);
+
+		assertEquals(381454, summary.getMonthlyPayment());
+		assertEquals(211, summary.getPayoffMonth());
+		assertEquals(211 * 100000L, summary.getTotalAdditionalPrincipal());
+		assertTrue(summary.getFinalRemainingPrincipal() <= 0);
+	}
+
+	@Test
+	public void estimatesWithinBound() {
+		Random random = new Random(23);
+		for (int i = 0; i < 300; i++) {
+			LoanTerms terms = randomTerms(random);
+			AmortizationSchedule schedule = FixedPointCalculationUtility.calculateSchedule(terms, RoundingMode.HALF_EVEN);
+			int month = 1 + random.nextInt(schedule.size());
+
+			long exact = schedule.getRemainingPrincipalCents(month - 1);
+			long estimate = ScheduleQueryUtility.estimateBalanceAfterMonth(terms, month, RoundingMode.HALF_EVEN);
+			assertTrue(Math.abs(exact - estimate) <= ScheduleQueryUtility.estimateErrorBoundCents(terms, month),
+					terms + " month " + month);
+
+			int estimatedPayoff = ScheduleQueryUtility.estimatePayoffMonth(terms, RoundingMode.HALF_EVEN);
+			assertTrue(Math.abs(schedule.size() - estimatedPayoff) <= 1, terms.toString());
+		}
+	}
+
+	@Test
+	public void estimateTotalInterestTest() {
+		LoanTerms terms = new LoanTerms(603500, 6.5, 30, 0);
+		long exact = ScheduleQueryUtility.totalInterest(terms, RoundingMode.HALF_EVEN);
+		long estimate = ScheduleQueryUtility.estimateTotalInterest(terms, RoundingMode.HALF_EVEN);
+
+		assertTrue(Math.abs(exact - estimate) <= ScheduleQueryUtility.estimateErrorBoundCents(terms, 360),
+				exact + " " + estimate);
+	}
+}
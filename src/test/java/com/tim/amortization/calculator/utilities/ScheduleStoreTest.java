@@ -0,0 +1,160 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class ScheduleStoreTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final AmortizationSchedule thirtyYear = CalculationUtility
+			.calculateSchedule(new LoanTerms(603500, 6.5, 30, 1000));
+
+	private final AmortizationSchedule fifteenYear = CalculationUtility
+			.calculateSchedule(new LoanTerms(250000, 5.25, 15, 0));
+
+	@Test
+	public void putGetTest() throws IOException {
+		Path file = tempDir.resolve("schedules.amrs");
+		try (ScheduleStore store = new ScheduleStore(file)) {
+			store.put("A", thirtyYear);
+			store.put("B", fifteenYear);
+
+			StoredSchedule stored = store.get("A");
+			assertEquals(thirtyYear.size(), stored.size());
+			assertEquals(137, stored.getMonth(136));
+			assertEquals(thirtyYear.getRemainingPrincipalCents(136), stored.getRemainingPrincipalCents(136));
+			assertEquals(thirtyYear.getRemainingPrincipalCents(136), store.getRemainingPrincipalCents("A", 137));
+			assertEquals(thirtyYear.asRecords(), stored.toSchedule().asRecords());
+			assertEquals(fifteenYear.asRecords(), store.get("B").toSchedule().asRecords());
+
+			assertNull(store.get("C"));
+			assertEquals(-1, store.getRemainingPrincipalCents("B", 181));
+			assertThrows(IndexOutOfBoundsException.class, () -> stored.getMonth(stored.size()));
+		}
+	}
+
+	@Test
+	public void reopenTest() throws IOException {
+		Path file = tempDir.resolve("schedules.amrs");
+		try (ScheduleStore store = new ScheduleStore(file)) {
+			store.put("A", fifteenYear);
+			store.put("B", fifteenYear);
+			store.put("A", thirtyYear);
+			assertTrue(store.remove("B"));
+			assertFalse(store.remove("B"));
+		}
+
+		try (ScheduleStore store = new ScheduleStore(file)) {
+			assertEquals(Set.of("A"), store.getLoanIds());
+			assertEquals(thirtyYear.asRecords(), store.get("A").toSchedule().asRecords());
+			assertFalse(store.contains("B"));
+
+			store.put("C", fifteenYear);
+			assertEquals(fifteenYear.asRecords(), store.get("C").toSchedule().asRecords());
+		}
+	}
+
+	@Test
+	public void compactTest() throws IOException {
+		Path file = tempDir.resolve("schedules.amrs");
+		long garbage;
+		try (ScheduleStore store = new ScheduleStore(file)) {
+			for (int i = 0; i < 5; i++) {
+				store.put("A", thirtyYear);
+				store.put("B", fifteenYear);
+			}
+			store.put("C", fifteenYear);
+			store.remove("C");
+			garbage = store.getGarbageSize();
+		}
+		long before = Files.size(file);
+
+		assertEquals(garbage, ScheduleStore.compact(file));
+		assertEquals(before - garbage, Files.size(file));
+		assertFalse(Files.exists(tempDir.resolve("schedules.amrs.compact")));
+
+		try (ScheduleStore store = new ScheduleStore(file)) {
+			assertEquals(List.of("A", "B"), List.copyOf(store.getLoanIds()));
+			assertEquals(0, store.getGarbageSize());
+			assertEquals(thirtyYear.asRecords(), store.get("A").toSchedule().asRecords());
+			assertEquals(fifteenYear.asRecords(), store.get("B").toSchedule().asRecords());
+		}
+	}
+
+	@Test
+	public void segmentTest() throws IOException {
+		// each thirty year record fits a segment, two do not
+		Path file = tempDir.resolve("schedules.amrs");
+		int segmentSize = 16 * 1024;
+		try (ScheduleStore store = new ScheduleStore(file, segmentSize)) {
+			for (int i = 0; i < 10; i++) {
+				store.put("Loan " + i, i % 2 == 0 ? thirtyYear : fifteenYear);
+			}
+			assertTrue(store.getFileSize() > 3 * segmentSize);
+			assertThrows(IOException.class, () -> store.put("Too large",
+					CalculationUtility.calculateSchedule(new LoanTerms(603500, 6.5, 40, 0))));
+		}
+
+		try (ScheduleStore store = new ScheduleStore(file, segmentSize)) {
+			assertEquals(10, store.size());
+			for (int i = 0; i < 10; i++) {
+				AmortizationSchedule expected = i % 2 == 0 ? thirtyYear : fifteenYear;
+				assertEquals(expected.asRecords(), store.get("Loan " + i).toSchedule().asRecords());
+			}
+		}
+	}
+
+	@Test
+	public void tornWriteTest() throws IOException {
+		Path file = tempDir.resolve("schedules.amrs");
+		try (ScheduleStore store = new ScheduleStore(file)) {
+			store.put("A", fifteenYear);
+			store.put("B", thirtyYear);
+		}
+		long complete = Files.size(file);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(complete - 100);
+		}
+
+		try (ScheduleStore store = new ScheduleStore(file)) {
+			assertEquals(Set.of("A"), store.getLoanIds());
+			store.put("B", thirtyYear);
+			assertEquals(complete, store.getFileSize());
+		}
+		try (ScheduleStore store = new ScheduleStore(file)) {
+			assertEquals(thirtyYear.asRecords(), store.get("B").toSchedule().asRecords());
+		}
+	}
+
+	@Test
+	public void versionTest() throws IOException {
+		Path file = tempDir.resolve("schedules.amrs");
+		ByteBuffer header = ByteBuffer.allocate(ScheduleStore.HEADER_SIZE);
+		header.putInt(ScheduleStore.MAGIC).putInt(ScheduleStore.VERSION + 1);
+		Files.write(file, header.array());
+		assertThrows(IOException.class, () -> new ScheduleStore(file));
+
+		Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		assertThrows(IOException.class, () -> new ScheduleStore(file));
+	}
+}
@@ -0,0 +1,136 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.LoanTerms;
+
+public class StreamingExcelWriterTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final List<LoanTerms> loans = List.of(new LoanTerms(603500, 6.5, 30, 1000),
+			new LoanTerms(250000, 5.25, 15, 0));
+
+	private static Workbook open(Path file) throws IOException {
+		try {
+			return new XSSFWorkbook(file.toFile());
+		} catch (InvalidFormatException ex) {
+			throw new IOException(ex);
+		}
+	}
+
+	@Test
+	public void singleSheetTest() throws IOException {
+		Path file = tempDir.resolve("portfolio.xlsx");
+		AmortizationSchedule first = CalculationUtility.calculateSchedule(loans.get(0));
+		AmortizationSchedule second = CalculationUtility.calculateSchedule(loans.get(1));
+
+		assertEquals(2, ExcelUtility.createStreamingExcelDoc(loans, file, false));
+
+		try (Workbook workbook = open(file)) {
+			assertEquals(1, workbook.getNumberOfSheets());
+			Sheet sheet = workbook.getSheet("AmortizationSchedule");
+			assertEquals(first.size() + second.size(), sheet.getLastRowNum());
+			assertEquals("Loan", sheet.getRow(0).getCell(0).getStringCellValue());
+
+			Row row = sheet.getRow(1);
+			assertEquals("Loan 1", row.getCell(0).getStringCellValue());
+			assertEquals(1, row.getCell(1).getNumericCellValue());
+			assertEquals(545.58, row.getCell(2).getNumericCellValue());
+			assertEquals(3268.96, row.getCell(3).getNumericCellValue());
+			assertEquals(1000.00, row.getCell(4).getNumericCellValue());
+
+			row = sheet.getRow(first.size() + 1);
+			assertEquals("Loan 2", row.getCell(0).getStringCellValue());
+			assertEquals(CentsUtility.toDollars(second.getRemainingPrincipalCents(0)), row.getCell(5).getNumericCellValue());
+		}
+	}
+
+	@Test
+	public void sheetPerLoanTest() throws IOException {
+		Path file = tempDir.resolve("portfolio.xlsx");
+
+		ExcelUtility.createStreamingExcelDoc(loans, file, true);
+
+		try (Workbook workbook = open(file)) {
+			assertEquals(2, workbook.getNumberOfSheets());
+			Sheet sheet = workbook.getSheet("Loan 2");
+			assertEquals(CalculationUtility.calculateSchedule(loans.get(1)).size(), sheet.getLastRowNum());
+			assertEquals("Month", sheet.getRow(0).getCell(0).getStringCellValue());
+			assertEquals(1, sheet.getRow(1).getCell(0).getNumericCellValue());
+		}
+	}
+
+	@Test
+	public void uniqueSheetNamesTest() throws IOException {
+		Path file = tempDir.resolve("names.xlsx");
+
+		try (StreamingExcelWriter writer = new StreamingExcelWriter(file, StreamingExcelWriter.DEFAULT_ROW_WINDOW,
+				true)) {
+			for (String name : new String[] { "Portfolio 2026 fixed-rate loan 00001",
+					"Portfolio 2026 fixed-rate loan 00002", "Loan", "loan", "Loan" }) {
+				writer.startLoan(name);
+				writer.accept(1, 0, 0, 0, 0);
+			}
+		}
+
+		try (Workbook workbook = open(file)) {
+			assertEquals(5, workbook.getNumberOfSheets());
+			assertEquals("Portfolio 2026 fixed-rate loan ", workbook.getSheetName(0));
+			assertEquals("Portfolio 2026 fixed-rate l (2)", workbook.getSheetName(1));
+			assertEquals("Loan", workbook.getSheetName(2));
+			assertEquals("loan (2)", workbook.getSheetName(3));
+			assertEquals("Loan (3)", workbook.getSheetName(4));
+		}
+	}
+
+	@Test
+	public void rowsBeforeStartLoanTest() throws IOException {
+		try (StreamingExcelWriter writer = new StreamingExcelWriter(tempDir.resolve("empty.xlsx"))) {
+			assertThrows(IllegalStateException.class, () -> writer.accept(1, 0, 0, 0, 0));
+		}
+	}
+
+	@Test
+	public void abortTest() throws IOException {
+		Path file = tempDir.resolve("aborted.xlsx");
+		StreamingExcelWriter writer = new StreamingExcelWriter(file);
+		writer.startLoan("Loan");
+		CalculationUtility.calculateSchedule(loans.get(0), writer);
+
+		writer.abort();
+
+		assertFalse(Files.exists(file));
+	}
+
+	@Test
+	public void interruptedCloseTest() throws IOException {
+		StreamingExcelWriter writer = new StreamingExcelWriter(tempDir.resolve("interrupted.xlsx"));
+		writer.startLoan("Loan");
+		CalculationUtility.calculateSchedule(loans.get(0), writer);
+
+		Thread.currentThread().interrupt();
+		try {
+			assertThrows(IOException.class, writer::close);
+		} finally {
+			Thread.interrupted();
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package com.tim.amortization.calculator.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.tim.amortization.calculator.model.AmortizationSchedule;
+import com.tim.amortization.calculator.model.ArmTerms;
+import com.tim.amortization.calculator.model.ArmValuation;
+import com.tim.amortization.calculator.model.IndexCurve;
+import com.tim.amortization.calculator.model.LoanTerms;
+import com.tim.amortization.calculator.model.RateChange;
+import com.tim.amortization.calculator.model.ScheduleSummary;
+
+public class VariableRateUtilityTest {
+
+	private static final ArmTerms ARM_5_1 = new ArmTerms(new LoanTerms(400000, 5, 30, 0), 60, 12, 2.75, 2, 1, 5,
+			2.75);
+
+	private static IndexCurve randomCurve(Random random) {
+		int[] months = { 1, 61, 121, 181, 241, 301 };
+		double[] rates = new double[months.length];
+		for (int i = 0; i < rates.length; i++) {
+			rates[i] = random.nextInt(800) / 100.0;
+		}
+		return new IndexCurve(months, rates);
+	}
+
+	private static ArmTerms randomArm(Random random) {
+		LoanTerms loan = new LoanTerms(50_000 + random.nextInt(1_000_000), (200 + random.nextInt(600)) / 100.0,
+				10 + random.nextInt(31), random.nextBoolean() ? 0 : random.nextInt(2000));
+		int fixedMonths = random.nextBoolean() ? 60 : 84;
+		return new ArmTerms(loan, fixedMonths, random.nextBoolean() ? 12 : 6, 2.25 + random.nextInt(100) / 100.0, 2,
+				1 + random.nextInt(2), 5, 2);
+	}
+
+	@Test
+	public void noRateChangesTest() {
+		Random random = new Random(3);
+		for (int i = 0; i < 100; i++) {
+			LoanTerms terms = new LoanTerms(10_000 + random.nextInt(1_000_000), (1 + random.nextInt(1200)) / 100.0,
+					1 + random.nextInt(40), random.nextInt(1000));
+
+			assertEquals(FixedPointCalculationUtility.calculateSchedule(terms, RoundingMode.HALF_EVEN).asRecords(),
+					VariableRateUtility.calculateSchedule(terms, List.of(), RoundingMode.HALF_EVEN).asRecords());
+		}
+	}
+
+	@Test
+	public void rateChangeTest() {
+		LoanTerms terms = new LoanTerms(400000, 5, 30, 0);
+		AmortizationSchedule fixed = FixedPointCalculationUtility.calculateSchedule(terms, RoundingMode.HALF_EVEN);
+		AmortizationSchedule variable = VariableRateUtility.calculateSchedule(terms,
+				List.of(new RateChange(61, 8)), RoundingMode.HALF_EVEN);
+
+		// months before the change are not affected
+		assertEquals(fixed.asRecords().subList(0, 60), variable.asRecords().subList(0, 60));
+
+		// the payment is re-amortized from the remaining principal over the remaining
+		// 300 months, so the loan is still paid off at the end of the term
+		long balance = variable.getRemainingPrincipalCents(59);
+		long payment = FixedPointCalculationUtility.calculateMonthlyPaymentCents(balance, 80_000, 300,
+				RoundingMode.HALF_EVEN);
+		assertEquals(payment, variable.getPrincipalPaidCents(60) + variable.getInterestPaidCents(60));
+		assertTrue(Math.abs(variable.size() - 360) <= 1, "paid off in " + variable.size());
+	}
+
+	@Test
+	public void invalidRateChangesTest() {
+		LoanTerms terms = new LoanTerms(400000, 5, 30, 0);
+
+		assertThrows(IllegalArgumentException.class, () -> VariableRateUtility.calculateSchedule(terms,
+				List.of(new RateChange(61, 6), new RateChange(61, 7)), RoundingMode.HALF_EVEN));
+		assertThrows(IllegalArgumentException.class, () -> VariableRateUtility.calculateSchedule(terms,
+				List.of(new RateChange(361, 6)), RoundingMode.HALF_EVEN));
+	}
+
+	@Test
+	public void armRateChangesTest() {
+		List<RateChange> rising = VariableRateUtility.armRateChanges(ARM_5_1, IndexCurve.flat(6));
+
+		assertEquals(25, rising.size());
+		// 8.75% fully indexed, limited by the initial cap, then the periodic cap
+		assertEquals(new RateChange(61, 7), rising.get(0));
+		assertEquals(new RateChange(73, 8), rising.get(1));
+		assertEquals(new RateChange(85, 8.75), rising.get(2));
+		assertEquals(new RateChange(349, 8.75), rising.get(24));
+
+		List<RateChange> capped = VariableRateUtility.armRateChanges(ARM_5_1, IndexCurve.flat(12));
+		assertEquals(new RateChange(97, 10), capped.get(3));
+		assertEquals(new RateChange(109, 10), capped.get(4));
+
+		List<RateChange> falling = VariableRateUtility.armRateChanges(ARM_5_1, IndexCurve.flat(0));
+		assertEquals(new RateChange(61, 3), falling.get(0));
+		assertEquals(new RateChange(73, 2.75), falling.get(1));
+	}
+
+	@Test
+	public void valueMatchesScheduleTest() {
+		IndexCurve curve = new IndexCurve(new int[] { 1, 100 }, new double[] { 4.5, 3 });
+		ArmValuation valuation = VariableRateUtility.value(ARM_5_1, curve, RoundingMode.HALF_EVEN);
+		AmortizationSchedule schedule = VariableRateUtility.calculateSchedule(ARM_5_1.getLoan(),
+				VariableRateUtility.armRateChanges(ARM_5_1, curve), RoundingMode.HALF_EVEN);
+
+		long totalInterest = 0;
+		for (int row = 0; row < schedule.size(); row++) {
+			totalInterest += schedule.getInterestPaidCents(row);
+		}
+		ScheduleSummary summary = valuation.getSummary();
+		assertEquals(schedule.size(), summary.getPayoffMonth());
+		assertEquals(totalInterest, summary.getTotalInterest());
+		assertEquals(schedule.getRemainingPrincipalCents(schedule.size() - 1), summary.getFinalRemainingPrincipal());
+		assertEquals(25, valuation.getCheckpointCount());
+		assertEquals(schedule.getRemainingPrincipalCents(59), valuation.getCheckpointBalance(0));
+	}
+
+	@Test
+	public void revalueMatchesValueTest() {
+		Random random = new Random(19);
+		for (int i = 0; i < 300; i++) {
+			ArmTerms arm = randomArm(random);
+			IndexCurve first = randomCurve(random);
+			IndexCurve second = randomCurve(random);
+			ArmValuation previous = VariableRateUtility.value(arm, first, RoundingMode.HALF_EVEN);
+
+			ArmValuation revalued = VariableRateUtility.revalue(previous, second);
+			ArmValuation expected = VariableRateUtility.value(arm, second, RoundingMode.HALF_EVEN);
+
+			assertEquals(expected.getSummary(), revalued.getSummary(), arm.toString());
+			assertEquals(expected.getRateChanges(), revalued.getRateChanges());
+			assertEquals(expected.getCheckpointCount(), revalued.getCheckpointCount());
+			for (int reset = 0; reset < expected.getCheckpointCount(); reset++) {
+				assertEquals(expected.getCheckpointBalance(reset), revalued.getCheckpointBalance(reset));
+				assertEquals(expected.getCheckpointInterest(reset), revalued.getCheckpointInterest(reset));
+			}
+		}
+	}
+
+	@Test
+	public void revalueStartsAtFirstChangedResetTest() {
+		IndexCurve curve = IndexCurve.flat(6);
+		ArmValuation previous = VariableRateUtility.value(ARM_5_1, curve, RoundingMode.HALF_EVEN);
+
+		// same curve, every reset keeps its rate
+		ArmValuation unchanged = VariableRateUtility.revalue(previous, curve);
+		assertEquals(25, unchanged.getRecalculatedFromReset());
+		assertEquals(previous.getSummary(), unchanged.getSummary());
+
+		ArmValuation later = VariableRateUtility.revalue(previous,
+				new IndexCurve(new int[] { 1, 150 }, new double[] { 6, 4 }));
+		// index drops at month 150, the first reset after it is month 157
+		assertEquals(8, later.getRecalculatedFromReset());
+	}
+
+	@Test
+	public void revaluePortfolioTest() {
+		Random random = new Random(23);
+		IndexCurve first = randomCurve(random);
+		IndexCurve second = randomCurve(random);
+		List<ArmValuation> portfolio = new ArrayList<>();
+		List<ScheduleSummary> expected = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			ArmTerms arm = randomArm(random);
+			portfolio.add(VariableRateUtility.value(arm, first, RoundingMode.HALF_EVEN));
+			expected.add(VariableRateUtility.value(arm, second, RoundingMode.HALF_EVEN).getSummary());
+		}
+
+		List<ArmValuation> revalued = VariableRateUtility.revaluePortfolio(portfolio, second);
+
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), revalued.get(i).getSummary());
+		}
+	}
+}